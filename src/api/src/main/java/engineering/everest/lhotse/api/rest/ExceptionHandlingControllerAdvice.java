@@ -16,6 +16,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 import java.time.Clock;
 import java.time.Instant;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 
 import static java.util.stream.Collectors.joining;
@@ -35,6 +36,9 @@ public class ExceptionHandlingControllerAdvice extends ResponseEntityExceptionHa
 
     @ExceptionHandler
     public ResponseEntity<Object> handleExceptions(Exception exception) {
+        if (exception instanceof CompletionException && exception.getCause() instanceof Exception) {
+            return handleExceptions((Exception) exception.getCause());
+        }
         LOGGER.debug("Mapping exception:", exception);
 
         if (exception instanceof TranslatableException) {
@@ -8,20 +8,21 @@ import engineering.everest.lhotse.api.rest.requests.CompetitionSubmissionRequest
 import engineering.everest.lhotse.api.rest.requests.CreateCompetitionRequest;
 import engineering.everest.lhotse.api.rest.responses.CompetitionSummaryResponse;
 import engineering.everest.lhotse.api.rest.responses.CompetitionWithEntriesResponse;
-import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
-import engineering.everest.lhotse.competitions.domain.queries.CompetitionWithEntriesQuery;
+import engineering.everest.lhotse.api.rest.streams.CompetitionUpdatesStreamer;
+import engineering.everest.lhotse.competitions.domain.CompetitionStatus;
 import engineering.everest.lhotse.competitions.services.CompetitionsReadService;
 import engineering.everest.lhotse.competitions.services.CompetitionsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.axonframework.queryhandling.QueryGateway;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
@@ -29,7 +30,9 @@ import reactor.core.publisher.Flux;
 import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import static engineering.everest.lhotse.api.rest.controllers.PaginationHeaders.CONTINUATION_TOKEN_HEADER;
 import static java.util.stream.Collectors.toList;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
@@ -44,46 +47,59 @@ public class CompetitionsController {
     private final DtoConverter dtoConverter;
     private final CompetitionsService competitionsService;
     private final CompetitionsReadService competitionsReadService;
-    private final QueryGateway queryGateway;
+    private final CompetitionUpdatesStreamer competitionUpdatesStreamer;
 
     public CompetitionsController(DtoConverter dtoConverter,
                                   CompetitionsService competitionsService,
                                   CompetitionsReadService competitionsReadService,
-                                  QueryGateway queryGateway) {
+                                  CompetitionUpdatesStreamer competitionUpdatesStreamer) {
         this.dtoConverter = dtoConverter;
         this.competitionsService = competitionsService;
         this.competitionsReadService = competitionsReadService;
-        this.queryGateway = queryGateway;
+        this.competitionUpdatesStreamer = competitionUpdatesStreamer;
     }
 
     @PostMapping
     @ResponseStatus(CREATED)
     @Operation(description = "Create a new competition to run")
     @AdminOnly
-    public UUID createCompetition(@Parameter(hidden = true) Principal principal, @RequestBody CreateCompetitionRequest request) {
-        return competitionsService.createCompetition(UUID.fromString(principal.getName()), request.getDescription(),
+    public CompletableFuture<UUID> createCompetition(@Parameter(hidden = true) Principal principal,
+                                                     @RequestBody CreateCompetitionRequest request) {
+        return competitionsService.createCompetitionAsync(UUID.fromString(principal.getName()), request.getDescription(),
             request.getSubmissionsOpenTimestamp(), request.getSubmissionsCloseTimestamp(), request.getVotingEndsTimestamp(),
             request.getMaxEntriesPerUser());
     }
 
     @GetMapping
     @ResponseStatus(OK)
-    @Operation(description = "Retrieve a summary of all competitions")
+    @Operation(description = "Retrieve a page of competition summaries, most recently ending first. "
+        + "A continuation token for the next page is returned in the " + CONTINUATION_TOKEN_HEADER + " header")
     @AdminOrRegisteredUser
-    public List<CompetitionSummaryResponse> getSummaryOfAllCompetitions(@Parameter(hidden = true) Principal principal) {
-        return competitionsReadService.getAllCompetitionsOrderedByDescVotingEndsTimestamp().stream()
+    public ResponseEntity<List<CompetitionSummaryResponse>> getSummaryOfAllCompetitions(
+        @Parameter(hidden = true) Principal principal,
+        @RequestParam(required = false) CompetitionStatus status,
+        @RequestParam(required = false) String continuationToken,
+        @RequestParam(defaultValue = "20") int pageSize) {
+        var page = competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(status, continuationToken, pageSize);
+        var summaries = page.getCompetitions().stream()
             .map(dtoConverter::convert)
             .collect(toList());
+
+        var response = ResponseEntity.ok();
+        if (page.getContinuationToken() != null) {
+            response.header(CONTINUATION_TOKEN_HEADER, page.getContinuationToken());
+        }
+        return response.body(summaries);
     }
 
     @PostMapping("/{competitionId}/photos")
     @ResponseStatus(CREATED)
     @Operation(description = "Submit a photo to the competition")
     @RegisteredUser
-    public void submitPhotoToCompetition(@Parameter(hidden = true) Principal principal,
-                                         @PathVariable UUID competitionId,
-                                         @RequestBody CompetitionSubmissionRequest request) {
-        competitionsService.submitPhoto(UUID.fromString(principal.getName()), competitionId, request.getPhotoId(),
+    public CompletableFuture<Void> submitPhotoToCompetition(@Parameter(hidden = true) Principal principal,
+                                                            @PathVariable UUID competitionId,
+                                                            @RequestBody CompetitionSubmissionRequest request) {
+        return competitionsService.submitPhotoAsync(UUID.fromString(principal.getName()), competitionId, request.getPhotoId(),
             request.getSubmissionNotes());
     }
 
@@ -101,11 +117,7 @@ public class CompetitionsController {
     @AdminOrRegisteredUser
     public Flux<CompetitionWithEntriesResponse> getCompetitionWithEntriesUpdates(@Parameter(hidden = true) Principal principal,
                                                                                  @PathVariable UUID competitionId) {
-        var subscriptionQueryResult = queryGateway.subscriptionQuery(
-            new CompetitionWithEntriesQuery(competitionId), CompetitionWithEntries.class, CompetitionWithEntries.class);
-
-        return subscriptionQueryResult.updates()
-            .mergeWith(subscriptionQueryResult.initialResult())
+        return competitionUpdatesStreamer.stream(competitionId)
             .map(dtoConverter::convert);
     }
 
@@ -113,9 +125,9 @@ public class CompetitionsController {
     @ResponseStatus(CREATED)
     @Operation(description = "Vote for an entry in a competition")
     @RegisteredUser
-    public void voteForCompetitionEntry(@Parameter(hidden = true) Principal principal,
-                                        @PathVariable UUID competitionId,
-                                        @PathVariable UUID photoId) {
-        competitionsService.voteForPhoto(UUID.fromString(principal.getName()), competitionId, photoId);
+    public CompletableFuture<Void> voteForCompetitionEntry(@Parameter(hidden = true) Principal principal,
+                                                           @PathVariable UUID competitionId,
+                                                           @PathVariable UUID photoId) {
+        return competitionsService.voteForPhotoAsync(UUID.fromString(principal.getName()), competitionId, photoId);
     }
 }
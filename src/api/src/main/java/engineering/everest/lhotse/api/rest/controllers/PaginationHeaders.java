@@ -0,0 +1,8 @@
+package engineering.everest.lhotse.api.rest.controllers;
+
+@SuppressWarnings("PMD.ClassNamingConventions")
+public class PaginationHeaders {
+    public static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+
+    private PaginationHeaders() {}
+}
@@ -11,9 +11,6 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PageableDefault;
-import org.springframework.data.web.SortDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -29,9 +26,10 @@ import java.io.IOException;
 import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import static engineering.everest.lhotse.api.rest.controllers.PaginationHeaders.CONTINUATION_TOKEN_HEADER;
 import static java.util.stream.Collectors.toList;
-import static org.springframework.data.domain.Sort.Direction.DESC;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM;
@@ -62,24 +60,33 @@ public class PhotosController {
     @ResponseStatus(CREATED)
     @Operation(description = "List all photos belonging to the current user")
     @RegisteredUser
-    public UUID uploadPhoto(@Parameter(hidden = true) Principal principal, @RequestParam("file") MultipartFile uploadedFile)
+    public CompletableFuture<UUID> uploadPhoto(@Parameter(hidden = true) Principal principal,
+                                               @RequestParam("file") MultipartFile uploadedFile)
         throws IOException {
         var persistedFileId = fileService.transferToEphemeralStore(uploadedFile.getOriginalFilename(),
             uploadedFile.getSize(), uploadedFile.getInputStream());
-        return photosService.registerUploadedPhoto(UUID.fromString(principal.getName()), persistedFileId,
+        return photosService.registerUploadedPhotoAsync(UUID.fromString(principal.getName()), persistedFileId,
             uploadedFile.getOriginalFilename());
     }
 
     @GetMapping
     @ResponseStatus(OK)
-    @Operation(description = "Retrieves a page of photos accessible to the authenticated user")
+    @Operation(description = "Retrieves a page of photos accessible to the authenticated user, most recently uploaded first. "
+        + "A continuation token for the next page is returned in the " + CONTINUATION_TOKEN_HEADER + " header")
     @AdminOrRegisteredUser
-    public List<PhotoResponse> listPhotosForUser(@Parameter(hidden = true) Principal principal,
-                                                 @SortDefault(sort = "uploadTimestamp", direction = DESC)
-                                                 @PageableDefault(20) Pageable pageable) {
-        return photosReadService.getAllPhotos(UUID.fromString(principal.getName()), pageable).stream()
+    public ResponseEntity<List<PhotoResponse>> listPhotosForUser(@Parameter(hidden = true) Principal principal,
+                                                                 @RequestParam(required = false) String continuationToken,
+                                                                 @RequestParam(defaultValue = "20") int pageSize) {
+        var page = photosReadService.getPhotosPage(UUID.fromString(principal.getName()), continuationToken, pageSize);
+        var photos = page.getPhotos().stream()
             .map(dtoConverter::convert)
             .collect(toList());
+
+        var response = ResponseEntity.ok();
+        if (page.getContinuationToken() != null) {
+            response.header(CONTINUATION_TOKEN_HEADER, page.getContinuationToken());
+        }
+        return response.body(photos);
     }
 
     @GetMapping("/{photoId}")
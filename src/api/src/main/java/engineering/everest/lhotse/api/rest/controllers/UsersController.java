@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RestController;
 import javax.validation.Valid;
 import java.security.Principal;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/users")
@@ -34,9 +35,9 @@ public class UsersController {
     @PostMapping("/{userId}/forget")
     @Operation(description = "Handle a GDPR request to delete an account and scrub personal information")
     @AdminOnly
-    public void forgetUser(@Parameter(hidden = true) Principal principal,
-                           @PathVariable UUID userId,
-                           @RequestBody @Valid DeleteAndForgetUserRequest request) {
-        usersService.deleteAndForgetUser(UUID.fromString(principal.getName()), userId, request.getRequestReason());
+    public CompletableFuture<Void> forgetUser(@Parameter(hidden = true) Principal principal,
+                                              @PathVariable UUID userId,
+                                              @RequestBody @Valid DeleteAndForgetUserRequest request) {
+        return usersService.deleteAndForgetUserAsync(UUID.fromString(principal.getName()), userId, request.getRequestReason());
     }
 }
@@ -0,0 +1,95 @@
+package engineering.everest.lhotse.api.rest.streams;
+
+import engineering.everest.lhotse.competitions.domain.CompetitionEntriesDelta;
+import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
+import engineering.everest.lhotse.competitions.domain.queries.CompetitionWithEntriesQuery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.axonframework.queryhandling.QueryGateway;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static reactor.core.publisher.BufferOverflowStrategy.DROP_OLDEST;
+
+@Component
+public class CompetitionUpdatesStreamer {
+
+    private final QueryGateway queryGateway;
+    private final Map<UUID, Flux<CompetitionWithEntries>> sharedStreamsPerCompetition = new ConcurrentHashMap<>();
+    private final AtomicInteger numSubscribers;
+    private final Counter deliveredUpdates;
+    private final Counter droppedUpdates;
+
+    public CompetitionUpdatesStreamer(QueryGateway queryGateway, MeterRegistry meterRegistry) {
+        this.queryGateway = queryGateway;
+        this.numSubscribers = meterRegistry.gauge("lhotse.competitions.updates.subscribers", new AtomicInteger());
+        this.deliveredUpdates = meterRegistry.counter("lhotse.competitions.updates.delivered");
+        this.droppedUpdates = meterRegistry.counter("lhotse.competitions.updates.dropped");
+        meterRegistry.gaugeMapSize("lhotse.competitions.updates.subscription-queries", Tags.empty(), sharedStreamsPerCompetition);
+    }
+
+    /**
+     * Deltas are always folded into the materialised state; a slow consumer only ever skips intermediate states and
+     * receives the latest one when it next requests.
+     */
+    public Flux<CompetitionWithEntries> stream(UUID competitionId) {
+        return sharedStreamsPerCompetition.computeIfAbsent(competitionId, this::createSharedStream)
+            .onBackpressureBuffer(1, dropped -> droppedUpdates.increment(), DROP_OLDEST)
+            .doOnNext(competitionWithEntries -> deliveredUpdates.increment())
+            .doOnSubscribe(subscription -> numSubscribers.incrementAndGet())
+            .doFinally(signalType -> numSubscribers.decrementAndGet());
+    }
+
+    /**
+     * One subscription query per competition, shared by every client on this node. The latest state is replayed to
+     * clients joining later, and the subscription query is closed once the last client leaves.
+     */
+    private Flux<CompetitionWithEntries> createSharedStream(UUID competitionId) {
+        var sharedStream = new AtomicReference<Flux<CompetitionWithEntries>>();
+        var numConnections = new AtomicInteger();
+        sharedStream.set(Flux.defer(() -> connect(competitionId, sharedStream.get(), numConnections))
+            .replay(1)
+            .refCount());
+        return sharedStream.get();
+    }
+
+    /**
+     * A client can subscribe to a shared stream it looked up just before the last client left, which reconnects the stream.
+     * It then registers itself again, or follows the stream that replaced it, rather than opening an untracked second
+     * subscription query. Registering and unregistering both happen in {@code compute} so they cannot interleave.
+     */
+    private Flux<CompetitionWithEntries> connect(UUID competitionId,
+                                                 Flux<CompetitionWithEntries> sharedStream,
+                                                 AtomicInteger numConnections) {
+        var registeredStream = sharedStreamsPerCompetition.compute(competitionId, (id, registered) -> {
+            if (registered != null && registered != sharedStream) {
+                return registered;
+            }
+            numConnections.incrementAndGet();
+            return sharedStream;
+        });
+        if (registeredStream != sharedStream) {
+            return registeredStream;
+        }
+        return materialisedStream(competitionId)
+            .doFinally(signalType -> sharedStreamsPerCompetition.computeIfPresent(competitionId,
+                (id, registered) -> registered == sharedStream && numConnections.decrementAndGet() == 0 ? null : registered));
+    }
+
+    private Flux<CompetitionWithEntries> materialisedStream(UUID competitionId) {
+        var subscriptionQueryResult = queryGateway.subscriptionQuery(
+            new CompetitionWithEntriesQuery(competitionId), CompetitionWithEntries.class, CompetitionEntriesDelta.class);
+
+        return subscriptionQueryResult.initialResult()
+            .flatMapMany(initialResult -> subscriptionQueryResult.updates().scan(initialResult,
+                (competitionWithEntries, delta) -> delta.applyTo(competitionWithEntries)))
+            .doFinally(signalType -> subscriptionQueryResult.close());
+    }
+}
@@ -20,6 +20,7 @@ import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -134,4 +135,16 @@ class ExceptionHandlingControllerAdviceTest {
 
         assertEquals(new ResponseEntity<>(expectedResponse, new HttpHeaders(), BAD_REQUEST), controllerAdvice.handleExceptions(exception));
     }
+
+    @Test
+    void willMapCompletionExceptionsUsingTheirCause() {
+        var exception = new CompletionException(new AggregateNotFoundException("aggregate-id", "not found here"));
+        var expectedResponse = ApiErrorResponse.builder()
+            .status(NOT_FOUND)
+            .message("not found here")
+            .timestamp(Instant.now(clock))
+            .build();
+
+        assertEquals(new ResponseEntity<>(expectedResponse, new HttpHeaders(), NOT_FOUND), controllerAdvice.handleExceptions(exception));
+    }
 }
@@ -5,12 +5,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import engineering.everest.lhotse.api.config.TestApiConfig;
 import engineering.everest.lhotse.api.rest.requests.CompetitionSubmissionRequest;
 import engineering.everest.lhotse.api.rest.requests.CreateCompetitionRequest;
+import engineering.everest.lhotse.api.rest.streams.CompetitionUpdatesStreamer;
 import engineering.everest.lhotse.competitions.domain.Competition;
 import engineering.everest.lhotse.competitions.domain.CompetitionEntry;
 import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
+import engineering.everest.lhotse.competitions.domain.CompetitionsPage;
 import engineering.everest.lhotse.competitions.services.CompetitionsReadService;
 import engineering.everest.lhotse.competitions.services.CompetitionsService;
-import org.axonframework.queryhandling.QueryGateway;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,12 +27,17 @@ import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
+import static engineering.everest.lhotse.competitions.domain.CompetitionStatus.VOTING;
 import static java.util.UUID.randomUUID;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = { CompetitionsController.class })
@@ -72,7 +78,7 @@ class CompetitionsControllerTest {
     @MockBean
     private CompetitionsReadService competitionsReadService;
     @MockBean
-    private QueryGateway queryGateway;
+    private CompetitionUpdatesStreamer competitionUpdatesStreamer;
 
     @BeforeEach
     public void setup() {
@@ -82,15 +88,18 @@ class CompetitionsControllerTest {
     @Test
     @WithMockKeycloakAuth(authorities = ROLE_ADMIN)
     void adminsCanCreateCompetitions() throws Exception {
-        when(competitionsService.createCompetition(USER_ID, "description", SUBMISSIONS_OPEN_TIMESTAMP,
+        when(competitionsService.createCompetitionAsync(USER_ID, "description", SUBMISSIONS_OPEN_TIMESTAMP,
             SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2))
-                .thenReturn(COMPETITION_ID_1);
+                .thenReturn(completedFuture(COMPETITION_ID_1));
 
-        mockMvc.perform(MockMvcRequestBuilders.post("/api/competitions")
+        var response = mockMvc.perform(MockMvcRequestBuilders.post("/api/competitions")
             .principal(USER_ID::toString)
             .contentType(APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(new CreateCompetitionRequest("description", SUBMISSIONS_OPEN_TIMESTAMP,
                 SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2))))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(response))
             .andExpect(status().isCreated())
             .andExpect(content().string("\"" + COMPETITION_ID_1 + "\""));
     }
@@ -98,8 +107,8 @@ class CompetitionsControllerTest {
     @Test
     @WithMockKeycloakAuth(authorities = ROLE_REGISTERED_USER)
     void competitionSummariesCanBeListed() throws Exception {
-        when(competitionsReadService.getAllCompetitionsOrderedByDescVotingEndsTimestamp())
-            .thenReturn(List.of(COMPETITION_2, COMPETITION_1));
+        when(competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(null, null, 20))
+            .thenReturn(new CompetitionsPage(List.of(COMPETITION_2, COMPETITION_1), null));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/competitions")
             .principal(USER_ID::toString)
@@ -116,21 +125,59 @@ class CompetitionsControllerTest {
             .andExpect(jsonPath("$[1].submissionsOpenTimestamp").value(COMPETITION_1.getSubmissionsOpenTimestamp().toString()))
             .andExpect(jsonPath("$[1].submissionsCloseTimestamp").value(COMPETITION_1.getSubmissionsCloseTimestamp().toString()))
             .andExpect(jsonPath("$[1].votingEndsTimestamp").value(COMPETITION_1.getVotingEndsTimestamp().toString()))
-            .andExpect(jsonPath("$[1].maxEntriesPerUser").value(COMPETITION_1.getMaxEntriesPerUser()));
+            .andExpect(jsonPath("$[1].maxEntriesPerUser").value(COMPETITION_1.getMaxEntriesPerUser()))
+            .andExpect(header().doesNotExist(PaginationHeaders.CONTINUATION_TOKEN_HEADER));
+    }
+
+    @Test
+    @WithMockKeycloakAuth(authorities = ROLE_REGISTERED_USER)
+    void competitionSummariesCanBeFilteredAndPaged() throws Exception {
+        when(competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(VOTING, "previous-token", 1))
+            .thenReturn(new CompetitionsPage(List.of(COMPETITION_2), "next-token"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/competitions")
+            .param("status", "VOTING")
+            .param("continuationToken", "previous-token")
+            .param("pageSize", "1")
+            .principal(USER_ID::toString)
+            .accept(APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(COMPETITION_2.getId().toString()))
+            .andExpect(header().string(PaginationHeaders.CONTINUATION_TOKEN_HEADER, "next-token"));
+    }
+
+    @Test
+    @WithMockKeycloakAuth(authorities = ROLE_REGISTERED_USER)
+    void competitionSummariesWillBeRejected_WhenPageSizeIsAboveTheMaximum() throws Exception {
+        when(competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(null, null, Integer.MAX_VALUE))
+            .thenThrow(new IllegalArgumentException("Page size must be between 1 and 100"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/competitions")
+            .param("pageSize", String.valueOf(Integer.MAX_VALUE))
+            .principal(USER_ID::toString)
+            .accept(APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
     }
 
     @Test
     @WithMockKeycloakAuth(authorities = ROLE_REGISTERED_USER)
     void photosCanBeEnteredIntoCompetitions() throws Exception {
-        when(competitionsReadService.getAllCompetitionsOrderedByDescVotingEndsTimestamp()).thenReturn(List.of(COMPETITION_1));
+        when(competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(null, null, 20))
+            .thenReturn(new CompetitionsPage(List.of(COMPETITION_1), null));
+        when(competitionsService.submitPhotoAsync(USER_ID, COMPETITION_ID_1, PHOTO_ID_1, "much wow look"))
+            .thenReturn(completedFuture(null));
 
-        mockMvc.perform(MockMvcRequestBuilders.post("/api/competitions/{competitionId}/photos", COMPETITION_ID_1.toString())
+        var response = mockMvc.perform(MockMvcRequestBuilders.post("/api/competitions/{competitionId}/photos", COMPETITION_ID_1.toString())
             .principal(USER_ID::toString)
             .contentType(APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(new CompetitionSubmissionRequest(PHOTO_ID_1, "much wow look"))))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(response))
             .andExpect(status().isCreated());
 
-        verify(competitionsService).submitPhoto(USER_ID, COMPETITION_ID_1, PHOTO_ID_1, "much wow look");
+        verify(competitionsService).submitPhotoAsync(USER_ID, COMPETITION_ID_1, PHOTO_ID_1, "much wow look");
     }
 
     @Test
@@ -161,12 +208,17 @@ class CompetitionsControllerTest {
     @Test
     @WithMockKeycloakAuth(authorities = ROLE_REGISTERED_USER)
     void photosInCompetitionsCanBeVotedFor() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.post("/api/competitions/{competitionId}/photos/{photoId}/vote",
+        when(competitionsService.voteForPhotoAsync(USER_ID, COMPETITION_ID_1, PHOTO_ID_1)).thenReturn(completedFuture(null));
+
+        var response = mockMvc.perform(MockMvcRequestBuilders.post("/api/competitions/{competitionId}/photos/{photoId}/vote",
             COMPETITION_ID_1.toString(), PHOTO_ID_1.toString())
             .principal(USER_ID::toString)
             .contentType(APPLICATION_JSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(response))
             .andExpect(status().isCreated());
 
-        verify(competitionsService).voteForPhoto(USER_ID, COMPETITION_ID_1, PHOTO_ID_1);
+        verify(competitionsService).voteForPhotoAsync(USER_ID, COMPETITION_ID_1, PHOTO_ID_1);
     }
 }
@@ -3,6 +3,7 @@ package engineering.everest.lhotse.api.rest.controllers;
 import com.c4_soft.springaddons.security.oauth2.test.annotations.keycloak.WithMockKeycloakAuth;
 import engineering.everest.lhotse.api.config.TestApiConfig;
 import engineering.everest.lhotse.photos.Photo;
+import engineering.everest.lhotse.photos.PhotosPage;
 import engineering.everest.lhotse.photos.services.PhotosReadService;
 import engineering.everest.lhotse.photos.services.PhotosService;
 import engineering.everest.starterkit.filestorage.FileService;
@@ -11,7 +12,6 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Pageable;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.UUID;
 
 import static java.util.UUID.randomUUID;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -39,6 +40,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -77,29 +79,34 @@ class PhotosControllerTest {
         var persistedFileId = randomUUID();
         when(fileService.transferToEphemeralStore(eq("photo1.png"), eq((long) PHOTO_FILE_CONTENTS.length), any(InputStream.class)))
             .thenReturn(persistedFileId);
+        when(photosService.registerUploadedPhotoAsync(USER_ID, persistedFileId, "photo1.png")).thenReturn(completedFuture(PHOTO_1.getId()));
 
-        mockMvc.perform(multipart("/api/photos")
+        var response = mockMvc.perform(multipart("/api/photos")
             .file(new MockMultipartFile("file", "photo1.png", IMAGE_PNG_VALUE, PHOTO_FILE_CONTENTS))
             .contentType(MULTIPART_FORM_DATA)
             .principal(USER_ID::toString))
-            .andExpect(status().isCreated());
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(response))
+            .andExpect(status().isCreated())
+            .andExpect(content().string("\"" + PHOTO_1.getId() + "\""));
 
         verify(fileService).transferToEphemeralStore(
             eq("photo1.png"),
             eq((long) PHOTO_FILE_CONTENTS.length),
             any(InputStream.class));
-        verify(photosService).registerUploadedPhoto(USER_ID, persistedFileId, "photo1.png");
     }
 
     @Test
     @WithMockKeycloakAuth(authorities = ROLE_REGISTERED_USER)
     void getListOfPhotosForAuthenticatedUserWillDelegate() throws Exception {
-        when(photosReadService.getAllPhotos(eq(USER_ID), any(Pageable.class)))
-            .thenReturn(List.of(PHOTO_1, PHOTO_2));
+        when(photosReadService.getPhotosPage(USER_ID, null, 20))
+            .thenReturn(new PhotosPage(List.of(PHOTO_1, PHOTO_2), null));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/photos")
             .principal(USER_ID::toString))
             .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(PaginationHeaders.CONTINUATION_TOKEN_HEADER))
             .andExpect(jsonPath("$[0].id").value(PHOTO_1.getId().toString()))
             .andExpect(jsonPath("$[0].filename").value(PHOTO_1.getFilename()))
             .andExpect(jsonPath("$[0].uploadTimestamp").value(PHOTO_1.getUploadTimestamp().toString()))
@@ -108,6 +115,21 @@ class PhotosControllerTest {
             .andExpect(jsonPath("$[1].uploadTimestamp").value(PHOTO_2.getUploadTimestamp().toString()));
     }
 
+    @Test
+    @WithMockKeycloakAuth(authorities = ROLE_REGISTERED_USER)
+    void getListOfPhotosForAuthenticatedUser_WillReturnContinuationToken_WhenMorePhotosAvailable() throws Exception {
+        when(photosReadService.getPhotosPage(USER_ID, "previous-token", 1))
+            .thenReturn(new PhotosPage(List.of(PHOTO_1), "next-token"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/photos")
+            .param("continuationToken", "previous-token")
+            .param("pageSize", "1")
+            .principal(USER_ID::toString))
+            .andExpect(status().isOk())
+            .andExpect(header().string(PaginationHeaders.CONTINUATION_TOKEN_HEADER, "next-token"))
+            .andExpect(jsonPath("$[0].id").value(PHOTO_1.getId().toString()));
+    }
+
     @Test
     @WithMockKeycloakAuth(authorities = ROLE_REGISTERED_USER)
     void streamPhoto_WillReturnPhoto() throws Exception {
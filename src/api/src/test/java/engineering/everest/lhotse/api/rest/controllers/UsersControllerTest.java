@@ -18,9 +18,13 @@ import org.springframework.web.context.WebApplicationContext;
 import java.util.UUID;
 
 import static java.util.UUID.randomUUID;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = { UsersController.class })
@@ -49,12 +53,17 @@ class UsersControllerTest {
     @Test
     @WithMockKeycloakAuth(authorities = ROLE_ADMIN)
     void deleteAndForgetUser_WillDelegate() throws Exception {
-        mockMvc.perform(post("/api/users/{userId}/forget", USER_ID)
+        when(usersService.deleteAndForgetUserAsync(ADMIN_ID, USER_ID, "Submitted GDPR request")).thenReturn(completedFuture(null));
+
+        var response = mockMvc.perform(post("/api/users/{userId}/forget", USER_ID)
             .principal(ADMIN_ID::toString)
             .contentType(APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(new DeleteAndForgetUserRequest("Submitted GDPR request"))))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(response))
             .andExpect(status().isOk());
 
-        verify(usersService).deleteAndForgetUser(ADMIN_ID, USER_ID, "Submitted GDPR request");
+        verify(usersService).deleteAndForgetUserAsync(ADMIN_ID, USER_ID, "Submitted GDPR request");
     }
 }
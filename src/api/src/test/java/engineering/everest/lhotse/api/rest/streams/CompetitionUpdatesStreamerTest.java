@@ -0,0 +1,130 @@
+package engineering.everest.lhotse.api.rest.streams;
+
+import engineering.everest.lhotse.competitions.domain.Competition;
+import engineering.everest.lhotse.competitions.domain.CompetitionEntriesDelta;
+import engineering.everest.lhotse.competitions.domain.CompetitionEntry;
+import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
+import engineering.everest.lhotse.competitions.domain.queries.CompetitionWithEntriesQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.axonframework.queryhandling.QueryGateway;
+import org.axonframework.queryhandling.SubscriptionQueryResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompetitionUpdatesStreamerTest {
+
+    private static final UUID COMPETITION_ID = randomUUID();
+    private static final UUID PHOTO_ID = randomUUID();
+    private static final Competition COMPETITION = new Competition(COMPETITION_ID, "description", Instant.ofEpochMilli(1),
+        Instant.ofEpochMilli(2), Instant.ofEpochMilli(3), 1);
+    private static final CompetitionWithEntries INITIAL_STATE = new CompetitionWithEntries(COMPETITION,
+        List.of(new CompetitionEntry(COMPETITION_ID, PHOTO_ID, randomUUID(), Instant.ofEpochMilli(4), 0, false)));
+
+    private final Disposable.Composite clients = Disposables.composite();
+    private CompetitionUpdatesStreamer competitionUpdatesStreamer;
+    private MeterRegistry meterRegistry;
+    private Sinks.Many<CompetitionEntriesDelta> updates;
+
+    @Mock
+    private QueryGateway queryGateway;
+    @Mock
+    private SubscriptionQueryResult<CompetitionWithEntries, CompetitionEntriesDelta> subscriptionQueryResult;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        competitionUpdatesStreamer = new CompetitionUpdatesStreamer(queryGateway, meterRegistry);
+
+        updates = Sinks.many().multicast().onBackpressureBuffer(Queues.SMALL_BUFFER_SIZE, false);
+        when(queryGateway.subscriptionQuery(new CompetitionWithEntriesQuery(COMPETITION_ID), CompetitionWithEntries.class,
+            CompetitionEntriesDelta.class)).thenReturn(subscriptionQueryResult);
+        when(subscriptionQueryResult.initialResult()).thenReturn(Mono.just(INITIAL_STATE));
+        when(subscriptionQueryResult.updates()).thenReturn(updates.asFlux());
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.dispose();
+    }
+
+    @Test
+    void stream_WillShareSingleSubscriptionQueryBetweenClients() {
+        var firstClientStates = new ArrayList<CompetitionWithEntries>();
+        var secondClientStates = new ArrayList<CompetitionWithEntries>();
+
+        clients.add(competitionUpdatesStreamer.stream(COMPETITION_ID).subscribe(firstClientStates::add));
+        clients.add(competitionUpdatesStreamer.stream(COMPETITION_ID).subscribe(secondClientStates::add));
+        updates.tryEmitNext(CompetitionEntriesDelta.votesChanged(COMPETITION_ID, Map.of(PHOTO_ID, 3)));
+
+        verify(queryGateway, times(1)).subscriptionQuery(eq(new CompetitionWithEntriesQuery(COMPETITION_ID)),
+            eq(CompetitionWithEntries.class), eq(CompetitionEntriesDelta.class));
+        assertEquals(2, firstClientStates.size());
+        assertEquals(firstClientStates, secondClientStates);
+        assertEquals(3, firstClientStates.get(1).getEntries().get(0).getNumVotesReceived());
+        assertEquals(2, meterRegistry.get("lhotse.competitions.updates.subscribers").gauge().value());
+    }
+
+    @Test
+    void stream_WillReplayLatestStateToLateJoiners() {
+        clients.add(competitionUpdatesStreamer.stream(COMPETITION_ID).subscribe());
+        updates.tryEmitNext(CompetitionEntriesDelta.votesChanged(COMPETITION_ID, Map.of(PHOTO_ID, 5)));
+
+        var lateJoinerStates = new ArrayList<CompetitionWithEntries>();
+        clients.add(competitionUpdatesStreamer.stream(COMPETITION_ID).subscribe(lateJoinerStates::add));
+
+        assertEquals(1, lateJoinerStates.size());
+        assertEquals(5, lateJoinerStates.get(0).getEntries().get(0).getNumVotesReceived());
+    }
+
+    @Test
+    void stream_WillCloseSubscriptionQuery_WhenLastClientLeaves() {
+        var firstClient = competitionUpdatesStreamer.stream(COMPETITION_ID).subscribe();
+        var secondClient = competitionUpdatesStreamer.stream(COMPETITION_ID).subscribe();
+
+        firstClient.dispose();
+        verify(subscriptionQueryResult, times(0)).close();
+        secondClient.dispose();
+
+        verify(subscriptionQueryResult).close();
+        assertEquals(0, meterRegistry.get("lhotse.competitions.updates.subscription-queries").gauge().value());
+        assertEquals(0, meterRegistry.get("lhotse.competitions.updates.subscribers").gauge().value());
+    }
+
+    @Test
+    void stream_WillKeepSingleSubscriptionQuery_WhenClientJoinsJustAfterLastClientLeft() {
+        var firstClient = competitionUpdatesStreamer.stream(COMPETITION_ID).subscribe();
+        var lateClientStream = competitionUpdatesStreamer.stream(COMPETITION_ID);
+        firstClient.dispose();
+
+        clients.add(lateClientStream.subscribe());
+        clients.add(competitionUpdatesStreamer.stream(COMPETITION_ID).subscribe());
+
+        verify(queryGateway, times(2)).subscriptionQuery(eq(new CompetitionWithEntriesQuery(COMPETITION_ID)),
+            eq(CompetitionWithEntries.class), eq(CompetitionEntriesDelta.class));
+        assertEquals(1, meterRegistry.get("lhotse.competitions.updates.subscription-queries").gauge().value());
+    }
+}
@@ -0,0 +1,57 @@
+package engineering.everest.lhotse.axon.caching;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.axonframework.common.caching.Cache;
+import org.axonframework.common.caching.JCacheAdapter;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+
+import static java.util.UUID.randomUUID;
+
+@Component
+public class AggregateCacheFactory implements DisposableBean {
+
+    private static final String CACHE_MANAGER_URI_PREFIX = "urn:lhotse:aggregate-caches:";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration timeToIdle;
+    private final CacheManager cacheManager;
+
+    public AggregateCacheFactory(MeterRegistry meterRegistry,
+                                 @Value("${application.axon.aggregate-cache.time-to-idle-seconds:600}") long timeToIdleSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.timeToIdle = Duration.ofSeconds(timeToIdleSeconds);
+        this.cacheManager = ((EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName()))
+            .getCacheManager(URI.create(CACHE_MANAGER_URI_PREFIX + randomUUID()),
+                new DefaultConfiguration(Thread.currentThread().getContextClassLoader()));
+    }
+
+    public Cache create(String cacheName, long maxEntries) {
+        var cacheConfiguration = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+            .withExpiry(ExpiryPolicyBuilder.timeToIdleExpiration(timeToIdle))
+            .build();
+        var cache = cacheManager.createCache(cacheName, Eh107Configuration.fromEhcacheCacheConfiguration(cacheConfiguration));
+        cacheManager.enableStatistics(cacheName, true);
+        JCacheMetrics.monitor(meterRegistry, cache);
+        return new JCacheAdapter(cache);
+    }
+
+    @Override
+    public void destroy() {
+        cacheManager.close();
+    }
+}
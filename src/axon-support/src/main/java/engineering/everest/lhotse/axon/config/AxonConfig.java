@@ -4,23 +4,35 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import engineering.everest.axon.cryptoshredding.CryptoShreddingKeyService;
 import engineering.everest.axon.cryptoshredding.CryptoShreddingSerializer;
 import engineering.everest.axon.cryptoshredding.encryption.EncrypterDecrypterFactory;
+import engineering.everest.lhotse.axon.processors.EventProcessorSettings;
 import engineering.everest.lhotse.axon.replay.ReplayMarkerAwareTrackingEventProcessorBuilder;
+import engineering.everest.lhotse.axon.replay.ShadowProjectionRebuilder;
+import engineering.everest.lhotse.axon.serialization.LazyDecryptingSerializer;
+import engineering.everest.lhotse.axon.snapshotting.BinarySnapshotSerializer;
+import engineering.everest.lhotse.axon.snapshotting.SnapshotCodec;
 import lombok.extern.slf4j.Slf4j;
+import org.axonframework.axonserver.connector.AxonServerConfiguration;
+import org.axonframework.axonserver.connector.AxonServerConnectionManager;
+import org.axonframework.axonserver.connector.event.axon.AxonServerEventStore;
 import org.axonframework.common.jpa.EntityManagerProvider;
 import org.axonframework.config.EventProcessingModule;
 import org.axonframework.eventhandling.tokenstore.TokenStore;
 import org.axonframework.eventhandling.tokenstore.jpa.JpaTokenStore;
+import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.axonframework.modelling.saga.repository.SagaStore;
 import org.axonframework.modelling.saga.repository.jpa.JpaSagaStore;
 import org.axonframework.serialization.Serializer;
 import org.axonframework.serialization.json.JacksonSerializer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
 
 import java.lang.management.ManagementFactory;
+import java.util.List;
 
 @Slf4j
 @Configuration
@@ -28,19 +40,49 @@ public class AxonConfig {
 
     @Autowired
     public void configure(TaskExecutor taskExecutor,
-                          EventProcessingModule eventProcessingModule) {
-        eventProcessingModule.registerEventProcessorFactory(
-            new ReplayMarkerAwareTrackingEventProcessorBuilder(taskExecutor, eventProcessingModule));
+                          EventProcessingModule eventProcessingModule,
+                          EventProcessorSettings eventProcessorSettings,
+                          ShadowProjectionRebuilder shadowProjectionRebuilder) {
+        eventProcessingModule.registerEventProcessorFactory(new ReplayMarkerAwareTrackingEventProcessorBuilder(
+            taskExecutor, eventProcessingModule, eventProcessorSettings, shadowProjectionRebuilder));
     }
 
-    @Qualifier("eventSerializer")
     @Bean
-    public CryptoShreddingSerializer eventSerializer(CryptoShreddingKeyService cryptoShreddingKeyService,
-                                                     EncrypterDecrypterFactory aesEncrypterDecrypterFactory) {
+    public CryptoShreddingSerializer cryptoShreddingSerializer(CryptoShreddingKeyService cryptoShreddingKeyService,
+                                                               EncrypterDecrypterFactory aesEncrypterDecrypterFactory) {
         return new CryptoShreddingSerializer(JacksonSerializer.defaultSerializer(),
             cryptoShreddingKeyService, aesEncrypterDecrypterFactory, new ObjectMapper());
     }
 
+    @Qualifier("eventSerializer")
+    @Bean
+    public Serializer eventSerializer(CryptoShreddingSerializer cryptoShreddingSerializer,
+                                      @Value("${application.axon.event-serializer.lazy-decryption:false}") boolean lazyDecryption) {
+        return lazyDecryption
+            ? new LazyDecryptingSerializer(cryptoShreddingSerializer, JacksonSerializer.defaultSerializer())
+            : cryptoShreddingSerializer;
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "axon.axonserver.enabled", matchIfMissing = true)
+    public EventStore eventStore(AxonServerConfiguration axonServerConfiguration,
+                                 org.axonframework.config.Configuration configuration,
+                                 AxonServerConnectionManager axonServerConnectionManager,
+                                 Serializer defaultSerializer,
+                                 @Qualifier("eventSerializer") Serializer eventSerializer,
+                                 List<SnapshotCodec<?>> snapshotCodecs) {
+        return AxonServerEventStore.builder()
+            .messageMonitor(configuration.messageMonitor(AxonServerEventStore.class, "eventStore"))
+            .configuration(axonServerConfiguration)
+            .platformConnectionManager(axonServerConnectionManager)
+            .snapshotSerializer(new BinarySnapshotSerializer(defaultSerializer, snapshotCodecs))
+            .eventSerializer(eventSerializer)
+            .snapshotFilter(configuration.snapshotFilter())
+            .upcasterChain(configuration.upcasterChain())
+            .spanFactory(configuration.spanFactory())
+            .build();
+    }
+
     @Bean
     @SuppressWarnings("rawtypes")
     public SagaStore globalSagaStore(EntityManagerProvider entityManagerProvider,
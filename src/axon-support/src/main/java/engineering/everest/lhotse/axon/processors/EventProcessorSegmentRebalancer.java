@@ -0,0 +1,72 @@
+package engineering.everest.lhotse.axon.processors;
+
+import engineering.everest.lhotse.axon.replay.ReplayableEventProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.Segment;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.spring.config.SpringAxonConfiguration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+
+/**
+ * Splits or merges the segments of streaming processors that have rebalancing enabled, one segment per processor per run, until
+ * the total number of segments across all nodes matches the configured segment count. Only segments claimed by this node
+ * are touched, so nodes converge on the target together. Processors are left alone while they replay, since a split segment
+ * can be claimed by another node, which a shadow rebuild running on this node would not route to its shadow tables.
+ */
+@Slf4j
+@Component
+public class EventProcessorSegmentRebalancer {
+
+    private final SpringAxonConfiguration axonConfiguration;
+    private final EventProcessorSettings eventProcessorSettings;
+    private final TransactionManager transactionManager;
+
+    public EventProcessorSegmentRebalancer(SpringAxonConfiguration axonConfiguration,
+                                           EventProcessorSettings eventProcessorSettings,
+                                           TransactionManager transactionManager) {
+        this.axonConfiguration = axonConfiguration;
+        this.eventProcessorSettings = eventProcessorSettings;
+        this.transactionManager = transactionManager;
+    }
+
+    @Scheduled(fixedDelayString = "PT${application.axon.event-processors.rebalance-interval:30s}")
+    public void rebalance() {
+        axonConfiguration.getObject().eventProcessingConfiguration().eventProcessors().values().stream()
+            .filter(StreamingEventProcessor.class::isInstance)
+            .map(StreamingEventProcessor.class::cast)
+            .filter(processor -> processor.isRunning() && eventProcessorSettings.rebalance(processor.getName()))
+            .filter(processor -> !processor.processingStatus().isEmpty())
+            .filter(processor -> !(processor instanceof ReplayableEventProcessor && ((ReplayableEventProcessor) processor).isReplaying()))
+            .forEach(this::rebalance);
+    }
+
+    void rebalance(StreamingEventProcessor processor) {
+        var claimedSegments = processor.processingStatus().values();
+        var tokenStore = axonConfiguration.getObject().eventProcessingConfiguration().tokenStore(processor.getName());
+        int numSegments = transactionManager.fetchInTransaction(() -> tokenStore.fetchSegments(processor.getName())).length;
+        int targetNumSegments = eventProcessorSettings.segments(processor.getName());
+
+        if (numSegments < targetNumSegments) {
+            var widestSegment = claimedSegments.stream()
+                .map(EventTrackerStatus::getSegment)
+                .min(Comparator.comparingInt(Segment::getMask))
+                .orElseThrow();
+            LOGGER.info("Splitting segment {} of {} ({} of {} segments)", widestSegment.getSegmentId(), processor.getName(),
+                numSegments, targetNumSegments);
+            processor.splitSegment(widestSegment.getSegmentId());
+        } else if (numSegments > targetNumSegments) {
+            var narrowestSegment = claimedSegments.stream()
+                .map(EventTrackerStatus::getSegment)
+                .max(Comparator.comparingInt(Segment::getMask))
+                .orElseThrow();
+            LOGGER.info("Merging segment {} of {} ({} of {} segments)", narrowestSegment.getSegmentId(), processor.getName(),
+                numSegments, targetNumSegments);
+            processor.mergeSegment(narrowestSegment.getSegmentId());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package engineering.everest.lhotse.axon.processors;
+
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves tracking event processor settings. Each setting is read from
+ * {@code application.axon.event-processors.<processing group>.<setting>}, falling back to
+ * {@code application.axon.event-processors.<setting>} and then to a built-in default.
+ */
+@Component
+public class EventProcessorSettings {
+
+    static final String PROPERTY_PREFIX = "application.axon.event-processors.";
+
+    private static final String PROCESSOR_TYPE_TRACKING = "tracking";
+    private static final String PROCESSOR_TYPE_POOLED = "pooled";
+    private static final int DEFAULT_SEGMENTS = 1;
+    private static final int DEFAULT_THREADS = 1;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+
+    private final Environment environment;
+
+    public EventProcessorSettings(Environment environment) {
+        this.environment = environment;
+    }
+
+    public int segments(String processorName) {
+        return setting(processorName, "segments", Integer.class, DEFAULT_SEGMENTS);
+    }
+
+    public int threads(String processorName) {
+        return setting(processorName, "threads", Integer.class, DEFAULT_THREADS);
+    }
+
+    public int batchSize(String processorName) {
+        return setting(processorName, "batch-size", Integer.class, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Whether segments of this processor are split or merged at runtime until their number matches {@link #segments(String)}.
+     */
+    public boolean rebalance(String processorName) {
+        return setting(processorName, "rebalance", Boolean.class, false);
+    }
+
+    /**
+     * Whether this processor runs as a pooled streaming processor, where one coordinator reads the event stream for all segments
+     * and hands events to a pool of {@link #threads(String)} workers, rather than as a tracking processor with a thread per segment.
+     */
+    public boolean pooled(String processorName) {
+        return PROCESSOR_TYPE_POOLED.equals(setting(processorName, "type", String.class, PROCESSOR_TYPE_TRACKING));
+    }
+
+    public TrackingEventProcessorConfiguration trackingEventProcessorConfiguration(String processorName) {
+        return TrackingEventProcessorConfiguration.forParallelProcessing(threads(processorName))
+            .andInitialSegmentsCount(segments(processorName))
+            .andBatchSize(batchSize(processorName));
+    }
+
+    private <T> T setting(String processorName, String setting, Class<T> type, T defaultValue) {
+        var globalValue = environment.getProperty(PROPERTY_PREFIX + setting, type, defaultValue);
+        return environment.getProperty(PROPERTY_PREFIX + processorName + "." + setting, type, globalValue);
+    }
+}
@@ -0,0 +1,117 @@
+package engineering.everest.lhotse.axon.processors;
+
+import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.messaging.StreamableMessageSource;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Event source of a single processor that pushes the payload types the processor does not handle down to the stream, so the
+ * event store stops sending them. Axon Server excludes such types on the server side, which means those events are never
+ * transferred to the node, let alone decrypted or deserialized.
+ *
+ * <p>
+ * Axon Server only accepts types to exclude, so each unhandled type is learned from the first event of that type. Learned types
+ * are remembered for the lifetime of the processor and excluded as soon as a new stream is opened, for instance after a replay.
+ * Events are still handed to the processor unchanged so its tokens keep advancing. Only one event of each skipped type is kept,
+ * to describe the type to new streams.
+ */
+public class PayloadTypeFilteringMessageSource implements StreamableMessageSource<TrackedEventMessage<?>> {
+
+    private final StreamableMessageSource<TrackedEventMessage<?>> delegate;
+    private final Predicate<Class<?>> handledPayloadTypes;
+    private final Map<Class<?>, TrackedEventMessage<?>> skippedPayloadTypes = new ConcurrentHashMap<>();
+
+    public PayloadTypeFilteringMessageSource(StreamableMessageSource<TrackedEventMessage<?>> delegate,
+                                             Predicate<Class<?>> handledPayloadTypes) {
+        this.delegate = delegate;
+        this.handledPayloadTypes = handledPayloadTypes;
+    }
+
+    @Override
+    public BlockingStream<TrackedEventMessage<?>> openStream(TrackingToken trackingToken) {
+        var stream = new PayloadTypeFilteringStream(delegate.openStream(trackingToken), handledPayloadTypes, skippedPayloadTypes);
+        skippedPayloadTypes.values().forEach(stream.delegateStream::skipMessagesWithPayloadTypeOf);
+        return stream;
+    }
+
+    @Override
+    public TrackingToken createTailToken() {
+        return delegate.createTailToken();
+    }
+
+    @Override
+    public TrackingToken createHeadToken() {
+        return delegate.createHeadToken();
+    }
+
+    @Override
+    public TrackingToken createTokenAt(Instant dateTime) {
+        return delegate.createTokenAt(dateTime);
+    }
+
+    private static final class PayloadTypeFilteringStream implements BlockingStream<TrackedEventMessage<?>> {
+
+        final BlockingStream<TrackedEventMessage<?>> delegateStream;
+        final Predicate<Class<?>> handledPayloadTypes;
+        final Map<Class<?>, TrackedEventMessage<?>> skippedPayloadTypes;
+
+        PayloadTypeFilteringStream(BlockingStream<TrackedEventMessage<?>> delegateStream,
+                                   Predicate<Class<?>> handledPayloadTypes,
+                                   Map<Class<?>, TrackedEventMessage<?>> skippedPayloadTypes) {
+            this.delegateStream = delegateStream;
+            this.handledPayloadTypes = handledPayloadTypes;
+            this.skippedPayloadTypes = skippedPayloadTypes;
+        }
+
+        @Override
+        public Optional<TrackedEventMessage<?>> peek() {
+            return delegateStream.peek();
+        }
+
+        @Override
+        public boolean hasNextAvailable(int timeout, TimeUnit unit) {
+            return delegateStream.hasNextAvailable(timeout, unit);
+        }
+
+        @Override
+        public TrackedEventMessage<?> nextAvailable() throws InterruptedException {
+            var message = delegateStream.nextAvailable();
+            var payloadType = message.getPayloadType();
+            if (!skippedPayloadTypes.containsKey(payloadType) && !handledPayloadTypes.test(payloadType)) {
+                skip(message);
+            }
+            return message;
+        }
+
+        /**
+         * Ignores requests to skip a handled type, so the replay marker event cannot be excluded by a processor.
+         */
+        @Override
+        public boolean skipMessagesWithPayloadTypeOf(TrackedEventMessage<?> message) {
+            return !handledPayloadTypes.test(message.getPayloadType()) && skip(message);
+        }
+
+        private boolean skip(TrackedEventMessage<?> message) {
+            skippedPayloadTypes.putIfAbsent(message.getPayloadType(), message);
+            return delegateStream.skipMessagesWithPayloadTypeOf(message);
+        }
+
+        @Override
+        public boolean setOnAvailableCallback(Runnable callback) {
+            return delegateStream.setOnAvailableCallback(callback);
+        }
+
+        @Override
+        public void close() {
+            delegateStream.close();
+        }
+    }
+}
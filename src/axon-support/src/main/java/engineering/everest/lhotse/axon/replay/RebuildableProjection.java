@@ -0,0 +1,15 @@
+package engineering.everest.lhotse.axon.replay;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Declares the tables a processing group projects into, so that a shadow rebuild can replay it into empty copies of those tables
+ * while the live ones keep serving reads.
+ */
+@Value
+public class RebuildableProjection {
+    String processingGroup;
+    List<String> tables;
+}
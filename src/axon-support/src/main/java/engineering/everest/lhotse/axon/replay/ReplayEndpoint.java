@@ -13,6 +13,8 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,15 +33,21 @@ public class ReplayEndpoint {
     private final SpringAxonConfiguration axonConfiguration;
     private final List<ReplayCompletionAware> replayCompletionAwareListeners;
     private final TaskExecutor taskExecutor;
+    private final ReplayTelemetry replayTelemetry;
+    private final ShadowProjectionRebuilder shadowProjectionRebuilder;
     private final ConcurrentHashMap<ReplayableEventProcessor, ListenerRegistry> replayingProcessors;
 
     @Autowired
     public ReplayEndpoint(SpringAxonConfiguration axonConfiguration,
                           List<ReplayCompletionAware> replayCompletionAwareListeners,
-                          TaskExecutor taskExecutor) {
+                          TaskExecutor taskExecutor,
+                          ReplayTelemetry replayTelemetry,
+                          ShadowProjectionRebuilder shadowProjectionRebuilder) {
         this.axonConfiguration = axonConfiguration;
         this.replayCompletionAwareListeners = replayCompletionAwareListeners;
         this.taskExecutor = taskExecutor;
+        this.replayTelemetry = replayTelemetry;
+        this.shadowProjectionRebuilder = shadowProjectionRebuilder;
         this.replayingProcessors = new ConcurrentHashMap<>();
     }
 
@@ -50,12 +58,22 @@ public class ReplayEndpoint {
         int currentlyReplaying = replayingProcessors.size();
         statusMap.put("currentlyReplaying", currentlyReplaying);
         statusMap.put("isReplaying", currentlyReplaying > 0);
+        statusMap.put("processors", replayTelemetry.status());
         return statusMap;
     }
 
+    /**
+     * Replays events into the selected processors, or all replayable ones. With {@code shadow} set, processors with a
+     * {@link RebuildableProjection} rebuild into shadow tables that replace the live ones once the replay completes, so reads keep
+     * being served from the existing tables in the meantime. Other processors replay in place. Shadow rebuilds are refused while
+     * another node claims segments of a processor to rebuild, because only this node writes to the shadow tables. Processors whose
+     * tokens cannot be reset, because another node claimed a segment while they were shut down, resume from their existing tokens
+     * and the replay fails for them.
+     */
     @WriteOperation
     public void startReplay(@Nullable Set<String> processingGroups,
-                            @Nullable OffsetDateTime startTime) {
+                            @Nullable OffsetDateTime startTime,
+                            @Nullable Boolean shadow) {
         var replayableEventProcessors = processingGroups == null
             ? getReplayableEventProcessors()
             : getReplayableEventProcessor(processingGroups);
@@ -63,6 +81,19 @@ public class ReplayEndpoint {
         if (replayableEventProcessors.isEmpty()) {
             throw new IllegalStateException("No matching replayable event processors");
         }
+        var shadowRebuiltProcessors = Boolean.TRUE.equals(shadow)
+            ? replayableEventProcessors.stream().filter(shadowProjectionRebuilder::canRebuild).collect(toList())
+            : List.<ReplayableEventProcessor>of();
+        if (Boolean.TRUE.equals(shadow) && shadowRebuiltProcessors.isEmpty()) {
+            throw new IllegalStateException("No matching event processors can be rebuilt in shadow tables");
+        }
+        shadowRebuiltProcessors.stream()
+            .filter(processor -> !claimsAllSegments(processor))
+            .findFirst()
+            .ifPresent(processor -> {
+                throw new IllegalStateException(String.format(
+                    "Cannot rebuild %s in shadow tables while segments of it are not claimed by this node", processor.getName()));
+            });
 
         synchronized (this) {
             if (isReplaying()) {
@@ -71,16 +102,44 @@ public class ReplayEndpoint {
             var startPosition = startTime == null
                 ? axonConfiguration.getObject().eventStore().createTailToken()
                 : axonConfiguration.getObject().eventStore().createTokenAt(startTime.toInstant());
+            var headPosition = axonConfiguration.getObject().eventStore().createHeadToken();
+            if (!shadowRebuiltProcessors.isEmpty()) {
+                shadowProjectionRebuilder.prepare(shadowRebuiltProcessors);
+            }
 
             var replayMarkerEvent = new ReplayMarkerEvent(randomUUID());
+            var failedProcessors = new ArrayList<String>();
             replayableEventProcessors.forEach(x -> {
                 replayingProcessors.put(x, x.registerReplayCompletionListener(this::onSingleProcessorReplayCompletion));
-                x.startReplay(startPosition, replayMarkerEvent);
+                replayTelemetry.replayStarted(x, startPosition, headPosition);
+                try {
+                    x.startReplay(startPosition, replayMarkerEvent);
+                } catch (RuntimeException e) {
+                    LOGGER.error("Cannot start replay of processor {}", x.getName(), e);
+                    abortReplay(x);
+                    failedProcessors.add(x.getName());
+                }
             });
-            axonConfiguration.getObject().eventGateway().publish(replayMarkerEvent);
+            if (isReplaying()) {
+                axonConfiguration.getObject().eventGateway().publish(replayMarkerEvent);
+            }
+            if (!failedProcessors.isEmpty()) {
+                throw new IllegalStateException("Cannot start replay of processors " + failedProcessors);
+            }
         }
     }
 
+    /**
+     * Undoes the replay bookkeeping of a processor whose tokens could not be reset and resumes it from its existing tokens, writing
+     * to the live tables again.
+     */
+    private void abortReplay(ReplayableEventProcessor processor) {
+        closeListenerRegistry(processor, replayingProcessors.remove(processor));
+        shadowProjectionRebuilder.abort(processor);
+        replayTelemetry.replayCompleted(processor);
+        processor.start();
+    }
+
     @SuppressWarnings("PMD.CloseResource")
     private void onSingleProcessorReplayCompletion(ReplayableEventProcessor processor) {
         synchronized (this) {
@@ -89,11 +148,11 @@ public class ReplayEndpoint {
                 LOGGER.warn("Processor not registered for replaying: {}", processor);
                 return;
             }
-            try {
-                listenerRegistry.close();
-            } catch (IOException e) {
-                LOGGER.error("Cannot de-register listener for processor: {}", processor, e);
+            closeListenerRegistry(processor, listenerRegistry);
+            if (shadowProjectionRebuilder.isRebuilding(processor)) {
+                switchOverOrAbort(processor);
             }
+            replayTelemetry.replayCompleted(processor);
             if (replayingProcessors.size() == 0) {
                 LOGGER.info("Executing reset completion tasks");
                 taskExecutor.execute(() -> replayCompletionAwareListeners.forEach(t -> {
@@ -107,6 +166,42 @@ public class ReplayEndpoint {
         }
     }
 
+    @SuppressWarnings("PMD.CloseResource")
+    private void closeListenerRegistry(ReplayableEventProcessor processor, ListenerRegistry listenerRegistry) {
+        try {
+            listenerRegistry.close();
+        } catch (IOException e) {
+            LOGGER.error("Cannot de-register listener for processor: {}", processor, e);
+        }
+    }
+
+    /**
+     * Events of a segment claimed by another node during the replay went to the live tables rather than the shadow ones, so the
+     * rebuilt tables are incomplete and are dropped instead of being switched over to.
+     */
+    private void switchOverOrAbort(ReplayableEventProcessor processor) {
+        try {
+            if (claimsAllSegments(processor)) {
+                shadowProjectionRebuilder.switchOver(processor);
+            } else {
+                LOGGER.error("Segments of {} were claimed by another node during its rebuild, the rebuild is aborted and must be retried",
+                    processor.getName());
+                shadowProjectionRebuilder.abort(processor);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Cannot switch processor {} over to its rebuilt projections", processor.getName(), e);
+        }
+    }
+
+    private boolean claimsAllSegments(ReplayableEventProcessor processor) {
+        var eventProcessingConfiguration = axonConfiguration.getObject().eventProcessingConfiguration();
+        var tokenStore = eventProcessingConfiguration.tokenStore(processor.getName());
+        var segments = eventProcessingConfiguration.transactionManager(processor.getName())
+            .fetchInTransaction(() -> tokenStore.fetchSegments(processor.getName()));
+        var claimedSegments = processor.processingStatus().keySet();
+        return Arrays.stream(segments).allMatch(claimedSegments::contains);
+    }
+
     private boolean isReplaying() {
         return replayingProcessors.size() > 0;
     }
@@ -0,0 +1,189 @@
+package engineering.everest.lhotse.axon.replay;
+
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventhandling.ErrorHandler;
+import org.axonframework.eventhandling.EventHandlerInvoker;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.Segment;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor;
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.messaging.StreamableMessageSource;
+import org.axonframework.messaging.unitofwork.RollbackConfiguration;
+import org.axonframework.monitoring.MessageMonitor;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * Replayable processor where a single coordinator reads the event stream once and hands events to work packages for each claimed
+ * segment, which run on a shared worker pool. Preferable to {@link ReplayMarkerAwareTrackingEventProcessor} for processing groups
+ * with many segments.
+ */
+public class ReplayMarkerAwarePooledStreamingEventProcessor extends PooledStreamingEventProcessor implements ReplayableEventProcessor {
+
+    private final ReplayMarkerTracker replayMarkerTracker;
+
+    protected ReplayMarkerAwarePooledStreamingEventProcessor(Builder builder) {
+        super(builder);
+        replayMarkerTracker = new ReplayMarkerTracker(builder.taskExecutor);
+    }
+
+    @Override
+    public void startReplay(TrackingToken startPosition, ReplayMarkerEvent replayMarkerEvent) {
+        synchronized (this) {
+            replayMarkerTracker.startReplay(replayMarkerEvent);
+            shutDown();
+            try {
+                resetTokens(startPosition);
+            } catch (RuntimeException e) {
+                replayMarkerTracker.abortReplay();
+                throw e;
+            }
+            start();
+        }
+    }
+
+    @Override
+    public boolean isReplaying() {
+        return replayMarkerTracker.isReplaying();
+    }
+
+    @Override
+    public ListenerRegistry registerReplayCompletionListener(Consumer<ReplayableEventProcessor> listener) {
+        return replayMarkerTracker.registerReplayCompletionListener(listener);
+    }
+
+    /**
+     * The coordinator only hands events to work packages if their type is handled by this processor, so the replay marker has to
+     * be let through for each work package to see it.
+     */
+    @Override
+    protected boolean canHandleType(Class<?> payloadType) {
+        return ReplayMarkerEvent.class.isAssignableFrom(payloadType) || super.canHandleType(payloadType);
+    }
+
+    @Override
+    protected boolean canHandle(EventMessage<?> eventMessage, Collection<Segment> segments) throws Exception {
+        replayMarkerTracker.onEvent(this, eventMessage, segments);
+        return super.canHandle(eventMessage, segments);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> splitSegment(int segmentId) {
+        var status = processingStatus().get(segmentId);
+        return super.splitSegment(segmentId).thenApply(split -> {
+            if (split && status != null) {
+                replayMarkerTracker.onSegmentSplit(this, status.getSegment());
+            }
+            return split;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> mergeSegment(int segmentId) {
+        var status = processingStatus().get(segmentId);
+        return super.mergeSegment(segmentId).thenApply(merged -> {
+            if (merged && status != null) {
+                replayMarkerTracker.onSegmentsMerged(this, status.getSegment());
+            }
+            return merged;
+        });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @SuppressWarnings("PMD.AvoidFieldNameMatchingMethodName")
+    public static class Builder extends PooledStreamingEventProcessor.Builder {
+
+        private TaskExecutor taskExecutor;
+
+        @Override
+        public Builder name(String name) {
+            super.name(name);
+            return this;
+        }
+
+        @Override
+        public Builder eventHandlerInvoker(EventHandlerInvoker eventHandlerInvoker) {
+            super.eventHandlerInvoker(eventHandlerInvoker);
+            return this;
+        }
+
+        @Override
+        public Builder rollbackConfiguration(RollbackConfiguration rollbackConfiguration) {
+            super.rollbackConfiguration(rollbackConfiguration);
+            return this;
+        }
+
+        @Override
+        public Builder errorHandler(ErrorHandler errorHandler) {
+            super.errorHandler(errorHandler);
+            return this;
+        }
+
+        @Override
+        public Builder messageMonitor(MessageMonitor<? super EventMessage<?>> messageMonitor) {
+            super.messageMonitor(messageMonitor);
+            return this;
+        }
+
+        @Override
+        public Builder messageSource(StreamableMessageSource<TrackedEventMessage<?>> messageSource) {
+            super.messageSource(messageSource);
+            return this;
+        }
+
+        @Override
+        public Builder tokenStore(TokenStore tokenStore) {
+            super.tokenStore(tokenStore);
+            return this;
+        }
+
+        @Override
+        public Builder transactionManager(TransactionManager transactionManager) {
+            super.transactionManager(transactionManager);
+            return this;
+        }
+
+        @Override
+        public Builder coordinatorExecutor(ScheduledExecutorService coordinatorExecutor) {
+            super.coordinatorExecutor(coordinatorExecutor);
+            return this;
+        }
+
+        @Override
+        public Builder workerExecutor(ScheduledExecutorService workerExecutor) {
+            super.workerExecutor(workerExecutor);
+            return this;
+        }
+
+        @Override
+        public Builder initialSegmentCount(int initialSegmentCount) {
+            super.initialSegmentCount(initialSegmentCount);
+            return this;
+        }
+
+        @Override
+        public Builder batchSize(int batchSize) {
+            super.batchSize(batchSize);
+            return this;
+        }
+
+        public Builder taskExecutor(TaskExecutor taskExecutor) {
+            this.taskExecutor = taskExecutor;
+            return this;
+        }
+
+        @Override
+        public ReplayMarkerAwarePooledStreamingEventProcessor build() {
+            return new ReplayMarkerAwarePooledStreamingEventProcessor(this);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package engineering.everest.lhotse.axon.replay;
 
-import lombok.extern.slf4j.Slf4j;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.eventhandling.ErrorHandler;
 import org.axonframework.eventhandling.EventHandlerInvoker;
@@ -16,78 +15,78 @@ import org.axonframework.messaging.unitofwork.RollbackConfiguration;
 import org.axonframework.monitoring.MessageMonitor;
 import org.springframework.core.task.TaskExecutor;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
-@Slf4j
 public class ReplayMarkerAwareTrackingEventProcessor extends TrackingEventProcessor implements ReplayableEventProcessor {
 
-    private final AtomicReference<ReplayMarkerEvent> targetMarkerEventHolder = new AtomicReference<>();
-    private final AtomicInteger workerReplayCompletionCounter = new AtomicInteger();
-    private final List<Consumer<ReplayableEventProcessor>> replayCompletionListener = new ArrayList<>();
-    private final TaskExecutor taskExecutor;
+    private final ReplayMarkerTracker replayMarkerTracker;
 
     protected ReplayMarkerAwareTrackingEventProcessor(Builder builder) {
         super(builder);
-        taskExecutor = builder.taskExecutor;
+        replayMarkerTracker = new ReplayMarkerTracker(builder.taskExecutor);
     }
 
     @Override
     public void startReplay(TrackingToken startPosition, ReplayMarkerEvent replayMarkerEvent) {
         synchronized (this) {
-            if (isReplaying()) {
-                throw new RuntimeException("Previous replay is still running");
-            }
-            targetMarkerEventHolder.set(replayMarkerEvent);
-            workerReplayCompletionCounter.set(0);
+            replayMarkerTracker.startReplay(replayMarkerEvent);
             shutDown();
-            resetTokens(startPosition);
+            try {
+                resetTokens(startPosition);
+            } catch (RuntimeException e) {
+                replayMarkerTracker.abortReplay();
+                throw e;
+            }
             start();
         }
     }
 
     @Override
     public boolean isReplaying() {
-        return targetMarkerEventHolder.get() != null;
+        return replayMarkerTracker.isReplaying();
     }
 
     @Override
     public ListenerRegistry registerReplayCompletionListener(Consumer<ReplayableEventProcessor> listener) {
-        replayCompletionListener.add(listener);
-        return () -> replayCompletionListener.remove(listener);
+        return replayMarkerTracker.registerReplayCompletionListener(listener);
+    }
+
+    /**
+     * Keeps the replay marker event from being excluded from the event stream along with the types no handler is interested in.
+     */
+    @Override
+    protected boolean canHandleType(Class<?> payloadType) {
+        return ReplayMarkerEvent.class.isAssignableFrom(payloadType) || super.canHandleType(payloadType);
     }
 
     @Override
     protected boolean canHandle(EventMessage<?> eventMessage, Collection<Segment> segments) throws Exception {
-        if (ReplayMarkerEvent.class.isAssignableFrom(eventMessage.getPayloadType())) {
-            var targetEvent = targetMarkerEventHolder.get();
-            if (targetEvent != null && targetEvent.equals(eventMessage.getPayload())) {
-                processReplayMarkerEvent(eventMessage);
-            }
-        }
+        replayMarkerTracker.onEvent(this, eventMessage, segments);
         return super.canHandle(eventMessage, segments);
     }
 
-    private void processReplayMarkerEvent(EventMessage<?> eventMessage) {
-        LOGGER.info("Processing target replay marker event: {}", eventMessage.getPayload());
-        int numberOfActiveSegments = processingStatus().size();
-        if (workerReplayCompletionCounter.incrementAndGet() == numberOfActiveSegments) {
-            synchronized (this) {
-                LOGGER.info("Replay completed: {}", numberOfActiveSegments);
-                targetMarkerEventHolder.set(null);
-                taskExecutor.execute(() -> List.copyOf(replayCompletionListener).forEach(l -> {
-                    try {
-                        l.accept(this);
-                    } catch (Exception e) {
-                        LOGGER.error("Error running replay completion listener", e);
-                    }
-                }));
+    @Override
+    public CompletableFuture<Boolean> splitSegment(int segmentId) {
+        var status = processingStatus().get(segmentId);
+        return super.splitSegment(segmentId).thenApply(split -> {
+            if (split && status != null) {
+                replayMarkerTracker.onSegmentSplit(this, status.getSegment());
             }
-        }
+            return split;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> mergeSegment(int segmentId) {
+        var status = processingStatus().get(segmentId);
+        return super.mergeSegment(segmentId).thenApply(merged -> {
+            if (merged && status != null) {
+                replayMarkerTracker.onSegmentsMerged(this, status.getSegment());
+            }
+            return merged;
+        });
     }
 
     public static Builder builder() {
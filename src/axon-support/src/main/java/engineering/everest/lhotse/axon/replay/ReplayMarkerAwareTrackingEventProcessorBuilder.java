@@ -1,5 +1,8 @@
 package engineering.everest.lhotse.axon.replay;
 
+import engineering.everest.lhotse.axon.processors.EventProcessorSettings;
+import engineering.everest.lhotse.axon.processors.PayloadTypeFilteringMessageSource;
+import org.axonframework.common.AxonThreadFactory;
 import org.axonframework.config.Configuration;
 import org.axonframework.config.EventProcessingConfigurer.EventProcessorBuilder;
 import org.axonframework.config.EventProcessingModule;
@@ -7,37 +10,73 @@ import org.axonframework.eventhandling.EventHandlerInvoker;
 import org.axonframework.eventhandling.EventProcessor;
 import org.axonframework.eventhandling.TrackedEventMessage;
 import org.axonframework.eventhandling.TrackingEventProcessor;
-import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.axonframework.eventhandling.pooled.PooledStreamingEventProcessor;
+import org.axonframework.lifecycle.Phase;
 import org.axonframework.messaging.StreamableMessageSource;
 import org.springframework.core.task.TaskExecutor;
 
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+
 public class ReplayMarkerAwareTrackingEventProcessorBuilder implements EventProcessorBuilder {
 
     private final TaskExecutor taskExecutor;
     private final EventProcessingModule eventProcessingModule;
+    private final EventProcessorSettings eventProcessorSettings;
+    private final ShadowProjectionRebuilder shadowProjectionRebuilder;
 
-    public ReplayMarkerAwareTrackingEventProcessorBuilder(TaskExecutor taskExecutor, EventProcessingModule eventProcessingModule) {
+    public ReplayMarkerAwareTrackingEventProcessorBuilder(TaskExecutor taskExecutor,
+                                                          EventProcessingModule eventProcessingModule,
+                                                          EventProcessorSettings eventProcessorSettings,
+                                                          ShadowProjectionRebuilder shadowProjectionRebuilder) {
         this.taskExecutor = taskExecutor;
         this.eventProcessingModule = eventProcessingModule;
+        this.eventProcessorSettings = eventProcessorSettings;
+        this.shadowProjectionRebuilder = shadowProjectionRebuilder;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public EventProcessor build(String name, Configuration configuration, EventHandlerInvoker eventHandlerInvoker) {
-        var trackingEventProcessorConfiguration = configuration.getComponent(
-            TrackingEventProcessorConfiguration.class,
-            () -> TrackingEventProcessorConfiguration.forParallelProcessing(1));
+        var trackingEventProcessorConfiguration = eventProcessorSettings.trackingEventProcessorConfiguration(name);
+        Predicate<Class<?>> replayablePayloadTypes = payloadType -> ReplayMarkerEvent.class.isAssignableFrom(payloadType)
+            || eventHandlerInvoker.canHandleType(payloadType);
 
-        if (eventHandlerInvoker.supportsReset()) {
+        if (eventHandlerInvoker.supportsReset() && eventProcessorSettings.pooled(name)) {
+            var coordinatorExecutor = Executors.newSingleThreadScheduledExecutor(new AxonThreadFactory("Coordinator[" + name + "]"));
+            var workerExecutor = Executors.newScheduledThreadPool(eventProcessorSettings.threads(name),
+                new AxonThreadFactory("WorkPackage[" + name + "]"));
+            // Event processors shut down in the inbound event connectors phase, their executors are only released after that
+            configuration.onShutdown(Phase.INBOUND_EVENT_CONNECTORS - 1, () -> {
+                coordinatorExecutor.shutdown();
+                workerExecutor.shutdown();
+            });
+            return ReplayMarkerAwarePooledStreamingEventProcessor.builder()
+                .name(name)
+                .eventHandlerInvoker(eventHandlerInvoker)
+                .rollbackConfiguration(eventProcessingModule.rollbackConfiguration(name))
+                .errorHandler(eventProcessingModule.errorHandler(name))
+                .messageMonitor(eventProcessingModule.messageMonitor(PooledStreamingEventProcessor.class, name))
+                .messageSource(messageSource(configuration, replayablePayloadTypes))
+                .tokenStore(eventProcessingModule.tokenStore(name))
+                .transactionManager(new ShadowSchemaTransactionManager(name, eventProcessingModule.transactionManager(name),
+                    shadowProjectionRebuilder))
+                .coordinatorExecutor(coordinatorExecutor)
+                .workerExecutor(workerExecutor)
+                .initialSegmentCount(eventProcessorSettings.segments(name))
+                .batchSize(eventProcessorSettings.batchSize(name))
+                .taskExecutor(taskExecutor)
+                .build();
+        } else if (eventHandlerInvoker.supportsReset()) {
             return ReplayMarkerAwareTrackingEventProcessor.builder()
                 .name(name)
                 .eventHandlerInvoker(eventHandlerInvoker)
                 .rollbackConfiguration(eventProcessingModule.rollbackConfiguration(name))
                 .errorHandler(eventProcessingModule.errorHandler(name))
                 .messageMonitor(eventProcessingModule.messageMonitor(TrackingEventProcessor.class, name))
-                .messageSource((StreamableMessageSource<TrackedEventMessage<?>>) configuration.eventBus())
+                .messageSource(messageSource(configuration, replayablePayloadTypes))
                 .tokenStore(eventProcessingModule.tokenStore(name))
-                .transactionManager(eventProcessingModule.transactionManager(name))
+                .transactionManager(new ShadowSchemaTransactionManager(name, eventProcessingModule.transactionManager(name),
+                    shadowProjectionRebuilder))
                 .trackingEventProcessorConfiguration(trackingEventProcessorConfiguration)
                 .taskExecutor(taskExecutor)
                 .build();
@@ -48,11 +87,18 @@ public class ReplayMarkerAwareTrackingEventProcessorBuilder implements EventProc
                 .rollbackConfiguration(eventProcessingModule.rollbackConfiguration(name))
                 .errorHandler(eventProcessingModule.errorHandler(name))
                 .messageMonitor(eventProcessingModule.messageMonitor(TrackingEventProcessor.class, name))
-                .messageSource((StreamableMessageSource<TrackedEventMessage<?>>) configuration.eventBus())
+                .messageSource(messageSource(configuration, eventHandlerInvoker::canHandleType))
                 .tokenStore(eventProcessingModule.tokenStore(name))
                 .transactionManager(eventProcessingModule.transactionManager(name))
                 .trackingEventProcessorConfiguration(trackingEventProcessorConfiguration)
                 .build();
         }
     }
+
+    @SuppressWarnings("unchecked")
+    private StreamableMessageSource<TrackedEventMessage<?>> messageSource(Configuration configuration,
+                                                                          Predicate<Class<?>> handledPayloadTypes) {
+        return new PayloadTypeFilteringMessageSource(
+            (StreamableMessageSource<TrackedEventMessage<?>>) configuration.eventBus(), handledPayloadTypes);
+    }
 }
@@ -0,0 +1,106 @@
+package engineering.everest.lhotse.axon.replay;
+
+import engineering.everest.lhotse.axon.replay.ReplayableEventProcessor.ListenerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.Segment;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Replay bookkeeping shared by the replayable processors. A replay completes once every segment the processor has claimed has
+ * passed the replay marker event. Segments are tracked by id so the check stays correct while segments are split and merged.
+ */
+@Slf4j
+final class ReplayMarkerTracker {
+
+    private final AtomicReference<ReplayMarkerEvent> targetMarkerEventHolder = new AtomicReference<>();
+    private final Set<Integer> segmentIdsPastReplayMarker = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<ReplayableEventProcessor>> replayCompletionListener = new ArrayList<>();
+    private final TaskExecutor taskExecutor;
+
+    ReplayMarkerTracker(TaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    synchronized void startReplay(ReplayMarkerEvent replayMarkerEvent) {
+        if (isReplaying()) {
+            throw new RuntimeException("Previous replay is still running");
+        }
+        targetMarkerEventHolder.set(replayMarkerEvent);
+        segmentIdsPastReplayMarker.clear();
+    }
+
+    void abortReplay() {
+        targetMarkerEventHolder.set(null);
+    }
+
+    boolean isReplaying() {
+        return targetMarkerEventHolder.get() != null;
+    }
+
+    ListenerRegistry registerReplayCompletionListener(Consumer<ReplayableEventProcessor> listener) {
+        replayCompletionListener.add(listener);
+        return () -> replayCompletionListener.remove(listener);
+    }
+
+    void onEvent(ReplayableEventProcessor processor, EventMessage<?> eventMessage, Collection<Segment> segments) {
+        if (ReplayMarkerEvent.class.isAssignableFrom(eventMessage.getPayloadType())) {
+            var targetEvent = targetMarkerEventHolder.get();
+            if (targetEvent != null && targetEvent.equals(eventMessage.getPayload())) {
+                LOGGER.info("Processing target replay marker event: {}", eventMessage.getPayload());
+                segments.forEach(segment -> segmentIdsPastReplayMarker.add(segment.getSegmentId()));
+                completeReplayIfAllSegmentsPastMarker(processor);
+            }
+        }
+    }
+
+    /**
+     * A segment split off one that is already past the replay marker starts from the same token, so it will never see the
+     * marker itself and inherits its parent's progress.
+     */
+    void onSegmentSplit(ReplayableEventProcessor processor, Segment parentSegment) {
+        if (segmentIdsPastReplayMarker.contains(parentSegment.getSegmentId())) {
+            segmentIdsPastReplayMarker.add(parentSegment.split()[1].getSegmentId());
+        }
+        completeReplayIfAllSegmentsPastMarker(processor);
+    }
+
+    /**
+     * A merged segment resumes from the lower of the two tokens, so it only counts as past the replay marker when both halves
+     * were. Otherwise it will see the marker again.
+     */
+    void onSegmentsMerged(ReplayableEventProcessor processor, Segment mergedSegment) {
+        int segmentId = mergedSegment.getSegmentId();
+        int siblingSegmentId = mergedSegment.mergeableSegmentId();
+        boolean bothPastMarker = segmentIdsPastReplayMarker.contains(segmentId)
+            && segmentIdsPastReplayMarker.contains(siblingSegmentId);
+        segmentIdsPastReplayMarker.remove(Math.max(segmentId, siblingSegmentId));
+        if (!bothPastMarker) {
+            segmentIdsPastReplayMarker.remove(Math.min(segmentId, siblingSegmentId));
+        }
+        completeReplayIfAllSegmentsPastMarker(processor);
+    }
+
+    private synchronized void completeReplayIfAllSegmentsPastMarker(ReplayableEventProcessor processor) {
+        var claimedSegmentIds = processor.processingStatus().keySet();
+        if (isReplaying() && !claimedSegmentIds.isEmpty() && segmentIdsPastReplayMarker.containsAll(claimedSegmentIds)) {
+            LOGGER.info("Replay completed: {}", claimedSegmentIds.size());
+            targetMarkerEventHolder.set(null);
+            taskExecutor.execute(() -> List.copyOf(replayCompletionListener).forEach(l -> {
+                try {
+                    l.accept(processor);
+                } catch (Exception e) {
+                    LOGGER.error("Error running replay completion listener", e);
+                }
+            }));
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package engineering.everest.lhotse.axon.replay;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.TrackingToken;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleBiFunction;
+import java.util.function.ToDoubleFunction;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Tracks how far each replaying processor has got between the token it was reset to and the head token captured when the replay
+ * started. Progress is measured in global event sequence positions, which may contain gaps, so event counts and rates are
+ * approximate. Figures are exposed on the replay endpoint and as {@code axon.replay.*} meters.
+ */
+@Component
+public class ReplayTelemetry {
+
+    private static final String PROCESSOR_TAG = "processor";
+    private static final String SEGMENT_TAG = "segment";
+
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<String, ReplayProgress> replays = new ConcurrentHashMap<>();
+    private final Set<String> instrumentedProcessors = ConcurrentHashMap.newKeySet();
+    private final MultiGauge segmentPositions;
+    private final MultiGauge segmentProgress;
+    private final MultiGauge segmentIdleSeconds;
+
+    public ReplayTelemetry(MeterRegistry meterRegistry, Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.segmentPositions = MultiGauge.builder("axon.replay.segment.position").register(meterRegistry);
+        this.segmentProgress = MultiGauge.builder("axon.replay.segment.progress").register(meterRegistry);
+        this.segmentIdleSeconds = MultiGauge.builder("axon.replay.segment.idle.seconds").register(meterRegistry);
+    }
+
+    public void replayStarted(ReplayableEventProcessor processor, TrackingToken startPosition, TrackingToken headPosition) {
+        var name = processor.getName();
+        replays.put(name, new ReplayProgress(processor, position(startPosition), position(headPosition), Instant.now(clock)));
+        if (instrumentedProcessors.add(name)) {
+            registerGauge("axon.replay.progress", name, (replay, now) -> replay.progress());
+            registerGauge("axon.replay.events.per.second", name, ReplayProgress::eventsPerSecond);
+            registerGauge("axon.replay.eta.seconds", name, ReplayProgress::etaSeconds);
+            processor.registerHandlerInterceptor((unitOfWork, interceptorChain) -> {
+                var replay = replays.get(name);
+                if (replay == null || replay.completedAt != null) {
+                    return interceptorChain.proceed();
+                } else {
+                    var sample = Timer.start(meterRegistry);
+                    try {
+                        return interceptorChain.proceed();
+                    } finally {
+                        var eventType = unitOfWork.getMessage().getPayloadType().getSimpleName();
+                        long nanos = sample.stop(meterRegistry.timer("axon.replay.handler", PROCESSOR_TAG, name, "eventType", eventType));
+                        replay.handlerNanos.computeIfAbsent(eventType, key -> new LongAdder()).add(nanos);
+                    }
+                }
+            });
+        }
+    }
+
+    public void replayCompleted(ReplayableEventProcessor processor) {
+        var replay = replays.get(processor.getName());
+        if (replay != null) {
+            replay.complete(Instant.now(clock));
+        }
+        sample();
+    }
+
+    /**
+     * Samples segment positions so that segments which stop advancing show a growing idle time, and refreshes the per-segment
+     * gauges.
+     */
+    @Scheduled(fixedRateString = "PT${application.axon.replay.telemetry-interval:10s}")
+    public void sample() {
+        var now = Instant.now(clock);
+        replays.values().forEach(replay -> replay.sample(now));
+        segmentPositions.register(segmentRows(segment -> segment.position), true);
+        segmentProgress.register(segmentRows(SegmentProgress::progress), true);
+        segmentIdleSeconds.register(segmentRows(segment -> segment.idleSeconds(now)), true);
+    }
+
+    public Map<String, Object> status() {
+        var now = Instant.now(clock);
+        var status = new TreeMap<String, Object>();
+        replays.forEach((name, replay) -> status.put(name, replay.status(now)));
+        return status;
+    }
+
+    private void registerGauge(String gaugeName, String processorName, ToDoubleBiFunction<ReplayProgress, Instant> value) {
+        Gauge.builder(gaugeName, replays, replaysByName -> {
+            var replay = replaysByName.get(processorName);
+            return replay == null ? Double.NaN : value.applyAsDouble(replay, Instant.now(clock));
+        }).tag(PROCESSOR_TAG, processorName).register(meterRegistry);
+    }
+
+    private List<MultiGauge.Row<?>> segmentRows(ToDoubleFunction<SegmentProgress> value) {
+        return replays.entrySet().stream()
+            .filter(entry -> entry.getValue().completedAt == null)
+            .flatMap(entry -> entry.getValue().segments.values().stream()
+                .map(segment -> MultiGauge.Row.of(
+                    Tags.of(PROCESSOR_TAG, entry.getKey(), SEGMENT_TAG, Integer.toString(segment.segmentId)),
+                    value.applyAsDouble(segment))))
+            .collect(toList());
+    }
+
+    private static long position(TrackingToken token) {
+        return token == null ? -1 : token.position().orElse(-1);
+    }
+
+    static final class ReplayProgress {
+        final ReplayableEventProcessor processor;
+        final long startPosition;
+        final long headPosition;
+        final Instant startedAt;
+        final Map<Integer, SegmentProgress> segments = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> handlerNanos = new ConcurrentHashMap<>();
+        volatile Instant completedAt;
+
+        ReplayProgress(ReplayableEventProcessor processor, long startPosition, long headPosition, Instant startedAt) {
+            this.processor = processor;
+            this.startPosition = startPosition;
+            this.headPosition = headPosition;
+            this.startedAt = startedAt;
+        }
+
+        void sample(Instant now) {
+            if (completedAt == null) {
+                var processingStatus = processor.processingStatus();
+                segments.keySet().retainAll(processingStatus.keySet());
+                processingStatus.forEach((segmentId, trackerStatus) -> segments
+                    .computeIfAbsent(segmentId, id -> new SegmentProgress(this, id, startPosition, now))
+                    .update(currentPosition(trackerStatus), now));
+            }
+        }
+
+        void complete(Instant now) {
+            sample(now);
+            completedAt = now;
+        }
+
+        long totalEvents() {
+            return Math.max(0, headPosition - startPosition);
+        }
+
+        /**
+         * Every segment reads the whole stream, so the processor is only as far along as its slowest segment.
+         */
+        long processedEvents() {
+            if (completedAt != null) {
+                return totalEvents();
+            }
+            return processor.processingStatus().values().stream()
+                .mapToLong(trackerStatus -> Math.max(0, Math.min(headPosition, currentPosition(trackerStatus)) - startPosition))
+                .min()
+                .orElse(0);
+        }
+
+        double progress() {
+            return totalEvents() == 0 ? 1.0 : (double) processedEvents() / totalEvents();
+        }
+
+        double eventsPerSecond(Instant now) {
+            double elapsedSeconds = Duration.between(startedAt, completedAt == null ? now : completedAt).toMillis() / 1000.0;
+            return elapsedSeconds <= 0 ? 0 : processedEvents() / elapsedSeconds;
+        }
+
+        double etaSeconds(Instant now) {
+            long remainingEvents = totalEvents() - processedEvents();
+            if (remainingEvents == 0) {
+                return 0;
+            }
+            double eventsPerSecond = eventsPerSecond(now);
+            return eventsPerSecond == 0 ? Double.NaN : remainingEvents / eventsPerSecond;
+        }
+
+        Map<String, Object> status(Instant now) {
+            var status = new LinkedHashMap<String, Object>();
+            status.put("startedAt", startedAt);
+            status.put("completedAt", completedAt);
+            status.put("startPosition", startPosition);
+            status.put("headPosition", headPosition);
+            status.put("processedEvents", processedEvents());
+            status.put("totalEvents", totalEvents());
+            status.put("progress", progress());
+            status.put("eventsPerSecond", eventsPerSecond(now));
+            double etaSeconds = etaSeconds(now);
+            status.put("etaSeconds", Double.isNaN(etaSeconds) ? null : etaSeconds);
+            var segmentStatus = new TreeMap<Integer, Object>();
+            segments.forEach((segmentId, segment) -> segmentStatus.put(segmentId, segment.status(now)));
+            status.put("segments", segmentStatus);
+            var handlerSeconds = new TreeMap<String, Double>();
+            handlerNanos.forEach((eventType, nanos) -> handlerSeconds.put(eventType, nanos.sum() / 1e9));
+            status.put("handlerSeconds", handlerSeconds);
+            return status;
+        }
+
+        private long currentPosition(EventTrackerStatus trackerStatus) {
+            return trackerStatus.getCurrentPosition().orElse(startPosition);
+        }
+    }
+
+    static final class SegmentProgress {
+        final ReplayProgress replay;
+        final int segmentId;
+        volatile long position;
+        volatile Instant lastAdvancedAt;
+
+        SegmentProgress(ReplayProgress replay, int segmentId, long position, Instant now) {
+            this.replay = replay;
+            this.segmentId = segmentId;
+            this.position = position;
+            this.lastAdvancedAt = now;
+        }
+
+        void update(long currentPosition, Instant now) {
+            if (currentPosition != position) {
+                position = currentPosition;
+                lastAdvancedAt = now;
+            }
+        }
+
+        double progress() {
+            long totalEvents = replay.totalEvents();
+            return totalEvents == 0 ? 1.0 : (double) (Math.min(replay.headPosition, position) - replay.startPosition) / totalEvents;
+        }
+
+        double idleSeconds(Instant now) {
+            return Duration.between(lastAdvancedAt, now).toMillis() / 1000.0;
+        }
+
+        Map<String, Object> status(Instant now) {
+            var status = new LinkedHashMap<String, Object>();
+            status.put("position", position);
+            status.put("progress", progress());
+            status.put("idleSeconds", idleSeconds(now));
+            return status;
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package engineering.everest.lhotse.axon.replay;
 
 import org.axonframework.eventhandling.EventProcessor;
+import org.axonframework.eventhandling.EventTrackerStatus;
 import org.axonframework.eventhandling.TrackingToken;
 
 import java.io.Closeable;
+import java.util.Map;
 import java.util.function.Consumer;
 
 public interface ReplayableEventProcessor extends EventProcessor {
+    /**
+     * Shuts the processor down, resets its tokens and starts it again. Resetting reclaims every token, so it fails if another
+     * node claimed a segment in the meantime. The processor is then left shut down with its tokens untouched.
+     */
     void startReplay(TrackingToken startPosition, ReplayMarkerEvent replayMarkerEvent);
 
     boolean isReplaying();
 
+    Map<Integer, EventTrackerStatus> processingStatus();
+
     ListenerRegistry registerReplayCompletionListener(Consumer<ReplayableEventProcessor> listener);
 
     interface ListenerRegistry extends Closeable {}
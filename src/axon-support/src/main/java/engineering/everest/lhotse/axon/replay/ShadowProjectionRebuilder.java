@@ -0,0 +1,180 @@
+package engineering.everest.lhotse.axon.replay;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Rebuilds projections blue/green style. Before the replay starts, empty copies of a processor's projection tables are created in
+ * a new shadow schema, and every transaction of that processor puts the shadow schema first on its search path, so its handlers
+ * write to the copies while reads elsewhere keep hitting the live tables. Once the processor reaches the replay marker, the copies
+ * are moved into the live schema and the old tables into a retired schema in a single transaction, and the retired tables are
+ * dropped in the background.
+ *
+ * <p>
+ * The rebuild state is held in memory on the node that started the replay, so only that node routes writes to the shadow tables.
+ * A shadow rebuild is therefore only started while that node claims every segment of the processor, and segments are not split
+ * while the processor replays. Resetting the processor reclaims every token in the same transaction that resets it, so no other
+ * node can pick up a reset segment. A rebuild is aborted if the reset fails, or if a segment is claimed elsewhere by the time
+ * the replay completes.
+ */
+@Slf4j
+@Component
+public class ShadowProjectionRebuilder {
+
+    static final String SHADOW_SCHEMA_PREFIX = "projections_rebuild_";
+    static final String RETIRED_SCHEMA_PREFIX = "projections_retired_";
+
+    private static final String MATCHING_INDEXES_SQL = "SELECT shadowindex.relname AS shadowname, retiredindex.relname AS retiredname"
+        + " FROM pg_index retired"
+        + " JOIN pg_class retiredindex ON retiredindex.oid = retired.indexrelid"
+        + " JOIN pg_index shadow ON shadow.indrelid = CAST(? AS regclass)"
+        + " JOIN pg_class shadowindex ON shadowindex.oid = shadow.indexrelid"
+        + " WHERE retired.indrelid = CAST(? AS regclass)"
+        + " AND retired.indisunique = shadow.indisunique"
+        + " AND retired.indisprimary = shadow.indisprimary"
+        + " AND split_part(pg_get_indexdef(retired.indexrelid), ' USING ', 2)"
+        + " = split_part(pg_get_indexdef(shadow.indexrelid), ' USING ', 2)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final Clock clock;
+    private final Map<String, List<String>> tablesByProcessingGroup;
+    private final Map<String, String> shadowSchemasByProcessor = new ConcurrentHashMap<>();
+
+    public ShadowProjectionRebuilder(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     TaskExecutor taskExecutor,
+                                     Clock clock,
+                                     List<RebuildableProjection> rebuildableProjections) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.clock = clock;
+        this.tablesByProcessingGroup = rebuildableProjections.stream()
+            .collect(toMap(RebuildableProjection::getProcessingGroup, RebuildableProjection::getTables));
+    }
+
+    public boolean canRebuild(ReplayableEventProcessor processor) {
+        return tablesByProcessingGroup.containsKey(processor.getName());
+    }
+
+    public boolean isRebuilding(ReplayableEventProcessor processor) {
+        return shadowSchemasByProcessor.containsKey(processor.getName());
+    }
+
+    /**
+     * Creates empty copies of the projection tables of the given processors, including their indexes, in a new shadow schema and
+     * routes the processors' writes to them. Must be called before the processors are reset.
+     */
+    public void prepare(Collection<ReplayableEventProcessor> processors) {
+        var shadowSchema = SHADOW_SCHEMA_PREFIX + clock.millis();
+        transactionTemplate.executeWithoutResult(status -> {
+            var liveSchema = jdbcTemplate.queryForObject("SELECT current_schema()", String.class);
+            jdbcTemplate.execute("CREATE SCHEMA " + shadowSchema);
+            processors.forEach(processor -> tables(processor).forEach(table -> jdbcTemplate.execute(String.format(
+                "CREATE TABLE %s.%s (LIKE %s.%s INCLUDING ALL)", shadowSchema, table, liveSchema, table))));
+        });
+        processors.forEach(processor -> {
+            LOGGER.info("Rebuilding projections of {} in schema {}", processor.getName(), shadowSchema);
+            shadowSchemasByProcessor.put(processor.getName(), shadowSchema);
+        });
+    }
+
+    /**
+     * Called at the start of each transaction of a processor. Statements in the transaction resolve the projection tables in the
+     * shadow schema first, and everything else, such as the token store, in the live schema.
+     */
+    public void useShadowTablesIfRebuilding(String processorName) {
+        var shadowSchema = shadowSchemasByProcessor.get(processorName);
+        if (shadowSchema != null) {
+            jdbcTemplate.queryForObject("SELECT set_config('search_path', ? || ',' || current_setting('search_path'), true)",
+                String.class, shadowSchema);
+        }
+    }
+
+    /**
+     * Atomically swaps the rebuilt tables of a processor in for the live ones. Index names are carried over from the tables being
+     * replaced so later schema migrations can still refer to them.
+     */
+    public void switchOver(ReplayableEventProcessor processor) {
+        var shadowSchema = shadowSchemasByProcessor.get(processor.getName());
+        if (shadowSchema != null) {
+            var retiredSchema = RETIRED_SCHEMA_PREFIX + shadowSchema.substring(SHADOW_SCHEMA_PREFIX.length());
+            var tables = tables(processor);
+            transactionTemplate.executeWithoutResult(status -> {
+                var liveSchema = jdbcTemplate.queryForObject("SELECT current_schema()", String.class);
+                jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + retiredSchema);
+                tables.forEach(table -> swapTable(table, liveSchema, shadowSchema, retiredSchema));
+            });
+            // Only stop routing once the swap has committed. Transactions in between resolve the same tables in the live schema.
+            shadowSchemasByProcessor.remove(processor.getName());
+            LOGGER.info("Switched {} over to tables rebuilt in {}", processor.getName(), shadowSchema);
+            taskExecutor.execute(() -> dropRetiredTables(tables, shadowSchema, retiredSchema));
+        }
+    }
+
+    /**
+     * Stops routing the writes of a processor to its shadow tables and drops them, leaving the live tables in place.
+     */
+    public void abort(ReplayableEventProcessor processor) {
+        var shadowSchema = shadowSchemasByProcessor.remove(processor.getName());
+        if (shadowSchema != null) {
+            LOGGER.warn("Aborted rebuilding projections of {} in schema {}", processor.getName(), shadowSchema);
+            taskExecutor.execute(() -> dropShadowTables(tables(processor), shadowSchema));
+        }
+    }
+
+    private void swapTable(String table, String liveSchema, String shadowSchema, String retiredSchema) {
+        jdbcTemplate.execute(String.format("ALTER TABLE %s.%s SET SCHEMA %s", liveSchema, table, retiredSchema));
+        jdbcTemplate.execute(String.format("ALTER TABLE %s.%s SET SCHEMA %s", shadowSchema, table, liveSchema));
+        var matchingIndexes = jdbcTemplate.queryForList(MATCHING_INDEXES_SQL, liveSchema + "." + table, retiredSchema + "." + table);
+        matchingIndexes.forEach(indexes -> {
+            var shadowName = (String) indexes.get("shadowname");
+            var retiredName = (String) indexes.get("retiredname");
+            if (!shadowName.equals(retiredName)) {
+                jdbcTemplate.execute(String.format("ALTER INDEX %s.\"%s\" RENAME TO \"%s\"", liveSchema, shadowName, retiredName));
+            }
+        });
+    }
+
+    private void dropRetiredTables(List<String> tables, String shadowSchema, String retiredSchema) {
+        try {
+            tables.forEach(table -> jdbcTemplate.execute(String.format("DROP TABLE IF EXISTS %s.%s", retiredSchema, table)));
+            if (!shadowSchemasByProcessor.containsValue(shadowSchema)) {
+                jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + retiredSchema);
+                jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + shadowSchema);
+            }
+            LOGGER.info("Dropped retired tables {} from {}", tables, retiredSchema);
+        } catch (Exception e) {
+            LOGGER.error("Cannot drop retired tables {} from {}", tables, retiredSchema, e);
+        }
+    }
+
+    private void dropShadowTables(List<String> tables, String shadowSchema) {
+        try {
+            tables.forEach(table -> jdbcTemplate.execute(String.format("DROP TABLE IF EXISTS %s.%s", shadowSchema, table)));
+            if (!shadowSchemasByProcessor.containsValue(shadowSchema)) {
+                jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + shadowSchema);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Cannot drop shadow tables {} from {}", tables, shadowSchema, e);
+        }
+    }
+
+    private List<String> tables(ReplayableEventProcessor processor) {
+        return tablesByProcessingGroup.get(processor.getName());
+    }
+}
@@ -0,0 +1,34 @@
+package engineering.everest.lhotse.axon.replay;
+
+import org.axonframework.common.transaction.Transaction;
+import org.axonframework.common.transaction.TransactionManager;
+
+/**
+ * Routes the projection writes of a processor to its shadow tables while a shadow rebuild of it is in progress.
+ */
+public class ShadowSchemaTransactionManager implements TransactionManager {
+
+    private final String processorName;
+    private final TransactionManager delegate;
+    private final ShadowProjectionRebuilder shadowProjectionRebuilder;
+
+    public ShadowSchemaTransactionManager(String processorName,
+                                          TransactionManager delegate,
+                                          ShadowProjectionRebuilder shadowProjectionRebuilder) {
+        this.processorName = processorName;
+        this.delegate = delegate;
+        this.shadowProjectionRebuilder = shadowProjectionRebuilder;
+    }
+
+    @Override
+    public Transaction startTransaction() {
+        var transaction = delegate.startTransaction();
+        try {
+            shadowProjectionRebuilder.useShadowTablesIfRebuilding(processorName);
+        } catch (RuntimeException e) {
+            transaction.rollback();
+            throw e;
+        }
+        return transaction;
+    }
+}
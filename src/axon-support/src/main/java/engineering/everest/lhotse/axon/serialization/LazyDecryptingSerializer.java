@@ -0,0 +1,213 @@
+package engineering.everest.lhotse.axon.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import engineering.everest.axon.cryptoshredding.annotations.EncryptedField;
+import org.axonframework.serialization.Converter;
+import org.axonframework.serialization.SerializationException;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SerializedType;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.springframework.cglib.proxy.Callback;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.cglib.proxy.NoOp;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Event serializer that defers decryption of {@link EncryptedField} values until one of them is read. Payloads with encrypted
+ * fields are deserialized without those fields into a subclass of the payload type, and the first call to a getter of an
+ * encrypted field has the crypto shredding serializer decrypt the payload, which also takes care of the key lookup. Handlers
+ * that never read encrypted fields, and processors that only look at the payload type, no longer pay for key lookups and AES.
+ *
+ * <p>
+ * Payload types without encrypted fields, or that cannot be subclassed, are deserialized by the crypto shredding serializer
+ * straight away. Unknown properties are ignored when deserializing the plain fields.
+ */
+public class LazyDecryptingSerializer implements Serializer {
+
+    private static final int LAZY_DECRYPTION_CALLBACK = 0;
+    private static final int PASS_THROUGH_CALLBACK = 1;
+
+    private final Serializer decryptingSerializer;
+    private final JacksonSerializer plainSerializer;
+    private final Map<SerializedType, Class<?>> classesBySerializedType = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Optional<LazilyDecryptedType>> lazilyDecryptedTypes = new ConcurrentHashMap<>();
+
+    public LazyDecryptingSerializer(Serializer decryptingSerializer, JacksonSerializer plainSerializer) {
+        this.decryptingSerializer = decryptingSerializer;
+        this.plainSerializer = plainSerializer;
+    }
+
+    @Override
+    public <T> SerializedObject<T> serialize(Object object, Class<T> expectedRepresentation) {
+        var payload = object instanceof LazilyDecrypted ? ((LazilyDecrypted) object).decryptedPayload() : object;
+        return decryptingSerializer.serialize(payload, expectedRepresentation);
+    }
+
+    @Override
+    public <T> boolean canSerializeTo(Class<T> expectedRepresentation) {
+        return decryptingSerializer.canSerializeTo(expectedRepresentation);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S, T> T deserialize(SerializedObject<S> serializedObject) {
+        var type = classForType(serializedObject.getType());
+        return (T) lazilyDecryptedTypes.computeIfAbsent(type, this::lazilyDecryptedType)
+            .map(lazilyDecryptedType -> lazilyDecryptedPayload(lazilyDecryptedType, serializedObject))
+            .orElseGet(() -> decryptingSerializer.deserialize(serializedObject));
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Class classForType(SerializedType type) {
+        return classesBySerializedType.computeIfAbsent(type, decryptingSerializer::classForType);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public SerializedType typeForClass(Class type) {
+        return decryptingSerializer.typeForClass(LazilyDecrypted.class.isAssignableFrom(type) ? type.getSuperclass() : type);
+    }
+
+    @Override
+    public Converter getConverter() {
+        return decryptingSerializer.getConverter();
+    }
+
+    private Optional<LazilyDecryptedType> lazilyDecryptedType(Class<?> type) {
+        var encryptedFields = new ArrayList<Field>();
+        ReflectionUtils.doWithFields(type, encryptedFields::add, field -> field.isAnnotationPresent(EncryptedField.class));
+        encryptedFields.forEach(ReflectionUtils::makeAccessible);
+        return encryptedFields.isEmpty() || !canBeSubclassed(type)
+            ? Optional.empty()
+            : Optional.of(new LazilyDecryptedType(type, encryptedFields, proxyFactory(type, encryptedFields),
+                plainSerializer.getObjectMapper().readerFor(type).without(FAIL_ON_UNKNOWN_PROPERTIES)));
+    }
+
+    private Object lazilyDecryptedPayload(LazilyDecryptedType lazilyDecryptedType, SerializedObject<?> serializedObject) {
+        var serializedJson = plainSerializer.getConverter().convert(serializedObject, JsonNode.class).getData();
+        var withoutEncryptedFields = (ObjectNode) serializedJson.deepCopy();
+        lazilyDecryptedType.encryptedFields.forEach(field -> withoutEncryptedFields.remove(field.getName()));
+        try {
+            var payload = lazilyDecryptedType.reader.readValue(withoutEncryptedFields);
+            var lazilyDecryptedPayload = lazilyDecryptedType.proxyFactory.newInstance(new Callback[] {
+                new LazyDecryptionInterceptor(decryptingSerializer, serializedObject, lazilyDecryptedType.encryptedFields),
+                NoOp.INSTANCE });
+            ReflectionUtils.shallowCopyFieldState(payload, lazilyDecryptedPayload);
+            return lazilyDecryptedPayload;
+        } catch (IOException e) {
+            throw new SerializationException("Cannot deserialize " + lazilyDecryptedType.type.getName() + " for lazy decryption", e);
+        }
+    }
+
+    private static Factory proxyFactory(Class<?> type, List<Field> encryptedFields) {
+        var encryptedFieldGetters = encryptedFields.stream()
+            .map(field -> StringUtils.capitalize(field.getName()))
+            .flatMap(name -> Stream.of("get" + name, "is" + name))
+            .collect(toSet());
+
+        var enhancer = new Enhancer();
+        enhancer.setSuperclass(type);
+        enhancer.setInterfaces(new Class<?>[] { LazilyDecrypted.class });
+        enhancer.setClassLoader(type.getClassLoader());
+        enhancer.setUseCache(false);
+        enhancer.setCallbackFilter(method -> isDecryptionTrigger(method, encryptedFieldGetters)
+            ? LAZY_DECRYPTION_CALLBACK
+            : PASS_THROUGH_CALLBACK);
+        // Only creates a prototype to generate the subclass, each payload gets its own interceptor through Factory.newInstance
+        enhancer.setCallbacks(new Callback[] {
+            (MethodInterceptor) (proxy, method, args, methodProxy) -> methodProxy.invokeSuper(proxy, args), NoOp.INSTANCE });
+        return (Factory) enhancer.create();
+    }
+
+    private static boolean canBeSubclassed(Class<?> type) {
+        return !Modifier.isFinal(type.getModifiers())
+            && Modifier.isPublic(type.getModifiers())
+            && ClassUtils.hasConstructor(type);
+    }
+
+    private static boolean isDecryptionTrigger(Method method, Set<String> encryptedFieldGetters) {
+        return method.getDeclaringClass() == LazilyDecrypted.class
+            || (method.getParameterCount() == 0 && encryptedFieldGetters.contains(method.getName()));
+    }
+
+    /**
+     * Implemented by lazily decrypted payloads.
+     */
+    public interface LazilyDecrypted {
+
+        /**
+         * Returns an instance of the payload type with all encrypted fields decrypted, decrypting them if that has not happened yet.
+         */
+        Object decryptedPayload();
+    }
+
+    private static final class LazilyDecryptedType {
+
+        final Class<?> type;
+        final List<Field> encryptedFields;
+        final Factory proxyFactory;
+        final ObjectReader reader;
+
+        LazilyDecryptedType(Class<?> type, List<Field> encryptedFields, Factory proxyFactory, ObjectReader reader) {
+            this.type = type;
+            this.encryptedFields = encryptedFields;
+            this.proxyFactory = proxyFactory;
+            this.reader = reader;
+        }
+    }
+
+    private static final class LazyDecryptionInterceptor implements MethodInterceptor {
+
+        final Serializer decryptingSerializer;
+        final SerializedObject<?> serializedObject;
+        final List<Field> encryptedFields;
+        Object decryptedPayload;
+
+        LazyDecryptionInterceptor(Serializer decryptingSerializer, SerializedObject<?> serializedObject, List<Field> encryptedFields) {
+            this.decryptingSerializer = decryptingSerializer;
+            this.serializedObject = serializedObject;
+            this.encryptedFields = encryptedFields;
+        }
+
+        @Override
+        public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            var payload = decrypt(proxy);
+            return method.getDeclaringClass() == LazilyDecrypted.class ? payload : methodProxy.invokeSuper(proxy, args);
+        }
+
+        Object decrypt(Object proxy) {
+            synchronized (this) {
+                if (decryptedPayload == null) {
+                    decryptedPayload = decryptingSerializer.deserialize(serializedObject);
+                    encryptedFields.forEach(field ->
+                        ReflectionUtils.setField(field, proxy, ReflectionUtils.getField(field, decryptedPayload)));
+                }
+                return decryptedPayload;
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package engineering.everest.lhotse.axon.snapshotting;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventsourcing.SnapshotTrigger;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+
+class AdaptiveSnapshotTrigger implements SnapshotTrigger, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient AdaptiveSnapshotTriggerDefinition definition;
+    private final Class<?> aggregateType;
+    private String aggregateIdentifier;
+    private int eventsSinceSnapshot;
+    private Instant sourcingStartTime;
+    private boolean initialized;
+
+    AdaptiveSnapshotTrigger(AdaptiveSnapshotTriggerDefinition definition, Class<?> aggregateType) {
+        this.definition = definition;
+        this.aggregateType = aggregateType;
+    }
+
+    @Override
+    public void eventHandled(EventMessage<?> eventMessage) {
+        if (!(eventMessage instanceof DomainEventMessage)) {
+            return;
+        }
+
+        var domainEventMessage = (DomainEventMessage<?>) eventMessage;
+        aggregateIdentifier = domainEventMessage.getAggregateIdentifier();
+        if (!initialized && sourcingStartTime == null) {
+            sourcingStartTime = definition.now();
+        }
+        if (aggregateType.isAssignableFrom(domainEventMessage.getPayloadType())) {
+            eventsSinceSnapshot = 0;
+            return;
+        }
+
+        eventsSinceSnapshot++;
+        if (initialized && definition.exceedsEventThreshold(eventsSinceSnapshot)) {
+            scheduleSnapshot("events");
+        }
+    }
+
+    @Override
+    public void initializationFinished() {
+        if (!initialized && sourcingStartTime != null) {
+            var sourcingTime = Duration.between(sourcingStartTime, definition.now());
+            definition.recordSourcing(aggregateType, eventsSinceSnapshot, sourcingTime);
+            if (definition.exceedsEventThreshold(eventsSinceSnapshot)) {
+                scheduleSnapshot("events");
+            } else if (definition.exceedsLoadCost(aggregateType, eventsSinceSnapshot, sourcingTime)) {
+                scheduleSnapshot("load-time");
+            }
+        }
+        initialized = true;
+    }
+
+    void setDefinition(AdaptiveSnapshotTriggerDefinition definition) {
+        this.definition = definition;
+    }
+
+    private void scheduleSnapshot(String reason) {
+        definition.scheduleSnapshot(aggregateType, aggregateIdentifier, eventsSinceSnapshot, reason);
+        eventsSinceSnapshot = 0;
+    }
+}
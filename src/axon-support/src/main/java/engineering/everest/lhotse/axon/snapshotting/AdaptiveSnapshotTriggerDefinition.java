@@ -0,0 +1,111 @@
+package engineering.everest.lhotse.axon.snapshotting;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.eventsourcing.SnapshotTrigger;
+import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+@Slf4j
+public class AdaptiveSnapshotTriggerDefinition implements SnapshotTriggerDefinition {
+
+    private static final String AGGREGATE_TAG = "aggregate";
+
+    private final Snapshotter snapshotter;
+    private final Executor snapshotExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final int minEventsBetweenSnapshots;
+    private final int maxEventsBetweenSnapshots;
+    private final Duration loadTimeThreshold;
+    private final Map<Class<?>, Duration> snapshotCreationTimes;
+
+    public AdaptiveSnapshotTriggerDefinition(Snapshotter snapshotter,
+                                             Executor snapshotExecutor,
+                                             MeterRegistry meterRegistry,
+                                             Clock clock,
+                                             int minEventsBetweenSnapshots,
+                                             int maxEventsBetweenSnapshots,
+                                             Duration loadTimeThreshold) {
+        this.snapshotter = snapshotter;
+        this.snapshotExecutor = snapshotExecutor;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.minEventsBetweenSnapshots = minEventsBetweenSnapshots;
+        this.maxEventsBetweenSnapshots = maxEventsBetweenSnapshots;
+        this.loadTimeThreshold = loadTimeThreshold;
+        this.snapshotCreationTimes = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public SnapshotTrigger prepareTrigger(Class<?> aggregateType) {
+        return new AdaptiveSnapshotTrigger(this, aggregateType);
+    }
+
+    @Override
+    public SnapshotTrigger reconfigure(Class<?> aggregateType, SnapshotTrigger trigger) {
+        if (trigger instanceof AdaptiveSnapshotTrigger) {
+            ((AdaptiveSnapshotTrigger) trigger).setDefinition(this);
+            return trigger;
+        }
+        return prepareTrigger(aggregateType);
+    }
+
+    Instant now() {
+        return clock.instant();
+    }
+
+    boolean exceedsEventThreshold(int eventsSinceSnapshot) {
+        return eventsSinceSnapshot >= maxEventsBetweenSnapshots;
+    }
+
+    boolean exceedsLoadCost(Class<?> aggregateType, int eventsSinceSnapshot, Duration sourcingTime) {
+        if (eventsSinceSnapshot < minEventsBetweenSnapshots || sourcingTime.compareTo(loadTimeThreshold) < 0) {
+            return false;
+        }
+        return sourcingTime.compareTo(snapshotCreationTimes.getOrDefault(aggregateType, Duration.ZERO)) >= 0;
+    }
+
+    void recordSourcing(Class<?> aggregateType, int eventsReplayed, Duration sourcingTime) {
+        meterRegistry.timer("axon.aggregate.sourcing", AGGREGATE_TAG, aggregateType.getSimpleName()).record(sourcingTime);
+        meterRegistry.summary("axon.aggregate.sourcing.events", AGGREGATE_TAG, aggregateType.getSimpleName()).record(eventsReplayed);
+    }
+
+    void scheduleSnapshot(Class<?> aggregateType, String aggregateIdentifier, int eventsSinceSnapshot, String reason) {
+        meterRegistry.counter("axon.snapshots.triggered", AGGREGATE_TAG, aggregateType.getSimpleName(), "reason", reason).increment();
+        Runnable snapshotTask = () -> createSnapshot(aggregateType, aggregateIdentifier, eventsSinceSnapshot);
+        if (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().afterCommit(unitOfWork -> submit(aggregateType, aggregateIdentifier, snapshotTask));
+        } else {
+            submit(aggregateType, aggregateIdentifier, snapshotTask);
+        }
+    }
+
+    private void submit(Class<?> aggregateType, String aggregateIdentifier, Runnable snapshotTask) {
+        try {
+            snapshotExecutor.execute(snapshotTask);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Snapshot executor saturated, skipping snapshot of {} {}", aggregateType.getSimpleName(), aggregateIdentifier);
+            meterRegistry.counter("axon.snapshots.rejected", AGGREGATE_TAG, aggregateType.getSimpleName()).increment();
+        }
+    }
+
+    private void createSnapshot(Class<?> aggregateType, String aggregateIdentifier, int eventsSinceSnapshot) {
+        var startTime = clock.instant();
+        snapshotter.scheduleSnapshot(aggregateType, aggregateIdentifier);
+        var creationTime = Duration.between(startTime, clock.instant());
+
+        snapshotCreationTimes.put(aggregateType, creationTime);
+        meterRegistry.timer("axon.snapshots.creation", AGGREGATE_TAG, aggregateType.getSimpleName()).record(creationTime);
+        meterRegistry.summary("axon.snapshots.events.saved", AGGREGATE_TAG, aggregateType.getSimpleName()).record(eventsSinceSnapshot);
+    }
+}
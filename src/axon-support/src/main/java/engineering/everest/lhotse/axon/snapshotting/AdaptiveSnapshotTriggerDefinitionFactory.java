@@ -0,0 +1,56 @@
+package engineering.everest.lhotse.axon.snapshotting;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Component
+public class AdaptiveSnapshotTriggerDefinitionFactory implements DisposableBean {
+
+    private final Snapshotter snapshotter;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final int minEventsBetweenSnapshots;
+    private final int maxEventsBetweenSnapshots;
+    private final Duration loadTimeThreshold;
+    private final ThreadPoolTaskExecutor snapshotExecutor;
+
+    public AdaptiveSnapshotTriggerDefinitionFactory(Snapshotter snapshotter,
+                                                    MeterRegistry meterRegistry,
+                                                    Clock clock,
+                                                    @Value("${application.axon.snapshots.min-events:20}") int minEventsBetweenSnapshots,
+                                                    @Value("${application.axon.snapshots.max-events:500}") int maxEventsBetweenSnapshots,
+                                                    @Value("${application.axon.snapshots.load-time-milli-seconds:50}") long loadTimeMillis,
+                                                    @Value("${application.axon.snapshots.pool-size:2}") int poolSize,
+                                                    @Value("${application.axon.snapshots.queue-capacity:1000}") int queueCapacity) {
+        this.snapshotter = snapshotter;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.minEventsBetweenSnapshots = minEventsBetweenSnapshots;
+        this.maxEventsBetweenSnapshots = maxEventsBetweenSnapshots;
+        this.loadTimeThreshold = Duration.ofMillis(loadTimeMillis);
+        this.snapshotExecutor = new ThreadPoolTaskExecutor();
+        snapshotExecutor.setCorePoolSize(poolSize);
+        snapshotExecutor.setMaxPoolSize(poolSize);
+        snapshotExecutor.setQueueCapacity(queueCapacity);
+        snapshotExecutor.setThreadNamePrefix("snapshotter-");
+        snapshotExecutor.initialize();
+    }
+
+    public SnapshotTriggerDefinition create() {
+        return new AdaptiveSnapshotTriggerDefinition(snapshotter, snapshotExecutor, meterRegistry, clock,
+            minEventsBetweenSnapshots, maxEventsBetweenSnapshots, loadTimeThreshold);
+    }
+
+    @Override
+    public void destroy() {
+        snapshotExecutor.shutdown();
+    }
+}
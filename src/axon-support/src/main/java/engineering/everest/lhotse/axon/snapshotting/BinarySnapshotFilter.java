@@ -0,0 +1,34 @@
+package engineering.everest.lhotse.axon.snapshotting;
+
+import org.axonframework.eventhandling.DomainEventData;
+import org.axonframework.eventsourcing.snapshotting.SnapshotFilter;
+import org.axonframework.serialization.AnnotationRevisionResolver;
+
+import java.util.Objects;
+
+public class BinarySnapshotFilter implements SnapshotFilter {
+
+    private final SnapshotCodec<?> snapshotCodec;
+    private final String aggregateTypeName;
+    private final String aggregateRevision;
+
+    public BinarySnapshotFilter(SnapshotCodec<?> snapshotCodec) {
+        this.snapshotCodec = snapshotCodec;
+        this.aggregateTypeName = snapshotCodec.getAggregateType().getName();
+        this.aggregateRevision = new AnnotationRevisionResolver().revisionOf(snapshotCodec.getAggregateType());
+    }
+
+    @Override
+    public boolean test(DomainEventData<?> snapshotData) {
+        var payload = snapshotData.getPayload();
+        if (!aggregateTypeName.equals(payload.getType().getName())) {
+            return true;
+        }
+        if (!Objects.equals(aggregateRevision, payload.getType().getRevision()) || !(payload.getData() instanceof byte[])) {
+            return false;
+        }
+        return BinarySnapshotSerializer.formatVersionOf((byte[]) payload.getData())
+            .map(snapshotCodec::canRead)
+            .orElse(false);
+    }
+}
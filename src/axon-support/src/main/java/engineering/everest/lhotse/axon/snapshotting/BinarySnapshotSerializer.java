@@ -0,0 +1,124 @@
+package engineering.everest.lhotse.axon.snapshotting;
+
+import org.axonframework.serialization.AnnotationRevisionResolver;
+import org.axonframework.serialization.Converter;
+import org.axonframework.serialization.RevisionResolver;
+import org.axonframework.serialization.SerializationException;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SerializedType;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.SimpleSerializedObject;
+import org.axonframework.serialization.SimpleSerializedType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+
+public class BinarySnapshotSerializer implements Serializer {
+
+    private static final int MAGIC = 0x4c48534e;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final Serializer delegate;
+    private final RevisionResolver revisionResolver;
+    private final Map<String, SnapshotCodec<?>> codecsByTypeName;
+
+    public BinarySnapshotSerializer(Serializer delegate, Collection<SnapshotCodec<?>> snapshotCodecs) {
+        this.delegate = delegate;
+        this.revisionResolver = new AnnotationRevisionResolver();
+        this.codecsByTypeName = snapshotCodecs.stream()
+            .collect(toMap(codec -> codec.getAggregateType().getName(), Function.identity()));
+    }
+
+    static Optional<Integer> formatVersionOf(byte[] data) {
+        if (data.length < HEADER_BYTES) {
+            return Optional.empty();
+        }
+        var header = ByteBuffer.wrap(data, 0, HEADER_BYTES);
+        return header.getInt() == MAGIC ? Optional.of(header.getInt()) : Optional.empty();
+    }
+
+    @Override
+    public <T> SerializedObject<T> serialize(Object object, Class<T> expectedRepresentation) {
+        var codec = object == null ? null : codecsByTypeName.get(object.getClass().getName());
+        if (codec == null) {
+            return delegate.serialize(object, expectedRepresentation);
+        }
+        var serializedObject = new SimpleSerializedObject<>(encode(codec, object), byte[].class, typeForClass(object.getClass()));
+        return getConverter().convert(serializedObject, expectedRepresentation);
+    }
+
+    @Override
+    public <T> boolean canSerializeTo(Class<T> expectedRepresentation) {
+        return delegate.canSerializeTo(expectedRepresentation);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S, T> T deserialize(SerializedObject<S> serializedObject) {
+        var codec = codecsByTypeName.get(serializedObject.getType().getName());
+        if (codec != null) {
+            var data = getConverter().convert(serializedObject, byte[].class).getData();
+            if (formatVersionOf(data).isPresent()) {
+                return (T) decode(codec, data);
+            }
+        }
+        return delegate.deserialize(serializedObject);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Class classForType(SerializedType type) {
+        var codec = codecsByTypeName.get(type.getName());
+        return codec == null ? delegate.classForType(type) : codec.getAggregateType();
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public SerializedType typeForClass(Class type) {
+        return codecsByTypeName.containsKey(type.getName())
+            ? new SimpleSerializedType(type.getName(), revisionResolver.revisionOf(type))
+            : delegate.typeForClass(type);
+    }
+
+    @Override
+    public Converter getConverter() {
+        return delegate.getConverter();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> byte[] encode(SnapshotCodec<T> codec, Object aggregate) {
+        var outputStream = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(outputStream)) {
+            output.writeInt(MAGIC);
+            output.writeInt(codec.getFormatVersion());
+            codec.write((T) aggregate, output);
+        } catch (IOException e) {
+            throw new SerializationException("Unable to write snapshot of " + codec.getAggregateType().getName(), e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static Object decode(SnapshotCodec<?> codec, byte[] data) {
+        try (var input = new DataInputStream(new ByteArrayInputStream(data))) {
+            input.readInt();
+            var formatVersion = input.readInt();
+            if (!codec.canRead(formatVersion)) {
+                throw new SerializationException(
+                    String.format("Unsupported snapshot format %d for %s", formatVersion, codec.getAggregateType().getName()));
+            }
+            return codec.read(input);
+        } catch (IOException e) {
+            throw new SerializationException("Unable to read snapshot of " + codec.getAggregateType().getName(), e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package engineering.everest.lhotse.axon.snapshotting;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+
+public interface SnapshotCodec<T> {
+
+    Class<T> getAggregateType();
+
+    int getFormatVersion();
+
+    void write(T aggregate, DataOutput output) throws IOException;
+
+    /**
+     * Reads a snapshot written in the current format version. Snapshots in any other format are rejected by {@link #canRead(int)}
+     * and rebuilt from events instead.
+     */
+    T read(DataInput input) throws IOException;
+
+    default boolean canRead(int formatVersion) {
+        return formatVersion == getFormatVersion();
+    }
+
+    default void writeUuid(DataOutput output, UUID uuid) throws IOException {
+        output.writeLong(uuid.getMostSignificantBits());
+        output.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    default UUID readUuid(DataInput input) throws IOException {
+        return new UUID(input.readLong(), input.readLong());
+    }
+
+    default void writeInstant(DataOutput output, Instant instant) throws IOException {
+        output.writeLong(instant.getEpochSecond());
+        output.writeInt(instant.getNano());
+    }
+
+    default Instant readInstant(DataInput input) throws IOException {
+        return Instant.ofEpochSecond(input.readLong(), input.readInt());
+    }
+}
@@ -0,0 +1,137 @@
+package engineering.everest.lhotse.axon.caching;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+import org.axonframework.common.caching.Cache;
+import org.axonframework.eventsourcing.EventSourcingHandler;
+import org.axonframework.eventsourcing.EventSourcingRepository;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.modelling.command.AggregateIdentifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.axonframework.modelling.command.AggregateLifecycle.apply;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AggregateCacheFactoryTest {
+
+    private static final String CACHE_NAME = "testAggregateCache";
+    private static final String AGGREGATE_ID = "aggregate-id";
+
+    private MeterRegistry meterRegistry;
+    private AggregateCacheFactory aggregateCacheFactory;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        aggregateCacheFactory = new AggregateCacheFactory(meterRegistry, 600);
+    }
+
+    @AfterEach
+    void tearDown() {
+        aggregateCacheFactory.destroy();
+    }
+
+    @Test
+    void create_WillBoundNumberOfCachedEntries() {
+        var cache = aggregateCacheFactory.create(CACHE_NAME, 2);
+
+        IntStream.range(0, 5).forEach(i -> cache.put("key-" + i, i));
+
+        assertEquals(2, IntStream.range(0, 5).filter(i -> cache.containsKey("key-" + i)).count());
+    }
+
+    @Test
+    void create_WillStoreEntriesByReference() {
+        var cache = aggregateCacheFactory.create(CACHE_NAME, 10);
+        var value = new TestAggregate();
+
+        cache.put(AGGREGATE_ID, value);
+
+        assertSame(value, cache.get(AGGREGATE_ID));
+    }
+
+    @Test
+    void create_WillRegisterCacheMetrics() {
+        aggregateCacheFactory.create(CACHE_NAME, 10);
+
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", CACHE_NAME).meter());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", CACHE_NAME).meter());
+    }
+
+    @Test
+    void cachedAggregate_WillBeEvicted_WhenCommandRollsBack() {
+        var cache = aggregateCacheFactory.create(CACHE_NAME, 10);
+        var repository = cachingRepository(cache);
+        DefaultUnitOfWork.startAndGet(null).execute(() -> uncheckedNewInstance(repository));
+        assertTrue(cache.containsKey(AGGREGATE_ID));
+
+        var unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        repository.load(AGGREGATE_ID).execute(aggregate -> aggregate.rename("renamed"));
+        unitOfWork.rollback();
+
+        assertFalse(cache.containsKey(AGGREGATE_ID));
+    }
+
+    private static EventSourcingRepository<TestAggregate> cachingRepository(Cache cache) {
+        var eventStore = EmbeddedEventStore.builder().storageEngine(new InMemoryEventStorageEngine()).build();
+        return EventSourcingRepository.builder(TestAggregate.class)
+            .eventStore(eventStore)
+            .cache(cache)
+            .build();
+    }
+
+    private static void uncheckedNewInstance(EventSourcingRepository<TestAggregate> repository) {
+        try {
+            repository.newInstance(() -> new TestAggregate(AGGREGATE_ID));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @NoArgsConstructor
+    static class TestAggregate {
+        @AggregateIdentifier
+        private String id;
+        private String name;
+
+        TestAggregate(String id) {
+            apply(new TestAggregateCreatedEvent(id));
+        }
+
+        void rename(String name) {
+            apply(new TestAggregateRenamedEvent(name));
+        }
+
+        @EventSourcingHandler
+        void on(TestAggregateCreatedEvent event) {
+            id = event.getId();
+        }
+
+        @EventSourcingHandler
+        void on(TestAggregateRenamedEvent event) {
+            name = event.getName();
+        }
+    }
+
+    @Value
+    static class TestAggregateCreatedEvent {
+        String id;
+    }
+
+    @Value
+    static class TestAggregateRenamedEvent {
+        String name;
+    }
+}
@@ -0,0 +1,132 @@
+package engineering.everest.lhotse.axon.processors;
+
+import engineering.everest.lhotse.axon.replay.ReplayMarkerAwareTrackingEventProcessor;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.Segment;
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.spring.config.SpringAxonConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventProcessorSegmentRebalancerTest {
+
+    private static final String PROCESSOR_NAME = "processor";
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private SpringAxonConfiguration axonConfiguration;
+    @Mock
+    private EventProcessingConfiguration eventProcessingConfiguration;
+    @Mock
+    private EventProcessorSettings eventProcessorSettings;
+    @Mock
+    private TransactionManager transactionManager;
+    @Mock
+    private TokenStore tokenStore;
+    @Mock
+    private ReplayMarkerAwareTrackingEventProcessor processor;
+
+    private EventProcessorSegmentRebalancer eventProcessorSegmentRebalancer;
+
+    @BeforeEach
+    void setUp() {
+        when(axonConfiguration.getObject().eventProcessingConfiguration()).thenReturn(eventProcessingConfiguration);
+        lenient().when(eventProcessingConfiguration.tokenStore(PROCESSOR_NAME)).thenReturn(tokenStore);
+        lenient().when(transactionManager.fetchInTransaction(any()))
+            .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(processor.getName()).thenReturn(PROCESSOR_NAME);
+
+        eventProcessorSegmentRebalancer =
+            new EventProcessorSegmentRebalancer(axonConfiguration, eventProcessorSettings, transactionManager);
+    }
+
+    @Test
+    void rebalance_WillSplitWidestClaimedSegment_WhenFewerSegmentsThanConfigured() {
+        var halves = Segment.ROOT_SEGMENT.split();
+        var quarters = halves[1].split();
+        givenClaimedSegments(halves[0], quarters[0]);
+        when(tokenStore.fetchSegments(PROCESSOR_NAME)).thenReturn(new int[] { 0, 1, 3 });
+        when(eventProcessorSettings.segments(PROCESSOR_NAME)).thenReturn(4);
+
+        eventProcessorSegmentRebalancer.rebalance(processor);
+
+        verify(processor).splitSegment(halves[0].getSegmentId());
+    }
+
+    @Test
+    void rebalance_WillMergeNarrowestClaimedSegment_WhenMoreSegmentsThanConfigured() {
+        var halves = Segment.ROOT_SEGMENT.split();
+        var quarters = halves[1].split();
+        givenClaimedSegments(halves[0], quarters[1]);
+        when(tokenStore.fetchSegments(PROCESSOR_NAME)).thenReturn(new int[] { 0, 1, 3 });
+        when(eventProcessorSettings.segments(PROCESSOR_NAME)).thenReturn(2);
+
+        eventProcessorSegmentRebalancer.rebalance(processor);
+
+        verify(processor).mergeSegment(quarters[1].getSegmentId());
+    }
+
+    @Test
+    void rebalance_WillDoNothing_WhenSegmentCountMatchesConfiguration() {
+        var halves = Segment.ROOT_SEGMENT.split();
+        givenClaimedSegments(halves[0], halves[1]);
+        when(tokenStore.fetchSegments(PROCESSOR_NAME)).thenReturn(new int[] { 0, 1 });
+        when(eventProcessorSettings.segments(PROCESSOR_NAME)).thenReturn(2);
+
+        eventProcessorSegmentRebalancer.rebalance(processor);
+
+        verify(processor, never()).splitSegment(anyInt());
+        verify(processor, never()).mergeSegment(anyInt());
+    }
+
+    @Test
+    void rebalance_WillSkipProcessors_WhenRebalancingDisabled() {
+        when(eventProcessingConfiguration.eventProcessors()).thenReturn(Map.of(PROCESSOR_NAME, processor));
+        when(processor.isRunning()).thenReturn(true);
+        when(eventProcessorSettings.rebalance(PROCESSOR_NAME)).thenReturn(false);
+
+        eventProcessorSegmentRebalancer.rebalance();
+
+        verify(processor, never()).splitSegment(anyInt());
+        verify(processor, never()).mergeSegment(anyInt());
+    }
+
+    @Test
+    void rebalance_WillSkipProcessors_WhenReplaying() {
+        when(eventProcessingConfiguration.eventProcessors()).thenReturn(Map.of(PROCESSOR_NAME, processor));
+        when(processor.isRunning()).thenReturn(true);
+        when(processor.processingStatus()).thenReturn(Map.of(0, mock(EventTrackerStatus.class)));
+        when(processor.isReplaying()).thenReturn(true);
+        when(eventProcessorSettings.rebalance(PROCESSOR_NAME)).thenReturn(true);
+
+        eventProcessorSegmentRebalancer.rebalance();
+
+        verify(processor, never()).splitSegment(anyInt());
+        verify(processor, never()).mergeSegment(anyInt());
+    }
+
+    private void givenClaimedSegments(Segment first, Segment second) {
+        var firstStatus = mock(EventTrackerStatus.class);
+        var secondStatus = mock(EventTrackerStatus.class);
+        when(firstStatus.getSegment()).thenReturn(first);
+        when(secondStatus.getSegment()).thenReturn(second);
+        when(processor.processingStatus()).thenReturn(Map.of(first.getSegmentId(), firstStatus, second.getSegmentId(), secondStatus));
+    }
+}
@@ -0,0 +1,86 @@
+package engineering.everest.lhotse.axon.processors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventProcessorSettingsTest {
+
+    private static final String PROCESSING_GROUP = "engineering.everest.lhotse.competitions.handlers";
+
+    private StandardEnvironment environment;
+    private EventProcessorSettings eventProcessorSettings;
+
+    @BeforeEach
+    void setUp() {
+        environment = new StandardEnvironment();
+        eventProcessorSettings = new EventProcessorSettings(environment);
+    }
+
+    @Test
+    void settings_WillUseDefaults_WhenNothingConfigured() {
+        assertEquals(1, eventProcessorSettings.segments(PROCESSING_GROUP));
+        assertEquals(1, eventProcessorSettings.threads(PROCESSING_GROUP));
+        assertEquals(100, eventProcessorSettings.batchSize(PROCESSING_GROUP));
+        assertFalse(eventProcessorSettings.rebalance(PROCESSING_GROUP));
+        assertFalse(eventProcessorSettings.pooled(PROCESSING_GROUP));
+    }
+
+    @Test
+    void settings_WillUseGlobalValues_WhenProcessingGroupNotConfigured() {
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+            "application.axon.event-processors.segments", "2",
+            "application.axon.event-processors.threads", "2",
+            "application.axon.event-processors.batch-size", "50",
+            "application.axon.event-processors.rebalance", "true")));
+
+        assertEquals(2, eventProcessorSettings.segments(PROCESSING_GROUP));
+        assertEquals(2, eventProcessorSettings.threads(PROCESSING_GROUP));
+        assertEquals(50, eventProcessorSettings.batchSize(PROCESSING_GROUP));
+        assertTrue(eventProcessorSettings.rebalance(PROCESSING_GROUP));
+    }
+
+    @Test
+    void settings_WillPreferProcessingGroupValues() {
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+            "application.axon.event-processors.segments", "2",
+            "application.axon.event-processors.threads", "2",
+            "application.axon.event-processors." + PROCESSING_GROUP + ".segments", "8",
+            "application.axon.event-processors." + PROCESSING_GROUP + ".threads", "4")));
+
+        assertEquals(8, eventProcessorSettings.segments(PROCESSING_GROUP));
+        assertEquals(4, eventProcessorSettings.threads(PROCESSING_GROUP));
+        assertEquals(2, eventProcessorSettings.segments("other"));
+        assertEquals(2, eventProcessorSettings.threads("other"));
+    }
+
+    @Test
+    void trackingEventProcessorConfiguration_WillApplyResolvedSettings() {
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+            "application.axon.event-processors." + PROCESSING_GROUP + ".segments", "8",
+            "application.axon.event-processors." + PROCESSING_GROUP + ".threads", "4",
+            "application.axon.event-processors." + PROCESSING_GROUP + ".batch-size", "25")));
+
+        var configuration = eventProcessorSettings.trackingEventProcessorConfiguration(PROCESSING_GROUP);
+
+        assertEquals(8, configuration.getInitialSegmentsCount());
+        assertEquals(4, configuration.getMaxThreadCount());
+        assertEquals(25, configuration.getBatchSize());
+    }
+
+    @Test
+    void pooled_WillBeTrue_WhenProcessorTypeIsPooled() {
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+            "application.axon.event-processors." + PROCESSING_GROUP + ".type", "pooled")));
+
+        assertTrue(eventProcessorSettings.pooled(PROCESSING_GROUP));
+        assertFalse(eventProcessorSettings.pooled("other"));
+    }
+}
@@ -0,0 +1,96 @@
+package engineering.everest.lhotse.axon.processors;
+
+import engineering.everest.lhotse.axon.replay.ReplayMarkerEvent;
+import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.GenericTrackedEventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.messaging.StreamableMessageSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PayloadTypeFilteringMessageSourceTest {
+
+    private static final TrackingToken TRACKING_TOKEN = new GlobalSequenceTrackingToken(41);
+
+    @Mock
+    private StreamableMessageSource<TrackedEventMessage<?>> delegate;
+    @Mock
+    private BlockingStream<TrackedEventMessage<?>> delegateStream;
+
+    private PayloadTypeFilteringMessageSource payloadTypeFilteringMessageSource;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(delegate.openStream(TRACKING_TOKEN)).thenReturn(delegateStream);
+        lenient().when(delegateStream.skipMessagesWithPayloadTypeOf(any())).thenReturn(true);
+
+        payloadTypeFilteringMessageSource = new PayloadTypeFilteringMessageSource(delegate,
+            payloadType -> ReplayMarkerEvent.class.isAssignableFrom(payloadType) || String.class.equals(payloadType));
+    }
+
+    @Test
+    void nextAvailable_WillPassHandledEventsThrough() throws Exception {
+        var handledEvent = trackedEvent("handled");
+        when(delegateStream.nextAvailable()).thenReturn(handledEvent);
+
+        var stream = payloadTypeFilteringMessageSource.openStream(TRACKING_TOKEN);
+
+        assertEquals(handledEvent, stream.nextAvailable());
+        verify(delegateStream, never()).skipMessagesWithPayloadTypeOf(any());
+    }
+
+    @Test
+    void nextAvailable_WillSkipTypeOnce_WhenEventTypeIsNotHandled() throws Exception {
+        var unhandledEvent = trackedEvent(42L);
+        var anotherUnhandledEvent = trackedEvent(43L);
+        when(delegateStream.nextAvailable()).thenReturn(unhandledEvent, anotherUnhandledEvent);
+
+        var stream = payloadTypeFilteringMessageSource.openStream(TRACKING_TOKEN);
+
+        assertEquals(unhandledEvent, stream.nextAvailable());
+        assertEquals(anotherUnhandledEvent, stream.nextAvailable());
+        verify(delegateStream, times(1)).skipMessagesWithPayloadTypeOf(any());
+        verify(delegateStream).skipMessagesWithPayloadTypeOf(unhandledEvent);
+    }
+
+    @Test
+    void openStream_WillSkipPreviouslySeenUnhandledTypesStraightAway() throws Exception {
+        var unhandledEvent = trackedEvent(42L);
+        when(delegateStream.nextAvailable()).thenReturn(unhandledEvent);
+        payloadTypeFilteringMessageSource.openStream(TRACKING_TOKEN).nextAvailable();
+
+        payloadTypeFilteringMessageSource.openStream(TRACKING_TOKEN);
+
+        verify(delegateStream, times(2)).skipMessagesWithPayloadTypeOf(unhandledEvent);
+    }
+
+    @Test
+    void skipMessagesWithPayloadTypeOf_WillNotSkipReplayMarkerEvents() {
+        var stream = payloadTypeFilteringMessageSource.openStream(TRACKING_TOKEN);
+
+        assertFalse(stream.skipMessagesWithPayloadTypeOf(trackedEvent(new ReplayMarkerEvent(UUID.randomUUID()))));
+        verify(delegateStream, never()).skipMessagesWithPayloadTypeOf(any());
+    }
+
+    private static TrackedEventMessage<?> trackedEvent(Object payload) {
+        return new GenericTrackedEventMessage<>(TRACKING_TOKEN, GenericEventMessage.asEventMessage(payload));
+    }
+}
@@ -1,10 +1,14 @@
 package engineering.everest.lhotse.axon.replay;
 
 import engineering.everest.lhotse.axon.replay.ReplayableEventProcessor.ListenerRegistry;
+import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.config.Configuration;
 import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.EventTrackerStatus;
 import org.axonframework.eventhandling.TrackingToken;
 import org.axonframework.eventhandling.gateway.EventGateway;
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.eventhandling.tokenstore.UnableToClaimTokenException;
 import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.axonframework.spring.config.SpringAxonConfiguration;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,13 +25,17 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -53,7 +61,19 @@ class ReplayEndpointTest {
     @Mock
     private TrackingToken startPosition;
     @Mock
+    private TrackingToken headPosition;
+    @Mock
     private ListenerRegistry listenerRegistry;
+    @Mock
+    private ReplayTelemetry replayTelemetry;
+    @Mock
+    private ShadowProjectionRebuilder shadowProjectionRebuilder;
+    @Mock
+    private TokenStore tokenStore;
+    @Mock
+    private TransactionManager transactionManager;
+    @Mock
+    private EventTrackerStatus eventTrackerStatus;
 
     private ReplayEndpoint replayEndpoint;
 
@@ -64,7 +84,13 @@ class ReplayEndpointTest {
         lenient().when(eventProcessingConfiguration.eventProcessors()).thenReturn(
             Map.of("default", replayMarkerAwareTrackingEventProcessor));
         lenient().when(replayMarkerAwareTrackingEventProcessor.isReplaying()).thenReturn(false);
-        replayEndpoint = new ReplayEndpoint(springAxonConfiguration, List.of(replayCompletionAware), taskExecutor);
+        lenient().when(replayMarkerAwareTrackingEventProcessor.getName()).thenReturn("default");
+        lenient().when(eventProcessingConfiguration.tokenStore("default")).thenReturn(tokenStore);
+        lenient().when(eventProcessingConfiguration.transactionManager("default")).thenReturn(transactionManager);
+        lenient().when(transactionManager.fetchInTransaction(any()))
+            .thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        replayEndpoint = new ReplayEndpoint(springAxonConfiguration, List.of(replayCompletionAware), taskExecutor, replayTelemetry,
+            shadowProjectionRebuilder);
     }
 
     @Test
@@ -72,7 +98,8 @@ class ReplayEndpointTest {
         Map<String, Object> status = replayEndpoint.status();
         assertEquals(Map.of("ReplayableEventProcessors", 1,
             "currentlyReplaying", 0,
-            "isReplaying", false), status);
+            "isReplaying", false,
+            "processors", Map.of()), status);
     }
 
     @Test
@@ -80,6 +107,7 @@ class ReplayEndpointTest {
         when(configuration.eventStore()).thenReturn(eventStore);
         when(configuration.eventGateway()).thenReturn(eventGateway);
         when(eventStore.createTailToken()).thenReturn(startPosition);
+        when(eventStore.createHeadToken()).thenReturn(headPosition);
         doAnswer(invocation -> {
             ((Runnable) invocation.getArgument(0)).run();
             return null;
@@ -89,28 +117,120 @@ class ReplayEndpointTest {
             listener.set(invocation.getArgument(0));
             return listenerRegistry;
         }).when(replayMarkerAwareTrackingEventProcessor).registerReplayCompletionListener(any());
-        replayEndpoint.startReplay(null, null);
+        replayEndpoint.startReplay(null, null, null);
         verify(replayMarkerAwareTrackingEventProcessor).startReplay(eq(startPosition), any(ReplayMarkerEvent.class));
+        verify(replayTelemetry).replayStarted(replayMarkerAwareTrackingEventProcessor, startPosition, headPosition);
         verify(eventGateway).publish(any(ReplayMarkerEvent.class));
 
         // Another attempt to start replay before current one is completed will fail
-        assertThrows(IllegalStateException.class, () -> replayEndpoint.startReplay(null, null));
+        assertThrows(IllegalStateException.class, () -> replayEndpoint.startReplay(null, null, null));
         Map<String, Object> status = replayEndpoint.status();
         // Status should show currently replaying processors
         assertEquals(Map.of("ReplayableEventProcessors", 1,
             "currentlyReplaying", 1,
-            "isReplaying", true), status);
+            "isReplaying", true,
+            "processors", Map.of()), status);
 
         // Now complete the replay
         listener.get().accept(replayMarkerAwareTrackingEventProcessor);
         verify(listenerRegistry).close();
+        verify(replayTelemetry).replayCompleted(replayMarkerAwareTrackingEventProcessor);
         verify(replayCompletionAware).replayCompleted();
+        verify(shadowProjectionRebuilder, never()).prepare(any());
+        verify(shadowProjectionRebuilder, never()).switchOver(any());
+    }
+
+    @Test
+    void startReplay_WillRebuildInShadowTablesAndSwitchOverOnCompletion_WhenShadowRequested() {
+        when(configuration.eventStore()).thenReturn(eventStore);
+        when(configuration.eventGateway()).thenReturn(eventGateway);
+        when(eventStore.createTailToken()).thenReturn(startPosition);
+        when(shadowProjectionRebuilder.canRebuild(replayMarkerAwareTrackingEventProcessor)).thenReturn(true);
+        when(tokenStore.fetchSegments("default")).thenReturn(new int[] { 0, 1 });
+        when(replayMarkerAwareTrackingEventProcessor.processingStatus()).thenReturn(Map.of(0, eventTrackerStatus, 1, eventTrackerStatus));
+        AtomicReference<Consumer<ReplayableEventProcessor>> listener = new AtomicReference<>();
+        doAnswer(invocation -> {
+            listener.set(invocation.getArgument(0));
+            return listenerRegistry;
+        }).when(replayMarkerAwareTrackingEventProcessor).registerReplayCompletionListener(any());
+
+        replayEndpoint.startReplay(null, null, true);
+
+        var inOrder = inOrder(shadowProjectionRebuilder, replayMarkerAwareTrackingEventProcessor);
+        inOrder.verify(shadowProjectionRebuilder).prepare(List.of(replayMarkerAwareTrackingEventProcessor));
+        inOrder.verify(replayMarkerAwareTrackingEventProcessor).startReplay(eq(startPosition), any(ReplayMarkerEvent.class));
+
+        when(shadowProjectionRebuilder.isRebuilding(replayMarkerAwareTrackingEventProcessor)).thenReturn(true);
+        listener.get().accept(replayMarkerAwareTrackingEventProcessor);
+        verify(shadowProjectionRebuilder).switchOver(replayMarkerAwareTrackingEventProcessor);
+    }
+
+    @Test
+    void startReplay_WillAbortShadowRebuildAndResumeProcessor_WhenTokensCannotBeReset() throws IOException {
+        when(configuration.eventStore()).thenReturn(eventStore);
+        when(eventStore.createTailToken()).thenReturn(startPosition);
+        when(shadowProjectionRebuilder.canRebuild(replayMarkerAwareTrackingEventProcessor)).thenReturn(true);
+        when(tokenStore.fetchSegments("default")).thenReturn(new int[] { 0, 1 });
+        when(replayMarkerAwareTrackingEventProcessor.processingStatus()).thenReturn(Map.of(0, eventTrackerStatus, 1, eventTrackerStatus));
+        when(replayMarkerAwareTrackingEventProcessor.registerReplayCompletionListener(any())).thenReturn(listenerRegistry);
+        doThrow(new UnableToClaimTokenException("Segment 1 is claimed by another node"))
+            .when(replayMarkerAwareTrackingEventProcessor).startReplay(eq(startPosition), any(ReplayMarkerEvent.class));
+
+        assertThrows(IllegalStateException.class, () -> replayEndpoint.startReplay(null, null, true));
+
+        var inOrder = inOrder(shadowProjectionRebuilder, replayMarkerAwareTrackingEventProcessor);
+        inOrder.verify(shadowProjectionRebuilder).abort(replayMarkerAwareTrackingEventProcessor);
+        inOrder.verify(replayMarkerAwareTrackingEventProcessor).start();
+        verify(listenerRegistry).close();
+        verify(replayTelemetry).replayCompleted(replayMarkerAwareTrackingEventProcessor);
+        verify(configuration, never()).eventGateway();
+        assertEquals(false, replayEndpoint.status().get("isReplaying"));
+    }
+
+    @Test
+    void startReplay_WillAbortShadowRebuildOnCompletion_WhenAnotherNodeClaimedSegmentsDuringReplay() {
+        when(configuration.eventStore()).thenReturn(eventStore);
+        when(configuration.eventGateway()).thenReturn(eventGateway);
+        when(eventStore.createTailToken()).thenReturn(startPosition);
+        when(shadowProjectionRebuilder.canRebuild(replayMarkerAwareTrackingEventProcessor)).thenReturn(true);
+        when(tokenStore.fetchSegments("default")).thenReturn(new int[] { 0, 1 });
+        when(replayMarkerAwareTrackingEventProcessor.processingStatus())
+            .thenReturn(Map.of(0, eventTrackerStatus, 1, eventTrackerStatus), Map.of(0, eventTrackerStatus));
+        AtomicReference<Consumer<ReplayableEventProcessor>> listener = new AtomicReference<>();
+        doAnswer(invocation -> {
+            listener.set(invocation.getArgument(0));
+            return listenerRegistry;
+        }).when(replayMarkerAwareTrackingEventProcessor).registerReplayCompletionListener(any());
+
+        replayEndpoint.startReplay(null, null, true);
+        when(shadowProjectionRebuilder.isRebuilding(replayMarkerAwareTrackingEventProcessor)).thenReturn(true);
+        listener.get().accept(replayMarkerAwareTrackingEventProcessor);
+
+        verify(shadowProjectionRebuilder).abort(replayMarkerAwareTrackingEventProcessor);
+        verify(shadowProjectionRebuilder, never()).switchOver(any());
+    }
+
+    @Test
+    void startReplayWillThrowIllegalStateException_WhenShadowRequestedAndAnotherNodeClaimsSegments() {
+        when(shadowProjectionRebuilder.canRebuild(replayMarkerAwareTrackingEventProcessor)).thenReturn(true);
+        when(tokenStore.fetchSegments("default")).thenReturn(new int[] { 0, 1 });
+        when(replayMarkerAwareTrackingEventProcessor.processingStatus()).thenReturn(Map.of(0, eventTrackerStatus));
+
+        assertThrows(IllegalStateException.class, () -> replayEndpoint.startReplay(null, null, true));
+        verify(shadowProjectionRebuilder, never()).prepare(any());
+        verify(replayMarkerAwareTrackingEventProcessor, never()).startReplay(any(), any());
+    }
+
+    @Test
+    void startReplayWillThrowIllegalStateException_WhenShadowRequestedAndNoProcessorCanBeRebuilt() {
+        assertThrows(IllegalStateException.class, () -> replayEndpoint.startReplay(null, null, true));
+        verify(replayMarkerAwareTrackingEventProcessor, never()).startReplay(any(), any());
     }
 
     @Test
     void triggerReplayWillThrowIllegalStateException_WhenNoMatchingEventProcessorFound() {
         when(eventProcessingConfiguration.eventProcessorByProcessingGroup(
             "foo", ReplayableEventProcessor.class)).thenReturn(Optional.empty());
-        assertThrows(IllegalStateException.class, () -> replayEndpoint.startReplay(Set.of("foo"), null));
+        assertThrows(IllegalStateException.class, () -> replayEndpoint.startReplay(Set.of("foo"), null, null));
     }
 }
@@ -0,0 +1,149 @@
+package engineering.everest.lhotse.axon.replay;
+
+import engineering.everest.lhotse.axon.processors.EventProcessorSettings;
+import org.axonframework.common.transaction.Transaction;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.EventProcessingModule;
+import org.axonframework.eventhandling.ErrorHandler;
+import org.axonframework.eventhandling.EventHandlerInvoker;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.Segment;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.messaging.unitofwork.RollbackConfiguration;
+import org.axonframework.monitoring.MessageMonitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplayMarkerAwarePooledStreamingEventProcessorTest {
+
+    @Mock
+    private Configuration configuration;
+    @Mock
+    private EventProcessingModule eventProcessingModule;
+    @Mock
+    private TaskExecutor taskExecutor;
+    @Mock
+    private EventHandlerInvoker eventHandlerInvoker;
+    @Mock
+    private EmbeddedEventStore embeddedEventStore;
+    @Mock
+    private TokenStore tokenStore;
+    @Mock
+    private TransactionManager transactionManager;
+    @Mock
+    private TrackingToken startPosition;
+    @Mock
+    private ReplayMarkerEvent replayMarkerEvent;
+    @Mock
+    private ShadowProjectionRebuilder shadowProjectionRebuilder;
+
+    private ReplayMarkerAwarePooledStreamingEventProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        var environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+            "application.axon.event-processors.default.type", "pooled",
+            "application.axon.event-processors.default.segments", "2",
+            "application.axon.event-processors.default.threads", "2")));
+        when(eventProcessingModule.rollbackConfiguration(any())).thenReturn(mock(RollbackConfiguration.class));
+        when(eventProcessingModule.errorHandler(any())).thenReturn(mock(ErrorHandler.class));
+        when(eventProcessingModule.messageMonitor(any(), any())).thenReturn(mock(MessageMonitor.class));
+        when(configuration.eventBus()).thenReturn(embeddedEventStore);
+        when(eventProcessingModule.tokenStore(any())).thenReturn(tokenStore);
+        when(eventProcessingModule.transactionManager(any())).thenReturn(transactionManager);
+        lenient().when(transactionManager.startTransaction()).thenReturn(mock(Transaction.class));
+        lenient().when(tokenStore.fetchSegments(any())).thenReturn(new int[0]);
+        when(eventHandlerInvoker.supportsReset()).thenReturn(true);
+        lenient().doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(0);
+            runnable.run();
+            return null;
+        }).when(taskExecutor).execute(any(Runnable.class));
+        processor = (ReplayMarkerAwarePooledStreamingEventProcessor) new ReplayMarkerAwareTrackingEventProcessorBuilder(
+            taskExecutor, eventProcessingModule, new EventProcessorSettings(environment), shadowProjectionRebuilder)
+                .build("default", configuration, eventHandlerInvoker);
+    }
+
+    @Test
+    void startReplay_WillFail_WhenReplayAlreadyInProgress() {
+        var replayMarkerAwarePooledStreamingEventProcessor = spy(processor);
+        replayMarkerAwarePooledStreamingEventProcessor.startReplay(startPosition, replayMarkerEvent);
+
+        var thrownException = assertThrows(RuntimeException.class,
+            () -> replayMarkerAwarePooledStreamingEventProcessor.startReplay(startPosition, replayMarkerEvent));
+        assertEquals("Previous replay is still running", thrownException.getMessage());
+    }
+
+    @Test
+    void startReplay_WillWorkStandalone() throws Exception {
+        var replayMarkerAwarePooledStreamingEventProcessor = spy(processor);
+        var segments = Segment.ROOT_SEGMENT.split();
+        when(replayMarkerAwarePooledStreamingEventProcessor.processingStatus()).thenReturn(Map.of(
+            segments[0].getSegmentId(), mock(EventTrackerStatus.class),
+            segments[1].getSegmentId(), mock(EventTrackerStatus.class)));
+        CountDownLatch replayLatch = new CountDownLatch(1);
+        Consumer<ReplayableEventProcessor> listener = p -> replayLatch.countDown();
+        replayMarkerAwarePooledStreamingEventProcessor.registerReplayCompletionListener(listener);
+        replayMarkerAwarePooledStreamingEventProcessor.startReplay(startPosition, replayMarkerEvent);
+        assertTrue(replayMarkerAwarePooledStreamingEventProcessor.isReplaying());
+        verify(replayMarkerAwarePooledStreamingEventProcessor).shutDown();
+        verify(replayMarkerAwarePooledStreamingEventProcessor).resetTokens(startPosition);
+        verify(replayMarkerAwarePooledStreamingEventProcessor).start();
+        assertTrue(replayMarkerAwarePooledStreamingEventProcessor.isReplaying());
+
+        // Feed the replay event
+        replayMarkerAwarePooledStreamingEventProcessor.canHandle(new GenericEventMessage<>(replayMarkerEvent), List.of(segments[0]));
+        // one is not enough since we have two segments
+        assertTrue(replayMarkerAwarePooledStreamingEventProcessor.isReplaying());
+        assertEquals(1, replayLatch.getCount());
+
+        // nor is the same segment seeing it twice
+        replayMarkerAwarePooledStreamingEventProcessor.canHandle(new GenericEventMessage<>(replayMarkerEvent), List.of(segments[0]));
+        assertTrue(replayMarkerAwarePooledStreamingEventProcessor.isReplaying());
+
+        // Feed the replay event to the other segment
+        replayMarkerAwarePooledStreamingEventProcessor.canHandle(new GenericEventMessage<>(replayMarkerEvent), List.of(segments[1]));
+        // Now the replay be completed
+        replayLatch.await(1, TimeUnit.SECONDS);
+        assertEquals(0, replayLatch.getCount());
+        assertFalse(replayMarkerAwarePooledStreamingEventProcessor.isReplaying());
+    }
+
+    @Test
+    void canHandleType_WillLetReplayMarkerThrough_WhenNotHandledByProcessor() {
+        when(eventHandlerInvoker.canHandleType(String.class)).thenReturn(false);
+
+        assertTrue(processor.canHandleType(ReplayMarkerEvent.class));
+        assertFalse(processor.canHandleType(String.class));
+    }
+}
@@ -0,0 +1,97 @@
+package engineering.everest.lhotse.axon.replay;
+
+import engineering.everest.lhotse.axon.processors.EventProcessorSettings;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.EventProcessingModule;
+import org.axonframework.eventhandling.ErrorHandler;
+import org.axonframework.eventhandling.EventHandlerInvoker;
+import org.axonframework.eventhandling.TrackingEventProcessor;
+import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.messaging.unitofwork.RollbackConfiguration;
+import org.axonframework.monitoring.MessageMonitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplayMarkerAwareTrackingEventProcessorBuilderTest {
+
+    private static final String PROCESSING_GROUP_A = "engineering.everest.lhotse.competitions.handlers";
+    private static final String PROCESSING_GROUP_B = "engineering.everest.lhotse.photos.handlers";
+
+    @Mock
+    private Configuration configuration;
+    @Mock
+    private EventProcessingModule eventProcessingModule;
+    @Mock
+    private TaskExecutor taskExecutor;
+    @Mock
+    private EventHandlerInvoker eventHandlerInvoker;
+    @Mock
+    private EmbeddedEventStore embeddedEventStore;
+    @Mock
+    private TokenStore tokenStore;
+    @Mock
+    private TransactionManager transactionManager;
+    @Mock
+    private ShadowProjectionRebuilder shadowProjectionRebuilder;
+
+    private ReplayMarkerAwareTrackingEventProcessorBuilder builder;
+
+    @BeforeEach
+    void setUp() {
+        var environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+            "application.axon.event-processors.threads", "1",
+            "application.axon.event-processors." + PROCESSING_GROUP_A + ".threads", "2",
+            "application.axon.event-processors." + PROCESSING_GROUP_B + ".threads", "3")));
+        when(eventProcessingModule.rollbackConfiguration(any())).thenReturn(mock(RollbackConfiguration.class));
+        when(eventProcessingModule.errorHandler(any())).thenReturn(mock(ErrorHandler.class));
+        when(eventProcessingModule.messageMonitor(any(), any())).thenReturn(mock(MessageMonitor.class));
+        when(configuration.eventBus()).thenReturn(embeddedEventStore);
+        when(eventProcessingModule.tokenStore(any())).thenReturn(tokenStore);
+        when(eventProcessingModule.transactionManager(any())).thenReturn(transactionManager);
+
+        builder = new ReplayMarkerAwareTrackingEventProcessorBuilder(taskExecutor, eventProcessingModule,
+            new EventProcessorSettings(environment), shadowProjectionRebuilder);
+    }
+
+    @Test
+    void build_WillApplyEachProcessingGroupsOwnSettings_WhenBuildingReplayableProcessors() {
+        when(eventHandlerInvoker.supportsReset()).thenReturn(true);
+
+        var processorA = builder.build(PROCESSING_GROUP_A, configuration, eventHandlerInvoker);
+        var processorB = builder.build(PROCESSING_GROUP_B, configuration, eventHandlerInvoker);
+
+        assertTrue(processorA instanceof ReplayMarkerAwareTrackingEventProcessor);
+        assertTrue(processorB instanceof ReplayMarkerAwareTrackingEventProcessor);
+        assertEquals(2, ((TrackingEventProcessor) processorA).maxCapacity());
+        assertEquals(3, ((TrackingEventProcessor) processorB).maxCapacity());
+    }
+
+    @Test
+    void build_WillApplyEachProcessingGroupsOwnSettings_WhenBuildingNonReplayableProcessors() {
+        when(eventHandlerInvoker.supportsReset()).thenReturn(false);
+
+        var processorA = builder.build(PROCESSING_GROUP_A, configuration, eventHandlerInvoker);
+        var processorB = builder.build(PROCESSING_GROUP_B, configuration, eventHandlerInvoker);
+
+        assertEquals(2, ((TrackingEventProcessor) processorA).maxCapacity());
+        assertEquals(3, ((TrackingEventProcessor) processorB).maxCapacity());
+    }
+}
@@ -1,5 +1,7 @@
 package engineering.everest.lhotse.axon.replay;
 
+import engineering.everest.lhotse.axon.processors.EventProcessorSettings;
+import org.axonframework.common.transaction.Transaction;
 import org.axonframework.common.transaction.TransactionManager;
 import org.axonframework.config.Configuration;
 import org.axonframework.config.EventProcessingModule;
@@ -10,6 +12,7 @@ import org.axonframework.eventhandling.GenericEventMessage;
 import org.axonframework.eventhandling.Segment;
 import org.axonframework.eventhandling.TrackingToken;
 import org.axonframework.eventhandling.tokenstore.TokenStore;
+import org.axonframework.eventhandling.tokenstore.UnableToClaimTokenException;
 import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
 import org.axonframework.messaging.unitofwork.RollbackConfiguration;
 import org.axonframework.monitoring.MessageMonitor;
@@ -18,6 +21,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.StandardEnvironment;
 import org.springframework.core.task.TaskExecutor;
 
 import java.util.List;
@@ -25,16 +29,18 @@ import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -60,19 +66,21 @@ class ReplayMarkerAwareTrackingEventProcessorTest {
     private TrackingToken startPosition;
     @Mock
     private ReplayMarkerEvent replayMarkerEvent;
+    @Mock
+    private ShadowProjectionRebuilder shadowProjectionRebuilder;
 
     private ReplayMarkerAwareTrackingEventProcessor processor;
 
     @BeforeEach
     void setUp() {
-        doAnswer(invocation -> ((Supplier) invocation.getArgument(1)).get())
-            .when(configuration).getComponent(any(), any());
         when(eventProcessingModule.rollbackConfiguration(any())).thenReturn(mock(RollbackConfiguration.class));
         when(eventProcessingModule.errorHandler(any())).thenReturn(mock(ErrorHandler.class));
         when(eventProcessingModule.messageMonitor(any(), any())).thenReturn(mock(MessageMonitor.class));
         when(configuration.eventBus()).thenReturn(embeddedEventStore);
         when(eventProcessingModule.tokenStore(any())).thenReturn(tokenStore);
         when(eventProcessingModule.transactionManager(any())).thenReturn(transactionManager);
+        lenient().when(transactionManager.startTransaction()).thenReturn(mock(Transaction.class));
+        lenient().when(tokenStore.fetchSegments(any())).thenReturn(new int[0]);
         when(eventHandlerInvoker.supportsReset()).thenReturn(true);
         lenient().doAnswer(invocation -> {
             Runnable runnable = invocation.getArgument(0);
@@ -80,7 +88,7 @@ class ReplayMarkerAwareTrackingEventProcessorTest {
             return null;
         }).when(taskExecutor).execute(any(Runnable.class));
         processor = (ReplayMarkerAwareTrackingEventProcessor) new ReplayMarkerAwareTrackingEventProcessorBuilder(
-            taskExecutor, eventProcessingModule)
+            taskExecutor, eventProcessingModule, new EventProcessorSettings(new StandardEnvironment()), shadowProjectionRebuilder)
                 .build("default", configuration, eventHandlerInvoker);
     }
 
@@ -94,12 +102,27 @@ class ReplayMarkerAwareTrackingEventProcessorTest {
         assertEquals("Previous replay is still running", thrownException.getMessage());
     }
 
+    @Test
+    void startReplay_WillLeaveProcessorShutDownAndNotReplaying_WhenTokensCannotBeReset() {
+        var replayMarkerAwareTrackingEventProcessor = spy(processor);
+        var failure = new UnableToClaimTokenException("Segment 1 is claimed by another node");
+        doThrow(failure).when(replayMarkerAwareTrackingEventProcessor).resetTokens(startPosition);
+
+        var thrownException = assertThrows(UnableToClaimTokenException.class,
+            () -> replayMarkerAwareTrackingEventProcessor.startReplay(startPosition, replayMarkerEvent));
+
+        assertSame(failure, thrownException);
+        assertFalse(replayMarkerAwareTrackingEventProcessor.isReplaying());
+        verify(replayMarkerAwareTrackingEventProcessor, never()).start();
+    }
+
     @Test
     void startReplay_WillWorkStandalone() throws Exception {
         var replayMarkerAwareTrackingEventProcessor = spy(processor);
+        var segments = Segment.ROOT_SEGMENT.split();
         when(replayMarkerAwareTrackingEventProcessor.processingStatus()).thenReturn(Map.of(
-            0, mock(EventTrackerStatus.class),
-            1, mock(EventTrackerStatus.class)));
+            segments[0].getSegmentId(), mock(EventTrackerStatus.class),
+            segments[1].getSegmentId(), mock(EventTrackerStatus.class)));
         CountDownLatch replayLatch = new CountDownLatch(1);
         Consumer<ReplayableEventProcessor> listener = p -> replayLatch.countDown();
         replayMarkerAwareTrackingEventProcessor.registerReplayCompletionListener(listener);
@@ -111,15 +134,17 @@ class ReplayMarkerAwareTrackingEventProcessorTest {
         assertTrue(replayMarkerAwareTrackingEventProcessor.isReplaying());
 
         // Feed the replay event
-        replayMarkerAwareTrackingEventProcessor.canHandle(new GenericEventMessage<>(replayMarkerEvent),
-            List.of(mock(Segment.class)));
+        replayMarkerAwareTrackingEventProcessor.canHandle(new GenericEventMessage<>(replayMarkerEvent), List.of(segments[0]));
         // one is not enough since we have two segments
         assertTrue(replayMarkerAwareTrackingEventProcessor.isReplaying());
         assertEquals(1, replayLatch.getCount());
 
-        // Feed again the replay event
-        replayMarkerAwareTrackingEventProcessor.canHandle(new GenericEventMessage<>(replayMarkerEvent),
-            List.of(mock(Segment.class)));
+        // nor is the same segment seeing it twice
+        replayMarkerAwareTrackingEventProcessor.canHandle(new GenericEventMessage<>(replayMarkerEvent), List.of(segments[0]));
+        assertTrue(replayMarkerAwareTrackingEventProcessor.isReplaying());
+
+        // Feed the replay event to the other segment
+        replayMarkerAwareTrackingEventProcessor.canHandle(new GenericEventMessage<>(replayMarkerEvent), List.of(segments[1]));
         // Now the replay be completed
         replayLatch.await(1, TimeUnit.SECONDS);
         assertEquals(0, replayLatch.getCount());
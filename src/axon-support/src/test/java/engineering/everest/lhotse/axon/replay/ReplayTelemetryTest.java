@@ -0,0 +1,160 @@
+package engineering.everest.lhotse.axon.replay;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.messaging.InterceptorChain;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplayTelemetryTest {
+
+    private static final String PROCESSOR_NAME = "processor";
+    private static final Instant REPLAY_STARTED = Instant.ofEpochMilli(1658900761278L);
+
+    @Mock
+    private Clock clock;
+    @Mock
+    private ReplayableEventProcessor processor;
+    @Mock
+    private TrackingToken startPosition;
+    @Mock
+    private TrackingToken headPosition;
+    @Mock
+    private EventTrackerStatus firstSegmentStatus;
+    @Mock
+    private EventTrackerStatus secondSegmentStatus;
+
+    private MeterRegistry meterRegistry;
+    private ReplayTelemetry replayTelemetry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        when(processor.getName()).thenReturn(PROCESSOR_NAME);
+        lenient().when(processor.processingStatus()).thenReturn(Map.of(0, firstSegmentStatus, 1, secondSegmentStatus));
+        when(startPosition.position()).thenReturn(OptionalLong.of(0));
+        when(headPosition.position()).thenReturn(OptionalLong.of(1000));
+        when(clock.instant()).thenReturn(REPLAY_STARTED);
+
+        replayTelemetry = new ReplayTelemetry(meterRegistry, clock);
+        replayTelemetry.replayStarted(processor, startPosition, headPosition);
+    }
+
+    @Test
+    void status_WillReportProgressOfSlowestSegmentWithRateAndEta() {
+        givenSegmentPositions(600, 400);
+        when(clock.instant()).thenReturn(REPLAY_STARTED.plusSeconds(100));
+
+        var status = processorStatus();
+
+        assertEquals(400L, status.get("processedEvents"));
+        assertEquals(1000L, status.get("totalEvents"));
+        assertEquals(0.4, status.get("progress"));
+        assertEquals(4.0, status.get("eventsPerSecond"));
+        assertEquals(150.0, status.get("etaSeconds"));
+        assertEquals(0.4, meterRegistry.get("axon.replay.progress").tag("processor", PROCESSOR_NAME).gauge().value());
+        assertEquals(150.0, meterRegistry.get("axon.replay.eta.seconds").tag("processor", PROCESSOR_NAME).gauge().value());
+    }
+
+    @Test
+    void status_WillOmitEta_WhenNothingProcessedYet() {
+        givenSegmentPositions(0, 0);
+        when(clock.instant()).thenReturn(REPLAY_STARTED.plusSeconds(100));
+
+        assertNull(processorStatus().get("etaSeconds"));
+    }
+
+    @Test
+    void sample_WillReportIdleTimeOfSegmentsThatStopAdvancing() {
+        givenSegmentPositions(100, 100);
+        replayTelemetry.sample();
+
+        givenSegmentPositions(200, 100);
+        when(clock.instant()).thenReturn(REPLAY_STARTED.plusSeconds(30));
+        replayTelemetry.sample();
+
+        assertEquals(0.0, segmentGauge("axon.replay.segment.idle.seconds", "0"));
+        assertEquals(30.0, segmentGauge("axon.replay.segment.idle.seconds", "1"));
+        assertEquals(200.0, segmentGauge("axon.replay.segment.position", "0"));
+        assertEquals(0.1, segmentGauge("axon.replay.segment.progress", "1"));
+    }
+
+    @Test
+    void replayCompleted_WillReportFullProgressAndFreezeRate() {
+        givenSegmentPositions(1000, 1000);
+        when(clock.instant()).thenReturn(REPLAY_STARTED.plusSeconds(10));
+        replayTelemetry.replayCompleted(processor);
+        when(clock.instant()).thenReturn(REPLAY_STARTED.plusSeconds(1000));
+
+        var status = processorStatus();
+
+        assertEquals(REPLAY_STARTED.plusSeconds(10), status.get("completedAt"));
+        assertEquals(1.0, status.get("progress"));
+        assertEquals(100.0, status.get("eventsPerSecond"));
+        assertEquals(0.0, status.get("etaSeconds"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handlerInterceptor_WillTimeHandlingPerEventTypeWhileReplaying() throws Exception {
+        var interceptorCaptor = ArgumentCaptor.forClass(MessageHandlerInterceptor.class);
+        verify(processor).registerHandlerInterceptor(interceptorCaptor.capture());
+        UnitOfWork<EventMessage<?>> unitOfWork = mock(UnitOfWork.class);
+        doReturn(new GenericEventMessage<>("event")).when(unitOfWork).getMessage();
+        var interceptorChain = mock(InterceptorChain.class);
+        when(interceptorChain.proceed()).thenReturn("result");
+
+        var result = interceptorCaptor.getValue().handle(unitOfWork, interceptorChain);
+
+        assertEquals("result", result);
+        assertEquals(1, meterRegistry.get("axon.replay.handler").tags("processor", PROCESSOR_NAME, "eventType", "String").timer().count());
+        assertEquals(Set.of("String"), ((Map<String, Double>) processorStatus().get("handlerSeconds")).keySet());
+    }
+
+    @Test
+    void replayStarted_WillRegisterInterceptorOnlyOnce() {
+        replayTelemetry.replayStarted(processor, startPosition, headPosition);
+
+        verify(processor).registerHandlerInterceptor(any());
+    }
+
+    private void givenSegmentPositions(long firstSegmentPosition, long secondSegmentPosition) {
+        lenient().when(firstSegmentStatus.getCurrentPosition()).thenReturn(OptionalLong.of(firstSegmentPosition));
+        lenient().when(secondSegmentStatus.getCurrentPosition()).thenReturn(OptionalLong.of(secondSegmentPosition));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> processorStatus() {
+        return (Map<String, Object>) replayTelemetry.status().get(PROCESSOR_NAME);
+    }
+
+    private double segmentGauge(String name, String segment) {
+        return meterRegistry.get(name).tags("processor", PROCESSOR_NAME, "segment", segment).gauge().value();
+    }
+}
@@ -0,0 +1,140 @@
+package engineering.everest.lhotse.axon.replay;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShadowProjectionRebuilderTest {
+
+    private static final String PROCESSING_GROUP = "engineering.everest.lhotse.photos.handlers";
+    private static final String SHADOW_SCHEMA = "projections_rebuild_1234";
+    private static final String RETIRED_SCHEMA = "projections_retired_1234";
+    private static final String SEARCH_PATH_SQL =
+        "SELECT set_config('search_path', ? || ',' || current_setting('search_path'), true)";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private Clock clock;
+    @Mock
+    private ReplayableEventProcessor processor;
+
+    private ShadowProjectionRebuilder shadowProjectionRebuilder;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(processor.getName()).thenReturn(PROCESSING_GROUP);
+        lenient().when(clock.millis()).thenReturn(1234L);
+        lenient().when(jdbcTemplate.queryForObject("SELECT current_schema()", String.class)).thenReturn("public");
+
+        shadowProjectionRebuilder = new ShadowProjectionRebuilder(jdbcTemplate, transactionManager, Runnable::run, clock,
+            List.of(new RebuildableProjection(PROCESSING_GROUP, List.of("photos"))));
+    }
+
+    @Test
+    void canRebuild_WillBeFalse_WhenProcessorHasNoRebuildableProjection() {
+        var otherProcessor = mock(ReplayableEventProcessor.class);
+        when(otherProcessor.getName()).thenReturn("other");
+
+        assertTrue(shadowProjectionRebuilder.canRebuild(processor));
+        assertFalse(shadowProjectionRebuilder.canRebuild(otherProcessor));
+    }
+
+    @Test
+    void prepare_WillCopyProjectionTablesIntoNewShadowSchema() {
+        shadowProjectionRebuilder.prepare(List.of(processor));
+
+        var inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("CREATE SCHEMA " + SHADOW_SCHEMA);
+        inOrder.verify(jdbcTemplate).execute("CREATE TABLE " + SHADOW_SCHEMA + ".photos (LIKE public.photos INCLUDING ALL)");
+        assertTrue(shadowProjectionRebuilder.isRebuilding(processor));
+    }
+
+    @Test
+    void useShadowTablesIfRebuilding_WillPutShadowSchemaFirstOnSearchPath() {
+        shadowProjectionRebuilder.prepare(List.of(processor));
+
+        shadowProjectionRebuilder.useShadowTablesIfRebuilding(PROCESSING_GROUP);
+
+        verify(jdbcTemplate).queryForObject(SEARCH_PATH_SQL, String.class, SHADOW_SCHEMA);
+    }
+
+    @Test
+    void useShadowTablesIfRebuilding_WillDoNothing_WhenNotRebuilding() {
+        shadowProjectionRebuilder.useShadowTablesIfRebuilding(PROCESSING_GROUP);
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void switchOver_WillSwapTablesKeepingIndexNamesAndDropRetiredTables() {
+        shadowProjectionRebuilder.prepare(List.of(processor));
+        when(jdbcTemplate.queryForList(anyString(), eq("public.photos"), eq(RETIRED_SCHEMA + ".photos"))).thenReturn(List.of(
+            Map.of("shadowname", "photos_owneruserid_uploadtimestamp_id_idx", "retiredname", "INDEX_photos_owneruserid_uploadtimestamp_id"),
+            Map.of("shadowname", "PK_photos", "retiredname", "PK_photos")));
+
+        shadowProjectionRebuilder.switchOver(processor);
+
+        var inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("CREATE SCHEMA IF NOT EXISTS " + RETIRED_SCHEMA);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE public.photos SET SCHEMA " + RETIRED_SCHEMA);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE " + SHADOW_SCHEMA + ".photos SET SCHEMA public");
+        inOrder.verify(jdbcTemplate).execute(
+            "ALTER INDEX public.\"photos_owneruserid_uploadtimestamp_id_idx\" RENAME TO \"INDEX_photos_owneruserid_uploadtimestamp_id\"");
+        inOrder.verify(jdbcTemplate).execute("DROP TABLE IF EXISTS " + RETIRED_SCHEMA + ".photos");
+        inOrder.verify(jdbcTemplate).execute("DROP SCHEMA IF EXISTS " + RETIRED_SCHEMA);
+        inOrder.verify(jdbcTemplate).execute("DROP SCHEMA IF EXISTS " + SHADOW_SCHEMA);
+        verify(jdbcTemplate, never()).execute("ALTER INDEX public.\"PK_photos\" RENAME TO \"PK_photos\"");
+        assertFalse(shadowProjectionRebuilder.isRebuilding(processor));
+    }
+
+    @Test
+    void switchOver_WillDoNothing_WhenNotRebuilding() {
+        shadowProjectionRebuilder.switchOver(processor);
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void abort_WillStopRoutingAndDropShadowTables() {
+        shadowProjectionRebuilder.prepare(List.of(processor));
+
+        shadowProjectionRebuilder.abort(processor);
+
+        var inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("DROP TABLE IF EXISTS " + SHADOW_SCHEMA + ".photos");
+        inOrder.verify(jdbcTemplate).execute("DROP SCHEMA IF EXISTS " + SHADOW_SCHEMA);
+        verify(jdbcTemplate, never()).execute("ALTER TABLE public.photos SET SCHEMA " + RETIRED_SCHEMA);
+        assertFalse(shadowProjectionRebuilder.isRebuilding(processor));
+    }
+
+    @Test
+    void abort_WillDoNothing_WhenNotRebuilding() {
+        shadowProjectionRebuilder.abort(processor);
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,116 @@
+package engineering.everest.lhotse.axon.serialization;
+
+import engineering.everest.axon.cryptoshredding.annotations.EncryptedField;
+import engineering.everest.lhotse.axon.replay.ReplayMarkerEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SerializedType;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.SimpleSerializedObject;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LazyDecryptingSerializerTest {
+
+    private static final UUID OWNER_ID = UUID.randomUUID();
+
+    @Mock
+    private Serializer decryptingSerializer;
+
+    private JacksonSerializer plainSerializer;
+    private LazyDecryptingSerializer lazyDecryptingSerializer;
+    private SerializedObject<byte[]> serializedEvent;
+
+    @BeforeEach
+    void setUp() {
+        plainSerializer = JacksonSerializer.defaultSerializer();
+        lenient().when(decryptingSerializer.classForType(any()))
+            .thenAnswer(invocation -> plainSerializer.classForType(invocation.getArgument(0, SerializedType.class)));
+        lenient().when(decryptingSerializer.typeForClass(any()))
+            .thenAnswer(invocation -> plainSerializer.typeForClass(invocation.getArgument(0, Class.class)));
+        serializedEvent = plainSerializer.serialize(new EncryptedEvent(OWNER_ID, "ciphertext"), byte[].class);
+        lenient().when(decryptingSerializer.deserialize(serializedEvent)).thenReturn(new EncryptedEvent(OWNER_ID, "secret"));
+
+        lazyDecryptingSerializer = new LazyDecryptingSerializer(decryptingSerializer, plainSerializer);
+    }
+
+    @Test
+    void deserialize_WillNotDecrypt_WhenOnlyPlainFieldsAreRead() {
+        EncryptedEvent event = lazyDecryptingSerializer.deserialize(serializedEvent);
+
+        assertEquals(OWNER_ID, event.getOwnerId());
+        verify(decryptingSerializer, never()).deserialize(any());
+    }
+
+    @Test
+    void deserialize_WillDecryptOnce_WhenEncryptedFieldIsRead() {
+        EncryptedEvent event = lazyDecryptingSerializer.deserialize(serializedEvent);
+
+        assertEquals("secret", event.getSecret());
+        assertEquals("secret", event.getSecret());
+        assertEquals(new EncryptedEvent(OWNER_ID, "secret"), event);
+        verify(decryptingSerializer).deserialize(serializedEvent);
+    }
+
+    @Test
+    void deserialize_WillIgnoreUnknownProperties_WhenReadingPlainFields() {
+        var json = String.format("{\"ownerId\":\"%s\",\"secret\":\"ciphertext\",\"addedLater\":1}", OWNER_ID);
+        var serializedEventWithUnknownProperty = new SimpleSerializedObject<>(json.getBytes(StandardCharsets.UTF_8), byte[].class,
+            plainSerializer.typeForClass(EncryptedEvent.class));
+
+        EncryptedEvent event = lazyDecryptingSerializer.deserialize(serializedEventWithUnknownProperty);
+
+        assertEquals(OWNER_ID, event.getOwnerId());
+    }
+
+    @Test
+    void deserialize_WillDecryptStraightAway_WhenTypeHasNoEncryptedFields() {
+        var replayMarkerEvent = new ReplayMarkerEvent(UUID.randomUUID());
+        var serializedReplayMarkerEvent = plainSerializer.serialize(replayMarkerEvent, byte[].class);
+        when(decryptingSerializer.deserialize(serializedReplayMarkerEvent)).thenReturn(replayMarkerEvent);
+
+        assertEquals(replayMarkerEvent, lazyDecryptingSerializer.deserialize(serializedReplayMarkerEvent));
+    }
+
+    @Test
+    void typeForClass_WillReportPayloadType_WhenPayloadIsLazilyDecrypted() {
+        EncryptedEvent event = lazyDecryptingSerializer.deserialize(serializedEvent);
+
+        assertEquals(plainSerializer.typeForClass(EncryptedEvent.class), lazyDecryptingSerializer.typeForClass(event.getClass()));
+    }
+
+    @Test
+    void serialize_WillSerializeDecryptedPayload_WhenPayloadIsLazilyDecrypted() {
+        EncryptedEvent event = lazyDecryptingSerializer.deserialize(serializedEvent);
+
+        lazyDecryptingSerializer.serialize(event, byte[].class);
+
+        verify(decryptingSerializer).serialize(new EncryptedEvent(OWNER_ID, "secret"), byte[].class);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EncryptedEvent {
+        private UUID ownerId;
+        @EncryptedField
+        private String secret;
+    }
+}
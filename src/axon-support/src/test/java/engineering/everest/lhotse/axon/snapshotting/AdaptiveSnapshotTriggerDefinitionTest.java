@@ -0,0 +1,206 @@
+package engineering.everest.lhotse.axon.snapshotting;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventsourcing.SnapshotTrigger;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdaptiveSnapshotTriggerDefinitionTest {
+
+    private static final String AGGREGATE_ID = "aggregate-id";
+    private static final Instant SOURCING_STARTED = Instant.ofEpochMilli(1658900761278L);
+    private static final int MIN_EVENTS = 5;
+    private static final int MAX_EVENTS = 20;
+
+    @Mock
+    private Snapshotter snapshotter;
+    @Mock
+    private Clock clock;
+
+    private MeterRegistry meterRegistry;
+    private AdaptiveSnapshotTriggerDefinition adaptiveSnapshotTriggerDefinition;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        adaptiveSnapshotTriggerDefinition = new AdaptiveSnapshotTriggerDefinition(snapshotter, Runnable::run, meterRegistry, clock,
+            MIN_EVENTS, MAX_EVENTS, Duration.ofMillis(50));
+    }
+
+    @Test
+    void willSnapshot_WhenEventsReplayedExceedsMaximum() {
+        sourceAggregate(MAX_EVENTS, Duration.ofMillis(1));
+
+        verify(snapshotter).scheduleSnapshot(TestAggregate.class, AGGREGATE_ID);
+        assertEquals(1, meterRegistry.counter("axon.snapshots.triggered", "aggregate", "TestAggregate", "reason", "events").count());
+    }
+
+    @Test
+    void willSnapshot_WhenSourcingTimeExceedsLoadTimeThreshold() {
+        sourceAggregate(MIN_EVENTS, Duration.ofMillis(50));
+
+        verify(snapshotter).scheduleSnapshot(TestAggregate.class, AGGREGATE_ID);
+        assertEquals(1, meterRegistry.counter("axon.snapshots.triggered", "aggregate", "TestAggregate", "reason", "load-time").count());
+    }
+
+    @Test
+    void willNotSnapshot_WhenSourcingIsCheap() {
+        sourceAggregate(MAX_EVENTS - 1, Duration.ofMillis(49));
+
+        verifyNoInteractions(snapshotter);
+    }
+
+    @Test
+    void willNotSnapshot_WhenTooFewEventsSinceLastSnapshot() {
+        sourceAggregate(MIN_EVENTS - 1, Duration.ofSeconds(1));
+
+        verifyNoInteractions(snapshotter);
+    }
+
+    @Test
+    void willNotSnapshot_WhenSnapshotCreationCostsMoreThanSourcing() {
+        when(clock.instant()).thenReturn(SOURCING_STARTED, SOURCING_STARTED.plusMillis(1),
+            SOURCING_STARTED, SOURCING_STARTED.plusMillis(200));
+        sourceAggregate(MAX_EVENTS);
+        verify(snapshotter).scheduleSnapshot(TestAggregate.class, AGGREGATE_ID);
+
+        sourceAggregate(MIN_EVENTS, Duration.ofMillis(100));
+
+        verify(snapshotter).scheduleSnapshot(TestAggregate.class, AGGREGATE_ID);
+        assertEquals(1, meterRegistry.timer("axon.snapshots.creation", "aggregate", "TestAggregate").count());
+    }
+
+    @Test
+    void willOnlyCountEventsSinceSnapshot() {
+        when(clock.instant()).thenReturn(SOURCING_STARTED, SOURCING_STARTED.plusMillis(1));
+        var trigger = adaptiveSnapshotTriggerDefinition.prepareTrigger(TestAggregate.class);
+
+        for (int i = 0; i < MAX_EVENTS - 1; i++) {
+            trigger.eventHandled(domainEvent(i));
+        }
+        trigger.eventHandled(new GenericDomainEventMessage<>("TestAggregate", AGGREGATE_ID, MAX_EVENTS, new TestAggregate()));
+        trigger.eventHandled(domainEvent(MAX_EVENTS + 1));
+        trigger.initializationFinished();
+
+        verifyNoInteractions(snapshotter);
+        assertEquals(1, meterRegistry.summary("axon.aggregate.sourcing.events", "aggregate", "TestAggregate").totalAmount());
+    }
+
+    @Test
+    void willSnapshot_WhenAppliedEventsExceedMaximum() {
+        var trigger = sourceAggregate(MAX_EVENTS - 1, Duration.ofMillis(1));
+
+        trigger.eventHandled(domainEvent(MAX_EVENTS));
+
+        verify(snapshotter).scheduleSnapshot(TestAggregate.class, AGGREGATE_ID);
+    }
+
+    @Test
+    void willIgnoreNonDomainEvents() {
+        var trigger = sourceAggregate(MAX_EVENTS - 1, Duration.ofMillis(1));
+
+        trigger.eventHandled(GenericEventMessage.asEventMessage("not a domain event"));
+
+        verifyNoInteractions(snapshotter);
+    }
+
+    @Test
+    void willDeferSnapshotUntilUnitOfWorkCommits() {
+        var unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        sourceAggregate(MAX_EVENTS, Duration.ofMillis(1));
+        verifyNoInteractions(snapshotter);
+
+        unitOfWork.commit();
+
+        verify(snapshotter).scheduleSnapshot(TestAggregate.class, AGGREGATE_ID);
+    }
+
+    @Test
+    void willNotSnapshot_WhenUnitOfWorkRollsBack() {
+        var unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        sourceAggregate(MAX_EVENTS, Duration.ofMillis(1));
+
+        unitOfWork.rollback();
+
+        verify(snapshotter, never()).scheduleSnapshot(TestAggregate.class, AGGREGATE_ID);
+    }
+
+    @Test
+    void willCountRejectedSnapshots_WhenExecutorSaturated() {
+        adaptiveSnapshotTriggerDefinition = new AdaptiveSnapshotTriggerDefinition(snapshotter,
+            runnable -> {
+                throw new RejectedExecutionException();
+            }, meterRegistry, clock, MIN_EVENTS, MAX_EVENTS, Duration.ofMillis(50));
+
+        sourceAggregate(MAX_EVENTS, Duration.ofMillis(1));
+
+        verifyNoInteractions(snapshotter);
+        assertEquals(1, meterRegistry.counter("axon.snapshots.rejected", "aggregate", "TestAggregate").count());
+    }
+
+    @Test
+    void reconfigure_WillRestoreDefinitionOfDeserializedTrigger() throws Exception {
+        var trigger = sourceAggregate(MAX_EVENTS - 1, Duration.ofMillis(1));
+
+        var reconfiguredTrigger = adaptiveSnapshotTriggerDefinition.reconfigure(TestAggregate.class, roundTrip(trigger));
+        reconfiguredTrigger.eventHandled(domainEvent(MAX_EVENTS));
+
+        verify(snapshotter).scheduleSnapshot(TestAggregate.class, AGGREGATE_ID);
+    }
+
+    private SnapshotTrigger sourceAggregate(int numEvents, Duration sourcingTime) {
+        when(clock.instant()).thenReturn(SOURCING_STARTED, SOURCING_STARTED.plus(sourcingTime));
+        return sourceAggregate(numEvents);
+    }
+
+    private SnapshotTrigger sourceAggregate(int numEvents) {
+        var trigger = adaptiveSnapshotTriggerDefinition.prepareTrigger(TestAggregate.class);
+        for (int i = 0; i < numEvents; i++) {
+            trigger.eventHandled(domainEvent(i));
+        }
+        trigger.initializationFinished();
+        return trigger;
+    }
+
+    private static GenericDomainEventMessage<String> domainEvent(long sequenceNumber) {
+        return new GenericDomainEventMessage<>("TestAggregate", AGGREGATE_ID, sequenceNumber, "event");
+    }
+
+    private static SnapshotTrigger roundTrip(SnapshotTrigger trigger) throws IOException, ClassNotFoundException {
+        var outputStream = new ByteArrayOutputStream();
+        try (var objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(trigger);
+        }
+        try (var objectInputStream = new ObjectInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            return (SnapshotTrigger) objectInputStream.readObject();
+        }
+    }
+
+    private static class TestAggregate {
+    }
+}
@@ -0,0 +1,72 @@
+package engineering.everest.lhotse.axon.snapshotting;
+
+import engineering.everest.lhotse.axon.snapshotting.BinarySnapshotSerializerTest.TestAggregate;
+import engineering.everest.lhotse.axon.snapshotting.BinarySnapshotSerializerTest.TestAggregateSnapshotCodec;
+import org.axonframework.eventhandling.AbstractDomainEventEntry;
+import org.axonframework.eventhandling.DomainEventData;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.SimpleSerializedObject;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinarySnapshotFilterTest {
+
+    private static final TestAggregate TEST_AGGREGATE = new TestAggregate(randomUUID(), Instant.ofEpochSecond(1658900761L));
+
+    private BinarySnapshotSerializer binarySnapshotSerializer;
+    private BinarySnapshotFilter binarySnapshotFilter;
+
+    @BeforeEach
+    void setUp() {
+        binarySnapshotSerializer = new BinarySnapshotSerializer(JacksonSerializer.defaultSerializer(),
+            List.of(new TestAggregateSnapshotCodec(1)));
+        binarySnapshotFilter = new BinarySnapshotFilter(new TestAggregateSnapshotCodec(1));
+    }
+
+    @Test
+    void willAllowSnapshotsInCurrentBinaryFormat() {
+        assertTrue(binarySnapshotFilter.allow(snapshotData(binarySnapshotSerializer.serialize(TEST_AGGREGATE, byte[].class))));
+    }
+
+    @Test
+    void willAllowSnapshotsOfOtherAggregateTypes() {
+        var otherSnapshot = new SimpleSerializedObject<>("{}".getBytes(), byte[].class, "OtherAggregate", null);
+
+        assertTrue(binarySnapshotFilter.allow(snapshotData(otherSnapshot)));
+    }
+
+    @Test
+    void willRejectSnapshotsInOtherFormats() {
+        var jacksonSnapshot = JacksonSerializer.defaultSerializer().serialize(TEST_AGGREGATE, byte[].class);
+
+        assertFalse(binarySnapshotFilter.allow(snapshotData(jacksonSnapshot)));
+    }
+
+    @Test
+    void willRejectSnapshotsOfOtherAggregateRevisions() {
+        var serializedObject = binarySnapshotSerializer.serialize(TEST_AGGREGATE, byte[].class);
+        var previousRevision = new SimpleSerializedObject<>(serializedObject.getData(), byte[].class, TestAggregate.class.getName(), "1");
+
+        assertFalse(binarySnapshotFilter.allow(snapshotData(previousRevision)));
+    }
+
+    @Test
+    void willRejectSnapshotsInUnreadableFormatVersions() {
+        var newerSerializer = new BinarySnapshotSerializer(JacksonSerializer.defaultSerializer(), List.of(new TestAggregateSnapshotCodec(2)));
+
+        assertFalse(binarySnapshotFilter.allow(snapshotData(newerSerializer.serialize(TEST_AGGREGATE, byte[].class))));
+    }
+
+    private static DomainEventData<byte[]> snapshotData(SerializedObject<byte[]> payload) {
+        return new AbstractDomainEventEntry<>("TestAggregate", "aggregate-id", 1L, "event-id", Instant.now(), payload.getType().getName(),
+            payload.getType().getRevision(), payload.getData(), new byte[0]) {};
+    }
+}
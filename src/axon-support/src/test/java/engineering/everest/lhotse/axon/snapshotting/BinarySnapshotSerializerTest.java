@@ -0,0 +1,160 @@
+package engineering.everest.lhotse.axon.snapshotting;
+
+import org.axonframework.serialization.Revision;
+import org.axonframework.serialization.SerializationException;
+import org.axonframework.serialization.SimpleSerializedObject;
+import org.axonframework.serialization.SimpleSerializedType;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinarySnapshotSerializerTest {
+
+    private static final TestAggregate TEST_AGGREGATE = new TestAggregate(randomUUID(), Instant.ofEpochSecond(1658900761L, 278));
+
+    private JacksonSerializer delegateSerializer;
+    private BinarySnapshotSerializer binarySnapshotSerializer;
+
+    @BeforeEach
+    void setUp() {
+        delegateSerializer = JacksonSerializer.defaultSerializer();
+        binarySnapshotSerializer = new BinarySnapshotSerializer(delegateSerializer, List.of(new TestAggregateSnapshotCodec(1)));
+    }
+
+    @Test
+    void serialize_WillWriteVersionedBinaryFormat_WhenCodecRegisteredForType() {
+        var serializedObject = binarySnapshotSerializer.serialize(TEST_AGGREGATE, byte[].class);
+
+        assertEquals(new SimpleSerializedType(TestAggregate.class.getName(), "2"), serializedObject.getType());
+        assertEquals(2 * Integer.BYTES + 2 * Long.BYTES + Long.BYTES + Integer.BYTES, serializedObject.getData().length);
+        assertEquals(1, BinarySnapshotSerializer.formatVersionOf(serializedObject.getData()).orElseThrow());
+    }
+
+    @Test
+    void deserialize_WillRoundTripAggregate() {
+        var serializedObject = binarySnapshotSerializer.serialize(TEST_AGGREGATE, byte[].class);
+
+        TestAggregate deserialized = binarySnapshotSerializer.deserialize(serializedObject);
+
+        assertEquals(TEST_AGGREGATE, deserialized);
+    }
+
+    @Test
+    void serialize_WillDelegate_WhenNoCodecRegisteredForType() {
+        var metaData = Map.of("key", "value");
+
+        var serializedObject = binarySnapshotSerializer.serialize(metaData, byte[].class);
+
+        assertArrayEquals(delegateSerializer.serialize(metaData, byte[].class).getData(), serializedObject.getData());
+        assertEquals(metaData, binarySnapshotSerializer.deserialize(serializedObject));
+    }
+
+    @Test
+    void deserialize_WillDelegate_WhenDataNotInBinaryFormat() {
+        var delegateSerializedObject = delegateSerializer.serialize(TEST_AGGREGATE, byte[].class);
+
+        TestAggregate deserialized = binarySnapshotSerializer.deserialize(delegateSerializedObject);
+
+        assertEquals(TEST_AGGREGATE, deserialized);
+    }
+
+    @Test
+    void deserialize_WillFail_WhenFormatVersionCannotBeRead() {
+        var newerSerializer = new BinarySnapshotSerializer(delegateSerializer, List.of(new TestAggregateSnapshotCodec(2)));
+        var serializedObject = newerSerializer.serialize(TEST_AGGREGATE, byte[].class);
+
+        var exception = assertThrows(SerializationException.class, () -> binarySnapshotSerializer.deserialize(serializedObject));
+        assertTrue(exception.getMessage().contains("Unsupported snapshot format 2"));
+    }
+
+    @Test
+    void classForType_WillResolveRegisteredAggregateType() {
+        assertEquals(TestAggregate.class, binarySnapshotSerializer.classForType(new SimpleSerializedType(TestAggregate.class.getName(), "2")));
+        assertEquals(String.class, binarySnapshotSerializer.classForType(new SimpleSerializedType(String.class.getName(), null)));
+    }
+
+    @Test
+    void formatVersionOf_WillBeEmpty_WhenDataNotInBinaryFormat() {
+        assertTrue(BinarySnapshotSerializer.formatVersionOf(new byte[0]).isEmpty());
+        assertTrue(BinarySnapshotSerializer.formatVersionOf("{\"id\":\"value\"}".getBytes()).isEmpty());
+        var serializedObject = new SimpleSerializedObject<>(new byte[] { 0, 0, 0, 0, 0, 0, 0, 1 }, byte[].class, TestAggregate.class.getName(), "2");
+        assertTrue(BinarySnapshotSerializer.formatVersionOf(serializedObject.getData()).isEmpty());
+    }
+
+    @Revision("2")
+    static class TestAggregate {
+        private UUID id;
+        private Instant timestamp;
+
+        TestAggregate() {}
+
+        TestAggregate(UUID id, Instant timestamp) {
+            this.id = id;
+            this.timestamp = timestamp;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TestAggregate
+                && id.equals(((TestAggregate) other).id)
+                && timestamp.equals(((TestAggregate) other).timestamp);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+    }
+
+    static class TestAggregateSnapshotCodec implements SnapshotCodec<TestAggregate> {
+
+        private final int formatVersion;
+
+        TestAggregateSnapshotCodec(int formatVersion) {
+            this.formatVersion = formatVersion;
+        }
+
+        @Override
+        public Class<TestAggregate> getAggregateType() {
+            return TestAggregate.class;
+        }
+
+        @Override
+        public int getFormatVersion() {
+            return formatVersion;
+        }
+
+        @Override
+        public void write(TestAggregate aggregate, DataOutput output) throws IOException {
+            writeUuid(output, aggregate.getId());
+            writeInstant(output, aggregate.getTimestamp());
+        }
+
+        @Override
+        public TestAggregate read(DataInput input) throws IOException {
+            return new TestAggregate(readUuid(input), readInstant(input));
+        }
+    }
+}
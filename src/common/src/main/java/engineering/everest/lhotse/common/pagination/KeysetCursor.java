@@ -0,0 +1,51 @@
+package engineering.everest.lhotse.common.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a page ordered by (timestamp, id), passed to clients as an opaque continuation token.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public final class KeysetCursor {
+
+    private static final int TOKEN_LENGTH_BYTES = Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    private final Instant timestamp;
+    private final UUID id;
+
+    public String toContinuationToken() {
+        var buffer = ByteBuffer.allocate(TOKEN_LENGTH_BYTES)
+            .putLong(timestamp.getEpochSecond())
+            .putInt(timestamp.getNano())
+            .putLong(id.getMostSignificantBits())
+            .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static KeysetCursor fromContinuationToken(String continuationToken) {
+        try {
+            var bytes = Base64.getUrlDecoder().decode(continuationToken);
+            if (bytes.length != TOKEN_LENGTH_BYTES) {
+                throw new IllegalArgumentException("Malformed continuation token");
+            }
+            var buffer = ByteBuffer.wrap(bytes);
+            var timestamp = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            return new KeysetCursor(timestamp, new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (BufferUnderflowException | IllegalArgumentException | ArithmeticException | DateTimeException e) {
+            throw new IllegalArgumentException("Malformed continuation token", e);
+        }
+    }
+}
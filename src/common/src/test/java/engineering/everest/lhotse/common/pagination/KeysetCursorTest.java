@@ -0,0 +1,40 @@
+package engineering.everest.lhotse.common.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void continuationToken_WillRoundTrip() {
+        var cursor = new KeysetCursor(Instant.ofEpochSecond(1_650_000_000L, 123_456_000), randomUUID());
+
+        assertEquals(cursor, KeysetCursor.fromContinuationToken(cursor.toContinuationToken()));
+    }
+
+    @Test
+    void fromContinuationToken_WillFail_WhenTokenIsNotBase64() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.fromContinuationToken("not a token!"));
+    }
+
+    @Test
+    void fromContinuationToken_WillFail_WhenTokenHasWrongLength() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.fromContinuationToken("AAAA"));
+    }
+
+    @Test
+    void fromContinuationToken_WillFail_WhenTimestampIsOutOfRange() {
+        var bytes = ByteBuffer.allocate(28).putLong(Long.MAX_VALUE).putInt(0).putLong(1L).putLong(2L).array();
+        var continuationToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        var thrownException = assertThrows(IllegalArgumentException.class, () -> KeysetCursor.fromContinuationToken(continuationToken));
+        assertEquals("Malformed continuation token", thrownException.getMessage());
+    }
+}
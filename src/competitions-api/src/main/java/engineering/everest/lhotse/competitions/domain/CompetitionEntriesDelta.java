@@ -0,0 +1,66 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompetitionEntriesDelta {
+    private UUID competitionId;
+    private List<CompetitionEntry> addedEntries;
+    private Map<UUID, Integer> numVotesReceivedPerPhoto;
+    private Set<UUID> winningPhotoIds;
+
+    public static CompetitionEntriesDelta entryAdded(CompetitionEntry entry) {
+        return new CompetitionEntriesDelta(entry.getCompetitionId(), List.of(entry), Map.of(), Set.of());
+    }
+
+    public static CompetitionEntriesDelta votesChanged(UUID competitionId, Map<UUID, Integer> numVotesReceivedPerPhoto) {
+        return new CompetitionEntriesDelta(competitionId, List.of(), numVotesReceivedPerPhoto, Set.of());
+    }
+
+    public static CompetitionEntriesDelta winnersDeclared(UUID competitionId, Set<UUID> winningPhotoIds) {
+        return new CompetitionEntriesDelta(competitionId, List.of(), Map.of(), winningPhotoIds);
+    }
+
+    public CompetitionEntriesDelta mergeWith(CompetitionEntriesDelta laterDelta) {
+        var mergedAddedEntries = new ArrayList<>(addedEntries);
+        mergedAddedEntries.addAll(laterDelta.getAddedEntries());
+        var mergedNumVotesReceivedPerPhoto = new HashMap<>(numVotesReceivedPerPhoto);
+        laterDelta.getNumVotesReceivedPerPhoto().forEach((photoId, numVotesReceived) ->
+            mergedNumVotesReceivedPerPhoto.merge(photoId, numVotesReceived, Math::max));
+        var mergedWinningPhotoIds = new HashSet<>(winningPhotoIds);
+        mergedWinningPhotoIds.addAll(laterDelta.getWinningPhotoIds());
+        return new CompetitionEntriesDelta(competitionId, mergedAddedEntries, mergedNumVotesReceivedPerPhoto, mergedWinningPhotoIds);
+    }
+
+    /**
+     * Vote counts are absolute totals, so applying a delta already reflected in the given state is a no-op.
+     */
+    public CompetitionWithEntries applyTo(CompetitionWithEntries competitionWithEntries) {
+        var entriesByPhotoId = new LinkedHashMap<UUID, CompetitionEntry>();
+        competitionWithEntries.getEntries().forEach(entry -> entriesByPhotoId.put(entry.getPhotoId(), entry));
+        addedEntries.forEach(entry -> entriesByPhotoId.putIfAbsent(entry.getPhotoId(), entry));
+        numVotesReceivedPerPhoto.forEach((photoId, numVotesReceived) -> entriesByPhotoId.computeIfPresent(photoId,
+            (id, entry) -> copyOf(entry, Math.max(entry.getNumVotesReceived(), numVotesReceived), entry.isWinner())));
+        winningPhotoIds.forEach(photoId -> entriesByPhotoId.computeIfPresent(photoId,
+            (id, entry) -> copyOf(entry, entry.getNumVotesReceived(), true)));
+        return new CompetitionWithEntries(competitionWithEntries, new ArrayList<>(entriesByPhotoId.values()));
+    }
+
+    private static CompetitionEntry copyOf(CompetitionEntry entry, int numVotesReceived, boolean isWinner) {
+        return new CompetitionEntry(entry.getCompetitionId(), entry.getPhotoId(), entry.getSubmittedByUserId(),
+            entry.getEntryTimestamp(), numVotesReceived, isWinner);
+    }
+}
@@ -0,0 +1,7 @@
+package engineering.everest.lhotse.competitions.domain;
+
+public enum CompetitionStatus {
+    OPEN_FOR_SUBMISSIONS,
+    VOTING,
+    ENDED
+}
@@ -0,0 +1,15 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompetitionsPage {
+    private List<Competition> competitions;
+    private String continuationToken;
+}
@@ -25,4 +25,5 @@ public class CreateCompetitionCommand implements Serializable {
     @NotNull
     private Instant votingEndsTimestamp;
     private int maxEntriesPerUser;
+    private boolean votesCountedPerEntry;
 }
@@ -1,14 +1,18 @@
 package engineering.everest.lhotse.competitions.services;
 
-import engineering.everest.lhotse.competitions.domain.Competition;
+import engineering.everest.lhotse.competitions.domain.CompetitionStatus;
 import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
+import engineering.everest.lhotse.competitions.domain.CompetitionsPage;
 
-import java.util.List;
 import java.util.UUID;
 
 public interface CompetitionsReadService {
 
-    List<Competition> getAllCompetitionsOrderedByDescVotingEndsTimestamp();
+    /**
+     * A null status matches every competition and a null continuation token starts from the first page. The returned
+     * continuation token is null on the last page.
+     */
+    CompetitionsPage getCompetitionsOrderedByDescVotingEndsTimestamp(CompetitionStatus status, String continuationToken, int pageSize);
 
     CompetitionWithEntries getCompetitionWithEntries(UUID competitionId);
 }
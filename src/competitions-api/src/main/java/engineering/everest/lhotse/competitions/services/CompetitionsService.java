@@ -2,17 +2,18 @@ package engineering.everest.lhotse.competitions.services;
 
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface CompetitionsService {
 
-    UUID createCompetition(UUID requestingUserId,
-                           String description,
-                           Instant submissionsOpenTimestamp,
-                           Instant submissionsCloseTimestamp,
-                           Instant votingEndsTimestamp,
-                           int maxEntriesPerUser);
+    CompletableFuture<UUID> createCompetitionAsync(UUID requestingUserId,
+                                                   String description,
+                                                   Instant submissionsOpenTimestamp,
+                                                   Instant submissionsCloseTimestamp,
+                                                   Instant votingEndsTimestamp,
+                                                   int maxEntriesPerUser);
 
-    void submitPhoto(UUID requestingUserId, UUID competitionId, UUID photoId, String submissionNotes);
+    CompletableFuture<Void> submitPhotoAsync(UUID requestingUserId, UUID competitionId, UUID photoId, String submissionNotes);
 
-    void voteForPhoto(UUID requestingUserId, UUID competitionId, UUID photoId);
+    CompletableFuture<Void> voteForPhotoAsync(UUID requestingUserId, UUID competitionId, UUID photoId);
 }
@@ -0,0 +1,134 @@
+package engineering.everest.lhotse.competitions.persistence;
+
+import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
+import engineering.everest.lhotse.competitions.domain.CompetitionsPage;
+import engineering.everest.lhotse.competitions.services.DefaultCompetitionsReadService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.time.temporal.ChronoUnit.DAYS;
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static org.springframework.boot.WebApplicationType.NONE;
+
+/**
+ * Read paths of the competitions projection against an embedded Postgres. The jmh task runs with the GC profiler, whose
+ * {@code gc.alloc.rate.norm} is the number of bytes allocated per page or per competition with its entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompetitionsReadBenchmark {
+
+    private static final int NUM_COMPETITIONS = 1000;
+
+    @Param({ "20", "100" })
+    private int pageSize;
+
+    @Param({ "100", "1000" })
+    private int numEntries;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext applicationContext;
+    private DefaultCompetitionsReadService competitionsReadService;
+    private UUID competitionWithEntriesId;
+    private String secondPageContinuationToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        applicationContext = new SpringApplicationBuilder(BenchmarkConfig.class)
+            .web(NONE)
+            .properties(
+                "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username=postgres",
+                "spring.jpa.generate-ddl=true",
+                "spring.liquibase.enabled=false")
+            .run();
+        competitionsReadService = applicationContext.getBean(DefaultCompetitionsReadService.class);
+        competitionWithEntriesId = UUID.randomUUID();
+        applicationContext.getBean(TransactionTemplate.class).executeWithoutResult(transactionStatus -> createCompetitions());
+        secondPageContinuationToken = competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(null, null, pageSize)
+            .getContinuationToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        applicationContext.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public CompetitionsPage firstPageOfCompetitions() {
+        return competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(null, null, pageSize);
+    }
+
+    @Benchmark
+    public CompetitionsPage secondPageOfCompetitions() {
+        return competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(null, secondPageContinuationToken, pageSize);
+    }
+
+    @Benchmark
+    public CompetitionWithEntries competitionWithEntries() {
+        return competitionsReadService.getCompetitionWithEntries(competitionWithEntriesId);
+    }
+
+    private void createCompetitions() {
+        var now = Instant.now();
+        var competitions = new ArrayList<PersistableCompetition>(NUM_COMPETITIONS);
+        competitions.add(new PersistableCompetition(competitionWithEntriesId, "with entries", now.minus(2, DAYS), now.minus(1, DAYS),
+            now, 1));
+        for (int i = 1; i < NUM_COMPETITIONS; i++) {
+            var votingEndsTimestamp = now.minus(i, MINUTES);
+            competitions.add(new PersistableCompetition(UUID.randomUUID(), "competition " + i, votingEndsTimestamp.minus(2, DAYS),
+                votingEndsTimestamp.minus(1, DAYS), votingEndsTimestamp, 1));
+        }
+        applicationContext.getBean(CompetitionsRepository.class).bulkInsert(competitions);
+
+        var entries = new ArrayList<PersistableCompetitionEntry>(numEntries);
+        for (int i = 0; i < numEntries; i++) {
+            entries.add(new PersistableCompetitionEntry(competitionWithEntriesId, UUID.randomUUID(), UUID.randomUUID(),
+                now.minus(2, DAYS).plusSeconds(i)));
+        }
+        applicationContext.getBean(CompetitionEntriesRepository.class).bulkInsert(entries);
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @ComponentScan(basePackages = "engineering.everest.lhotse.competitions")
+    static class BenchmarkConfig {
+
+        @Bean
+        public Clock clock() {
+            return Clock.systemUTC();
+        }
+    }
+}
@@ -1,19 +1,37 @@
 package engineering.everest.lhotse.competitions.persistence;
 
+import engineering.everest.lhotse.competitions.domain.CompetitionEntry;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface CompetitionEntriesRepository extends JpaRepository<PersistableCompetitionEntry, CompetitionEntryId> {
+public interface CompetitionEntriesRepository extends JpaRepository<PersistableCompetitionEntry, CompetitionEntryId>,
+    CompetitionEntriesRepositoryCustom {
 
     default void createCompetitionEntry(UUID competitionId, UUID photoId, UUID submittedByUserId, Instant entryTimestamp) {
         save(new PersistableCompetitionEntry(competitionId, photoId, submittedByUserId, entryTimestamp));
     }
 
-    List<PersistableCompetitionEntry> findAllByCompetitionId(UUID competitionId, Sort sort);
+    @Query("SELECT new engineering.everest.lhotse.competitions.domain.CompetitionEntry(e.competitionId, e.photoId, e.submitterUserId, "
+        + "e.entryTimestamp, e.votesReceived, e.isWinner) FROM competition_entries e WHERE e.competitionId = :competitionId")
+    List<CompetitionEntry> findEntriesByCompetitionId(@Param("competitionId") UUID competitionId, Sort sort);
+
+    @Query(value = "UPDATE competition_entries SET votesreceived = votesreceived + :numVotes "
+        + "WHERE competitionid = :competitionId AND photoid = :photoId RETURNING votesreceived", nativeQuery = true)
+    int incrementVotesReceived(@Param("competitionId") UUID competitionId,
+                               @Param("photoId") UUID photoId,
+                               @Param("numVotes") int numVotes);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE competition_entries e SET e.isWinner = true WHERE e.competitionId = :competitionId AND e.photoId IN :photoIds")
+    int markWinners(@Param("competitionId") UUID competitionId, @Param("photoIds") Collection<UUID> photoIds);
 }
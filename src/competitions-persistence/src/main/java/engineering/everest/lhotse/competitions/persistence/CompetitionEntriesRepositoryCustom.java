@@ -0,0 +1,15 @@
+package engineering.everest.lhotse.competitions.persistence;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface CompetitionEntriesRepositoryCustom {
+
+    /**
+     * Inserts entries, including their vote totals and winner flags, in multi-row JDBC batches without passing them through
+     * the persistence context. Used to rebuild the projection during a replay.
+     */
+    void bulkInsert(Collection<PersistableCompetitionEntry> entries);
+
+    void bulkIncrementVotesReceived(Map<CompetitionEntryId, Integer> numVotesPerEntry);
+}
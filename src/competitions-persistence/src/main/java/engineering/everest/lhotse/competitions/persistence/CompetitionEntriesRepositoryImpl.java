@@ -0,0 +1,56 @@
+package engineering.everest.lhotse.competitions.persistence;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Map;
+
+public class CompetitionEntriesRepositoryImpl implements CompetitionEntriesRepositoryCustom {
+
+    private static final String INSERT_ENTRY_SQL = "INSERT INTO competition_entries (competitionid, photoid, submitteruserid, "
+        + "entrytimestamp, votesreceived, iswinner) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INCREMENT_VOTES_RECEIVED_SQL =
+        "UPDATE competition_entries SET votesreceived = votesreceived + ? WHERE competitionid = ? AND photoid = ?";
+    private static final int BULK_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CompetitionEntriesRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void bulkInsert(Collection<PersistableCompetitionEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        jdbcTemplate.batchUpdate(INSERT_ENTRY_SQL, entries, BULK_BATCH_SIZE, (statement, entry) -> {
+            statement.setObject(1, entry.getCompetitionId());
+            statement.setObject(2, entry.getPhotoId());
+            statement.setObject(3, entry.getSubmitterUserId());
+            statement.setTimestamp(4, Timestamp.from(entry.getEntryTimestamp()));
+            statement.setInt(5, entry.getVotesReceived());
+            statement.setBoolean(6, entry.isWinner());
+        });
+    }
+
+    @Override
+    public void bulkIncrementVotesReceived(Map<CompetitionEntryId, Integer> numVotesPerEntry) {
+        if (numVotesPerEntry.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        jdbcTemplate.batchUpdate(INCREMENT_VOTES_RECEIVED_SQL, numVotesPerEntry.entrySet(), BULK_BATCH_SIZE, (statement, entry) -> {
+            statement.setInt(1, entry.getValue());
+            statement.setObject(2, entry.getKey().getCompetitionId());
+            statement.setObject(3, entry.getKey().getPhotoId());
+        });
+    }
+}
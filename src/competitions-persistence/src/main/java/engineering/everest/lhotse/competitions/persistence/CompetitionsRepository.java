@@ -1,13 +1,17 @@
 package engineering.everest.lhotse.competitions.persistence;
 
+import engineering.everest.lhotse.competitions.domain.Competition;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface CompetitionsRepository extends JpaRepository<PersistableCompetition, UUID> {
+public interface CompetitionsRepository extends JpaRepository<PersistableCompetition, UUID>, CompetitionsRepositoryCustom {
 
     default void createCompetition(UUID id,
                                    String description,
@@ -18,4 +22,8 @@ public interface CompetitionsRepository extends JpaRepository<PersistableCompeti
         save(new PersistableCompetition(id, description, submissionsOpenTimestamp, submissionsCloseTimestamp, votingEndsTimestamp,
             maxEntriesPerUser));
     }
+
+    @Query("SELECT new engineering.everest.lhotse.competitions.domain.Competition(c.id, c.description, c.submissionsOpenTimestamp, "
+        + "c.submissionsCloseTimestamp, c.votingEndsTimestamp, c.maxEntriesPerUser) FROM competitions c WHERE c.id = :id")
+    Optional<Competition> findCompetitionById(@Param("id") UUID id);
 }
@@ -0,0 +1,23 @@
+package engineering.everest.lhotse.competitions.persistence;
+
+import engineering.everest.lhotse.common.pagination.KeysetCursor;
+import engineering.everest.lhotse.competitions.domain.Competition;
+import engineering.everest.lhotse.competitions.domain.CompetitionStatus;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface CompetitionsRepositoryCustom {
+
+    List<Competition> findPageOrderedByDescVotingEndsTimestamp(CompetitionStatus status,
+                                                               Instant now,
+                                                               KeysetCursor after,
+                                                               int pageSize);
+
+    /**
+     * Inserts competitions in multi-row JDBC batches without passing them through the persistence context. Used to rebuild
+     * the projection during a replay.
+     */
+    void bulkInsert(Collection<PersistableCompetition> competitions);
+}
@@ -0,0 +1,89 @@
+package engineering.everest.lhotse.competitions.persistence;
+
+import engineering.everest.lhotse.common.pagination.KeysetCursor;
+import engineering.everest.lhotse.competitions.domain.Competition;
+import engineering.everest.lhotse.competitions.domain.CompetitionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public class CompetitionsRepositoryImpl implements CompetitionsRepositoryCustom {
+
+    private static final String INSERT_COMPETITION_SQL = "INSERT INTO competitions (id, description, submissionsopentimestamp, "
+        + "submissionsclosetimestamp, votingendstimestamp, maxentriesperuser) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int BULK_INSERT_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CompetitionsRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Competition> findPageOrderedByDescVotingEndsTimestamp(CompetitionStatus status,
+                                                                      Instant now,
+                                                                      KeysetCursor after,
+                                                                      int pageSize) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Competition.class);
+        var competition = query.from(PersistableCompetition.class);
+        Path<Instant> submissionsOpenTimestamp = competition.get("submissionsOpenTimestamp");
+        Path<Instant> submissionsCloseTimestamp = competition.get("submissionsCloseTimestamp");
+        Path<Instant> votingEndsTimestamp = competition.get("votingEndsTimestamp");
+        Path<UUID> id = competition.get("id");
+
+        var predicates = new ArrayList<Predicate>();
+        if (status == CompetitionStatus.OPEN_FOR_SUBMISSIONS) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(submissionsOpenTimestamp, now));
+            predicates.add(criteriaBuilder.greaterThan(submissionsCloseTimestamp, now));
+        } else if (status == CompetitionStatus.VOTING) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(submissionsCloseTimestamp, now));
+            predicates.add(criteriaBuilder.greaterThan(votingEndsTimestamp, now));
+        } else if (status == CompetitionStatus.ENDED) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(votingEndsTimestamp, now));
+        }
+        if (after != null) {
+            // The redundant upper bound lets Postgres seek the (votingendstimestamp, id) index rather than filter from the top
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(votingEndsTimestamp, after.getTimestamp()));
+            predicates.add(criteriaBuilder.or(
+                criteriaBuilder.lessThan(votingEndsTimestamp, after.getTimestamp()),
+                criteriaBuilder.lessThan(id, after.getId())));
+        }
+
+        query.select(criteriaBuilder.construct(Competition.class, id, competition.get("description"), submissionsOpenTimestamp,
+            submissionsCloseTimestamp, votingEndsTimestamp, competition.get("maxEntriesPerUser")))
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(criteriaBuilder.desc(votingEndsTimestamp), criteriaBuilder.desc(id));
+        return entityManager.createQuery(query)
+            .setMaxResults(pageSize)
+            .getResultList();
+    }
+
+    @Override
+    public void bulkInsert(Collection<PersistableCompetition> competitions) {
+        if (competitions.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        jdbcTemplate.batchUpdate(INSERT_COMPETITION_SQL, competitions, BULK_INSERT_BATCH_SIZE, (statement, competition) -> {
+            statement.setObject(1, competition.getId());
+            statement.setString(2, competition.getDescription());
+            statement.setTimestamp(3, Timestamp.from(competition.getSubmissionsOpenTimestamp()));
+            statement.setTimestamp(4, Timestamp.from(competition.getSubmissionsCloseTimestamp()));
+            statement.setTimestamp(5, Timestamp.from(competition.getVotingEndsTimestamp()));
+            statement.setInt(6, competition.getMaxEntriesPerUser());
+        });
+    }
+}
@@ -1,7 +1,6 @@
 package engineering.everest.lhotse.competitions.persistence;
 
-import engineering.everest.lhotse.competitions.domain.Competition;
-import lombok.AllArgsConstructor;
+import engineering.everest.lhotse.common.persistence.AssignedIdPersistable;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -12,9 +11,8 @@ import java.util.UUID;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Entity(name = "competitions")
-public class PersistableCompetition {
+public class PersistableCompetition extends AssignedIdPersistable<UUID> {
     @Id
     private UUID id;
     private String description;
@@ -23,8 +21,17 @@ public class PersistableCompetition {
     private Instant votingEndsTimestamp;
     private int maxEntriesPerUser;
 
-    public Competition toDomain() {
-        return new Competition(id, description, submissionsOpenTimestamp, submissionsCloseTimestamp, votingEndsTimestamp,
-            maxEntriesPerUser);
+    public PersistableCompetition(UUID id,
+                                  String description,
+                                  Instant submissionsOpenTimestamp,
+                                  Instant submissionsCloseTimestamp,
+                                  Instant votingEndsTimestamp,
+                                  int maxEntriesPerUser) {
+        this.id = id;
+        this.description = description;
+        this.submissionsOpenTimestamp = submissionsOpenTimestamp;
+        this.submissionsCloseTimestamp = submissionsCloseTimestamp;
+        this.votingEndsTimestamp = votingEndsTimestamp;
+        this.maxEntriesPerUser = maxEntriesPerUser;
     }
 }
@@ -1,6 +1,6 @@
 package engineering.everest.lhotse.competitions.persistence;
 
-import engineering.everest.lhotse.competitions.domain.CompetitionEntry;
+import engineering.everest.lhotse.common.persistence.AssignedIdPersistable;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -14,7 +14,7 @@ import java.util.UUID;
 @NoArgsConstructor
 @Entity(name = "competition_entries")
 @IdClass(CompetitionEntryId.class)
-public class PersistableCompetitionEntry {
+public class PersistableCompetitionEntry extends AssignedIdPersistable<CompetitionEntryId> {
     @Id
     private UUID competitionId;
     @Id
@@ -33,7 +33,8 @@ public class PersistableCompetitionEntry {
         this.isWinner = false;
     }
 
-    public CompetitionEntry toDomain() {
-        return new CompetitionEntry(competitionId, photoId, submitterUserId, entryTimestamp, votesReceived, isWinner);
+    @Override
+    public CompetitionEntryId getId() {
+        return new CompetitionEntryId(competitionId, photoId);
     }
 }
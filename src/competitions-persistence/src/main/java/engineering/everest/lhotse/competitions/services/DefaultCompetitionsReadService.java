@@ -1,46 +1,65 @@
 package engineering.everest.lhotse.competitions.services;
 
-import engineering.everest.lhotse.competitions.domain.Competition;
+import engineering.everest.lhotse.common.pagination.KeysetCursor;
+import engineering.everest.lhotse.competitions.domain.CompetitionStatus;
 import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
+import engineering.everest.lhotse.competitions.domain.CompetitionsPage;
 import engineering.everest.lhotse.competitions.persistence.CompetitionEntriesRepository;
 import engineering.everest.lhotse.competitions.persistence.CompetitionsRepository;
-import engineering.everest.lhotse.competitions.persistence.PersistableCompetition;
-import engineering.everest.lhotse.competitions.persistence.PersistableCompetitionEntry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
-import static java.util.stream.Collectors.toList;
 import static org.springframework.data.domain.Sort.Direction.ASC;
-import static org.springframework.data.domain.Sort.Direction.DESC;
 
 @Service
+@Transactional(readOnly = true)
 public class DefaultCompetitionsReadService implements CompetitionsReadService {
 
+    private final Clock clock;
     private final CompetitionsRepository competitionsRepository;
     private final CompetitionEntriesRepository competitionEntriesRepository;
+    private final int maxPageSize;
 
-    public DefaultCompetitionsReadService(CompetitionsRepository competitionsRepository,
-                                          CompetitionEntriesRepository competitionEntriesRepository) {
+    public DefaultCompetitionsReadService(Clock clock,
+                                          CompetitionsRepository competitionsRepository,
+                                          CompetitionEntriesRepository competitionEntriesRepository,
+                                          @Value("${application.pagination.max-page-size:100}") int maxPageSize) {
+        this.clock = clock;
         this.competitionsRepository = competitionsRepository;
         this.competitionEntriesRepository = competitionEntriesRepository;
+        this.maxPageSize = maxPageSize;
     }
 
     @Override
-    public List<Competition> getAllCompetitionsOrderedByDescVotingEndsTimestamp() {
-        return competitionsRepository.findAll(Sort.by(DESC, "votingEndsTimestamp")).stream()
-            .map(PersistableCompetition::toDomain)
-            .collect(toList());
+    public CompetitionsPage getCompetitionsOrderedByDescVotingEndsTimestamp(CompetitionStatus status,
+                                                                            String continuationToken,
+                                                                            int pageSize) {
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException(String.format("Page size must be between 1 and %d", maxPageSize));
+        }
+        var after = continuationToken == null ? null : KeysetCursor.fromContinuationToken(continuationToken);
+        var competitions = competitionsRepository.findPageOrderedByDescVotingEndsTimestamp(status, Instant.now(clock), after,
+            pageSize + 1);
+        if (competitions.size() <= pageSize) {
+            return new CompetitionsPage(competitions, null);
+        }
+
+        var page = List.copyOf(competitions.subList(0, pageSize));
+        var last = page.get(pageSize - 1);
+        return new CompetitionsPage(page, new KeysetCursor(last.getVotingEndsTimestamp(), last.getId()).toContinuationToken());
     }
 
     @Override
     public CompetitionWithEntries getCompetitionWithEntries(UUID competitionId) {
-        var entries = competitionEntriesRepository
-            .findAllByCompetitionId(competitionId, Sort.by(ASC, "entryTimestamp")).stream()
-            .map(PersistableCompetitionEntry::toDomain)
-            .collect(toList());
-        return new CompetitionWithEntries(competitionsRepository.findById(competitionId).orElseThrow().toDomain(), entries);
+        var competition = competitionsRepository.findCompetitionById(competitionId).orElseThrow();
+        var entries = competitionEntriesRepository.findEntriesByCompetitionId(competitionId, Sort.by(ASC, "entryTimestamp"));
+        return new CompetitionWithEntries(competition, entries);
     }
 }
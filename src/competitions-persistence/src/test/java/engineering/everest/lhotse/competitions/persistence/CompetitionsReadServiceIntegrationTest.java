@@ -2,7 +2,9 @@ package engineering.everest.lhotse.competitions.persistence;
 
 import engineering.everest.lhotse.competitions.domain.Competition;
 import engineering.everest.lhotse.competitions.domain.CompetitionEntry;
+import engineering.everest.lhotse.competitions.domain.CompetitionStatus;
 import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
+import engineering.everest.lhotse.competitions.domain.CompetitionsPage;
 import engineering.everest.lhotse.competitions.persistence.config.TestCompetitionsJpaConfig;
 import engineering.everest.lhotse.competitions.services.DefaultCompetitionsReadService;
 import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
@@ -15,14 +17,23 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.test.context.ContextConfiguration;
 
+import java.time.Clock;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import static engineering.everest.lhotse.competitions.domain.CompetitionStatus.ENDED;
+import static engineering.everest.lhotse.competitions.domain.CompetitionStatus.OPEN_FOR_SUBMISSIONS;
+import static engineering.everest.lhotse.competitions.domain.CompetitionStatus.VOTING;
 import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
 import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.RefreshMode.AFTER_EACH_TEST_METHOD;
 import static java.util.UUID.randomUUID;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
 
 @AutoConfigureEmbeddedDatabase(refresh = AFTER_EACH_TEST_METHOD, type = POSTGRES)
@@ -65,6 +76,8 @@ public class CompetitionsReadServiceIntegrationTest {
     private CompetitionEntriesRepository competitionEntriesRepository;
     @Autowired
     private DefaultCompetitionsReadService competitionsReadService;
+    @Autowired
+    private Clock clock;
 
     @BeforeEach
     void setUp() {
@@ -78,12 +91,80 @@ public class CompetitionsReadServiceIntegrationTest {
 
     @Test
     void readService_WillRetrieveCompetitionsOrderedByDescVotingEndsTimestamp() {
-        assertEquals(List.of(COMPETITION_1, COMPETITION_2),
-            competitionsReadService.getAllCompetitionsOrderedByDescVotingEndsTimestamp());
+        assertEquals(new CompetitionsPage(List.of(COMPETITION_1, COMPETITION_2), null),
+            competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(null, null, 20));
+    }
+
+    @Test
+    void readService_WillPageCompetitionsUsingContinuationTokens() {
+        var sameVotingEndsCompetitionId = randomUUID();
+        competitionsRepository.createCompetition(sameVotingEndsCompetitionId, DESCRIPTION_1, SUBMISSIONS_OPEN_TIMESTAMP_1,
+            SUBMISSIONS_CLOSE_TIMESTAMP_1, VOTING_ENDS_TIMESTAMP_1, 2);
+
+        var firstPage = competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(null, null, 2);
+        var secondPage = competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(null,
+            firstPage.getContinuationToken(), 2);
+
+        assertEquals(2, firstPage.getCompetitions().size());
+        assertEquals(Set.of(COMPETITION_ID_1, sameVotingEndsCompetitionId), firstPage.getCompetitions().stream()
+            .map(Competition::getId)
+            .collect(toSet()));
+        assertEquals(new CompetitionsPage(List.of(COMPETITION_2), null), secondPage);
+    }
+
+    @Test
+    void readService_WillRejectPageSizesAboveTheMaximum() {
+        assertThrows(IllegalArgumentException.class,
+            () -> competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(null, null, 101));
+        assertThrows(IllegalArgumentException.class,
+            () -> competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(null, null, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void readService_WillFilterCompetitionsByStatus() {
+        var now = Instant.now(clock);
+        var openCompetitionId = randomUUID();
+        var votingCompetitionId = randomUUID();
+        competitionsRepository.createCompetition(openCompetitionId, "open", now.minusSeconds(60), now.plusSeconds(60),
+            now.plusSeconds(120), 2);
+        competitionsRepository.createCompetition(votingCompetitionId, "voting", now.minusSeconds(120), now.minusSeconds(60),
+            now.plusSeconds(60), 2);
+
+        assertEquals(List.of(openCompetitionId), competitionIdsWithStatus(OPEN_FOR_SUBMISSIONS));
+        assertEquals(List.of(votingCompetitionId), competitionIdsWithStatus(VOTING));
+        assertEquals(List.of(COMPETITION_ID_1, COMPETITION_ID_2), competitionIdsWithStatus(ENDED));
     }
 
     @Test
     void readService_WillRetrieveCompetitionsWithTheirEntries() {
         assertEquals(COMPETITION_2_WITH_ENTRIES, competitionsReadService.getCompetitionWithEntries(COMPETITION_ID_2));
     }
+
+    @Test
+    void bulkLoadedCompetitionsAndEntries_WillBeReadable() {
+        var competitionId = randomUUID();
+        var winningEntry = new PersistableCompetitionEntry(competitionId, PHOTO_ID_1, USER_ID_1, Instant.ofEpochMilli(108));
+        winningEntry.setVotesReceived(3);
+        winningEntry.setWinner(true);
+
+        competitionsRepository.bulkInsert(List.of(new PersistableCompetition(competitionId, DESCRIPTION_1, SUBMISSIONS_OPEN_TIMESTAMP_1,
+            SUBMISSIONS_CLOSE_TIMESTAMP_1, VOTING_ENDS_TIMESTAMP_1, 2)));
+        competitionEntriesRepository.bulkInsert(List.of(winningEntry));
+        competitionEntriesRepository.bulkIncrementVotesReceived(Map.of(
+            new CompetitionEntryId(competitionId, PHOTO_ID_1), 2,
+            new CompetitionEntryId(COMPETITION_ID_2, PHOTO_ID_2), 4));
+
+        assertEquals(new CompetitionWithEntries(
+            new Competition(competitionId, DESCRIPTION_1, SUBMISSIONS_OPEN_TIMESTAMP_1, SUBMISSIONS_CLOSE_TIMESTAMP_1,
+                VOTING_ENDS_TIMESTAMP_1, 2),
+            List.of(new CompetitionEntry(competitionId, PHOTO_ID_1, USER_ID_1, Instant.ofEpochMilli(108), 5, true))),
+            competitionsReadService.getCompetitionWithEntries(competitionId));
+        assertEquals(4, competitionsReadService.getCompetitionWithEntries(COMPETITION_ID_2).getEntries().get(1).getNumVotesReceived());
+    }
+
+    private List<UUID> competitionIdsWithStatus(CompetitionStatus status) {
+        return competitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(status, null, 20).getCompetitions().stream()
+            .map(Competition::getId)
+            .collect(toList());
+    }
 }
@@ -0,0 +1,107 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import engineering.everest.lhotse.competitions.domain.events.WinnerAndSubmittedPhotoPair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.Integer.MIN_VALUE;
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.toList;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoteLeaderboardBenchmark {
+
+    private static final int MAX_VOTES_PER_ENTRY = 20;
+
+    @Param({ "10000", "50000", "100000" })
+    private int numEntries;
+
+    private Map<UUID, CompetitionEntryEntity> submittedPhotos;
+    private VoteLeaderboard voteLeaderboard;
+    private List<UUID> photoIds;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Random(42);
+        submittedPhotos = new HashMap<>();
+        voteLeaderboard = new VoteLeaderboard();
+        photoIds = new ArrayList<>(numEntries);
+        for (int i = 0; i < numEntries; i++) {
+            var entry = new CompetitionEntryEntity(UUID.randomUUID(), UUID.randomUUID());
+            submittedPhotos.put(entry.getPhotoId(), entry);
+            photoIds.add(entry.getPhotoId());
+            var numVotes = random.nextInt(MAX_VOTES_PER_ENTRY);
+            for (int vote = 0; vote < numVotes; vote++) {
+                recordVote(entry, UUID.randomUUID());
+            }
+        }
+    }
+
+    @Benchmark
+    public List<WinnerAndSubmittedPhotoPair> closeOutByFullScan() {
+        var highestVoteCount = submittedPhotos.values().stream()
+            .mapToInt(CompetitionEntryEntity::getVoteCount)
+            .filter(voteCount -> voteCount > 0)
+            .max()
+            .orElse(MIN_VALUE);
+        return submittedPhotos.values().stream()
+            .filter(entry -> entry.getVoteCount() == highestVoteCount)
+            .sorted(comparing(CompetitionEntryEntity::getPhotoId))
+            .map(entry -> new WinnerAndSubmittedPhotoPair(entry.getSubmittedByUserId(), entry.getPhotoId()))
+            .collect(toList());
+    }
+
+    @Benchmark
+    public List<WinnerAndSubmittedPhotoPair> closeOutByIncrementalLeaderboard() {
+        return voteLeaderboard.getLeadingPhotoIds().stream()
+            .map(submittedPhotos::get)
+            .map(entry -> new WinnerAndSubmittedPhotoPair(entry.getSubmittedByUserId(), entry.getPhotoId()))
+            .collect(toList());
+    }
+
+    @Benchmark
+    public boolean sourceVoteWithoutLeaderboard() {
+        return submittedPhotos.get(randomPhotoId()).recordVote(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public boolean sourceVoteWithLeaderboard() {
+        return recordVote(submittedPhotos.get(randomPhotoId()), UUID.randomUUID());
+    }
+
+    private boolean recordVote(CompetitionEntryEntity entry, UUID votingUserId) {
+        if (entry.recordVote(votingUserId)) {
+            voteLeaderboard.recordVote(entry.getPhotoId(), entry.getVoteCount());
+            return true;
+        }
+        return false;
+    }
+
+    private UUID randomPhotoId() {
+        return photoIds.get(random.nextInt(numEntries));
+    }
+}
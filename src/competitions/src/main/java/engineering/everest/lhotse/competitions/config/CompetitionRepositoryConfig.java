@@ -1,8 +1,17 @@
 package engineering.everest.lhotse.competitions.config;
 
-import org.axonframework.eventsourcing.EventCountSnapshotTriggerDefinition;
+import engineering.everest.lhotse.axon.caching.AggregateCacheFactory;
+import engineering.everest.lhotse.axon.snapshotting.AdaptiveSnapshotTriggerDefinitionFactory;
+import engineering.everest.lhotse.axon.snapshotting.BinarySnapshotFilter;
+import engineering.everest.lhotse.axon.snapshotting.SnapshotCodec;
+import engineering.everest.lhotse.competitions.domain.CompetitionAggregate;
+import engineering.everest.lhotse.competitions.domain.CompetitionAggregateSnapshotCodec;
+import engineering.everest.lhotse.competitions.domain.CompetitionEntryVotesAggregate;
+import engineering.everest.lhotse.competitions.domain.CompetitionEntryVotesAggregateSnapshotCodec;
+import org.axonframework.common.caching.Cache;
 import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
-import org.axonframework.eventsourcing.Snapshotter;
+import org.axonframework.eventsourcing.snapshotting.SnapshotFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,7 +19,45 @@ import org.springframework.context.annotation.Configuration;
 public class CompetitionRepositoryConfig {
 
     @Bean
-    public SnapshotTriggerDefinition competitionAggregateSnapshotTriggerDefinition(Snapshotter snapshotter) {
-        return new EventCountSnapshotTriggerDefinition(snapshotter, 30);
+    public SnapshotTriggerDefinition competitionAggregateSnapshotTriggerDefinition(AdaptiveSnapshotTriggerDefinitionFactory factory) {
+        return factory.create();
+    }
+
+    @Bean
+    public SnapshotTriggerDefinition competitionEntryVotesAggregateSnapshotTriggerDefinition(
+                                                                                             AdaptiveSnapshotTriggerDefinitionFactory factory) {
+        return factory.create();
+    }
+
+    @Bean
+    public Cache competitionAggregateCache(AggregateCacheFactory factory,
+                                           @Value("${application.competitions.aggregate-cache.max-entries:1000}") long maxEntries) {
+        return factory.create("competitionAggregateCache", maxEntries);
+    }
+
+    @Bean
+    public Cache competitionEntryVotesAggregateCache(AggregateCacheFactory factory,
+                                                     @Value("${application.competitions.entry-cache.max-entries:10000}") long maxEntries) {
+        return factory.create("competitionEntryVotesAggregateCache", maxEntries);
+    }
+
+    @Bean
+    public SnapshotCodec<CompetitionAggregate> competitionAggregateSnapshotCodec() {
+        return new CompetitionAggregateSnapshotCodec();
+    }
+
+    @Bean
+    public SnapshotCodec<CompetitionEntryVotesAggregate> competitionEntryVotesAggregateSnapshotCodec() {
+        return new CompetitionEntryVotesAggregateSnapshotCodec();
+    }
+
+    @Bean
+    public SnapshotFilter competitionAggregateSnapshotFilter(SnapshotCodec<CompetitionAggregate> snapshotCodec) {
+        return new BinarySnapshotFilter(snapshotCodec);
+    }
+
+    @Bean
+    public SnapshotFilter competitionEntryVotesAggregateSnapshotFilter(SnapshotCodec<CompetitionEntryVotesAggregate> snapshotCodec) {
+        return new BinarySnapshotFilter(snapshotCodec);
     }
 }
@@ -0,0 +1,19 @@
+package engineering.everest.lhotse.competitions.config;
+
+import org.axonframework.config.EventProcessingModule;
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+import static engineering.everest.lhotse.competitions.services.CompetitionVoteAdmissionFilter.PROCESSING_GROUP;
+
+@Configuration
+@ConditionalOnProperty(value = "application.competitions.vote-admission.enabled", havingValue = "true")
+public class CompetitionVoteAdmissionConfig {
+
+    @Autowired
+    public void configure(EventProcessingModule eventProcessingModule) {
+        eventProcessingModule.registerTokenStore(PROCESSING_GROUP, configuration -> new InMemoryTokenStore());
+    }
+}
@@ -0,0 +1,18 @@
+package engineering.everest.lhotse.competitions.config;
+
+import engineering.everest.lhotse.axon.replay.RebuildableProjection;
+import engineering.everest.lhotse.competitions.handlers.CompetitionsEventHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class CompetitionsProjectionConfig {
+
+    @Bean
+    public RebuildableProjection competitionsProjection() {
+        return new RebuildableProjection(CompetitionsEventHandler.class.getPackageName(),
+            List.of("competitions", "competition_entries"));
+    }
+}
@@ -0,0 +1,216 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+public final class CompactUuidSet implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int MIN_CAPACITY = 16;
+    private static final int BYTES_PER_UUID = 2 * Long.BYTES;
+
+    private transient long[] mostSignificantBits;
+    private transient long[] leastSignificantBits;
+    private transient boolean containsNilUuid;
+    private transient int numElements;
+
+    public CompactUuidSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public CompactUuidSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public boolean add(UUID uuid) {
+        return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    private boolean add(long msb, long lsb) {
+        if (isNil(msb, lsb)) {
+            if (containsNilUuid) {
+                return false;
+            }
+            containsNilUuid = true;
+            numElements++;
+            return true;
+        }
+        if (!insert(msb, lsb)) {
+            return false;
+        }
+        numElements++;
+        if (numElements > maxSizeBeforeResize()) {
+            resize(mostSignificantBits.length * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(UUID uuid) {
+        return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    private boolean contains(long msb, long lsb) {
+        if (isNil(msb, lsb)) {
+            return containsNilUuid;
+        }
+        var mask = mostSignificantBits.length - 1;
+        for (int slot = slotFor(msb, lsb, mask);; slot = (slot + 1) & mask) {
+            if (isNil(mostSignificantBits[slot], leastSignificantBits[slot])) {
+                return false;
+            }
+            if (mostSignificantBits[slot] == msb && leastSignificantBits[slot] == lsb) {
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        return numElements;
+    }
+
+    public boolean isEmpty() {
+        return numElements == 0;
+    }
+
+    public void writeTo(DataOutput output) throws IOException {
+        output.writeInt(numElements);
+        output.writeBoolean(containsNilUuid);
+        for (int slot = 0; slot < mostSignificantBits.length; slot++) {
+            if (!isNil(mostSignificantBits[slot], leastSignificantBits[slot])) {
+                output.writeLong(mostSignificantBits[slot]);
+                output.writeLong(leastSignificantBits[slot]);
+            }
+        }
+    }
+
+    public static CompactUuidSet readFrom(DataInput input) throws IOException {
+        var size = input.readInt();
+        var nilUuidPresent = input.readBoolean();
+        var uuidSet = new CompactUuidSet(size);
+        var nonNilEntries = nilUuidPresent ? size - 1 : size;
+        for (int i = 0; i < nonNilEntries; i++) {
+            uuidSet.add(input.readLong(), input.readLong());
+        }
+        if (nilUuidPresent) {
+            uuidSet.add(0L, 0L);
+        }
+        return uuidSet;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CompactUuidSet)) {
+            return false;
+        }
+        var that = (CompactUuidSet) other;
+        if (numElements != that.numElements || containsNilUuid != that.containsNilUuid) {
+            return false;
+        }
+        for (int slot = 0; slot < mostSignificantBits.length; slot++) {
+            var msb = mostSignificantBits[slot];
+            var lsb = leastSignificantBits[slot];
+            if (!isNil(msb, lsb) && !that.contains(msb, lsb)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        var hashCode = containsNilUuid ? 1 : 0;
+        for (int slot = 0; slot < mostSignificantBits.length; slot++) {
+            hashCode += Long.hashCode(mostSignificantBits[slot] ^ leastSignificantBits[slot]);
+        }
+        return hashCode;
+    }
+
+    private boolean insert(long msb, long lsb) {
+        var mask = mostSignificantBits.length - 1;
+        for (int slot = slotFor(msb, lsb, mask);; slot = (slot + 1) & mask) {
+            if (isNil(mostSignificantBits[slot], leastSignificantBits[slot])) {
+                mostSignificantBits[slot] = msb;
+                leastSignificantBits[slot] = lsb;
+                return true;
+            }
+            if (mostSignificantBits[slot] == msb && leastSignificantBits[slot] == lsb) {
+                return false;
+            }
+        }
+    }
+
+    private void resize(int newCapacity) {
+        var oldMostSignificantBits = mostSignificantBits;
+        var oldLeastSignificantBits = leastSignificantBits;
+        allocate(newCapacity);
+        for (int slot = 0; slot < oldMostSignificantBits.length; slot++) {
+            if (!isNil(oldMostSignificantBits[slot], oldLeastSignificantBits[slot])) {
+                insert(oldMostSignificantBits[slot], oldLeastSignificantBits[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        mostSignificantBits = new long[capacity];
+        leastSignificantBits = new long[capacity];
+    }
+
+    private int maxSizeBeforeResize() {
+        return mostSignificantBits.length / 4 * 3;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        var capacity = MIN_CAPACITY;
+        while (capacity / 4 * 3 < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int slotFor(long msb, long lsb, int mask) {
+        var hash = msb ^ lsb;
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (hash ^ (hash >>> 33)) & mask;
+    }
+
+    private static boolean isNil(long msb, long lsb) {
+        return msb == 0 && lsb == 0;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        var nonNilEntries = containsNilUuid ? numElements - 1 : numElements;
+        var buffer = ByteBuffer.allocate(nonNilEntries * BYTES_PER_UUID);
+        for (int slot = 0; slot < mostSignificantBits.length; slot++) {
+            if (!isNil(mostSignificantBits[slot], leastSignificantBits[slot])) {
+                buffer.putLong(mostSignificantBits[slot]).putLong(leastSignificantBits[slot]);
+            }
+        }
+        out.writeBoolean(containsNilUuid);
+        out.writeObject(buffer.array());
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        var nilUuidPresent = in.readBoolean();
+        var buffer = ByteBuffer.wrap((byte[]) in.readObject());
+        var nonNilEntries = buffer.remaining() / BYTES_PER_UUID;
+        allocate(capacityFor(nonNilEntries + 1));
+        for (int i = 0; i < nonNilEntries; i++) {
+            add(buffer.getLong(), buffer.getLong());
+        }
+        if (nilUuidPresent) {
+            add(0L, 0L);
+        }
+    }
+}
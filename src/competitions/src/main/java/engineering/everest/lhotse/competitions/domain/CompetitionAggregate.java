@@ -2,29 +2,37 @@ package engineering.everest.lhotse.competitions.domain;
 
 import engineering.everest.lhotse.competitions.domain.commands.CountVotesAndDeclareOutcomeCommand;
 import engineering.everest.lhotse.competitions.domain.commands.CreateCompetitionCommand;
+import engineering.everest.lhotse.competitions.domain.commands.DeclareOutcomeFromEntryTalliesCommand;
 import engineering.everest.lhotse.competitions.domain.commands.EnterPhotoInCompetitionCommand;
 import engineering.everest.lhotse.competitions.domain.commands.VoteForPhotoCommand;
+import engineering.everest.lhotse.competitions.domain.commands.VoteForPhotosCommand;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedAndWinnersDeclaredEvent;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedEvent;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedWithNoEntriesReceivingVotesEvent;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedWithNoEntriesSubmittedEvent;
 import engineering.everest.lhotse.competitions.domain.events.PhotoEnteredInCompetitionEvent;
+import engineering.everest.lhotse.competitions.domain.events.PhotoEntryReceivedVoteEvent;
 import engineering.everest.lhotse.competitions.domain.events.WinnerAndSubmittedPhotoPair;
 import engineering.everest.lhotse.i18n.exceptions.TranslatableException;
 import engineering.everest.lhotse.i18n.exceptions.TranslatableIllegalArgumentException;
 import engineering.everest.lhotse.i18n.exceptions.TranslatableIllegalStateException;
+import lombok.Builder;
+import lombok.Value;
 import org.axonframework.commandhandling.CommandExecutionException;
 import org.axonframework.commandhandling.CommandHandler;
 import org.axonframework.eventsourcing.EventSourcingHandler;
 import org.axonframework.modelling.command.AggregateIdentifier;
 import org.axonframework.modelling.command.AggregateMember;
+import org.axonframework.modelling.command.ForwardNone;
+import org.axonframework.serialization.Revision;
 import org.axonframework.spring.stereotype.Aggregate;
 
 import java.io.Serializable;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,17 +46,18 @@ import static engineering.everest.lhotse.i18n.MessageKeys.COMPETITION_MINIMUM_VO
 import static engineering.everest.lhotse.i18n.MessageKeys.COMPETITION_MIN_1_VOTE_PER_USER;
 import static engineering.everest.lhotse.i18n.MessageKeys.COMPETITION_SUBMISSIONS_CLOSED;
 import static engineering.everest.lhotse.i18n.MessageKeys.COMPETITION_SUBMISSIONS_NOT_OPEN;
+import static engineering.everest.lhotse.i18n.MessageKeys.COMPETITION_VOTES_COUNTED_PER_ENTRY;
 import static engineering.everest.lhotse.i18n.MessageKeys.PHOTO_NOT_ENTERED_IN_COMPETITION;
 import static engineering.everest.lhotse.i18n.MessageKeys.SUBMISSIONS_CLOSE_TIMESTAMP_IN_PAST;
 import static engineering.everest.lhotse.i18n.MessageKeys.SUBMISSION_BY_NON_PHOTO_OWNER;
 import static engineering.everest.lhotse.i18n.MessageKeys.VOTING_ENDED;
 import static engineering.everest.lhotse.i18n.MessageKeys.VOTING_PERIOD_NOT_STARTED;
-import static java.lang.Integer.MIN_VALUE;
-import static java.util.Comparator.comparing;
 import static java.util.stream.Collectors.toList;
 import static org.axonframework.modelling.command.AggregateLifecycle.apply;
 
-@Aggregate(snapshotTriggerDefinition = "competitionAggregateSnapshotTriggerDefinition")
+@Aggregate(snapshotTriggerDefinition = "competitionAggregateSnapshotTriggerDefinition",
+    snapshotFilter = "competitionAggregateSnapshotFilter", cache = "competitionAggregateCache")
+@Revision("3")
 public class CompetitionAggregate implements Serializable {
 
     // Make configurable or salt to taste
@@ -63,8 +72,10 @@ public class CompetitionAggregate implements Serializable {
     private Instant votingEndsTimestamp;
     private int maxEntriesPerUser;
     private Map<UUID, Integer> numEntriesReceivedPerUser;
-    @AggregateMember
+    @AggregateMember(eventForwardingMode = ForwardNone.class)
     private Map<UUID, CompetitionEntryEntity> submittedPhotos;
+    private VoteLeaderboard voteLeaderboard;
+    private boolean votesCountedPerEntry;
     private boolean competitionEnded;
 
     CompetitionAggregate() {}
@@ -78,7 +89,7 @@ public class CompetitionAggregate implements Serializable {
 
         apply(new CompetitionCreatedEvent(command.getRequestingUserId(), command.getCompetitionId(), command.getDescription(),
             command.getSubmissionsOpenTimestamp(), command.getSubmissionsCloseTimestamp(), command.getVotingEndsTimestamp(),
-            command.getMaxEntriesPerUser()));
+            command.getMaxEntriesPerUser(), command.isVotesCountedPerEntry()));
     }
 
     @CommandHandler
@@ -98,31 +109,41 @@ public class CompetitionAggregate implements Serializable {
         validateCompetitionHasNotEnded();
         validateVotingPeriodOpen(clock);
         validatePhotoIsEnteredInCompetition(command.getPhotoId());
+        validateVotesNotCountedPerEntry();
 
         submittedPhotos.get(command.getPhotoId()).handle(command);
     }
 
+    @CommandHandler
+    List<VoteOutcome> handle(VoteForPhotosCommand command, Clock clock) {
+        var outcomes = new ArrayList<VoteOutcome>(command.getVotes().size());
+        for (var vote : command.getVotes()) {
+            try {
+                handle(vote, clock);
+                outcomes.add(VoteOutcome.accepted());
+            } catch (CommandExecutionException e) {
+                outcomes.add(VoteOutcome.rejected(e.<TranslatableException>getDetails().orElseThrow()));
+            }
+        }
+        return outcomes;
+    }
+
     @CommandHandler
     void handle(CountVotesAndDeclareOutcomeCommand command) {
         validateCompetitionHasNotEnded();
 
-        if (submittedPhotos.isEmpty()) {
-            apply(new CompetitionEndedWithNoEntriesSubmittedEvent(competitionId));
-            return;
-        }
+        declareOutcome(voteLeaderboard);
+    }
 
-        var entriesReceivingMostVotes = findEntriesWithMostVotes();
-        if (entriesReceivingMostVotes.isEmpty()) {
-            apply(new CompetitionEndedWithNoEntriesReceivingVotesEvent(competitionId));
-            return;
-        }
+    @CommandHandler
+    void handle(DeclareOutcomeFromEntryTalliesCommand command) {
+        validateCompetitionHasNotEnded();
 
-        var numVotesReceived = entriesReceivingMostVotes.get(0).getUsersVotedFor().size();
-        var winnersToPhotoList = entriesReceivingMostVotes.stream()
-            .sorted(comparing(CompetitionEntryEntity::getPhotoId))
-            .map(entry -> new WinnerAndSubmittedPhotoPair(entry.getSubmittedByUserId(), entry.getPhotoId()))
-            .collect(toList());
-        apply(new CompetitionEndedAndWinnersDeclaredEvent(competitionId, winnersToPhotoList, numVotesReceived));
+        var talliedLeaderboard = new VoteLeaderboard();
+        command.getNumVotesPerPhoto().entrySet().stream()
+            .filter(tally -> submittedPhotos.containsKey(tally.getKey()))
+            .forEach(tally -> talliedLeaderboard.recordTally(tally.getKey(), tally.getValue()));
+        declareOutcome(talliedLeaderboard);
     }
 
     @EventSourcingHandler
@@ -134,6 +155,8 @@ public class CompetitionAggregate implements Serializable {
         maxEntriesPerUser = event.getMaxEntriesPerUser();
         numEntriesReceivedPerUser = new HashMap<>();
         submittedPhotos = new HashMap<>();
+        voteLeaderboard = new VoteLeaderboard();
+        votesCountedPerEntry = event.isVotesCountedPerEntry();
         competitionEnded = false;
     }
 
@@ -144,15 +167,80 @@ public class CompetitionAggregate implements Serializable {
         submittedPhotos.put(event.getPhotoId(), new CompetitionEntryEntity(event.getPhotoId(), event.getSubmittedByUserId()));
     }
 
+    @EventSourcingHandler
+    void on(PhotoEntryReceivedVoteEvent event) {
+        var entry = submittedPhotos.get(event.getPhotoId());
+        if (entry.recordVote(event.getVotingUserId())) {
+            voteLeaderboard.recordVote(entry.getPhotoId(), entry.getVoteCount());
+        }
+    }
+
     @EventSourcingHandler
     void on(CompetitionEndedEvent event) {
         competitionEnded = true;
     }
 
+    /**
+     * The leaderboard is not part of the snapshot, it is rebuilt from the vote counts of the entries.
+     */
+    static CompetitionAggregate fromSnapshot(Snapshot snapshot) {
+        var aggregate = new CompetitionAggregate();
+        aggregate.competitionId = snapshot.getCompetitionId();
+        aggregate.submissionsOpenTimestamp = snapshot.getSubmissionsOpenTimestamp();
+        aggregate.submissionsCloseTimestamp = snapshot.getSubmissionsCloseTimestamp();
+        aggregate.votingEndsTimestamp = snapshot.getVotingEndsTimestamp();
+        aggregate.maxEntriesPerUser = snapshot.getMaxEntriesPerUser();
+        aggregate.numEntriesReceivedPerUser = snapshot.getNumEntriesReceivedPerUser();
+        aggregate.submittedPhotos = snapshot.getSubmittedPhotos();
+        aggregate.voteLeaderboard = new VoteLeaderboard();
+        aggregate.submittedPhotos.values()
+            .forEach(entry -> aggregate.voteLeaderboard.recordTally(entry.getPhotoId(), entry.getVoteCount()));
+        aggregate.votesCountedPerEntry = snapshot.isVotesCountedPerEntry();
+        aggregate.competitionEnded = snapshot.isCompetitionEnded();
+        return aggregate;
+    }
+
+    Snapshot toSnapshot() {
+        return Snapshot.builder()
+            .competitionId(competitionId)
+            .submissionsOpenTimestamp(submissionsOpenTimestamp)
+            .submissionsCloseTimestamp(submissionsCloseTimestamp)
+            .votingEndsTimestamp(votingEndsTimestamp)
+            .maxEntriesPerUser(maxEntriesPerUser)
+            .numEntriesReceivedPerUser(numEntriesReceivedPerUser)
+            .submittedPhotos(submittedPhotos)
+            .votesCountedPerEntry(votesCountedPerEntry)
+            .competitionEnded(competitionEnded)
+            .build();
+    }
+
+    VoteLeaderboard getVoteLeaderboard() {
+        return voteLeaderboard;
+    }
+
     private static void throwWrappedInCommandExecutionException(TranslatableException translatableException) {
         throw new CommandExecutionException(translatableException.getMessage(), null, translatableException);
     }
 
+    private void declareOutcome(VoteLeaderboard leaderboard) {
+        if (submittedPhotos.isEmpty()) {
+            apply(new CompetitionEndedWithNoEntriesSubmittedEvent(competitionId));
+            return;
+        }
+
+        var leadingPhotoIds = leaderboard.getLeadingPhotoIds();
+        if (leadingPhotoIds.isEmpty()) {
+            apply(new CompetitionEndedWithNoEntriesReceivingVotesEvent(competitionId));
+            return;
+        }
+
+        var winnersToPhotoList = leadingPhotoIds.stream()
+            .map(submittedPhotos::get)
+            .map(entry -> new WinnerAndSubmittedPhotoPair(entry.getSubmittedByUserId(), entry.getPhotoId()))
+            .collect(toList());
+        apply(new CompetitionEndedAndWinnersDeclaredEvent(competitionId, winnersToPhotoList, leaderboard.getHighestVoteCount()));
+    }
+
     private void validateCompetitionHasNotEnded() {
         if (competitionEnded) {
             throwWrappedInCommandExecutionException(new TranslatableIllegalStateException(COMPETITION_ALREADY_ENDED));
@@ -231,20 +319,32 @@ public class CompetitionAggregate implements Serializable {
         }
     }
 
+    private void validateVotesNotCountedPerEntry() {
+        if (votesCountedPerEntry) {
+            throwWrappedInCommandExecutionException(new TranslatableIllegalStateException(COMPETITION_VOTES_COUNTED_PER_ENTRY));
+        }
+    }
+
     private void validatePhotoIsEnteredInCompetition(UUID photoId) {
         if (!submittedPhotos.containsKey(photoId)) {
             throwWrappedInCommandExecutionException(new TranslatableIllegalStateException(PHOTO_NOT_ENTERED_IN_COMPETITION));
         }
     }
 
-    private List<CompetitionEntryEntity> findEntriesWithMostVotes() {
-        var highestVoteCount = submittedPhotos.values().stream()
-            .filter(entry -> !entry.getUsersVotedFor().isEmpty())
-            .mapToInt(entry -> entry.getUsersVotedFor().size())
-            .max()
-            .orElse(MIN_VALUE);
-        return submittedPhotos.values().stream()
-            .filter(entry -> entry.getUsersVotedFor().size() == highestVoteCount)
-            .collect(toList());
+    /**
+     * State written by {@link CompetitionAggregateSnapshotCodec}.
+     */
+    @Value
+    @Builder
+    static class Snapshot {
+        UUID competitionId;
+        Instant submissionsOpenTimestamp;
+        Instant submissionsCloseTimestamp;
+        Instant votingEndsTimestamp;
+        int maxEntriesPerUser;
+        Map<UUID, Integer> numEntriesReceivedPerUser;
+        Map<UUID, CompetitionEntryEntity> submittedPhotos;
+        boolean votesCountedPerEntry;
+        boolean competitionEnded;
     }
 }
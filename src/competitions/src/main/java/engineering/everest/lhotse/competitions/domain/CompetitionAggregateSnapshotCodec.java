@@ -0,0 +1,83 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import engineering.everest.lhotse.axon.snapshotting.SnapshotCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class CompetitionAggregateSnapshotCodec implements SnapshotCodec<CompetitionAggregate> {
+
+    private static final int FORMAT_VERSION = 1;
+
+    @Override
+    public Class<CompetitionAggregate> getAggregateType() {
+        return CompetitionAggregate.class;
+    }
+
+    @Override
+    public int getFormatVersion() {
+        return FORMAT_VERSION;
+    }
+
+    @Override
+    public void write(CompetitionAggregate aggregate, DataOutput output) throws IOException {
+        var snapshot = aggregate.toSnapshot();
+        writeUuid(output, snapshot.getCompetitionId());
+        writeInstant(output, snapshot.getSubmissionsOpenTimestamp());
+        writeInstant(output, snapshot.getSubmissionsCloseTimestamp());
+        writeInstant(output, snapshot.getVotingEndsTimestamp());
+        output.writeInt(snapshot.getMaxEntriesPerUser());
+        output.writeBoolean(snapshot.isVotesCountedPerEntry());
+        output.writeBoolean(snapshot.isCompetitionEnded());
+
+        output.writeInt(snapshot.getNumEntriesReceivedPerUser().size());
+        for (var numEntries : snapshot.getNumEntriesReceivedPerUser().entrySet()) {
+            writeUuid(output, numEntries.getKey());
+            output.writeInt(numEntries.getValue());
+        }
+        output.writeInt(snapshot.getSubmittedPhotos().size());
+        for (var entry : snapshot.getSubmittedPhotos().values()) {
+            writeUuid(output, entry.getPhotoId());
+            writeUuid(output, entry.getSubmittedByUserId());
+            entry.getUsersVotedFor().writeTo(output);
+        }
+    }
+
+    @Override
+    public CompetitionAggregate read(DataInput input) throws IOException {
+        return CompetitionAggregate.fromSnapshot(CompetitionAggregate.Snapshot.builder()
+            .competitionId(readUuid(input))
+            .submissionsOpenTimestamp(readInstant(input))
+            .submissionsCloseTimestamp(readInstant(input))
+            .votingEndsTimestamp(readInstant(input))
+            .maxEntriesPerUser(input.readInt())
+            .votesCountedPerEntry(input.readBoolean())
+            .competitionEnded(input.readBoolean())
+            .numEntriesReceivedPerUser(readNumEntriesReceivedPerUser(input))
+            .submittedPhotos(readSubmittedPhotos(input))
+            .build());
+    }
+
+    private Map<UUID, Integer> readNumEntriesReceivedPerUser(DataInput input) throws IOException {
+        var numSubmitters = input.readInt();
+        var numEntriesReceivedPerUser = new HashMap<UUID, Integer>();
+        for (int i = 0; i < numSubmitters; i++) {
+            numEntriesReceivedPerUser.put(readUuid(input), input.readInt());
+        }
+        return numEntriesReceivedPerUser;
+    }
+
+    private Map<UUID, CompetitionEntryEntity> readSubmittedPhotos(DataInput input) throws IOException {
+        var numSubmittedPhotos = input.readInt();
+        var submittedPhotos = new HashMap<UUID, CompetitionEntryEntity>();
+        for (int i = 0; i < numSubmittedPhotos; i++) {
+            var entry = CompetitionEntryEntity.fromSnapshot(readUuid(input), readUuid(input), CompactUuidSet.readFrom(input));
+            submittedPhotos.put(entry.getPhotoId(), entry);
+        }
+        return submittedPhotos;
+    }
+}
@@ -8,12 +8,9 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.axonframework.commandhandling.CommandExecutionException;
-import org.axonframework.eventsourcing.EventSourcingHandler;
 import org.axonframework.modelling.command.EntityId;
 
 import java.io.Serializable;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.UUID;
 
 import static engineering.everest.lhotse.i18n.MessageKeys.ALREADY_VOTED_FOR_THIS_ENTRY;
@@ -27,26 +24,38 @@ public class CompetitionEntryEntity implements Serializable {
     @EntityId
     private UUID photoId;
     private UUID submittedByUserId;
-    private Set<UUID> usersVotedFor;
+    private CompactUuidSet usersVotedFor;
 
     CompetitionEntryEntity(UUID photoId, UUID submittedByUserId) {
         this.photoId = photoId;
         this.submittedByUserId = submittedByUserId;
-        this.usersVotedFor = new HashSet<>();
+        this.usersVotedFor = new CompactUuidSet();
+    }
+
+    private CompetitionEntryEntity(UUID photoId, UUID submittedByUserId, CompactUuidSet usersVotedFor) {
+        this.photoId = photoId;
+        this.submittedByUserId = submittedByUserId;
+        this.usersVotedFor = usersVotedFor;
+    }
+
+    static CompetitionEntryEntity fromSnapshot(UUID photoId, UUID submittedByUserId, CompactUuidSet usersVotedFor) {
+        return new CompetitionEntryEntity(photoId, submittedByUserId, usersVotedFor);
+    }
+
+    public int getVoteCount() {
+        return usersVotedFor.size();
     }
 
     // Not annotated with @CommandHandler on purpose. Some validation occurs in aggregate root.
+    // Votes are sourced by the aggregate root so that it can keep its leaderboard current.
     void handle(VoteForPhotoCommand command) {
         validateUserHasNotVotedForPhotoBefore(command.getRequestingUserId());
 
         apply(new PhotoEntryReceivedVoteEvent(command.getCompetitionId(), photoId, command.getRequestingUserId()));
     }
 
-    @EventSourcingHandler
-    void on(PhotoEntryReceivedVoteEvent event) {
-        if (event.getPhotoId().equals(photoId)) {
-            usersVotedFor.add(event.getVotingUserId());
-        }
+    boolean recordVote(UUID votingUserId) {
+        return usersVotedFor.add(votingUserId);
     }
 
     private void validateUserHasNotVotedForPhotoBefore(UUID requestingUserId) {
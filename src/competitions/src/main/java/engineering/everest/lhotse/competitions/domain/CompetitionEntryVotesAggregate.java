@@ -0,0 +1,165 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import engineering.everest.lhotse.competitions.domain.commands.CloseCompetitionEntryVotingCommand;
+import engineering.everest.lhotse.competitions.domain.commands.OpenCompetitionEntryVotingCommand;
+import engineering.everest.lhotse.competitions.domain.commands.VoteForCompetitionEntryCommand;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEntryVotingClosedEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEntryVotingOpenedEvent;
+import engineering.everest.lhotse.competitions.domain.events.PhotoEntryReceivedVoteEvent;
+import engineering.everest.lhotse.i18n.exceptions.TranslatableException;
+import engineering.everest.lhotse.i18n.exceptions.TranslatableIllegalStateException;
+import lombok.Builder;
+import lombok.Value;
+import org.axonframework.commandhandling.CommandExecutionException;
+import org.axonframework.commandhandling.CommandHandler;
+import org.axonframework.eventsourcing.EventSourcingHandler;
+import org.axonframework.modelling.command.AggregateIdentifier;
+import org.axonframework.serialization.Revision;
+import org.axonframework.spring.stereotype.Aggregate;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+
+import static engineering.everest.lhotse.i18n.MessageKeys.ALREADY_VOTED_FOR_THIS_ENTRY;
+import static engineering.everest.lhotse.i18n.MessageKeys.COMPETITION_ALREADY_ENDED;
+import static engineering.everest.lhotse.i18n.MessageKeys.VOTING_ENDED;
+import static engineering.everest.lhotse.i18n.MessageKeys.VOTING_PERIOD_NOT_STARTED;
+import static org.axonframework.modelling.command.AggregateLifecycle.apply;
+
+@Aggregate(snapshotTriggerDefinition = "competitionEntryVotesAggregateSnapshotTriggerDefinition",
+    snapshotFilter = "competitionEntryVotesAggregateSnapshotFilter", cache = "competitionEntryVotesAggregateCache")
+@Revision("0")
+public class CompetitionEntryVotesAggregate implements Serializable {
+
+    @AggregateIdentifier
+    private UUID entryVotesId;
+    private UUID competitionId;
+    private UUID photoId;
+    private Instant votingOpensTimestamp;
+    private Instant votingEndsTimestamp;
+    private CompactUuidSet usersVotedFor;
+    private boolean votingClosed;
+
+    CompetitionEntryVotesAggregate() {}
+
+    @CommandHandler
+    CompetitionEntryVotesAggregate(OpenCompetitionEntryVotingCommand command) {
+        apply(new CompetitionEntryVotingOpenedEvent(command.getEntryVotesId(), command.getCompetitionId(), command.getPhotoId(),
+            command.getVotingOpensTimestamp(), command.getVotingEndsTimestamp()));
+    }
+
+    public static UUID entryVotesIdFor(UUID competitionId, UUID photoId) {
+        return UUID.nameUUIDFromBytes(ByteBuffer.allocate(4 * Long.BYTES)
+            .putLong(competitionId.getMostSignificantBits())
+            .putLong(competitionId.getLeastSignificantBits())
+            .putLong(photoId.getMostSignificantBits())
+            .putLong(photoId.getLeastSignificantBits())
+            .array());
+    }
+
+    @CommandHandler
+    void handle(VoteForCompetitionEntryCommand command, Clock clock) {
+        validateVotingNotClosed();
+        validateVotingPeriodOpen(clock);
+        validateUserHasNotVotedForEntryBefore(command.getRequestingUserId());
+
+        apply(new PhotoEntryReceivedVoteEvent(competitionId, photoId, command.getRequestingUserId()));
+    }
+
+    @CommandHandler
+    void handle(CloseCompetitionEntryVotingCommand command) {
+        validateVotingNotClosed();
+
+        apply(new CompetitionEntryVotingClosedEvent(entryVotesId, competitionId, photoId, usersVotedFor.size()));
+    }
+
+    @EventSourcingHandler
+    void on(CompetitionEntryVotingOpenedEvent event) {
+        entryVotesId = event.getEntryVotesId();
+        competitionId = event.getCompetitionId();
+        photoId = event.getPhotoId();
+        votingOpensTimestamp = event.getVotingOpensTimestamp();
+        votingEndsTimestamp = event.getVotingEndsTimestamp();
+        usersVotedFor = new CompactUuidSet();
+        votingClosed = false;
+    }
+
+    @EventSourcingHandler
+    void on(PhotoEntryReceivedVoteEvent event) {
+        usersVotedFor.add(event.getVotingUserId());
+    }
+
+    @EventSourcingHandler
+    void on(CompetitionEntryVotingClosedEvent event) {
+        votingClosed = true;
+    }
+
+    static CompetitionEntryVotesAggregate fromSnapshot(Snapshot snapshot) {
+        var aggregate = new CompetitionEntryVotesAggregate();
+        aggregate.entryVotesId = snapshot.getEntryVotesId();
+        aggregate.competitionId = snapshot.getCompetitionId();
+        aggregate.photoId = snapshot.getPhotoId();
+        aggregate.votingOpensTimestamp = snapshot.getVotingOpensTimestamp();
+        aggregate.votingEndsTimestamp = snapshot.getVotingEndsTimestamp();
+        aggregate.usersVotedFor = snapshot.getUsersVotedFor();
+        aggregate.votingClosed = snapshot.isVotingClosed();
+        return aggregate;
+    }
+
+    Snapshot toSnapshot() {
+        return Snapshot.builder()
+            .entryVotesId(entryVotesId)
+            .competitionId(competitionId)
+            .photoId(photoId)
+            .votingOpensTimestamp(votingOpensTimestamp)
+            .votingEndsTimestamp(votingEndsTimestamp)
+            .usersVotedFor(usersVotedFor)
+            .votingClosed(votingClosed)
+            .build();
+    }
+
+    private static void throwWrappedInCommandExecutionException(TranslatableException translatableException) {
+        throw new CommandExecutionException(translatableException.getMessage(), null, translatableException);
+    }
+
+    private void validateVotingNotClosed() {
+        if (votingClosed) {
+            throwWrappedInCommandExecutionException(new TranslatableIllegalStateException(COMPETITION_ALREADY_ENDED));
+        }
+    }
+
+    private void validateVotingPeriodOpen(Clock clock) {
+        var now = clock.instant();
+        if (now.isBefore(votingOpensTimestamp)) {
+            throwWrappedInCommandExecutionException(
+                new TranslatableIllegalStateException(VOTING_PERIOD_NOT_STARTED, votingOpensTimestamp));
+        }
+        if (now.isAfter(votingEndsTimestamp)) {
+            throwWrappedInCommandExecutionException(new TranslatableIllegalStateException(VOTING_ENDED, votingEndsTimestamp));
+        }
+    }
+
+    private void validateUserHasNotVotedForEntryBefore(UUID requestingUserId) {
+        if (usersVotedFor.contains(requestingUserId)) {
+            throwWrappedInCommandExecutionException(new TranslatableIllegalStateException(ALREADY_VOTED_FOR_THIS_ENTRY));
+        }
+    }
+
+    /**
+     * State written by {@link CompetitionEntryVotesAggregateSnapshotCodec}.
+     */
+    @Value
+    @Builder
+    static class Snapshot {
+        UUID entryVotesId;
+        UUID competitionId;
+        UUID photoId;
+        Instant votingOpensTimestamp;
+        Instant votingEndsTimestamp;
+        CompactUuidSet usersVotedFor;
+        boolean votingClosed;
+    }
+}
@@ -0,0 +1,47 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import engineering.everest.lhotse.axon.snapshotting.SnapshotCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class CompetitionEntryVotesAggregateSnapshotCodec implements SnapshotCodec<CompetitionEntryVotesAggregate> {
+
+    private static final int FORMAT_VERSION = 1;
+
+    @Override
+    public Class<CompetitionEntryVotesAggregate> getAggregateType() {
+        return CompetitionEntryVotesAggregate.class;
+    }
+
+    @Override
+    public int getFormatVersion() {
+        return FORMAT_VERSION;
+    }
+
+    @Override
+    public void write(CompetitionEntryVotesAggregate aggregate, DataOutput output) throws IOException {
+        var snapshot = aggregate.toSnapshot();
+        writeUuid(output, snapshot.getEntryVotesId());
+        writeUuid(output, snapshot.getCompetitionId());
+        writeUuid(output, snapshot.getPhotoId());
+        writeInstant(output, snapshot.getVotingOpensTimestamp());
+        writeInstant(output, snapshot.getVotingEndsTimestamp());
+        output.writeBoolean(snapshot.isVotingClosed());
+        snapshot.getUsersVotedFor().writeTo(output);
+    }
+
+    @Override
+    public CompetitionEntryVotesAggregate read(DataInput input) throws IOException {
+        return CompetitionEntryVotesAggregate.fromSnapshot(CompetitionEntryVotesAggregate.Snapshot.builder()
+            .entryVotesId(readUuid(input))
+            .competitionId(readUuid(input))
+            .photoId(readUuid(input))
+            .votingOpensTimestamp(readInstant(input))
+            .votingEndsTimestamp(readInstant(input))
+            .votingClosed(input.readBoolean())
+            .usersVotedFor(CompactUuidSet.readFrom(input))
+            .build());
+    }
+}
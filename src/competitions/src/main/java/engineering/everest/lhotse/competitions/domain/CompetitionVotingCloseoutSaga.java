@@ -1,9 +1,15 @@
 package engineering.everest.lhotse.competitions.domain;
 
+import engineering.everest.lhotse.competitions.domain.commands.CloseCompetitionEntryVotingCommand;
 import engineering.everest.lhotse.competitions.domain.commands.CountVotesAndDeclareOutcomeCommand;
+import engineering.everest.lhotse.competitions.domain.commands.DeclareOutcomeFromEntryTalliesCommand;
+import engineering.everest.lhotse.competitions.domain.commands.OpenCompetitionEntryVotingCommand;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEntryTalliesOverdueEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEntryVotingClosedEvent;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionVotingPeriodEndedEvent;
+import engineering.everest.lhotse.competitions.domain.events.PhotoEnteredInCompetitionEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.axonframework.eventhandling.scheduling.EventScheduler;
@@ -15,32 +21,113 @@ import org.axonframework.serialization.Revision;
 import org.axonframework.spring.stereotype.Saga;
 
 import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static engineering.everest.lhotse.competitions.domain.CompetitionEntryVotesAggregate.entryVotesIdFor;
 
 @Saga
-@Revision("0")
+@Revision("2")
 @Slf4j
 public class CompetitionVotingCloseoutSaga implements Serializable {
 
+    static final Duration ENTRY_TALLY_TIMEOUT = Duration.ofMinutes(10);
+    private static final String COMPETITION_ID = "competitionId";
+
     private ScheduleToken votingPeriodEndedEventScheduleToken;
+    private ScheduleToken entryTalliesOverdueEventScheduleToken;
+    private boolean outcomeDeclarationRequested;
+    private boolean votesCountedPerEntry;
+    private Instant votingOpensTimestamp;
+    private Instant votingEndsTimestamp;
+    private Set<UUID> photoIdsAwaitingTally;
+    private Map<UUID, Integer> numVotesPerPhoto;
 
     @StartSaga
-    @SagaEventHandler(associationProperty = "competitionId")
+    @SagaEventHandler(associationProperty = COMPETITION_ID)
     void on(CompetitionCreatedEvent event, EventScheduler eventScheduler) {
         LOGGER.debug("Competition {} created, scheduling competition ending event", event.getCompetitionId());
 
+        votesCountedPerEntry = event.isVotesCountedPerEntry();
+        votingOpensTimestamp = event.getSubmissionsCloseTimestamp();
+        votingEndsTimestamp = event.getVotingEndsTimestamp();
+        photoIdsAwaitingTally = new HashSet<>();
+        numVotesPerPhoto = new HashMap<>();
         votingPeriodEndedEventScheduleToken = eventScheduler.schedule(event.getVotingEndsTimestamp(),
             new CompetitionVotingPeriodEndedEvent(event.getCompetitionId(), event.getVotingEndsTimestamp()));
     }
 
-    @SagaEventHandler(associationProperty = "competitionId")
-    void on(CompetitionVotingPeriodEndedEvent event, CommandGateway commandGateway) {
+    @SagaEventHandler(associationProperty = COMPETITION_ID)
+    void on(PhotoEnteredInCompetitionEvent event, CommandGateway commandGateway) {
+        if (!votesCountedPerEntry) {
+            return;
+        }
+
+        LOGGER.debug("Opening voting for photo {} in competition {}", event.getPhotoId(), event.getCompetitionId());
+        photoIdsAwaitingTally.add(event.getPhotoId());
+        send(commandGateway, new OpenCompetitionEntryVotingCommand(entryVotesIdFor(event.getCompetitionId(), event.getPhotoId()),
+            event.getCompetitionId(), event.getPhotoId(), votingOpensTimestamp, votingEndsTimestamp));
+    }
+
+    @SagaEventHandler(associationProperty = COMPETITION_ID)
+    void on(CompetitionVotingPeriodEndedEvent event, CommandGateway commandGateway, EventScheduler eventScheduler) {
         LOGGER.debug("Competition {} voting period ended", event.getCompetitionId());
-        commandGateway.send(new CountVotesAndDeclareOutcomeCommand(event.getCompetitionId()));
+        if (!votesCountedPerEntry || photoIdsAwaitingTally.isEmpty()) {
+            send(commandGateway, new CountVotesAndDeclareOutcomeCommand(event.getCompetitionId()));
+            return;
+        }
+
+        // Entries whose voting failed to open or close never report a tally, so the outcome is declared with the tallies received
+        // so far once this event fires
+        entryTalliesOverdueEventScheduleToken = eventScheduler.schedule(ENTRY_TALLY_TIMEOUT,
+            new CompetitionEntryTalliesOverdueEvent(event.getCompetitionId()));
+        photoIdsAwaitingTally.forEach(photoId -> send(commandGateway,
+            new CloseCompetitionEntryVotingCommand(entryVotesIdFor(event.getCompetitionId(), photoId))));
+    }
+
+    @SagaEventHandler(associationProperty = COMPETITION_ID)
+    void on(CompetitionEntryVotingClosedEvent event, CommandGateway commandGateway) {
+        photoIdsAwaitingTally.remove(event.getPhotoId());
+        numVotesPerPhoto.put(event.getPhotoId(), event.getNumVotesReceived());
+
+        if (photoIdsAwaitingTally.isEmpty() && !outcomeDeclarationRequested) {
+            LOGGER.debug("All entries in competition {} tallied", event.getCompetitionId());
+            outcomeDeclarationRequested = true;
+            send(commandGateway, new DeclareOutcomeFromEntryTalliesCommand(event.getCompetitionId(), new HashMap<>(numVotesPerPhoto)));
+        }
+    }
+
+    /**
+     * Declares the outcome with the tallies received so far. Also covers a failed outcome declaration, as the overdue event is
+     * only cancelled once the competition has ended.
+     */
+    @SagaEventHandler(associationProperty = COMPETITION_ID)
+    void on(CompetitionEntryTalliesOverdueEvent event, CommandGateway commandGateway) {
+        LOGGER.warn("Competition {} did not end in time, declaring outcome without tallies for entries {}",
+            event.getCompetitionId(), photoIdsAwaitingTally);
+        entryTalliesOverdueEventScheduleToken = null;
+        outcomeDeclarationRequested = true;
+        send(commandGateway, new DeclareOutcomeFromEntryTalliesCommand(event.getCompetitionId(), new HashMap<>(numVotesPerPhoto)));
     }
 
     @EndSaga
-    @SagaEventHandler(associationProperty = "competitionId")
-    void on(CompetitionEndedEvent event) {
+    @SagaEventHandler(associationProperty = COMPETITION_ID)
+    void on(CompetitionEndedEvent event, EventScheduler eventScheduler) {
         LOGGER.debug("Competition {} has ended", event.getCompetitionId());
+        if (entryTalliesOverdueEventScheduleToken != null) {
+            eventScheduler.cancelSchedule(entryTalliesOverdueEventScheduleToken);
+        }
+    }
+
+    private static void send(CommandGateway commandGateway, Object command) {
+        commandGateway.send(command).exceptionally(e -> {
+            LOGGER.warn("Command {} failed", command, e);
+            return null;
+        });
     }
 }
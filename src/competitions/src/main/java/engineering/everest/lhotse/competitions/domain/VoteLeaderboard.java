@@ -0,0 +1,39 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+public class VoteLeaderboard implements Serializable {
+
+    private final NavigableMap<Integer, NavigableSet<UUID>> photoIdsByVoteCount = new TreeMap<>();
+
+    public void recordVote(UUID photoId, int newVoteCount) {
+        var previousVoteCount = newVoteCount - 1;
+        var previouslyTied = photoIdsByVoteCount.get(previousVoteCount);
+        if (previouslyTied != null && previouslyTied.remove(photoId) && previouslyTied.isEmpty()) {
+            photoIdsByVoteCount.remove(previousVoteCount);
+        }
+        photoIdsByVoteCount.computeIfAbsent(newVoteCount, voteCount -> new TreeSet<>()).add(photoId);
+    }
+
+    public void recordTally(UUID photoId, int numVotes) {
+        if (numVotes > 0) {
+            photoIdsByVoteCount.computeIfAbsent(numVotes, voteCount -> new TreeSet<>()).add(photoId);
+        }
+    }
+
+    public int getHighestVoteCount() {
+        return photoIdsByVoteCount.isEmpty() ? 0 : photoIdsByVoteCount.lastKey();
+    }
+
+    public NavigableSet<UUID> getLeadingPhotoIds() {
+        return photoIdsByVoteCount.isEmpty()
+            ? Collections.emptyNavigableSet()
+            : Collections.unmodifiableNavigableSet(photoIdsByVoteCount.lastEntry().getValue());
+    }
+}
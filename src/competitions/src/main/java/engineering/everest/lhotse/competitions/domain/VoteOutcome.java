@@ -0,0 +1,33 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import engineering.everest.lhotse.i18n.exceptions.TranslatableException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.axonframework.commandhandling.CommandExecutionException;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class VoteOutcome implements Serializable {
+    private TranslatableException rejectionReason;
+
+    public static VoteOutcome accepted() {
+        return new VoteOutcome(null);
+    }
+
+    public static VoteOutcome rejected(TranslatableException rejectionReason) {
+        return new VoteOutcome(rejectionReason);
+    }
+
+    public boolean isAccepted() {
+        return rejectionReason == null;
+    }
+
+    public CommandExecutionException toCommandExecutionException() {
+        return new CommandExecutionException(rejectionReason.getMessage(), null, rejectionReason);
+    }
+}
@@ -0,0 +1,17 @@
+package engineering.everest.lhotse.competitions.domain.commands;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.axonframework.modelling.command.TargetAggregateIdentifier;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CloseCompetitionEntryVotingCommand implements Serializable {
+    @TargetAggregateIdentifier
+    private UUID entryVotesId;
+}
@@ -0,0 +1,22 @@
+package engineering.everest.lhotse.competitions.domain.commands;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.axonframework.modelling.command.TargetAggregateIdentifier;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpenCompetitionEntryVotingCommand implements Serializable {
+    @TargetAggregateIdentifier
+    private UUID entryVotesId;
+    private UUID competitionId;
+    private UUID photoId;
+    private Instant votingOpensTimestamp;
+    private Instant votingEndsTimestamp;
+}
@@ -0,0 +1,19 @@
+package engineering.everest.lhotse.competitions.domain.commands;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.axonframework.modelling.command.TargetAggregateIdentifier;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoteForPhotosCommand implements Serializable {
+    @TargetAggregateIdentifier
+    private UUID competitionId;
+    private List<VoteForPhotoCommand> votes;
+}
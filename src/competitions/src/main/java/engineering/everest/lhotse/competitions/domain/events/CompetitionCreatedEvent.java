@@ -11,7 +11,7 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Revision("0")
+@Revision("1")
 public class CompetitionCreatedEvent {
     private UUID requestingUserId;
     private UUID competitionId;
@@ -20,4 +20,5 @@ public class CompetitionCreatedEvent {
     private Instant submissionsCloseTimestamp;
     private Instant votingEndsTimestamp;
     private int maxEntriesPerUser;
+    private boolean votesCountedPerEntry;
 }
@@ -0,0 +1,21 @@
+package engineering.everest.lhotse.competitions.domain.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.axonframework.serialization.Revision;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Revision("0")
+public class CompetitionEntryVotingOpenedEvent {
+    private UUID entryVotesId;
+    private UUID competitionId;
+    private UUID photoId;
+    private Instant votingOpensTimestamp;
+    private Instant votingEndsTimestamp;
+}
@@ -0,0 +1,30 @@
+package engineering.everest.lhotse.competitions.domain.upcasters;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
+import org.axonframework.serialization.SimpleSerializedType;
+import org.axonframework.serialization.upcasting.event.IntermediateEventRepresentation;
+import org.axonframework.serialization.upcasting.event.SingleEventUpcaster;
+import org.springframework.stereotype.Component;
+
+/**
+ * Competitions created before votes could be counted per entry always counted their votes on the competition itself.
+ */
+@Component
+public class CompetitionCreatedEventUpcaster extends SingleEventUpcaster {
+
+    private static final SimpleSerializedType REVISION_0 = new SimpleSerializedType(CompetitionCreatedEvent.class.getTypeName(), "0");
+    private static final SimpleSerializedType REVISION_1 = new SimpleSerializedType(CompetitionCreatedEvent.class.getTypeName(), "1");
+
+    @Override
+    protected boolean canUpcast(IntermediateEventRepresentation intermediateRepresentation) {
+        return REVISION_0.equals(intermediateRepresentation.getType());
+    }
+
+    @Override
+    protected IntermediateEventRepresentation doUpcast(IntermediateEventRepresentation intermediateRepresentation) {
+        return intermediateRepresentation.upcastPayload(REVISION_1, JsonNode.class,
+            payload -> ((ObjectNode) payload).put("votesCountedPerEntry", false));
+    }
+}
@@ -0,0 +1,76 @@
+package engineering.everest.lhotse.competitions.handlers;
+
+import engineering.everest.lhotse.competitions.domain.CompetitionEntriesDelta;
+import engineering.everest.lhotse.competitions.domain.queries.CompetitionWithEntriesQuery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.queryhandling.QueryUpdateEmitter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class CompetitionUpdatesCoalescer {
+
+    private final QueryUpdateEmitter queryUpdateEmitter;
+    private final TaskScheduler taskScheduler;
+    private final Duration coalescingWindow;
+    private final Counter emittedUpdates;
+    private final Counter coalescedUpdates;
+    private final Map<UUID, CompetitionEntriesDelta> pendingDeltasPerCompetition = new ConcurrentHashMap<>();
+
+    public CompetitionUpdatesCoalescer(QueryUpdateEmitter queryUpdateEmitter,
+                                       TaskScheduler taskScheduler,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${application.competitions.update-coalescing.window-milli-seconds:500}") long windowMillis) {
+        this.queryUpdateEmitter = queryUpdateEmitter;
+        this.taskScheduler = taskScheduler;
+        this.coalescingWindow = Duration.ofMillis(windowMillis);
+        this.emittedUpdates = meterRegistry.counter("lhotse.competitions.updates.emitted");
+        this.coalescedUpdates = meterRegistry.counter("lhotse.competitions.updates.coalesced");
+    }
+
+    public void submit(CompetitionEntriesDelta delta) {
+        if (CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().root().afterCommit(unitOfWork -> enqueue(delta));
+        } else {
+            enqueue(delta);
+        }
+    }
+
+    private void enqueue(CompetitionEntriesDelta delta) {
+        if (coalescingWindow.isZero()) {
+            emit(delta);
+            return;
+        }
+
+        pendingDeltasPerCompetition.compute(delta.getCompetitionId(), (competitionId, pendingDelta) -> {
+            if (pendingDelta == null) {
+                taskScheduler.schedule(() -> flush(competitionId), Instant.now().plus(coalescingWindow));
+                return delta;
+            }
+            coalescedUpdates.increment();
+            return pendingDelta.mergeWith(delta);
+        });
+    }
+
+    private void flush(UUID competitionId) {
+        var delta = pendingDeltasPerCompetition.remove(competitionId);
+        if (delta != null) {
+            emit(delta);
+        }
+    }
+
+    private void emit(CompetitionEntriesDelta delta) {
+        queryUpdateEmitter.emit(CompetitionWithEntriesQuery.class,
+            filter -> delta.getCompetitionId().equals(filter.getCompetitionId()), delta);
+        emittedUpdates.increment();
+    }
+}
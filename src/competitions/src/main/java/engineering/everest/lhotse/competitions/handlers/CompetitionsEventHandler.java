@@ -1,39 +1,53 @@
 package engineering.everest.lhotse.competitions.handlers;
 
+import engineering.everest.lhotse.competitions.domain.CompetitionEntriesDelta;
+import engineering.everest.lhotse.competitions.domain.CompetitionEntry;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedAndWinnersDeclaredEvent;
 import engineering.everest.lhotse.competitions.domain.events.PhotoEnteredInCompetitionEvent;
 import engineering.everest.lhotse.competitions.domain.events.PhotoEntryReceivedVoteEvent;
-import engineering.everest.lhotse.competitions.domain.queries.CompetitionWithEntriesQuery;
+import engineering.everest.lhotse.competitions.domain.events.WinnerAndSubmittedPhotoPair;
 import engineering.everest.lhotse.competitions.persistence.CompetitionEntriesRepository;
 import engineering.everest.lhotse.competitions.persistence.CompetitionEntryId;
 import engineering.everest.lhotse.competitions.persistence.CompetitionsRepository;
-import engineering.everest.lhotse.competitions.services.CompetitionsReadService;
+import engineering.everest.lhotse.competitions.persistence.PersistableCompetition;
+import engineering.everest.lhotse.competitions.persistence.PersistableCompetitionEntry;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ReplayStatus;
 import org.axonframework.eventhandling.ResetHandler;
 import org.axonframework.eventhandling.Timestamp;
-import org.axonframework.queryhandling.QueryUpdateEmitter;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+
 @Service
 @Slf4j
 public class CompetitionsEventHandler {
 
-    private final QueryUpdateEmitter queryUpdateEmitter;
-    private final CompetitionsReadService competitionsReadService;
+    private static final String PENDING_VOTE_COUNTS = CompetitionsEventHandler.class.getName() + ".pendingVoteCounts";
+    private static final String REPLAY_BATCH = CompetitionsEventHandler.class.getName() + ".replayBatch";
+
+    private final CompetitionUpdatesCoalescer competitionUpdatesCoalescer;
     private final CompetitionsRepository competitionsRepository;
     private final CompetitionEntriesRepository competitionEntriesRepository;
 
-    public CompetitionsEventHandler(QueryUpdateEmitter queryUpdateEmitter,
-                                    CompetitionsReadService competitionsReadService,
+    public CompetitionsEventHandler(CompetitionUpdatesCoalescer competitionUpdatesCoalescer,
                                     CompetitionsRepository competitionsRepository,
                                     CompetitionEntriesRepository competitionEntriesRepository) {
-        this.queryUpdateEmitter = queryUpdateEmitter;
-        this.competitionsReadService = competitionsReadService;
+        this.competitionUpdatesCoalescer = competitionUpdatesCoalescer;
         this.competitionsRepository = competitionsRepository;
         this.competitionEntriesRepository = competitionEntriesRepository;
     }
@@ -42,52 +56,133 @@ public class CompetitionsEventHandler {
     public void prepareForReplay() {
         LOGGER.info("{} deleting projections", CompetitionsRepository.class.getSimpleName());
         competitionsRepository.deleteAll();
+        competitionEntriesRepository.deleteAllInBatch();
     }
 
     @EventHandler
-    void on(CompetitionCreatedEvent event) {
+    void on(CompetitionCreatedEvent event, ReplayStatus replayStatus) {
         LOGGER.info("Competition {} created", event.getCompetitionId());
-        competitionsRepository.createCompetition(event.getCompetitionId(), event.getDescription(), event.getSubmissionsOpenTimestamp(),
-            event.getSubmissionsCloseTimestamp(), event.getVotingEndsTimestamp(), event.getMaxEntriesPerUser());
+        if (replayStatus.isReplay()) {
+            replayBatch().competitions.add(new PersistableCompetition(event.getCompetitionId(), event.getDescription(),
+                event.getSubmissionsOpenTimestamp(), event.getSubmissionsCloseTimestamp(), event.getVotingEndsTimestamp(),
+                event.getMaxEntriesPerUser()));
+        } else {
+            competitionsRepository.createCompetition(event.getCompetitionId(), event.getDescription(),
+                event.getSubmissionsOpenTimestamp(), event.getSubmissionsCloseTimestamp(), event.getVotingEndsTimestamp(),
+                event.getMaxEntriesPerUser());
+        }
     }
 
     @EventHandler
-    void on(PhotoEnteredInCompetitionEvent event, @Timestamp Instant entryTimestamp) {
+    void on(PhotoEnteredInCompetitionEvent event, @Timestamp Instant entryTimestamp, ReplayStatus replayStatus) {
         LOGGER.info("Photo {} entered into competition {} by user {}", event.getPhotoId(), event.getCompetitionId(),
             event.getSubmittedByUserId());
-        competitionEntriesRepository.createCompetitionEntry(event.getCompetitionId(), event.getPhotoId(),
-            event.getSubmittedByUserId(), entryTimestamp);
-
-        emitCompetitionWithEntriesQueryUpdate(event.getCompetitionId());
+        if (replayStatus.isReplay()) {
+            replayBatch().entries.put(new CompetitionEntryId(event.getCompetitionId(), event.getPhotoId()),
+                new PersistableCompetitionEntry(event.getCompetitionId(), event.getPhotoId(), event.getSubmittedByUserId(),
+                    entryTimestamp));
+        } else {
+            competitionEntriesRepository.createCompetitionEntry(event.getCompetitionId(), event.getPhotoId(),
+                event.getSubmittedByUserId(), entryTimestamp);
+            emitCompetitionWithEntriesQueryUpdate(CompetitionEntriesDelta.entryAdded(new CompetitionEntry(event.getCompetitionId(),
+                event.getPhotoId(), event.getSubmittedByUserId(), entryTimestamp, 0, false)));
+        }
     }
 
     @EventHandler
-    void on(PhotoEntryReceivedVoteEvent event) {
-        LOGGER.info("Photo {} in competition {} was voted for by user {}", event.getPhotoId(), event.getCompetitionId(),
+    void on(PhotoEntryReceivedVoteEvent event, ReplayStatus replayStatus) {
+        LOGGER.debug("Photo {} in competition {} was voted for by user {}", event.getPhotoId(), event.getCompetitionId(),
             event.getVotingUserId());
 
-        var id = new CompetitionEntryId(event.getCompetitionId(), event.getPhotoId());
-        var competitionEntry = competitionEntriesRepository.findById(id).orElseThrow();
-        competitionEntry.setVotesReceived(competitionEntry.getVotesReceived() + 1);
-
-        emitCompetitionWithEntriesQueryUpdate(event.getCompetitionId());
+        var entryId = new CompetitionEntryId(event.getCompetitionId(), event.getPhotoId());
+        if (replayStatus.isReplay()) {
+            replayBatch().addVote(entryId);
+        } else {
+            pendingVoteCounts().merge(entryId, 1, Integer::sum);
+        }
     }
 
     @EventHandler
-    void on(CompetitionEndedAndWinnersDeclaredEvent event) {
+    void on(CompetitionEndedAndWinnersDeclaredEvent event, ReplayStatus replayStatus) {
         LOGGER.info("winner(s) declared for competition {}", event.getCompetitionId());
 
-        event.getWinnersToPhotoIdList().forEach(winnerAndPhotoId -> {
-            var entryId = new CompetitionEntryId(event.getCompetitionId(), winnerAndPhotoId.getPhotoId());
-            var entry = competitionEntriesRepository.findById(entryId).orElseThrow();
-            entry.setWinner(true);
+        var winningPhotoIds = event.getWinnersToPhotoIdList().stream()
+            .map(WinnerAndSubmittedPhotoPair::getPhotoId)
+            .collect(toSet());
+        competitionEntriesRepository.markWinners(event.getCompetitionId(), winningPhotoIds);
+        if (replayStatus.isReplay()) {
+            replayBatch().markWinners(event.getCompetitionId(), winningPhotoIds);
+        } else {
+            emitCompetitionWithEntriesQueryUpdate(CompetitionEntriesDelta.winnersDeclared(event.getCompetitionId(), winningPhotoIds));
+        }
+    }
+
+    private Map<CompetitionEntryId, Integer> pendingVoteCounts() {
+        var unitOfWork = CurrentUnitOfWork.get().root();
+        return unitOfWork.getOrComputeResource(PENDING_VOTE_COUNTS, key -> {
+            var pendingVoteCounts = new LinkedHashMap<CompetitionEntryId, Integer>();
+            unitOfWork.onPrepareCommit(committing -> flushVoteCounts(pendingVoteCounts));
+            return pendingVoteCounts;
+        });
+    }
+
+    private ReplayBatch replayBatch() {
+        var unitOfWork = CurrentUnitOfWork.get().root();
+        return unitOfWork.getOrComputeResource(REPLAY_BATCH, key -> {
+            var replayBatch = new ReplayBatch();
+            unitOfWork.onPrepareCommit(committing -> flushReplayBatch(replayBatch));
+            return replayBatch;
         });
+    }
+
+    private void flushReplayBatch(ReplayBatch replayBatch) {
+        LOGGER.info("Bulk loading {} competitions and {} competition entries from replay", replayBatch.competitions.size(),
+            replayBatch.entries.size());
+        competitionsRepository.bulkInsert(List.copyOf(replayBatch.competitions));
+        competitionEntriesRepository.bulkInsert(List.copyOf(replayBatch.entries.values()));
+        competitionEntriesRepository.bulkIncrementVotesReceived(replayBatch.votesForProjectedEntries);
+    }
+
+    private void flushVoteCounts(Map<CompetitionEntryId, Integer> pendingVoteCounts) {
+        LOGGER.info("Projecting votes for {} competition entries", pendingVoteCounts.size());
+        var numVotesReceivedPerEntry = new LinkedHashMap<CompetitionEntryId, Integer>();
+        pendingVoteCounts.forEach((entryId, numVotes) -> numVotesReceivedPerEntry.put(entryId,
+            competitionEntriesRepository.incrementVotesReceived(entryId.getCompetitionId(), entryId.getPhotoId(), numVotes)));
+
+        numVotesReceivedPerEntry.entrySet().stream()
+            .collect(groupingBy(entry -> entry.getKey().getCompetitionId(), LinkedHashMap::new,
+                toMap(entry -> entry.getKey().getPhotoId(), Map.Entry::getValue)))
+            .forEach((competitionId, numVotesReceivedPerPhoto) ->
+                emitCompetitionWithEntriesQueryUpdate(CompetitionEntriesDelta.votesChanged(competitionId, numVotesReceivedPerPhoto)));
+    }
 
-        emitCompetitionWithEntriesQueryUpdate(event.getCompetitionId());
+    private void emitCompetitionWithEntriesQueryUpdate(CompetitionEntriesDelta delta) {
+        competitionUpdatesCoalescer.submit(delta);
     }
 
-    private void emitCompetitionWithEntriesQueryUpdate(UUID competitionId) {
-        queryUpdateEmitter.emit(CompetitionWithEntriesQuery.class, filter -> competitionId.equals(filter.getCompetitionId()),
-            competitionsReadService.getCompetitionWithEntries(competitionId));
+    /**
+     * Rows replayed within one tracking processor batch. Votes and winners for entries entered in the same batch are folded
+     * into the buffered rows, so each entry is written once with its aggregated totals.
+     */
+    static final class ReplayBatch {
+        final List<PersistableCompetition> competitions = new ArrayList<>();
+        final Map<CompetitionEntryId, PersistableCompetitionEntry> entries = new LinkedHashMap<>();
+        final Map<CompetitionEntryId, Integer> votesForProjectedEntries = new LinkedHashMap<>();
+
+        void addVote(CompetitionEntryId entryId) {
+            var bufferedEntry = entries.get(entryId);
+            if (bufferedEntry == null) {
+                votesForProjectedEntries.merge(entryId, 1, Integer::sum);
+            } else {
+                bufferedEntry.setVotesReceived(bufferedEntry.getVotesReceived() + 1);
+            }
+        }
+
+        void markWinners(UUID competitionId, Set<UUID> winningPhotoIds) {
+            winningPhotoIds.stream()
+                .map(photoId -> entries.get(new CompetitionEntryId(competitionId, photoId)))
+                .filter(Objects::nonNull)
+                .forEach(entry -> entry.setWinner(true));
+        }
     }
 }
@@ -0,0 +1,152 @@
+package engineering.everest.lhotse.competitions.services;
+
+import engineering.everest.lhotse.competitions.domain.CompactUuidSet;
+import engineering.everest.lhotse.competitions.domain.commands.VoteForPhotoCommand;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedEvent;
+import engineering.everest.lhotse.competitions.domain.events.PhotoEntryReceivedVoteEvent;
+import engineering.everest.lhotse.i18n.exceptions.TranslatableException;
+import engineering.everest.lhotse.i18n.exceptions.TranslatableIllegalStateException;
+import lombok.AllArgsConstructor;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static engineering.everest.lhotse.i18n.MessageKeys.ALREADY_VOTED_FOR_THIS_ENTRY;
+import static engineering.everest.lhotse.i18n.MessageKeys.VOTING_ENDED;
+import static engineering.everest.lhotse.i18n.MessageKeys.VOTING_PERIOD_NOT_STARTED;
+
+@Component
+@ConditionalOnProperty(value = "application.competitions.vote-admission.enabled", havingValue = "true")
+@ProcessingGroup(CompetitionVoteAdmissionFilter.PROCESSING_GROUP)
+public class CompetitionVoteAdmissionFilter {
+
+    public static final String PROCESSING_GROUP = "competition-vote-admission";
+
+    private final Clock clock;
+    private final Duration clockSkewAllowance;
+    private final long maxTrackedVotes;
+    private final Map<UUID, VotingWindow> votingWindows = new ConcurrentHashMap<>();
+    private final Map<UUID, CompetitionVotes> votesPerCompetition = new ConcurrentHashMap<>();
+    private final AtomicLong numTrackedVotes = new AtomicLong();
+
+    public CompetitionVoteAdmissionFilter(Clock clock,
+                                          @Value("${application.competitions.vote-admission.skew-milli-seconds:1000}") long clockSkewMillis,
+                                          @Value("${application.competitions.vote-admission.max-votes:1000000}") long maxTrackedVotes) {
+        this.clock = clock;
+        this.clockSkewAllowance = Duration.ofMillis(clockSkewMillis);
+        this.maxTrackedVotes = maxTrackedVotes;
+    }
+
+    public Optional<TranslatableException> rejectionFor(VoteForPhotoCommand command) {
+        var votingWindow = votingWindows.get(command.getCompetitionId());
+        if (votingWindow != null) {
+            var now = Instant.now(clock);
+            if (now.isBefore(votingWindow.votingOpensTimestamp.minus(clockSkewAllowance))) {
+                return Optional.of(new TranslatableIllegalStateException(VOTING_PERIOD_NOT_STARTED, votingWindow.votingOpensTimestamp));
+            }
+            if (now.isAfter(votingWindow.votingEndsTimestamp.plus(clockSkewAllowance))) {
+                return Optional.of(new TranslatableIllegalStateException(VOTING_ENDED, votingWindow.votingEndsTimestamp));
+            }
+        }
+        var competitionVotes = votesPerCompetition.get(command.getCompetitionId());
+        if (competitionVotes != null && competitionVotes.contains(command.getPhotoId(), command.getRequestingUserId())) {
+            return Optional.of(new TranslatableIllegalStateException(ALREADY_VOTED_FOR_THIS_ENTRY));
+        }
+        return Optional.empty();
+    }
+
+    @ResetHandler
+    void prepareForReplay() {
+        votingWindows.clear();
+        votesPerCompetition.clear();
+        numTrackedVotes.set(0);
+    }
+
+    @EventHandler
+    void on(CompetitionCreatedEvent event) {
+        votingWindows.put(event.getCompetitionId(),
+            new VotingWindow(event.getSubmissionsCloseTimestamp(), event.getVotingEndsTimestamp()));
+    }
+
+    @EventHandler
+    void on(PhotoEntryReceivedVoteEvent event) {
+        if (numTrackedVotes.get() >= maxTrackedVotes) {
+            return;
+        }
+        var competitionVotes = votesPerCompetition.computeIfAbsent(event.getCompetitionId(), competitionId -> new CompetitionVotes());
+        if (competitionVotes.add(event.getPhotoId(), event.getVotingUserId())) {
+            numTrackedVotes.incrementAndGet();
+        }
+    }
+
+    /**
+     * Forgets everything about the competition. Votes that still arrive are rejected by the competition aggregate.
+     */
+    @EventHandler
+    void on(CompetitionEndedEvent event) {
+        votingWindows.remove(event.getCompetitionId());
+        var competitionVotes = votesPerCompetition.remove(event.getCompetitionId());
+        if (competitionVotes != null) {
+            numTrackedVotes.addAndGet(-competitionVotes.size());
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class VotingWindow {
+        private final Instant votingOpensTimestamp;
+        private final Instant votingEndsTimestamp;
+    }
+
+    private static final class CompetitionVotes {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<UUID, CompactUuidSet> votingUsersPerPhoto = new ConcurrentHashMap<>();
+        private int numVotes;
+
+        boolean add(UUID photoId, UUID votingUserId) {
+            lock.writeLock().lock();
+            try {
+                var added = votingUsersPerPhoto.computeIfAbsent(photoId, id -> new CompactUuidSet()).add(votingUserId);
+                if (added) {
+                    numVotes++;
+                }
+                return added;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean contains(UUID photoId, UUID votingUserId) {
+            lock.readLock().lock();
+            try {
+                var votingUsers = votingUsersPerPhoto.get(photoId);
+                return votingUsers != null && votingUsers.contains(votingUserId);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return numVotes;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
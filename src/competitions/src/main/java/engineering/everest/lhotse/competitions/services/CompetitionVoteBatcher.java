@@ -0,0 +1,98 @@
+package engineering.everest.lhotse.competitions.services;
+
+import engineering.everest.lhotse.competitions.domain.VoteOutcome;
+import engineering.everest.lhotse.competitions.domain.commands.VoteForPhotoCommand;
+import engineering.everest.lhotse.competitions.domain.commands.VoteForPhotosCommand;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.stream.Collectors.toList;
+
+@Component
+public class CompetitionVoteBatcher {
+
+    private final CommandGateway commandGateway;
+    private final TaskScheduler taskScheduler;
+    private final Duration batchWindow;
+    private final int maxBatchSize;
+    private final Map<UUID, List<PendingVote>> pendingVotesPerCompetition = new ConcurrentHashMap<>();
+
+    public CompetitionVoteBatcher(CommandGateway commandGateway,
+                                  TaskScheduler taskScheduler,
+                                  @Value("${application.competitions.vote-batching.window-milli-seconds:20}") long batchWindowMillis,
+                                  @Value("${application.competitions.vote-batching.max-batch-size:100}") int maxBatchSize) {
+        this.commandGateway = commandGateway;
+        this.taskScheduler = taskScheduler;
+        this.batchWindow = Duration.ofMillis(batchWindowMillis);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public CompletableFuture<Void> submit(VoteForPhotoCommand vote) {
+        var pendingVote = new PendingVote(vote, new CompletableFuture<>());
+        var fullBatch = new AtomicReference<List<PendingVote>>();
+        pendingVotesPerCompetition.compute(vote.getCompetitionId(), (competitionId, batch) -> {
+            var currentBatch = batch == null ? startBatch(competitionId) : batch;
+            currentBatch.add(pendingVote);
+            if (currentBatch.size() < maxBatchSize) {
+                return currentBatch;
+            }
+            fullBatch.set(currentBatch);
+            return null;
+        });
+
+        if (fullBatch.get() != null) {
+            dispatch(vote.getCompetitionId(), fullBatch.get());
+        }
+        return pendingVote.getResult();
+    }
+
+    private List<PendingVote> startBatch(UUID competitionId) {
+        var batch = new ArrayList<PendingVote>();
+        taskScheduler.schedule(() -> flush(competitionId, batch), Instant.now().plus(batchWindow));
+        return batch;
+    }
+
+    private void flush(UUID competitionId, List<PendingVote> batch) {
+        if (pendingVotesPerCompetition.remove(competitionId, batch)) {
+            dispatch(competitionId, batch);
+        }
+    }
+
+    private void dispatch(UUID competitionId, List<PendingVote> batch) {
+        var votes = batch.stream().map(PendingVote::getVote).collect(toList());
+        commandGateway.<List<VoteOutcome>>send(new VoteForPhotosCommand(competitionId, votes))
+            .whenComplete((outcomes, throwable) -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    var result = batch.get(i).getResult();
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else if (outcomes.get(i).isAccepted()) {
+                        result.complete(null);
+                    } else {
+                        result.completeExceptionally(outcomes.get(i).toCommandExecutionException());
+                    }
+                }
+            });
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class PendingVote {
+        private final VoteForPhotoCommand vote;
+        private final CompletableFuture<Void> result;
+    }
+}
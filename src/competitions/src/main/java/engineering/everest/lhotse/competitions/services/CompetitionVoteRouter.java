@@ -0,0 +1,50 @@
+package engineering.everest.lhotse.competitions.services;
+
+import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedEvent;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers how each running competition counts its votes, so that votes can be sent to the right aggregate without first
+ * asking the event store whether the photo's entry votes aggregate exists.
+ */
+@Component
+@ConditionalOnProperty(value = "application.competitions.vote-sharding.enabled", havingValue = "true")
+@ProcessingGroup(CompetitionVoteRouter.PROCESSING_GROUP)
+public class CompetitionVoteRouter {
+
+    public static final String PROCESSING_GROUP = "competition-vote-routing";
+
+    private final Map<UUID, Boolean> votesCountedPerEntry = new ConcurrentHashMap<>();
+
+    /**
+     * @return empty if the competition has ended or its creation has not been processed yet
+     */
+    public Optional<Boolean> votesCountedPerEntry(UUID competitionId) {
+        return Optional.ofNullable(votesCountedPerEntry.get(competitionId));
+    }
+
+    @ResetHandler
+    void prepareForReplay() {
+        votesCountedPerEntry.clear();
+    }
+
+    @EventHandler
+    void on(CompetitionCreatedEvent event) {
+        votesCountedPerEntry.put(event.getCompetitionId(), event.isVotesCountedPerEntry());
+    }
+
+    @EventHandler
+    void on(CompetitionEndedEvent event) {
+        votesCountedPerEntry.remove(event.getCompetitionId());
+    }
+}
@@ -3,13 +3,22 @@ package engineering.everest.lhotse.competitions.services;
 import engineering.everest.lhotse.common.RandomFieldsGenerator;
 import engineering.everest.lhotse.competitions.domain.commands.CreateCompetitionCommand;
 import engineering.everest.lhotse.competitions.domain.commands.EnterPhotoInCompetitionCommand;
+import engineering.everest.lhotse.competitions.domain.commands.VoteForCompetitionEntryCommand;
 import engineering.everest.lhotse.competitions.domain.commands.VoteForPhotoCommand;
+import engineering.everest.lhotse.i18n.exceptions.TranslatableException;
 import engineering.everest.lhotse.photos.services.PhotosReadService;
+import org.axonframework.commandhandling.CommandExecutionException;
 import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static engineering.everest.lhotse.competitions.domain.CompetitionEntryVotesAggregate.entryVotesIdFor;
 
 @Service
 public class DefaultCompetitionsService implements CompetitionsService {
@@ -17,37 +26,93 @@ public class DefaultCompetitionsService implements CompetitionsService {
     private final CommandGateway commandGateway;
     private final RandomFieldsGenerator randomFieldsGenerator;
     private final PhotosReadService photosReadService;
+    private final CompetitionVoteBatcher competitionVoteBatcher;
+    private final Optional<CompetitionVoteAdmissionFilter> competitionVoteAdmissionFilter;
+    private final Optional<CompetitionVoteRouter> competitionVoteRouter;
+    private final EventStore eventStore;
+    private final boolean voteBatchingEnabled;
+    private final boolean voteShardingEnabled;
 
     public DefaultCompetitionsService(CommandGateway commandGateway,
                                       RandomFieldsGenerator randomFieldsGenerator,
-                                      PhotosReadService photosReadService) {
+                                      PhotosReadService photosReadService,
+                                      CompetitionVoteBatcher competitionVoteBatcher,
+                                      Optional<CompetitionVoteAdmissionFilter> competitionVoteAdmissionFilter,
+                                      Optional<CompetitionVoteRouter> competitionVoteRouter,
+                                      EventStore eventStore,
+                                      @Value("${application.competitions.vote-batching.enabled:false}") boolean voteBatchingEnabled,
+                                      @Value("${application.competitions.vote-sharding.enabled:false}") boolean voteShardingEnabled) {
         this.commandGateway = commandGateway;
         this.randomFieldsGenerator = randomFieldsGenerator;
         this.photosReadService = photosReadService;
+        this.competitionVoteBatcher = competitionVoteBatcher;
+        this.competitionVoteAdmissionFilter = competitionVoteAdmissionFilter;
+        this.competitionVoteRouter = competitionVoteRouter;
+        this.eventStore = eventStore;
+        this.voteBatchingEnabled = voteBatchingEnabled;
+        this.voteShardingEnabled = voteShardingEnabled;
     }
 
     @Override
-    public UUID createCompetition(UUID requestingUserId,
-                                  String description,
-                                  Instant submissionsOpenTimestamp,
-                                  Instant submissionsCloseTimestamp,
-                                  Instant votingEndsTimestamp,
-                                  int maxEntriesPerUser) {
+    public CompletableFuture<UUID> createCompetitionAsync(UUID requestingUserId,
+                                                          String description,
+                                                          Instant submissionsOpenTimestamp,
+                                                          Instant submissionsCloseTimestamp,
+                                                          Instant votingEndsTimestamp,
+                                                          int maxEntriesPerUser) {
         var competitionId = randomFieldsGenerator.genRandomUUID();
-        commandGateway.sendAndWait(new CreateCompetitionCommand(requestingUserId, competitionId, description,
-            submissionsOpenTimestamp, submissionsCloseTimestamp, votingEndsTimestamp, maxEntriesPerUser));
-        return competitionId;
+        return commandGateway.send(new CreateCompetitionCommand(requestingUserId, competitionId, description,
+            submissionsOpenTimestamp, submissionsCloseTimestamp, votingEndsTimestamp, maxEntriesPerUser, voteShardingEnabled))
+            .thenApply(ignored -> competitionId);
     }
 
     @Override
-    public void submitPhoto(UUID requestingUserId, UUID competitionId, UUID photoId, String submissionNotes) {
+    public CompletableFuture<Void> submitPhotoAsync(UUID requestingUserId, UUID competitionId, UUID photoId, String submissionNotes) {
         var owningUserId = photosReadService.getPhoto(photoId).getOwningUserId();
-        commandGateway.sendAndWait(new EnterPhotoInCompetitionCommand(competitionId, photoId, requestingUserId,
+        return commandGateway.send(new EnterPhotoInCompetitionCommand(competitionId, photoId, requestingUserId,
             owningUserId, submissionNotes));
     }
 
     @Override
-    public void voteForPhoto(UUID requestingUserId, UUID competitionId, UUID photoId) {
-        commandGateway.sendAndWait(new VoteForPhotoCommand(competitionId, photoId, requestingUserId));
+    public CompletableFuture<Void> voteForPhotoAsync(UUID requestingUserId, UUID competitionId, UUID photoId) {
+        var command = new VoteForPhotoCommand(competitionId, photoId, requestingUserId);
+        var rejection = competitionVoteAdmissionFilter.flatMap(filter -> filter.rejectionFor(command));
+        if (rejection.isPresent()) {
+            return CompletableFuture.failedFuture(rejectedVote(rejection.get()));
+        }
+        if (voteShardingEnabled && votesCountedPerEntry(command)) {
+            return commandGateway.send(entryVoteFor(command));
+        }
+        if (voteBatchingEnabled) {
+            return competitionVoteBatcher.submit(command);
+        }
+        return commandGateway.send(command);
+    }
+
+    /**
+     * Entry votes aggregates only exist for photos entered in competitions created with votes counted per entry. Votes for any
+     * other competition go to the competition itself, batched if enabled. Votes for photos never entered in a competition that
+     * counts votes per entry are rejected because their entry votes aggregate does not exist.
+     *
+     * <p>Competitions the vote router does not know about, because it is still catching up after start-up or the competition
+     * has ended, fall back to checking whether the entry votes aggregate exists.
+     */
+    private boolean votesCountedPerEntry(VoteForPhotoCommand command) {
+        return competitionVoteRouter.flatMap(router -> router.votesCountedPerEntry(command.getCompetitionId()))
+            .orElseGet(() -> entryVotesExist(command));
+    }
+
+    private boolean entryVotesExist(VoteForPhotoCommand command) {
+        return eventStore.lastSequenceNumberFor(entryVotesIdFor(command.getCompetitionId(), command.getPhotoId()).toString())
+            .isPresent();
+    }
+
+    private static VoteForCompetitionEntryCommand entryVoteFor(VoteForPhotoCommand command) {
+        return new VoteForCompetitionEntryCommand(entryVotesIdFor(command.getCompetitionId(), command.getPhotoId()),
+            command.getCompetitionId(), command.getPhotoId(), command.getRequestingUserId());
+    }
+
+    private static CommandExecutionException rejectedVote(TranslatableException reason) {
+        return new CommandExecutionException(reason.getMessage(), null, reason);
     }
 }
@@ -0,0 +1,166 @@
+package engineering.everest.lhotse.competitions.services;
+
+import engineering.everest.lhotse.competitions.domain.Competition;
+import engineering.everest.lhotse.competitions.domain.CompetitionEntry;
+import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedAndWinnersDeclaredEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedEvent;
+import engineering.everest.lhotse.competitions.domain.events.PhotoEnteredInCompetitionEvent;
+import engineering.everest.lhotse.competitions.domain.events.PhotoEntryReceivedVoteEvent;
+import engineering.everest.lhotse.competitions.domain.events.WinnerAndSubmittedPhotoPair;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ResetHandler;
+import org.axonframework.eventhandling.Timestamp;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@ConditionalOnProperty(value = "application.competitions.in-memory-projection.enabled", havingValue = "true")
+@ProcessingGroup(InMemoryCompetitionsProjection.PROCESSING_GROUP)
+public class InMemoryCompetitionsProjection {
+
+    public static final String PROCESSING_GROUP = "competitions-in-memory-projection";
+
+    private final int maxEndedCompetitions;
+    private final Map<UUID, CompetitionState> competitions = new ConcurrentHashMap<>();
+    private final Queue<UUID> endedCompetitions = new ConcurrentLinkedQueue<>();
+
+    public InMemoryCompetitionsProjection(
+        @Value("${application.competitions.in-memory-projection.max-ended-competitions:100}") int maxEndedCompetitions) {
+        this.maxEndedCompetitions = maxEndedCompetitions;
+    }
+
+    public Optional<CompetitionWithEntries> getCompetitionWithEntries(UUID competitionId) {
+        return Optional.ofNullable(competitions.get(competitionId)).map(CompetitionState::toCompetitionWithEntries);
+    }
+
+    @ResetHandler
+    void prepareForReplay() {
+        competitions.clear();
+        endedCompetitions.clear();
+    }
+
+    @EventHandler
+    void on(CompetitionCreatedEvent event) {
+        competitions.put(event.getCompetitionId(), new CompetitionState(new Competition(event.getCompetitionId(),
+            event.getDescription(), event.getSubmissionsOpenTimestamp(), event.getSubmissionsCloseTimestamp(),
+            event.getVotingEndsTimestamp(), event.getMaxEntriesPerUser())));
+    }
+
+    @EventHandler
+    void on(PhotoEnteredInCompetitionEvent event, @Timestamp Instant entryTimestamp) {
+        var competition = competitions.get(event.getCompetitionId());
+        if (competition != null) {
+            competition.addEntry(new CompetitionEntry(event.getCompetitionId(), event.getPhotoId(), event.getSubmittedByUserId(),
+                entryTimestamp, 0, false));
+        }
+    }
+
+    @EventHandler
+    void on(PhotoEntryReceivedVoteEvent event) {
+        var competition = competitions.get(event.getCompetitionId());
+        if (competition != null) {
+            competition.recordVote(event.getPhotoId());
+        }
+    }
+
+    @EventHandler
+    void on(CompetitionEndedAndWinnersDeclaredEvent event) {
+        var competition = competitions.get(event.getCompetitionId());
+        if (competition != null) {
+            event.getWinnersToPhotoIdList().stream()
+                .map(WinnerAndSubmittedPhotoPair::getPhotoId)
+                .forEach(competition::markWinner);
+        }
+        markEnded(event.getCompetitionId());
+    }
+
+    @EventHandler
+    void on(CompetitionEndedEvent event) {
+        markEnded(event.getCompetitionId());
+    }
+
+    private void markEnded(UUID competitionId) {
+        if (!competitions.containsKey(competitionId)) {
+            return;
+        }
+        endedCompetitions.add(competitionId);
+        while (endedCompetitions.size() > maxEndedCompetitions) {
+            var evictedCompetitionId = endedCompetitions.poll();
+            if (evictedCompetitionId != null) {
+                competitions.remove(evictedCompetitionId);
+            }
+        }
+    }
+
+    private static final class CompetitionState {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Competition competition;
+        private final Map<UUID, CompetitionEntry> entriesByPhotoId = new LinkedHashMap<>();
+
+        CompetitionState(Competition competition) {
+            this.competition = competition;
+        }
+
+        void addEntry(CompetitionEntry entry) {
+            lock.writeLock().lock();
+            try {
+                entriesByPhotoId.putIfAbsent(entry.getPhotoId(), entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void recordVote(UUID photoId) {
+            lock.writeLock().lock();
+            try {
+                var entry = entriesByPhotoId.get(photoId);
+                if (entry != null) {
+                    entry.setNumVotesReceived(entry.getNumVotesReceived() + 1);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void markWinner(UUID photoId) {
+            lock.writeLock().lock();
+            try {
+                var entry = entriesByPhotoId.get(photoId);
+                if (entry != null) {
+                    entry.setWinner(true);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        CompetitionWithEntries toCompetitionWithEntries() {
+            lock.readLock().lock();
+            try {
+                var entries = new ArrayList<CompetitionEntry>(entriesByPhotoId.size());
+                entriesByPhotoId.values().forEach(entry -> entries.add(new CompetitionEntry(entry.getCompetitionId(),
+                    entry.getPhotoId(), entry.getSubmittedByUserId(), entry.getEntryTimestamp(), entry.getNumVotesReceived(),
+                    entry.isWinner())));
+                return new CompetitionWithEntries(competition, entries);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package engineering.everest.lhotse.competitions.services;
+
+import engineering.everest.lhotse.competitions.domain.CompetitionStatus;
+import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
+import engineering.everest.lhotse.competitions.domain.CompetitionsPage;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.spring.config.SpringAxonConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+import static engineering.everest.lhotse.competitions.services.InMemoryCompetitionsProjection.PROCESSING_GROUP;
+
+@Primary
+@Service
+@ConditionalOnProperty(value = "application.competitions.in-memory-projection.enabled", havingValue = "true")
+public class InMemoryCompetitionsReadService implements CompetitionsReadService {
+
+    private final DefaultCompetitionsReadService defaultCompetitionsReadService;
+    private final InMemoryCompetitionsProjection inMemoryCompetitionsProjection;
+    private final SpringAxonConfiguration axonConfiguration;
+
+    public InMemoryCompetitionsReadService(DefaultCompetitionsReadService defaultCompetitionsReadService,
+                                           InMemoryCompetitionsProjection inMemoryCompetitionsProjection,
+                                           SpringAxonConfiguration axonConfiguration) {
+        this.defaultCompetitionsReadService = defaultCompetitionsReadService;
+        this.inMemoryCompetitionsProjection = inMemoryCompetitionsProjection;
+        this.axonConfiguration = axonConfiguration;
+    }
+
+    @Override
+    public CompetitionsPage getCompetitionsOrderedByDescVotingEndsTimestamp(CompetitionStatus status,
+                                                                            String continuationToken,
+                                                                            int pageSize) {
+        return defaultCompetitionsReadService.getCompetitionsOrderedByDescVotingEndsTimestamp(status, continuationToken, pageSize);
+    }
+
+    @Override
+    public CompetitionWithEntries getCompetitionWithEntries(UUID competitionId) {
+        if (!isProjectionCaughtUp()) {
+            return defaultCompetitionsReadService.getCompetitionWithEntries(competitionId);
+        }
+        return inMemoryCompetitionsProjection.getCompetitionWithEntries(competitionId)
+            .orElseGet(() -> defaultCompetitionsReadService.getCompetitionWithEntries(competitionId));
+    }
+
+    private boolean isProjectionCaughtUp() {
+        return axonConfiguration.getObject().eventProcessingConfiguration()
+            .eventProcessorByProcessingGroup(PROCESSING_GROUP, StreamingEventProcessor.class)
+            .map(StreamingEventProcessor::processingStatus)
+            .filter(processingStatus -> !processingStatus.isEmpty())
+            .map(processingStatus -> processingStatus.values().stream().allMatch(EventTrackerStatus::isCaughtUp))
+            .orElse(false);
+    }
+}
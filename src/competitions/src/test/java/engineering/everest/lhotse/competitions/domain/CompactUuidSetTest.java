@@ -0,0 +1,150 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactUuidSetTest {
+
+    private static final UUID NIL_UUID = new UUID(0L, 0L);
+
+    @Test
+    void add_WillRejectDuplicates() {
+        var set = new CompactUuidSet();
+        var uuid = randomUUID();
+
+        assertTrue(set.add(uuid));
+        assertFalse(set.add(new UUID(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits())));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void contains_WillOnlyMatchAddedValues() {
+        var set = new CompactUuidSet();
+        var uuid = randomUUID();
+        set.add(uuid);
+
+        assertTrue(set.contains(uuid));
+        assertFalse(set.contains(randomUUID()));
+        assertFalse(set.contains(NIL_UUID));
+    }
+
+    @Test
+    void nilUuid_WillBeStoredLikeAnyOtherValue() {
+        var set = new CompactUuidSet();
+
+        assertTrue(set.add(NIL_UUID));
+        assertFalse(set.add(NIL_UUID));
+        assertTrue(set.contains(NIL_UUID));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void add_WillRetainAllValuesAcrossResizes() {
+        var set = new CompactUuidSet();
+        var added = new ArrayList<UUID>();
+        for (int i = 0; i < 10_000; i++) {
+            var uuid = randomUUID();
+            added.add(uuid);
+            set.add(uuid);
+        }
+
+        assertEquals(10_000, set.size());
+        added.forEach(uuid -> assertTrue(set.contains(uuid)));
+    }
+
+    @Test
+    void equals_WillCompareContentRegardlessOfInsertionOrderAndCapacity() {
+        var first = randomUUID();
+        var second = randomUUID();
+        var set = new CompactUuidSet();
+        set.add(first);
+        set.add(second);
+        var otherSet = new CompactUuidSet(1_000);
+        otherSet.add(second);
+        otherSet.add(first);
+
+        assertEquals(set, otherSet);
+        assertEquals(set.hashCode(), otherSet.hashCode());
+        otherSet.add(NIL_UUID);
+        assertNotEquals(set, otherSet);
+    }
+
+    @Test
+    void serialization_WillRoundTripContent() throws IOException, ClassNotFoundException {
+        var set = new CompactUuidSet();
+        for (int i = 0; i < 100; i++) {
+            set.add(randomUUID());
+        }
+        set.add(NIL_UUID);
+
+        var deserialized = roundTrip(set);
+
+        assertEquals(set, deserialized);
+        assertEquals(101, deserialized.size());
+        assertTrue(deserialized.contains(NIL_UUID));
+    }
+
+    @Test
+    void writeTo_WillRoundTripContentThroughReadFrom() throws IOException {
+        var set = new CompactUuidSet();
+        for (int i = 0; i < 100; i++) {
+            set.add(randomUUID());
+        }
+        set.add(NIL_UUID);
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            set.writeTo(out);
+        }
+
+        try (var in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            var read = CompactUuidSet.readFrom(in);
+            assertEquals(set, read);
+            assertEquals(101, read.size());
+            assertTrue(read.contains(NIL_UUID));
+        }
+        assertEquals(Integer.BYTES + 1 + 100 * 2 * Long.BYTES, bytes.size());
+    }
+
+    @Test
+    void serializedForm_WillBeSmallerThanHashSetEquivalent() throws IOException {
+        var set = new CompactUuidSet();
+        var hashSet = new HashSet<UUID>();
+        for (int i = 0; i < 1_000; i++) {
+            var uuid = randomUUID();
+            set.add(uuid);
+            hashSet.add(uuid);
+        }
+
+        assertTrue(serialize(set).length < serialize(hashSet).length);
+    }
+
+    private static CompactUuidSet roundTrip(CompactUuidSet set) throws IOException, ClassNotFoundException {
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(serialize(set)))) {
+            return (CompactUuidSet) in.readObject();
+        }
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,88 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompetitionAggregateSnapshotCodecTest {
+
+    private static final UUID COMPETITION_ID = randomUUID();
+    private static final UUID SUBMITTER_ID = randomUUID();
+    private static final UUID FIRST_PHOTO_ID = randomUUID();
+    private static final UUID SECOND_PHOTO_ID = randomUUID();
+    private static final Instant SUBMISSIONS_OPEN = Instant.ofEpochSecond(1658900761L, 278_000_000);
+    private static final Instant SUBMISSIONS_CLOSE = SUBMISSIONS_OPEN.plusSeconds(60);
+    private static final Instant VOTING_ENDS = SUBMISSIONS_CLOSE.plusSeconds(60);
+
+    private final CompetitionAggregateSnapshotCodec competitionAggregateSnapshotCodec = new CompetitionAggregateSnapshotCodec();
+
+    @Test
+    void read_WillRestoreWrittenAggregate() throws IOException {
+        var firstEntry = new CompetitionEntryEntity(FIRST_PHOTO_ID, SUBMITTER_ID);
+        firstEntry.recordVote(randomUUID());
+        firstEntry.recordVote(randomUUID());
+        var secondEntry = new CompetitionEntryEntity(SECOND_PHOTO_ID, SUBMITTER_ID);
+        secondEntry.recordVote(randomUUID());
+        var snapshot = snapshotBuilder()
+            .submittedPhotos(new HashMap<>(Map.of(FIRST_PHOTO_ID, firstEntry, SECOND_PHOTO_ID, secondEntry)))
+            .votesCountedPerEntry(true)
+            .build();
+
+        var restored = roundTrip(CompetitionAggregate.fromSnapshot(snapshot));
+
+        assertEquals(snapshot, restored.toSnapshot());
+    }
+
+    @Test
+    void read_WillRebuildLeaderboardFromEntries() throws IOException {
+        var firstEntry = new CompetitionEntryEntity(FIRST_PHOTO_ID, SUBMITTER_ID);
+        firstEntry.recordVote(randomUUID());
+        var secondEntry = new CompetitionEntryEntity(SECOND_PHOTO_ID, SUBMITTER_ID);
+        secondEntry.recordVote(randomUUID());
+        var snapshot = snapshotBuilder()
+            .submittedPhotos(new HashMap<>(Map.of(FIRST_PHOTO_ID, firstEntry, SECOND_PHOTO_ID, secondEntry)))
+            .competitionEnded(true)
+            .build();
+
+        var restored = roundTrip(CompetitionAggregate.fromSnapshot(snapshot));
+
+        assertEquals(1, restored.getVoteLeaderboard().getHighestVoteCount());
+        assertEquals(List.copyOf(new TreeSet<>(List.of(FIRST_PHOTO_ID, SECOND_PHOTO_ID))),
+            List.copyOf(restored.getVoteLeaderboard().getLeadingPhotoIds()));
+        assertTrue(restored.toSnapshot().isCompetitionEnded());
+    }
+
+    private static CompetitionAggregate.Snapshot.SnapshotBuilder snapshotBuilder() {
+        return CompetitionAggregate.Snapshot.builder()
+            .competitionId(COMPETITION_ID)
+            .submissionsOpenTimestamp(SUBMISSIONS_OPEN)
+            .submissionsCloseTimestamp(SUBMISSIONS_CLOSE)
+            .votingEndsTimestamp(VOTING_ENDS)
+            .maxEntriesPerUser(2)
+            .numEntriesReceivedPerUser(new HashMap<>(Map.of(SUBMITTER_ID, 2)));
+    }
+
+    private CompetitionAggregate roundTrip(CompetitionAggregate aggregate) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(bytes)) {
+            competitionAggregateSnapshotCodec.write(aggregate, output);
+        }
+        try (var input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return competitionAggregateSnapshotCodec.read(input);
+        }
+    }
+}
@@ -2,8 +2,10 @@ package engineering.everest.lhotse.competitions.domain;
 
 import engineering.everest.lhotse.competitions.domain.commands.CountVotesAndDeclareOutcomeCommand;
 import engineering.everest.lhotse.competitions.domain.commands.CreateCompetitionCommand;
+import engineering.everest.lhotse.competitions.domain.commands.DeclareOutcomeFromEntryTalliesCommand;
 import engineering.everest.lhotse.competitions.domain.commands.EnterPhotoInCompetitionCommand;
 import engineering.everest.lhotse.competitions.domain.commands.VoteForPhotoCommand;
+import engineering.everest.lhotse.competitions.domain.commands.VoteForPhotosCommand;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedAndWinnersDeclaredEvent;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedWithNoEntriesReceivingVotesEvent;
@@ -11,6 +13,7 @@ import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedWit
 import engineering.everest.lhotse.competitions.domain.events.PhotoEnteredInCompetitionEvent;
 import engineering.everest.lhotse.competitions.domain.events.PhotoEntryReceivedVoteEvent;
 import engineering.everest.lhotse.competitions.domain.events.WinnerAndSubmittedPhotoPair;
+import org.axonframework.serialization.Revision;
 import org.axonframework.spring.stereotype.Aggregate;
 import org.axonframework.test.aggregate.AggregateTestFixture;
 import org.axonframework.test.aggregate.FixtureConfiguration;
@@ -25,11 +28,15 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static engineering.everest.lhotse.axon.AxonTestUtils.mockCommandValidatingMessageHandlerInterceptor;
 import static java.util.Comparator.comparing;
 import static java.util.UUID.randomUUID;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
@@ -50,7 +57,9 @@ class CompetitionAggregateTest {
     private static final PhotoEnteredInCompetitionEvent PHOTO_ENTERED_INTO_COMPETITION_EVENT =
         new PhotoEnteredInCompetitionEvent(COMPETITION_ID, PHOTO_ID, SUBMITTER_ID, SUBMITTER_ID, SUBMISSION_NOTES);
     private static final CompetitionCreatedEvent COMPETITION_CREATED_EVENT =
-        new CompetitionCreatedEvent(USER_ID, COMPETITION_ID, "", SUBMISSIONS_OPEN, SUBMISSIONS_CLOSE, VOTING_ENDS, 1);
+        new CompetitionCreatedEvent(USER_ID, COMPETITION_ID, "", SUBMISSIONS_OPEN, SUBMISSIONS_CLOSE, VOTING_ENDS, 1, false);
+    private static final CompetitionCreatedEvent COMPETITION_WITH_VOTES_COUNTED_PER_ENTRY_CREATED_EVENT =
+        new CompetitionCreatedEvent(USER_ID, COMPETITION_ID, "", SUBMISSIONS_OPEN, SUBMISSIONS_CLOSE, VOTING_ENDS, 1, true);
     private static final PhotoEntryReceivedVoteEvent PHOTO_ENTRY_RECEIVED_VOTE_EVENT =
         new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID);
     private static final CompetitionEndedWithNoEntriesSubmittedEvent COMPETITION_ENDED_WITH_NO_ENTRIES_SUBMITTED_EVENT =
@@ -78,19 +87,26 @@ class CompetitionAggregateTest {
     void aggregateHasExplicitlyDefinedRepository() {
         var aggregateAnnotation = CompetitionAggregate.class.getAnnotation(Aggregate.class);
         assertEquals("competitionAggregateSnapshotTriggerDefinition", aggregateAnnotation.snapshotTriggerDefinition());
+        assertEquals("competitionAggregateSnapshotFilter", aggregateAnnotation.snapshotFilter());
+        assertEquals("competitionAggregateCache", aggregateAnnotation.cache());
+    }
+
+    @Test
+    void aggregateDeclaresSnapshotRevision() {
+        assertEquals("3", CompetitionAggregate.class.getAnnotation(Revision.class).value());
     }
 
     @Test
     void emits_WhenCompetitionTemporallySane() {
         testFixture.givenNoPriorActivity()
-            .when(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "", SUBMISSIONS_OPEN, SUBMISSIONS_CLOSE, VOTING_ENDS, 1))
+            .when(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "", SUBMISSIONS_OPEN, SUBMISSIONS_CLOSE, VOTING_ENDS, 1, false))
             .expectEvents(COMPETITION_CREATED_EVENT);
     }
 
     @Test
     void rejects_WhenSubmissionsOpenAfterSubmissionsClose() {
         testFixture.givenNoPriorActivity()
-            .when(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "", SUBMISSIONS_CLOSE, SUBMISSIONS_OPEN, VOTING_ENDS, 1))
+            .when(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "", SUBMISSIONS_CLOSE, SUBMISSIONS_OPEN, VOTING_ENDS, 1, false))
             .expectNoEvents()
             .expectExceptionMessage("COMPETITION_MINIMUM_SUBMISSION_PERIOD");
     }
@@ -98,7 +114,7 @@ class CompetitionAggregateTest {
     @Test
     void rejects_WhenVotingEndsBeforeSubmissionsClose() {
         testFixture.givenNoPriorActivity()
-            .when(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "", SUBMISSIONS_OPEN, VOTING_ENDS, SUBMISSIONS_CLOSE, 1))
+            .when(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "", SUBMISSIONS_OPEN, VOTING_ENDS, SUBMISSIONS_CLOSE, 1, false))
             .expectNoEvents()
             .expectExceptionMessage("COMPETITION_MINIMUM_VOTING_PERIOD");
     }
@@ -107,7 +123,7 @@ class CompetitionAggregateTest {
     void rejects_WhenSubmissionsCloseInThePast() {
         testFixture.givenNoPriorActivity()
             .when(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "", FIXED_INSTANT.minus(Duration.ofDays(3)),
-                FIXED_INSTANT.minus(Duration.ofSeconds(1)), VOTING_ENDS, 1))
+                FIXED_INSTANT.minus(Duration.ofSeconds(1)), VOTING_ENDS, 1, false))
             .expectNoEvents()
             .expectExceptionMessage("SUBMISSIONS_CLOSE_TIMESTAMP_IN_PAST");
     }
@@ -116,7 +132,7 @@ class CompetitionAggregateTest {
     void rejects_WhenSubmissionPeriodTooShort() {
         testFixture.givenNoPriorActivity()
             .when(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "", SUBMISSIONS_OPEN, SUBMISSIONS_OPEN.plus(Duration.ofSeconds(2)),
-                VOTING_ENDS, 3))
+                VOTING_ENDS, 3, false))
             .expectNoEvents()
             .expectExceptionMessage("COMPETITION_MINIMUM_SUBMISSION_PERIOD");
     }
@@ -125,7 +141,7 @@ class CompetitionAggregateTest {
     void rejects_WhenVotingPeriodTooShort() {
         testFixture.givenNoPriorActivity()
             .when(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "", SUBMISSIONS_OPEN, SUBMISSIONS_CLOSE,
-                SUBMISSIONS_CLOSE.plus(Duration.ofSeconds(10)), 3))
+                SUBMISSIONS_CLOSE.plus(Duration.ofSeconds(10)), 3, false))
             .expectNoEvents()
             .expectExceptionMessage("COMPETITION_MINIMUM_VOTING_PERIOD");
     }
@@ -133,7 +149,7 @@ class CompetitionAggregateTest {
     @Test
     void rejects_WhenNumberOfEntriesPerUserLessThanOne() {
         testFixture.givenNoPriorActivity()
-            .when(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "", SUBMISSIONS_OPEN, SUBMISSIONS_CLOSE, VOTING_ENDS, 0))
+            .when(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "", SUBMISSIONS_OPEN, SUBMISSIONS_CLOSE, VOTING_ENDS, 0, false))
             .expectNoEvents()
             .expectExceptionMessage("COMPETITION_MIN_1_VOTE_PER_USER");
     }
@@ -242,6 +258,39 @@ class CompetitionAggregateTest {
             .expectExceptionMessage("PHOTO_NOT_ENTERED_IN_COMPETITION");
     }
 
+    @Test
+    void emitsForAcceptedVotesAndReportsPerVoteOutcome_WhenVotingInBatch() {
+        when(clock.instant()).thenReturn(SUBMISSIONS_CLOSE);
+        var secondVoterId = randomUUID();
+
+        testFixture.given(COMPETITION_CREATED_EVENT, PHOTO_ENTERED_INTO_COMPETITION_EVENT)
+            .when(new VoteForPhotosCommand(COMPETITION_ID, List.of(
+                new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, USER_ID),
+                new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, USER_ID),
+                new VoteForPhotoCommand(COMPETITION_ID, randomUUID(), USER_ID),
+                new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, secondVoterId))))
+            .expectEvents(PHOTO_ENTRY_RECEIVED_VOTE_EVENT, new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, secondVoterId))
+            .expectResultMessagePayloadMatching(contains(
+                hasProperty("accepted", is(true)),
+                hasProperty("rejectionReason", hasProperty("message", is("ALREADY_VOTED_FOR_THIS_ENTRY"))),
+                hasProperty("rejectionReason", hasProperty("message", is("PHOTO_NOT_ENTERED_IN_COMPETITION"))),
+                hasProperty("accepted", is(true))));
+    }
+
+    @Test
+    void rejectsEveryVote_WhenVotingInBatchAfterVotingPeriodEnded() {
+        when(clock.instant()).thenReturn(VOTING_ENDS.plus(Duration.ofSeconds(1)));
+
+        testFixture.given(COMPETITION_CREATED_EVENT, PHOTO_ENTERED_INTO_COMPETITION_EVENT)
+            .when(new VoteForPhotosCommand(COMPETITION_ID, List.of(
+                new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, USER_ID),
+                new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, randomUUID()))))
+            .expectNoEvents()
+            .expectResultMessagePayloadMatching(contains(
+                hasProperty("rejectionReason", hasProperty("message", is("VOTING_ENDED"))),
+                hasProperty("rejectionReason", hasProperty("message", is("VOTING_ENDED")))));
+    }
+
     @Test
     void emits_WhenVotesCountedAndNoEntriesWereSubmitted() {
         testFixture.given(COMPETITION_CREATED_EVENT)
@@ -284,6 +333,61 @@ class CompetitionAggregateTest {
             .expectEvents(new CompetitionEndedAndWinnersDeclaredEvent(COMPETITION_ID, expectedWinnersWithPhotos, 1));
     }
 
+    @Test
+    void emits_WhenVotesCountedAndLeaderOvertakenDuringVoting() {
+        var secondPhoto = randomUUID();
+        var secondSubmitter = randomUUID();
+
+        testFixture.given(COMPETITION_CREATED_EVENT,
+            PHOTO_ENTERED_INTO_COMPETITION_EVENT,
+            new PhotoEnteredInCompetitionEvent(COMPETITION_ID, secondPhoto, secondSubmitter, secondSubmitter, SUBMISSION_NOTES),
+            PHOTO_ENTRY_RECEIVED_VOTE_EVENT,
+            new PhotoEntryReceivedVoteEvent(COMPETITION_ID, secondPhoto, USER_ID),
+            new PhotoEntryReceivedVoteEvent(COMPETITION_ID, secondPhoto, secondSubmitter))
+            .when(new CountVotesAndDeclareOutcomeCommand(COMPETITION_ID))
+            .expectEvents(new CompetitionEndedAndWinnersDeclaredEvent(COMPETITION_ID,
+                List.of(new WinnerAndSubmittedPhotoPair(secondSubmitter, secondPhoto)), 2));
+    }
+
+    @Test
+    void emits_WhenCompetitionCreatedWithVotesCountedPerEntry() {
+        testFixture.givenNoPriorActivity()
+            .when(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "", SUBMISSIONS_OPEN, SUBMISSIONS_CLOSE, VOTING_ENDS, 1, true))
+            .expectEvents(COMPETITION_WITH_VOTES_COUNTED_PER_ENTRY_CREATED_EVENT);
+    }
+
+    @Test
+    void rejects_WhenVotingDirectlyAndVotesCountedPerEntry() {
+        when(clock.instant()).thenReturn(SUBMISSIONS_CLOSE);
+
+        testFixture.given(COMPETITION_WITH_VOTES_COUNTED_PER_ENTRY_CREATED_EVENT, PHOTO_ENTERED_INTO_COMPETITION_EVENT)
+            .when(new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, USER_ID))
+            .expectNoEvents()
+            .expectExceptionMessage("COMPETITION_VOTES_COUNTED_PER_ENTRY");
+    }
+
+    @Test
+    void emits_WhenOutcomeDeclaredFromEntryTallies() {
+        var secondPhoto = randomUUID();
+        var secondSubmitter = randomUUID();
+        var expectedWinnersWithPhotos = new ArrayList<>(List.of(new WinnerAndSubmittedPhotoPair(SUBMITTER_ID, PHOTO_ID),
+            new WinnerAndSubmittedPhotoPair(secondSubmitter, secondPhoto)));
+        expectedWinnersWithPhotos.sort(comparing(WinnerAndSubmittedPhotoPair::getPhotoId));
+
+        testFixture.given(COMPETITION_CREATED_EVENT,
+            PHOTO_ENTERED_INTO_COMPETITION_EVENT,
+            new PhotoEnteredInCompetitionEvent(COMPETITION_ID, secondPhoto, secondSubmitter, secondSubmitter, SUBMISSION_NOTES))
+            .when(new DeclareOutcomeFromEntryTalliesCommand(COMPETITION_ID, Map.of(PHOTO_ID, 4, secondPhoto, 4, randomUUID(), 9)))
+            .expectEvents(new CompetitionEndedAndWinnersDeclaredEvent(COMPETITION_ID, expectedWinnersWithPhotos, 4));
+    }
+
+    @Test
+    void emits_WhenOutcomeDeclaredFromEntryTalliesAndNoEntriesReceivedVotes() {
+        testFixture.given(COMPETITION_CREATED_EVENT, PHOTO_ENTERED_INTO_COMPETITION_EVENT)
+            .when(new DeclareOutcomeFromEntryTalliesCommand(COMPETITION_ID, Map.of(PHOTO_ID, 0)))
+            .expectEvents(COMPETITION_ENDED_WITH_NO_ENTRIES_RECEIVING_VOTES_EVENT);
+    }
+
     @Test
     void rejects_WhenCountingVotesThatAreAlreadyCounted() {
         testFixture.given(COMPETITION_CREATED_EVENT, COMPETITION_ENDED_WITH_NO_ENTRIES_SUBMITTED_EVENT)
@@ -0,0 +1,81 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompetitionEntriesDeltaTest {
+
+    private static final UUID COMPETITION_ID = randomUUID();
+    private static final UUID USER_ID = randomUUID();
+    private static final UUID PHOTO_ID = randomUUID();
+    private static final UUID OTHER_PHOTO_ID = randomUUID();
+    private static final Instant ENTRY_TIMESTAMP = Instant.ofEpochMilli(1234);
+    private static final Competition COMPETITION = new Competition(COMPETITION_ID, "description", Instant.ofEpochMilli(123),
+        Instant.ofEpochMilli(456), Instant.ofEpochMilli(789), 2);
+    private static final CompetitionEntry ENTRY = new CompetitionEntry(COMPETITION_ID, PHOTO_ID, USER_ID, ENTRY_TIMESTAMP, 2, false);
+
+    @Test
+    void entryAdded_WillAppendEntry() {
+        var otherEntry = new CompetitionEntry(COMPETITION_ID, OTHER_PHOTO_ID, USER_ID, ENTRY_TIMESTAMP, 0, false);
+
+        var updated = CompetitionEntriesDelta.entryAdded(otherEntry).applyTo(new CompetitionWithEntries(COMPETITION, List.of(ENTRY)));
+
+        assertEquals(new CompetitionWithEntries(COMPETITION, List.of(ENTRY, otherEntry)), updated);
+    }
+
+    @Test
+    void entryAdded_WillBeIgnored_WhenEntryAlreadyPresent() {
+        var original = new CompetitionWithEntries(COMPETITION, List.of(ENTRY));
+
+        var updated = CompetitionEntriesDelta.entryAdded(
+            new CompetitionEntry(COMPETITION_ID, PHOTO_ID, USER_ID, ENTRY_TIMESTAMP, 0, false)).applyTo(original);
+
+        assertEquals(original, updated);
+    }
+
+    @Test
+    void votesChanged_WillSetVoteTotals() {
+        var updated = CompetitionEntriesDelta.votesChanged(COMPETITION_ID, Map.of(PHOTO_ID, 5, OTHER_PHOTO_ID, 1))
+            .applyTo(new CompetitionWithEntries(COMPETITION, List.of(ENTRY)));
+
+        assertEquals(List.of(new CompetitionEntry(COMPETITION_ID, PHOTO_ID, USER_ID, ENTRY_TIMESTAMP, 5, false)), updated.getEntries());
+    }
+
+    @Test
+    void votesChanged_WillNotRewindVoteTotals_WhenDeltaIsStale() {
+        var original = new CompetitionWithEntries(COMPETITION, List.of(ENTRY));
+
+        var updated = CompetitionEntriesDelta.votesChanged(COMPETITION_ID, Map.of(PHOTO_ID, 1)).applyTo(original);
+
+        assertEquals(original, updated);
+    }
+
+    @Test
+    void winnersDeclared_WillMarkWinningEntries() {
+        var updated = CompetitionEntriesDelta.winnersDeclared(COMPETITION_ID, Set.of(PHOTO_ID))
+            .applyTo(new CompetitionWithEntries(COMPETITION, List.of(ENTRY)));
+
+        assertEquals(List.of(new CompetitionEntry(COMPETITION_ID, PHOTO_ID, USER_ID, ENTRY_TIMESTAMP, 2, true)), updated.getEntries());
+    }
+
+    @Test
+    void mergeWith_WillCombineChangesKeepingHighestVoteTotals() {
+        var otherEntry = new CompetitionEntry(COMPETITION_ID, OTHER_PHOTO_ID, USER_ID, ENTRY_TIMESTAMP, 0, false);
+
+        var merged = CompetitionEntriesDelta.entryAdded(otherEntry)
+            .mergeWith(CompetitionEntriesDelta.votesChanged(COMPETITION_ID, Map.of(PHOTO_ID, 4, OTHER_PHOTO_ID, 1)))
+            .mergeWith(CompetitionEntriesDelta.votesChanged(COMPETITION_ID, Map.of(PHOTO_ID, 3)))
+            .mergeWith(CompetitionEntriesDelta.winnersDeclared(COMPETITION_ID, Set.of(PHOTO_ID)));
+
+        assertEquals(new CompetitionEntriesDelta(COMPETITION_ID, List.of(otherEntry), Map.of(PHOTO_ID, 4, OTHER_PHOTO_ID, 1),
+            Set.of(PHOTO_ID)), merged);
+    }
+}
@@ -0,0 +1,54 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+
+import static engineering.everest.lhotse.competitions.domain.CompetitionEntryVotesAggregate.entryVotesIdFor;
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompetitionEntryVotesAggregateSnapshotCodecTest {
+
+    private static final UUID COMPETITION_ID = randomUUID();
+    private static final UUID PHOTO_ID = randomUUID();
+    private static final Instant VOTING_OPENS = Instant.ofEpochSecond(1658900761L, 278_000_000);
+    private static final Instant VOTING_ENDS = VOTING_OPENS.plusSeconds(60);
+
+    private final CompetitionEntryVotesAggregateSnapshotCodec competitionEntryVotesAggregateSnapshotCodec =
+        new CompetitionEntryVotesAggregateSnapshotCodec();
+
+    @Test
+    void read_WillRestoreWrittenAggregate() throws IOException {
+        var usersVotedFor = new CompactUuidSet();
+        for (int i = 0; i < 1_000; i++) {
+            usersVotedFor.add(randomUUID());
+        }
+        var snapshot = CompetitionEntryVotesAggregate.Snapshot.builder()
+            .entryVotesId(entryVotesIdFor(COMPETITION_ID, PHOTO_ID))
+            .competitionId(COMPETITION_ID)
+            .photoId(PHOTO_ID)
+            .votingOpensTimestamp(VOTING_OPENS)
+            .votingEndsTimestamp(VOTING_ENDS)
+            .usersVotedFor(usersVotedFor)
+            .votingClosed(true)
+            .build();
+
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(bytes)) {
+            competitionEntryVotesAggregateSnapshotCodec.write(CompetitionEntryVotesAggregate.fromSnapshot(snapshot), output);
+        }
+        CompetitionEntryVotesAggregate restored;
+        try (var input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = competitionEntryVotesAggregateSnapshotCodec.read(input);
+        }
+
+        assertEquals(snapshot, restored.toSnapshot());
+    }
+}
@@ -0,0 +1,141 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import engineering.everest.lhotse.competitions.domain.commands.CloseCompetitionEntryVotingCommand;
+import engineering.everest.lhotse.competitions.domain.commands.OpenCompetitionEntryVotingCommand;
+import engineering.everest.lhotse.competitions.domain.commands.VoteForCompetitionEntryCommand;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEntryVotingClosedEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEntryVotingOpenedEvent;
+import engineering.everest.lhotse.competitions.domain.events.PhotoEntryReceivedVoteEvent;
+import org.axonframework.spring.stereotype.Aggregate;
+import org.axonframework.test.aggregate.AggregateTestFixture;
+import org.axonframework.test.aggregate.FixtureConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static engineering.everest.lhotse.axon.AxonTestUtils.mockCommandValidatingMessageHandlerInterceptor;
+import static engineering.everest.lhotse.competitions.domain.CompetitionEntryVotesAggregate.entryVotesIdFor;
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompetitionEntryVotesAggregateTest {
+
+    private static final UUID USER_ID = randomUUID();
+    private static final UUID COMPETITION_ID = randomUUID();
+    private static final UUID PHOTO_ID = randomUUID();
+    private static final UUID ENTRY_VOTES_ID = entryVotesIdFor(COMPETITION_ID, PHOTO_ID);
+    private static final Instant VOTING_OPENS = Instant.ofEpochMilli(1658900761278L);
+    private static final Instant VOTING_ENDS = VOTING_OPENS.plus(Duration.ofDays(1));
+
+    private static final CompetitionEntryVotingOpenedEvent ENTRY_VOTING_OPENED_EVENT =
+        new CompetitionEntryVotingOpenedEvent(ENTRY_VOTES_ID, COMPETITION_ID, PHOTO_ID, VOTING_OPENS, VOTING_ENDS);
+    private static final PhotoEntryReceivedVoteEvent PHOTO_ENTRY_RECEIVED_VOTE_EVENT =
+        new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID);
+
+    private FixtureConfiguration<CompetitionEntryVotesAggregate> testFixture;
+
+    @Mock
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        testFixture = new AggregateTestFixture<>(CompetitionEntryVotesAggregate.class)
+            .registerCommandHandlerInterceptor(mockCommandValidatingMessageHandlerInterceptor())
+            .registerInjectableResource(clock);
+    }
+
+    @Test
+    void aggregateHasExplicitlyDefinedRepository() {
+        var aggregateAnnotation = CompetitionEntryVotesAggregate.class.getAnnotation(Aggregate.class);
+        assertEquals("competitionEntryVotesAggregateSnapshotTriggerDefinition", aggregateAnnotation.snapshotTriggerDefinition());
+        assertEquals("competitionEntryVotesAggregateSnapshotFilter", aggregateAnnotation.snapshotFilter());
+        assertEquals("competitionEntryVotesAggregateCache", aggregateAnnotation.cache());
+    }
+
+    @Test
+    void entryVotesIdFor_WillBeDeterministicPerCompetitionAndPhoto() {
+        assertEquals(ENTRY_VOTES_ID, entryVotesIdFor(COMPETITION_ID, PHOTO_ID));
+        assertNotEquals(ENTRY_VOTES_ID, entryVotesIdFor(PHOTO_ID, COMPETITION_ID));
+        assertNotEquals(ENTRY_VOTES_ID, entryVotesIdFor(COMPETITION_ID, randomUUID()));
+    }
+
+    @Test
+    void emits_WhenEntryVotingOpened() {
+        testFixture.givenNoPriorActivity()
+            .when(new OpenCompetitionEntryVotingCommand(ENTRY_VOTES_ID, COMPETITION_ID, PHOTO_ID, VOTING_OPENS, VOTING_ENDS))
+            .expectEvents(ENTRY_VOTING_OPENED_EVENT);
+    }
+
+    @Test
+    void emits_WhenEntryReceivesVoteDuringVotingPeriod() {
+        when(clock.instant()).thenReturn(VOTING_OPENS);
+
+        testFixture.given(ENTRY_VOTING_OPENED_EVENT)
+            .when(new VoteForCompetitionEntryCommand(ENTRY_VOTES_ID, COMPETITION_ID, PHOTO_ID, USER_ID))
+            .expectEvents(PHOTO_ENTRY_RECEIVED_VOTE_EVENT);
+    }
+
+    @Test
+    void rejects_WhenEntryReceivesVoteAndVotingPeriodNotStarted() {
+        when(clock.instant()).thenReturn(VOTING_OPENS.minus(Duration.ofSeconds(1)));
+
+        testFixture.given(ENTRY_VOTING_OPENED_EVENT)
+            .when(new VoteForCompetitionEntryCommand(ENTRY_VOTES_ID, COMPETITION_ID, PHOTO_ID, USER_ID))
+            .expectNoEvents()
+            .expectExceptionMessage("VOTING_PERIOD_NOT_STARTED");
+    }
+
+    @Test
+    void rejects_WhenEntryReceivesVoteAndVotingPeriodEnded() {
+        when(clock.instant()).thenReturn(VOTING_ENDS.plus(Duration.ofSeconds(1)));
+
+        testFixture.given(ENTRY_VOTING_OPENED_EVENT)
+            .when(new VoteForCompetitionEntryCommand(ENTRY_VOTES_ID, COMPETITION_ID, PHOTO_ID, USER_ID))
+            .expectNoEvents()
+            .expectExceptionMessage("VOTING_ENDED");
+    }
+
+    @Test
+    void rejects_WhenUserHasVotedForEntryBefore() {
+        when(clock.instant()).thenReturn(VOTING_OPENS);
+
+        testFixture.given(ENTRY_VOTING_OPENED_EVENT, PHOTO_ENTRY_RECEIVED_VOTE_EVENT)
+            .when(new VoteForCompetitionEntryCommand(ENTRY_VOTES_ID, COMPETITION_ID, PHOTO_ID, USER_ID))
+            .expectNoEvents()
+            .expectExceptionMessage("ALREADY_VOTED_FOR_THIS_ENTRY");
+    }
+
+    @Test
+    void rejects_WhenEntryReceivesVoteAfterVotingClosed() {
+        testFixture.given(ENTRY_VOTING_OPENED_EVENT, new CompetitionEntryVotingClosedEvent(ENTRY_VOTES_ID, COMPETITION_ID, PHOTO_ID, 0))
+            .when(new VoteForCompetitionEntryCommand(ENTRY_VOTES_ID, COMPETITION_ID, PHOTO_ID, USER_ID))
+            .expectNoEvents()
+            .expectExceptionMessage("COMPETITION_ALREADY_ENDED");
+    }
+
+    @Test
+    void emitsTally_WhenEntryVotingClosed() {
+        testFixture.given(ENTRY_VOTING_OPENED_EVENT, PHOTO_ENTRY_RECEIVED_VOTE_EVENT,
+            new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, randomUUID()))
+            .when(new CloseCompetitionEntryVotingCommand(ENTRY_VOTES_ID))
+            .expectEvents(new CompetitionEntryVotingClosedEvent(ENTRY_VOTES_ID, COMPETITION_ID, PHOTO_ID, 2));
+    }
+
+    @Test
+    void rejects_WhenEntryVotingAlreadyClosed() {
+        testFixture.given(ENTRY_VOTING_OPENED_EVENT, new CompetitionEntryVotingClosedEvent(ENTRY_VOTES_ID, COMPETITION_ID, PHOTO_ID, 0))
+            .when(new CloseCompetitionEntryVotingCommand(ENTRY_VOTES_ID))
+            .expectNoEvents()
+            .expectExceptionMessage("COMPETITION_ALREADY_ENDED");
+    }
+}
@@ -1,9 +1,15 @@
 package engineering.everest.lhotse.competitions.domain;
 
+import engineering.everest.lhotse.competitions.domain.commands.CloseCompetitionEntryVotingCommand;
 import engineering.everest.lhotse.competitions.domain.commands.CountVotesAndDeclareOutcomeCommand;
+import engineering.everest.lhotse.competitions.domain.commands.DeclareOutcomeFromEntryTalliesCommand;
+import engineering.everest.lhotse.competitions.domain.commands.OpenCompetitionEntryVotingCommand;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEntryTalliesOverdueEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEntryVotingClosedEvent;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionVotingPeriodEndedEvent;
+import engineering.everest.lhotse.competitions.domain.events.PhotoEnteredInCompetitionEvent;
 import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.axonframework.test.saga.SagaTestFixture;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,9 +18,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Map;
 import java.util.UUID;
 
+import static engineering.everest.lhotse.competitions.domain.CompetitionEntryVotesAggregate.entryVotesIdFor;
+import static engineering.everest.lhotse.competitions.domain.CompetitionVotingCloseoutSaga.ENTRY_TALLY_TIMEOUT;
 import static java.util.UUID.randomUUID;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,13 +32,21 @@ class CompetitionVotingCloseoutSagaTest {
 
     private static final UUID ADMIN_ID = randomUUID();
     private static final UUID COMPETITION_ID = randomUUID();
+    private static final UUID PHOTO_ID = randomUUID();
+    private static final UUID SUBMITTER_ID = randomUUID();
+    private static final Instant SUBMISSIONS_CLOSE_TIMESTAMP = Instant.ofEpochMilli(456);
     private static final Instant VOTING_ENDS_TIMESTAMP = Instant.ofEpochMilli(789);
 
     private static final CompetitionVotingPeriodEndedEvent SCHEDULED_VOTING_PERIOD_ENDED_EVENT =
         new CompetitionVotingPeriodEndedEvent(COMPETITION_ID, VOTING_ENDS_TIMESTAMP);
     private static final CompetitionCreatedEvent COMPETITION_CREATED_EVENT =
         new CompetitionCreatedEvent(ADMIN_ID, COMPETITION_ID, "description", Instant.ofEpochMilli(123),
-            Instant.ofEpochMilli(456), VOTING_ENDS_TIMESTAMP, 1);
+            SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 1, false);
+    private static final CompetitionCreatedEvent COMPETITION_WITH_VOTES_COUNTED_PER_ENTRY_CREATED_EVENT =
+        new CompetitionCreatedEvent(ADMIN_ID, COMPETITION_ID, "description", Instant.ofEpochMilli(123),
+            SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 1, true);
+    private static final PhotoEnteredInCompetitionEvent PHOTO_ENTERED_IN_COMPETITION_EVENT =
+        new PhotoEnteredInCompetitionEvent(COMPETITION_ID, PHOTO_ID, SUBMITTER_ID, SUBMITTER_ID, "notes");
     private static final CompetitionEndedEvent COMPETITION_ENDED_EVENT = new CompetitionEndedEvent(COMPETITION_ID);
 
     private SagaTestFixture<CompetitionVotingCloseoutSaga> testFixture;
@@ -66,4 +84,85 @@ class CompetitionVotingCloseoutSagaTest {
             .expectNoDispatchedCommands()
             .expectActiveSagas(0);
     }
+
+    @Test
+    void onPhotoEntered_WillNotOpenEntryVoting_WhenVotesCountedByCompetition() {
+        testFixture.givenAPublished(COMPETITION_CREATED_EVENT)
+            .whenPublishingA(PHOTO_ENTERED_IN_COMPETITION_EVENT)
+            .expectNoDispatchedCommands();
+    }
+
+    @Test
+    void onPhotoEntered_WillOpenEntryVoting_WhenVotesCountedPerEntry() {
+        testFixture.givenAPublished(COMPETITION_WITH_VOTES_COUNTED_PER_ENTRY_CREATED_EVENT)
+            .whenPublishingA(PHOTO_ENTERED_IN_COMPETITION_EVENT)
+            .expectDispatchedCommands(new OpenCompetitionEntryVotingCommand(entryVotesIdFor(COMPETITION_ID, PHOTO_ID), COMPETITION_ID,
+                PHOTO_ID, SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP));
+    }
+
+    @Test
+    void onVotingPeriodEndedEvent_WillCloseEntryVoting_WhenVotesCountedPerEntry() {
+        testFixture.givenAPublished(COMPETITION_WITH_VOTES_COUNTED_PER_ENTRY_CREATED_EVENT)
+            .andThenAPublished(PHOTO_ENTERED_IN_COMPETITION_EVENT)
+            .whenPublishingA(SCHEDULED_VOTING_PERIOD_ENDED_EVENT)
+            .expectDispatchedCommands(new CloseCompetitionEntryVotingCommand(entryVotesIdFor(COMPETITION_ID, PHOTO_ID)))
+            .expectScheduledEvent(ENTRY_TALLY_TIMEOUT, new CompetitionEntryTalliesOverdueEvent(COMPETITION_ID));
+    }
+
+    @Test
+    void onVotingPeriodEndedEvent_WillCountVotes_WhenVotesCountedPerEntryAndNoEntriesSubmitted() {
+        testFixture.givenAPublished(COMPETITION_WITH_VOTES_COUNTED_PER_ENTRY_CREATED_EVENT)
+            .whenPublishingA(SCHEDULED_VOTING_PERIOD_ENDED_EVENT)
+            .expectDispatchedCommands(new CountVotesAndDeclareOutcomeCommand(COMPETITION_ID));
+    }
+
+    @Test
+    void onEntryVotingClosed_WillDeclareOutcome_WhenAllEntriesTallied() {
+        var secondPhotoId = randomUUID();
+        testFixture.givenAPublished(COMPETITION_WITH_VOTES_COUNTED_PER_ENTRY_CREATED_EVENT)
+            .andThenAPublished(PHOTO_ENTERED_IN_COMPETITION_EVENT)
+            .andThenAPublished(new PhotoEnteredInCompetitionEvent(COMPETITION_ID, secondPhotoId, SUBMITTER_ID, SUBMITTER_ID, "notes"))
+            .andThenAPublished(SCHEDULED_VOTING_PERIOD_ENDED_EVENT)
+            .andThenAPublished(
+                new CompetitionEntryVotingClosedEvent(entryVotesIdFor(COMPETITION_ID, PHOTO_ID), COMPETITION_ID, PHOTO_ID, 3))
+            .whenPublishingA(
+                new CompetitionEntryVotingClosedEvent(entryVotesIdFor(COMPETITION_ID, secondPhotoId), COMPETITION_ID, secondPhotoId, 5))
+            .expectDispatchedCommands(new DeclareOutcomeFromEntryTalliesCommand(COMPETITION_ID, Map.of(PHOTO_ID, 3, secondPhotoId, 5)));
+    }
+
+    @Test
+    void onEntryVotingClosed_WillWait_WhenEntriesStillAwaitingTally() {
+        testFixture.givenAPublished(COMPETITION_WITH_VOTES_COUNTED_PER_ENTRY_CREATED_EVENT)
+            .andThenAPublished(PHOTO_ENTERED_IN_COMPETITION_EVENT)
+            .andThenAPublished(new PhotoEnteredInCompetitionEvent(COMPETITION_ID, randomUUID(), SUBMITTER_ID, SUBMITTER_ID, "notes"))
+            .andThenAPublished(SCHEDULED_VOTING_PERIOD_ENDED_EVENT)
+            .whenPublishingA(
+                new CompetitionEntryVotingClosedEvent(entryVotesIdFor(COMPETITION_ID, PHOTO_ID), COMPETITION_ID, PHOTO_ID, 3))
+            .expectNoDispatchedCommands();
+    }
+
+    @Test
+    void onEntryTalliesOverdue_WillDeclareOutcomeWithTalliesReceived_WhenEntryCommandsFail() {
+        testFixture.setCallbackBehavior((commandPayload, commandMetaData) -> {
+            throw new IllegalStateException("Entry votes aggregate not found");
+        });
+        testFixture.givenAPublished(COMPETITION_WITH_VOTES_COUNTED_PER_ENTRY_CREATED_EVENT)
+            .andThenAPublished(PHOTO_ENTERED_IN_COMPETITION_EVENT)
+            .andThenAPublished(new PhotoEnteredInCompetitionEvent(COMPETITION_ID, randomUUID(), SUBMITTER_ID, SUBMITTER_ID, "notes"))
+            .andThenTimeElapses(Duration.ZERO)
+            .andThenAPublished(
+                new CompetitionEntryVotingClosedEvent(entryVotesIdFor(COMPETITION_ID, PHOTO_ID), COMPETITION_ID, PHOTO_ID, 3))
+            .whenTimeElapses(ENTRY_TALLY_TIMEOUT)
+            .expectDispatchedCommands(new DeclareOutcomeFromEntryTalliesCommand(COMPETITION_ID, Map.of(PHOTO_ID, 3)));
+    }
+
+    @Test
+    void onCompetitionEndedEvent_WillCancelEntryTalliesOverdueEvent() {
+        testFixture.givenAPublished(COMPETITION_WITH_VOTES_COUNTED_PER_ENTRY_CREATED_EVENT)
+            .andThenAPublished(PHOTO_ENTERED_IN_COMPETITION_EVENT)
+            .andThenAPublished(SCHEDULED_VOTING_PERIOD_ENDED_EVENT)
+            .whenAggregate(COMPETITION_ID.toString())
+            .publishes(COMPETITION_ENDED_EVENT)
+            .expectNoScheduledEventOfType(CompetitionEntryTalliesOverdueEvent.class);
+    }
 }
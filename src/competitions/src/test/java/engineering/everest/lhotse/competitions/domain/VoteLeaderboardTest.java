@@ -0,0 +1,61 @@
+package engineering.everest.lhotse.competitions.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VoteLeaderboardTest {
+
+    private static final UUID FIRST_PHOTO_ID = new UUID(0L, 1L);
+    private static final UUID SECOND_PHOTO_ID = new UUID(0L, 2L);
+
+    @Test
+    void leaders_WillBeEmpty_WhenNoVotesRecorded() {
+        var leaderboard = new VoteLeaderboard();
+
+        assertTrue(leaderboard.getLeadingPhotoIds().isEmpty());
+        assertEquals(0, leaderboard.getHighestVoteCount());
+    }
+
+    @Test
+    void leaders_WillFollowHighestVoteCount() {
+        var leaderboard = new VoteLeaderboard();
+
+        leaderboard.recordVote(FIRST_PHOTO_ID, 1);
+        leaderboard.recordVote(SECOND_PHOTO_ID, 1);
+        leaderboard.recordVote(SECOND_PHOTO_ID, 2);
+
+        assertEquals(List.of(SECOND_PHOTO_ID), List.copyOf(leaderboard.getLeadingPhotoIds()));
+        assertEquals(2, leaderboard.getHighestVoteCount());
+    }
+
+    @Test
+    void leaders_WillIncludeAllTiedEntriesOrderedByPhotoId() {
+        var leaderboard = new VoteLeaderboard();
+
+        leaderboard.recordVote(SECOND_PHOTO_ID, 1);
+        leaderboard.recordVote(FIRST_PHOTO_ID, 1);
+        leaderboard.recordVote(SECOND_PHOTO_ID, 2);
+        leaderboard.recordVote(FIRST_PHOTO_ID, 2);
+        leaderboard.recordVote(randomUUID(), 1);
+
+        assertEquals(List.of(FIRST_PHOTO_ID, SECOND_PHOTO_ID), List.copyOf(leaderboard.getLeadingPhotoIds()));
+        assertEquals(2, leaderboard.getHighestVoteCount());
+    }
+
+    @Test
+    void recordTally_WillIgnoreEntriesWithoutVotes() {
+        var leaderboard = new VoteLeaderboard();
+
+        leaderboard.recordTally(FIRST_PHOTO_ID, 0);
+        leaderboard.recordTally(SECOND_PHOTO_ID, 3);
+
+        assertEquals(List.of(SECOND_PHOTO_ID), List.copyOf(leaderboard.getLeadingPhotoIds()));
+        assertEquals(3, leaderboard.getHighestVoteCount());
+    }
+}
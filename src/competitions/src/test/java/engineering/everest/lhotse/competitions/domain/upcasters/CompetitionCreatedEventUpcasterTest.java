@@ -0,0 +1,63 @@
+package engineering.everest.lhotse.competitions.domain.upcasters;
+
+import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
+import org.axonframework.eventhandling.GenericDomainEventEntry;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.axonframework.serialization.upcasting.event.InitialEventRepresentation;
+import org.axonframework.serialization.upcasting.event.IntermediateEventRepresentation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static java.util.UUID.randomUUID;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompetitionCreatedEventUpcasterTest {
+
+    private static final UUID COMPETITION_ID = randomUUID();
+
+    private JacksonSerializer serializer;
+    private CompetitionCreatedEventUpcaster upcaster;
+
+    @BeforeEach
+    void setUp() {
+        serializer = JacksonSerializer.defaultSerializer();
+        upcaster = new CompetitionCreatedEventUpcaster();
+    }
+
+    @Test
+    void upcast_WillDefaultToVotesCountedOnCompetition_WhenRevision0() {
+        var upcasted = upcast("0", "{\"competitionId\":\"" + COMPETITION_ID + "\",\"description\":\"description\","
+            + "\"maxEntriesPerUser\":2}");
+
+        assertEquals("1", upcasted.getType().getRevision());
+        CompetitionCreatedEvent event = serializer.deserialize(upcasted.getData());
+        assertEquals(COMPETITION_ID, event.getCompetitionId());
+        assertEquals("description", event.getDescription());
+        assertEquals(2, event.getMaxEntriesPerUser());
+        assertFalse(event.isVotesCountedPerEntry());
+    }
+
+    @Test
+    void upcast_WillLeaveEventUnchanged_WhenRevision1() {
+        var upcasted = upcast("1", "{\"competitionId\":\"" + COMPETITION_ID + "\",\"votesCountedPerEntry\":true}");
+
+        assertEquals("1", upcasted.getType().getRevision());
+        CompetitionCreatedEvent event = serializer.deserialize(upcasted.getData());
+        assertTrue(event.isVotesCountedPerEntry());
+    }
+
+    private IntermediateEventRepresentation upcast(String revision, String payload) {
+        var eventEntry = new GenericDomainEventEntry<>("CompetitionAggregate", COMPETITION_ID.toString(), 0L,
+            randomUUID().toString(), Instant.ofEpochMilli(123), CompetitionCreatedEvent.class.getTypeName(), revision, payload, "{}");
+        var upcasted = upcaster.upcast(Stream.of(new InitialEventRepresentation(eventEntry, serializer))).collect(toList());
+        assertEquals(1, upcasted.size());
+        return upcasted.get(0);
+    }
+}
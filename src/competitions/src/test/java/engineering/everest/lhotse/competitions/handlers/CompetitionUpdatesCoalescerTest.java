@@ -0,0 +1,97 @@
+package engineering.everest.lhotse.competitions.handlers;
+
+import engineering.everest.lhotse.competitions.domain.CompetitionEntriesDelta;
+import engineering.everest.lhotse.competitions.domain.queries.CompetitionWithEntriesQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.queryhandling.QueryUpdateEmitter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class CompetitionUpdatesCoalescerTest {
+
+    private static final UUID COMPETITION_ID = randomUUID();
+    private static final UUID PHOTO_ID = randomUUID();
+    private static final UUID OTHER_PHOTO_ID = randomUUID();
+
+    private CompetitionUpdatesCoalescer competitionUpdatesCoalescer;
+    private MeterRegistry meterRegistry;
+
+    @Mock
+    private QueryUpdateEmitter queryUpdateEmitter;
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        competitionUpdatesCoalescer = new CompetitionUpdatesCoalescer(queryUpdateEmitter, taskScheduler, meterRegistry, 500);
+    }
+
+    @Test
+    void submit_WillEmitSingleMergedUpdatePerWindow() {
+        competitionUpdatesCoalescer.submit(CompetitionEntriesDelta.votesChanged(COMPETITION_ID, Map.of(PHOTO_ID, 1)));
+        competitionUpdatesCoalescer.submit(CompetitionEntriesDelta.votesChanged(COMPETITION_ID, Map.of(PHOTO_ID, 2, OTHER_PHOTO_ID, 1)));
+        verifyNoInteractions(queryUpdateEmitter);
+        runScheduledFlush();
+
+        var expectedDelta = CompetitionEntriesDelta.votesChanged(COMPETITION_ID, Map.of(PHOTO_ID, 2, OTHER_PHOTO_ID, 1));
+        verify(queryUpdateEmitter).emit(eq(CompetitionWithEntriesQuery.class), any(), eq(expectedDelta));
+        assertEquals(1, meterRegistry.counter("lhotse.competitions.updates.emitted").count());
+        assertEquals(1, meterRegistry.counter("lhotse.competitions.updates.coalesced").count());
+    }
+
+    @Test
+    void submit_WillCoalesceEachCompetitionSeparately() {
+        competitionUpdatesCoalescer.submit(CompetitionEntriesDelta.winnersDeclared(COMPETITION_ID, Set.of(PHOTO_ID)));
+        competitionUpdatesCoalescer.submit(CompetitionEntriesDelta.winnersDeclared(randomUUID(), Set.of(OTHER_PHOTO_ID)));
+
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void submit_WillEmitImmediately_WhenWindowIsZero() {
+        competitionUpdatesCoalescer = new CompetitionUpdatesCoalescer(queryUpdateEmitter, taskScheduler, meterRegistry, 0);
+        var delta = CompetitionEntriesDelta.winnersDeclared(COMPETITION_ID, Set.of(PHOTO_ID));
+
+        competitionUpdatesCoalescer.submit(delta);
+
+        verify(queryUpdateEmitter).emit(eq(CompetitionWithEntriesQuery.class), any(), eq(delta));
+        verifyNoInteractions(taskScheduler);
+    }
+
+    @Test
+    void submit_WillBeDiscarded_WhenUnitOfWorkRolledBack() {
+        var unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        competitionUpdatesCoalescer.submit(CompetitionEntriesDelta.winnersDeclared(COMPETITION_ID, Set.of(PHOTO_ID)));
+        unitOfWork.rollback();
+
+        verifyNoInteractions(taskScheduler, queryUpdateEmitter);
+    }
+
+    private void runScheduledFlush() {
+        var flushCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(flushCaptor.capture(), any(Instant.class));
+        flushCaptor.getValue().run();
+    }
+}
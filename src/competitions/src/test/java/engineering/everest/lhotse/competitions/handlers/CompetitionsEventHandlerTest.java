@@ -1,18 +1,18 @@
 package engineering.everest.lhotse.competitions.handlers;
 
-import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
+import engineering.everest.lhotse.competitions.domain.CompetitionEntriesDelta;
+import engineering.everest.lhotse.competitions.domain.CompetitionEntry;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
 import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedAndWinnersDeclaredEvent;
 import engineering.everest.lhotse.competitions.domain.events.PhotoEnteredInCompetitionEvent;
 import engineering.everest.lhotse.competitions.domain.events.PhotoEntryReceivedVoteEvent;
 import engineering.everest.lhotse.competitions.domain.events.WinnerAndSubmittedPhotoPair;
-import engineering.everest.lhotse.competitions.domain.queries.CompetitionWithEntriesQuery;
 import engineering.everest.lhotse.competitions.persistence.CompetitionEntriesRepository;
 import engineering.everest.lhotse.competitions.persistence.CompetitionEntryId;
 import engineering.everest.lhotse.competitions.persistence.CompetitionsRepository;
+import engineering.everest.lhotse.competitions.persistence.PersistableCompetition;
 import engineering.everest.lhotse.competitions.persistence.PersistableCompetitionEntry;
-import engineering.everest.lhotse.competitions.services.CompetitionsReadService;
-import org.axonframework.queryhandling.QueryUpdateEmitter;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,16 +21,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static java.util.UUID.randomUUID;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.axonframework.eventhandling.ReplayStatus.REGULAR;
+import static org.axonframework.eventhandling.ReplayStatus.REPLAY;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,9 +49,7 @@ class CompetitionsEventHandlerTest {
     private CompetitionsEventHandler competitionsEventHandler;
 
     @Mock
-    private QueryUpdateEmitter queryUpdateEmitter;
-    @Mock
-    private CompetitionsReadService competitionsReadService;
+    private CompetitionUpdatesCoalescer competitionUpdatesCoalescer;
     @Mock
     private CompetitionsRepository competitionsRepository;
     @Mock
@@ -57,8 +57,8 @@ class CompetitionsEventHandlerTest {
 
     @BeforeEach
     void setUp() {
-        competitionsEventHandler = new CompetitionsEventHandler(queryUpdateEmitter, competitionsReadService,
-            competitionsRepository, competitionEntriesRepository);
+        competitionsEventHandler = new CompetitionsEventHandler(competitionUpdatesCoalescer, competitionsRepository,
+            competitionEntriesRepository);
     }
 
     @Test
@@ -66,12 +66,13 @@ class CompetitionsEventHandlerTest {
         competitionsEventHandler.prepareForReplay();
 
         verify(competitionsRepository).deleteAll();
+        verify(competitionEntriesRepository).deleteAllInBatch();
     }
 
     @Test
     void onCompetitionCreatedEvent_WillProject() {
         competitionsEventHandler.on(new CompetitionCreatedEvent(USER_ID, COMPETITION_ID, "description", SUBMISSIONS_OPEN_TIMESTAMP,
-            SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2));
+            SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2, false), REGULAR);
 
         verify(competitionsRepository).createCompetition(COMPETITION_ID, "description", SUBMISSIONS_OPEN_TIMESTAMP,
             SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2);
@@ -80,70 +81,124 @@ class CompetitionsEventHandlerTest {
     @Test
     void onPhotoEnteredInCompetitionEvent_WillProject() {
         competitionsEventHandler.on(
-            new PhotoEnteredInCompetitionEvent(COMPETITION_ID, PHOTO_ID, USER_ID, USER_ID, "notes"), ENTRY_TIMESTAMP);
+            new PhotoEnteredInCompetitionEvent(COMPETITION_ID, PHOTO_ID, USER_ID, USER_ID, "notes"), ENTRY_TIMESTAMP, REGULAR);
 
         verify(competitionEntriesRepository).createCompetitionEntry(COMPETITION_ID, PHOTO_ID, USER_ID, ENTRY_TIMESTAMP);
     }
 
     @Test
-    void onPhotoEnteredInCompetitionEvent_WillEmitQueryUpdate() {
-        var expectedCompetitionWithEntries = mock(CompetitionWithEntries.class);
-        when(competitionsReadService.getCompetitionWithEntries(COMPETITION_ID)).thenReturn(expectedCompetitionWithEntries);
-
+    void onPhotoEnteredInCompetitionEvent_WillEmitEntryAddedQueryUpdate() {
         competitionsEventHandler.on(
-            new PhotoEnteredInCompetitionEvent(COMPETITION_ID, PHOTO_ID, USER_ID, USER_ID, "notes"), ENTRY_TIMESTAMP);
+            new PhotoEnteredInCompetitionEvent(COMPETITION_ID, PHOTO_ID, USER_ID, USER_ID, "notes"), ENTRY_TIMESTAMP, REGULAR);
 
-        verify(queryUpdateEmitter).emit(eq(CompetitionWithEntriesQuery.class), any(), eq(expectedCompetitionWithEntries));
+        var expectedDelta = CompetitionEntriesDelta.entryAdded(
+            new CompetitionEntry(COMPETITION_ID, PHOTO_ID, USER_ID, ENTRY_TIMESTAMP, 0, false));
+        verify(competitionUpdatesCoalescer).submit(expectedDelta);
     }
 
     @Test
-    void onPhotoEntryReceivedVoteEvent_WillProject() {
-        var persistableCompetitionEntry = new PersistableCompetitionEntry(COMPETITION_ID, PHOTO_ID, USER_ID, ENTRY_TIMESTAMP);
-        when(competitionEntriesRepository.findById(new CompetitionEntryId(COMPETITION_ID, PHOTO_ID))).thenReturn(
-            Optional.of(persistableCompetitionEntry));
+    void onPhotoEntryReceivedVoteEvent_WillProjectVotesForEntryAsSingleIncrement() {
+        inUnitOfWork(() -> {
+            competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID), REGULAR);
+            competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, randomUUID()), REGULAR);
+            verifyNoInteractions(competitionEntriesRepository);
+        });
+
+        verify(competitionEntriesRepository).incrementVotesReceived(COMPETITION_ID, PHOTO_ID, 2);
+        verify(competitionEntriesRepository, never()).findById(any());
+        verifyNoInteractions(competitionsRepository);
+    }
 
-        competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID));
-        competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID));
+    @Test
+    void onPhotoEntryReceivedVoteEvent_WillIncrementEachEntrySeparately() {
+        var otherPhotoId = randomUUID();
 
-        assertEquals(2, persistableCompetitionEntry.getVotesReceived());
+        inUnitOfWork(() -> {
+            competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID), REGULAR);
+            competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, otherPhotoId, USER_ID), REGULAR);
+            competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, randomUUID()), REGULAR);
+        });
+
+        verify(competitionEntriesRepository).incrementVotesReceived(COMPETITION_ID, PHOTO_ID, 2);
+        verify(competitionEntriesRepository).incrementVotesReceived(COMPETITION_ID, otherPhotoId, 1);
     }
 
     @Test
-    void onPhotoEntryReceivedVoteEvent_WillEmitQueryUpdate() {
-        var persistableCompetitionEntry = new PersistableCompetitionEntry(COMPETITION_ID, PHOTO_ID, USER_ID, ENTRY_TIMESTAMP);
-        when(competitionEntriesRepository.findById(new CompetitionEntryId(COMPETITION_ID, PHOTO_ID)))
-            .thenReturn(Optional.of(persistableCompetitionEntry));
-        var expectedCompetitionWithEntries = mock(CompetitionWithEntries.class);
-        when(competitionsReadService.getCompetitionWithEntries(COMPETITION_ID)).thenReturn(expectedCompetitionWithEntries);
+    void onPhotoEntryReceivedVoteEvent_WillNotProject_WhenUnitOfWorkRolledBack() {
+        var unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID), REGULAR);
+        unitOfWork.rollback();
 
-        competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID));
+        verifyNoInteractions(competitionEntriesRepository, competitionUpdatesCoalescer);
+    }
 
-        verify(queryUpdateEmitter).emit(eq(CompetitionWithEntriesQuery.class), any(), eq(expectedCompetitionWithEntries));
+    @Test
+    void onPhotoEntryReceivedVoteEvent_WillEmitSingleVotesChangedQueryUpdatePerCompetition() {
+        var otherPhotoId = randomUUID();
+        when(competitionEntriesRepository.incrementVotesReceived(COMPETITION_ID, PHOTO_ID, 1)).thenReturn(3);
+        when(competitionEntriesRepository.incrementVotesReceived(COMPETITION_ID, otherPhotoId, 1)).thenReturn(1);
+
+        inUnitOfWork(() -> {
+            competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID), REGULAR);
+            competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, otherPhotoId, USER_ID), REGULAR);
+        });
+
+        var expectedDelta = CompetitionEntriesDelta.votesChanged(COMPETITION_ID, Map.of(PHOTO_ID, 3, otherPhotoId, 1));
+        verify(competitionUpdatesCoalescer).submit(expectedDelta);
     }
 
     @Test
     void onCompetitionWinnersDeclared_WillProject() {
-        var persistableCompetitionEntry = new PersistableCompetitionEntry(COMPETITION_ID, PHOTO_ID, USER_ID, ENTRY_TIMESTAMP);
-        when(competitionEntriesRepository.findById(new CompetitionEntryId(COMPETITION_ID, PHOTO_ID)))
-            .thenReturn(Optional.of(persistableCompetitionEntry));
+        competitionsEventHandler.on(new CompetitionEndedAndWinnersDeclaredEvent(COMPETITION_ID,
+            List.of(new WinnerAndSubmittedPhotoPair(USER_ID, PHOTO_ID)), 1), REGULAR);
 
-        competitionsEventHandler.on(
-            new CompetitionEndedAndWinnersDeclaredEvent(COMPETITION_ID, List.of(new WinnerAndSubmittedPhotoPair(USER_ID, PHOTO_ID)), 1));
-
-        assertTrue(persistableCompetitionEntry.isWinner());
+        verify(competitionEntriesRepository).markWinners(COMPETITION_ID, Set.of(PHOTO_ID));
     }
 
     @Test
-    void onCompetitionWinnersDeclared_WillEmitQueryUpdate() {
-        var persistableCompetitionEntry = new PersistableCompetitionEntry(COMPETITION_ID, PHOTO_ID, USER_ID, ENTRY_TIMESTAMP);
-        when(competitionEntriesRepository.findById(eq(new CompetitionEntryId(COMPETITION_ID, PHOTO_ID))))
-            .thenReturn(Optional.of(persistableCompetitionEntry));
-        var expectedCompetitionWithEntries = mock(CompetitionWithEntries.class);
-        when(competitionsReadService.getCompetitionWithEntries(COMPETITION_ID)).thenReturn(expectedCompetitionWithEntries);
+    void onCompetitionWinnersDeclared_WillEmitWinnersDeclaredQueryUpdate() {
+        competitionsEventHandler.on(new CompetitionEndedAndWinnersDeclaredEvent(COMPETITION_ID,
+            List.of(new WinnerAndSubmittedPhotoPair(USER_ID, PHOTO_ID)), 1), REGULAR);
 
-        competitionsEventHandler.on(
-            new CompetitionEndedAndWinnersDeclaredEvent(COMPETITION_ID, List.of(new WinnerAndSubmittedPhotoPair(USER_ID, PHOTO_ID)), 1));
+        var expectedDelta = CompetitionEntriesDelta.winnersDeclared(COMPETITION_ID, Set.of(PHOTO_ID));
+        verify(competitionUpdatesCoalescer).submit(expectedDelta);
+    }
+
+    @Test
+    void replayedEvents_WillBeBulkLoadedWithAggregatedTotalsOnCommit() {
+        var otherPhotoId = randomUUID();
+        var previouslyProjectedPhotoId = randomUUID();
+
+        inUnitOfWork(() -> {
+            competitionsEventHandler.on(new CompetitionCreatedEvent(USER_ID, COMPETITION_ID, "description", SUBMISSIONS_OPEN_TIMESTAMP,
+                SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2, false), REPLAY);
+            competitionsEventHandler.on(
+                new PhotoEnteredInCompetitionEvent(COMPETITION_ID, PHOTO_ID, USER_ID, USER_ID, "notes"), ENTRY_TIMESTAMP, REPLAY);
+            competitionsEventHandler.on(
+                new PhotoEnteredInCompetitionEvent(COMPETITION_ID, otherPhotoId, USER_ID, USER_ID, "notes"), ENTRY_TIMESTAMP, REPLAY);
+            competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID), REPLAY);
+            competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, randomUUID()), REPLAY);
+            competitionsEventHandler.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, previouslyProjectedPhotoId, USER_ID), REPLAY);
+            competitionsEventHandler.on(new CompetitionEndedAndWinnersDeclaredEvent(COMPETITION_ID,
+                List.of(new WinnerAndSubmittedPhotoPair(USER_ID, PHOTO_ID)), 2), REPLAY);
+            verify(competitionEntriesRepository, never()).bulkInsert(any());
+        });
+
+        var winningEntry = new PersistableCompetitionEntry(COMPETITION_ID, PHOTO_ID, USER_ID, ENTRY_TIMESTAMP);
+        winningEntry.setVotesReceived(2);
+        winningEntry.setWinner(true);
+        verify(competitionsRepository).bulkInsert(List.of(new PersistableCompetition(COMPETITION_ID, "description",
+            SUBMISSIONS_OPEN_TIMESTAMP, SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2)));
+        verify(competitionEntriesRepository).bulkInsert(List.of(winningEntry,
+            new PersistableCompetitionEntry(COMPETITION_ID, otherPhotoId, USER_ID, ENTRY_TIMESTAMP)));
+        verify(competitionEntriesRepository).bulkIncrementVotesReceived(
+            Map.of(new CompetitionEntryId(COMPETITION_ID, previouslyProjectedPhotoId), 1));
+        verify(competitionEntriesRepository, never()).incrementVotesReceived(any(), any(), anyInt());
+        verify(competitionsRepository, never()).createCompetition(any(), any(), any(), any(), any(), anyInt());
+        verifyNoInteractions(competitionUpdatesCoalescer);
+    }
 
-        verify(queryUpdateEmitter).emit(eq(CompetitionWithEntriesQuery.class), any(), eq(expectedCompetitionWithEntries));
+    private static void inUnitOfWork(Runnable task) {
+        DefaultUnitOfWork.startAndGet(null).execute(task);
     }
 }
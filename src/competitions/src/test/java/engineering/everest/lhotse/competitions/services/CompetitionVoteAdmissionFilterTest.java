@@ -0,0 +1,140 @@
+package engineering.everest.lhotse.competitions.services;
+
+import engineering.everest.lhotse.competitions.domain.commands.VoteForPhotoCommand;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedEvent;
+import engineering.everest.lhotse.competitions.domain.events.PhotoEntryReceivedVoteEvent;
+import engineering.everest.lhotse.i18n.exceptions.TranslatableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompetitionVoteAdmissionFilterTest {
+
+    private static final UUID COMPETITION_ID = randomUUID();
+    private static final UUID PHOTO_ID = randomUUID();
+    private static final UUID USER_ID = randomUUID();
+    private static final Instant VOTING_OPENS_TIMESTAMP = Instant.ofEpochSecond(1_000_000);
+    private static final Instant VOTING_ENDS_TIMESTAMP = VOTING_OPENS_TIMESTAMP.plusSeconds(3600);
+    private static final VoteForPhotoCommand VOTE = new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, USER_ID);
+    private static final long CLOCK_SKEW_MILLIS = 1000;
+
+    private CompetitionVoteAdmissionFilter competitionVoteAdmissionFilter;
+
+    @BeforeEach
+    void setUp() {
+        competitionVoteAdmissionFilter = filterAt(VOTING_OPENS_TIMESTAMP.plusSeconds(60), 100);
+        competitionVoteAdmissionFilter.on(new CompetitionCreatedEvent(randomUUID(), COMPETITION_ID, "description",
+            VOTING_OPENS_TIMESTAMP.minusSeconds(60), VOTING_OPENS_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 1, false));
+    }
+
+    @Test
+    void rejectionFor_WillAdmitVote_WhenNothingKnownAboutCompetition() {
+        var unknownCompetitionVote = new VoteForPhotoCommand(randomUUID(), PHOTO_ID, USER_ID);
+
+        assertEquals(Optional.empty(), competitionVoteAdmissionFilter.rejectionFor(unknownCompetitionVote));
+    }
+
+    @Test
+    void rejectionFor_WillAdmitFirstVote() {
+        assertEquals(Optional.empty(), competitionVoteAdmissionFilter.rejectionFor(VOTE));
+    }
+
+    @Test
+    void rejectionFor_WillRejectDuplicateVote() {
+        competitionVoteAdmissionFilter.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID));
+
+        assertEquals("ALREADY_VOTED_FOR_THIS_ENTRY", rejectionMessageKeyFor(VOTE));
+    }
+
+    @Test
+    void rejectionFor_WillAdmitVote_WhenSameUserVotedForDifferentEntry() {
+        competitionVoteAdmissionFilter.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, randomUUID(), USER_ID));
+
+        assertEquals(Optional.empty(), competitionVoteAdmissionFilter.rejectionFor(VOTE));
+    }
+
+    @Test
+    void rejectionFor_WillRejectVote_WhenVotingHasEnded() {
+        competitionVoteAdmissionFilter = filterAt(VOTING_ENDS_TIMESTAMP.plusMillis(CLOCK_SKEW_MILLIS + 1), 100);
+        competitionVoteAdmissionFilter.on(new CompetitionCreatedEvent(randomUUID(), COMPETITION_ID, "description",
+            VOTING_OPENS_TIMESTAMP.minusSeconds(60), VOTING_OPENS_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 1, false));
+
+        assertEquals("VOTING_ENDED", rejectionMessageKeyFor(VOTE));
+    }
+
+    @Test
+    void rejectionFor_WillAdmitVote_WhenVotingEndedWithinClockSkewAllowance() {
+        competitionVoteAdmissionFilter = filterAt(VOTING_ENDS_TIMESTAMP.plusMillis(CLOCK_SKEW_MILLIS), 100);
+        competitionVoteAdmissionFilter.on(new CompetitionCreatedEvent(randomUUID(), COMPETITION_ID, "description",
+            VOTING_OPENS_TIMESTAMP.minusSeconds(60), VOTING_OPENS_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 1, false));
+
+        assertEquals(Optional.empty(), competitionVoteAdmissionFilter.rejectionFor(VOTE));
+    }
+
+    @Test
+    void rejectionFor_WillRejectVote_WhenVotingNotYetStarted() {
+        competitionVoteAdmissionFilter = filterAt(VOTING_OPENS_TIMESTAMP.minusSeconds(10), 100);
+        competitionVoteAdmissionFilter.on(new CompetitionCreatedEvent(randomUUID(), COMPETITION_ID, "description",
+            VOTING_OPENS_TIMESTAMP.minusSeconds(60), VOTING_OPENS_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 1, false));
+
+        assertEquals("VOTING_PERIOD_NOT_STARTED", rejectionMessageKeyFor(VOTE));
+    }
+
+    @Test
+    void rejectionFor_WillForgetCompetition_WhenCompetitionEnded() {
+        competitionVoteAdmissionFilter = filterAt(VOTING_ENDS_TIMESTAMP.plusSeconds(60), 100);
+        competitionVoteAdmissionFilter.on(new CompetitionCreatedEvent(randomUUID(), COMPETITION_ID, "description",
+            VOTING_OPENS_TIMESTAMP.minusSeconds(60), VOTING_OPENS_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 1, false));
+        competitionVoteAdmissionFilter.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID));
+        competitionVoteAdmissionFilter.on(new CompetitionEndedEvent(COMPETITION_ID));
+
+        assertEquals(Optional.empty(), competitionVoteAdmissionFilter.rejectionFor(VOTE));
+    }
+
+    @Test
+    void rejectionFor_WillAdmitDuplicateVote_WhenTrackedVoteLimitReached() {
+        competitionVoteAdmissionFilter = filterAt(VOTING_OPENS_TIMESTAMP.plusSeconds(60), 1);
+        competitionVoteAdmissionFilter.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, randomUUID(), USER_ID));
+        competitionVoteAdmissionFilter.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID));
+
+        assertEquals(Optional.empty(), competitionVoteAdmissionFilter.rejectionFor(VOTE));
+    }
+
+    @Test
+    void rejectionFor_WillTrackVotesAgain_WhenEndedCompetitionReleasesItsVotes() {
+        competitionVoteAdmissionFilter = filterAt(VOTING_OPENS_TIMESTAMP.plusSeconds(60), 1);
+        var otherCompetitionId = randomUUID();
+        competitionVoteAdmissionFilter.on(new PhotoEntryReceivedVoteEvent(otherCompetitionId, PHOTO_ID, USER_ID));
+        competitionVoteAdmissionFilter.on(new CompetitionEndedEvent(otherCompetitionId));
+        competitionVoteAdmissionFilter.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID));
+
+        assertEquals("ALREADY_VOTED_FOR_THIS_ENTRY", rejectionMessageKeyFor(VOTE));
+    }
+
+    @Test
+    void prepareForReplay_WillForgetEverything() {
+        competitionVoteAdmissionFilter.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, USER_ID));
+        competitionVoteAdmissionFilter.on(new CompetitionEndedEvent(COMPETITION_ID));
+
+        competitionVoteAdmissionFilter.prepareForReplay();
+
+        assertEquals(Optional.empty(), competitionVoteAdmissionFilter.rejectionFor(VOTE));
+    }
+
+    private static CompetitionVoteAdmissionFilter filterAt(Instant now, long maxTrackedVotes) {
+        return new CompetitionVoteAdmissionFilter(Clock.fixed(now, ZoneOffset.UTC), CLOCK_SKEW_MILLIS, maxTrackedVotes);
+    }
+
+    private String rejectionMessageKeyFor(VoteForPhotoCommand vote) {
+        return competitionVoteAdmissionFilter.rejectionFor(vote).map(TranslatableException::getMessage).orElseThrow();
+    }
+}
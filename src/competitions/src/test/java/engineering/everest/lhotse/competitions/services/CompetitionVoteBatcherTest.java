@@ -0,0 +1,136 @@
+package engineering.everest.lhotse.competitions.services;
+
+import engineering.everest.lhotse.competitions.domain.VoteOutcome;
+import engineering.everest.lhotse.competitions.domain.commands.VoteForPhotoCommand;
+import engineering.everest.lhotse.competitions.domain.commands.VoteForPhotosCommand;
+import engineering.everest.lhotse.i18n.exceptions.TranslatableIllegalStateException;
+import org.axonframework.commandhandling.CommandExecutionException;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static java.util.UUID.randomUUID;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompetitionVoteBatcherTest {
+
+    private static final UUID COMPETITION_ID = randomUUID();
+    private static final VoteForPhotoCommand FIRST_VOTE = new VoteForPhotoCommand(COMPETITION_ID, randomUUID(), randomUUID());
+    private static final VoteForPhotoCommand SECOND_VOTE = new VoteForPhotoCommand(COMPETITION_ID, randomUUID(), randomUUID());
+
+    private CompetitionVoteBatcher competitionVoteBatcher;
+
+    @Mock
+    private CommandGateway commandGateway;
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @BeforeEach
+    void setUp() {
+        competitionVoteBatcher = new CompetitionVoteBatcher(commandGateway, taskScheduler, 20, 3);
+    }
+
+    @Test
+    void submit_WillDispatchVotesReceivedWithinWindowAsSingleCommand() {
+        when(commandGateway.send(any())).thenReturn(completedFuture(List.of(VoteOutcome.accepted(), VoteOutcome.accepted())));
+
+        var firstResult = competitionVoteBatcher.submit(FIRST_VOTE);
+        var secondResult = competitionVoteBatcher.submit(SECOND_VOTE);
+        verifyNoInteractions(commandGateway);
+        assertFalse(firstResult.isDone());
+        assertFalse(secondResult.isDone());
+        runScheduledFlush();
+
+        verify(commandGateway).send(new VoteForPhotosCommand(COMPETITION_ID, List.of(FIRST_VOTE, SECOND_VOTE)));
+        assertTrue(firstResult.isDone() && !firstResult.isCompletedExceptionally());
+        assertTrue(secondResult.isDone() && !secondResult.isCompletedExceptionally());
+    }
+
+    @Test
+    void submit_WillDispatchImmediately_WhenMaxBatchSizeReached() {
+        when(commandGateway.send(any()))
+            .thenReturn(completedFuture(List.of(VoteOutcome.accepted(), VoteOutcome.accepted(), VoteOutcome.accepted())));
+
+        competitionVoteBatcher.submit(FIRST_VOTE);
+        competitionVoteBatcher.submit(SECOND_VOTE);
+        var thirdVote = new VoteForPhotoCommand(COMPETITION_ID, randomUUID(), randomUUID());
+        var thirdResult = competitionVoteBatcher.submit(thirdVote);
+
+        verify(commandGateway).send(new VoteForPhotosCommand(COMPETITION_ID, List.of(FIRST_VOTE, SECOND_VOTE, thirdVote)));
+        assertTrue(thirdResult.isDone());
+        runScheduledFlush();
+        verify(commandGateway, times(1)).send(any());
+    }
+
+    @Test
+    void submit_WillBatchEachCompetitionSeparately() {
+        var otherCompetitionVote = new VoteForPhotoCommand(randomUUID(), randomUUID(), randomUUID());
+        when(commandGateway.send(any())).thenReturn(completedFuture(List.of(VoteOutcome.accepted())));
+
+        competitionVoteBatcher.submit(FIRST_VOTE);
+        competitionVoteBatcher.submit(otherCompetitionVote);
+
+        var flushCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(2)).schedule(flushCaptor.capture(), any(Instant.class));
+        flushCaptor.getAllValues().forEach(Runnable::run);
+        verify(commandGateway).send(new VoteForPhotosCommand(COMPETITION_ID, List.of(FIRST_VOTE)));
+        verify(commandGateway).send(new VoteForPhotosCommand(otherCompetitionVote.getCompetitionId(), List.of(otherCompetitionVote)));
+    }
+
+    @Test
+    void submit_WillCompleteEachCallerWithItsOwnOutcome() {
+        var rejectionReason = new TranslatableIllegalStateException("ALREADY_VOTED_FOR_THIS_ENTRY");
+        when(commandGateway.send(any()))
+            .thenReturn(completedFuture(List.of(VoteOutcome.accepted(), VoteOutcome.rejected(rejectionReason))));
+
+        var firstResult = competitionVoteBatcher.submit(FIRST_VOTE);
+        var secondResult = competitionVoteBatcher.submit(SECOND_VOTE);
+        runScheduledFlush();
+
+        assertFalse(firstResult.isCompletedExceptionally());
+        var exception = assertThrows(ExecutionException.class, secondResult::get);
+        assertInstanceOf(CommandExecutionException.class, exception.getCause());
+        assertEquals(rejectionReason, ((CommandExecutionException) exception.getCause()).getDetails().orElseThrow());
+    }
+
+    @Test
+    void submit_WillFailEveryCaller_WhenBatchCommandFails() {
+        var failure = new IllegalStateException("no handler");
+        when(commandGateway.send(any())).thenReturn(CompletableFuture.failedFuture(failure));
+
+        var firstResult = competitionVoteBatcher.submit(FIRST_VOTE);
+        var secondResult = competitionVoteBatcher.submit(SECOND_VOTE);
+        runScheduledFlush();
+
+        assertEquals(failure, assertThrows(ExecutionException.class, firstResult::get).getCause());
+        assertEquals(failure, assertThrows(ExecutionException.class, secondResult::get).getCause());
+    }
+
+    private void runScheduledFlush() {
+        var flushCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(flushCaptor.capture(), any(Instant.class));
+        flushCaptor.getValue().run();
+    }
+}
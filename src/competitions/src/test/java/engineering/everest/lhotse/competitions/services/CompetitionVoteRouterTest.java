@@ -0,0 +1,61 @@
+package engineering.everest.lhotse.competitions.services;
+
+import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompetitionVoteRouterTest {
+
+    private static final UUID PER_ENTRY_COMPETITION_ID = randomUUID();
+    private static final UUID LEGACY_COMPETITION_ID = randomUUID();
+    private static final Instant SUBMISSIONS_CLOSE_TIMESTAMP = Instant.ofEpochSecond(1_000_000);
+
+    private CompetitionVoteRouter competitionVoteRouter;
+
+    @BeforeEach
+    void setUp() {
+        competitionVoteRouter = new CompetitionVoteRouter();
+        competitionVoteRouter.on(competitionCreatedEvent(PER_ENTRY_COMPETITION_ID, true));
+        competitionVoteRouter.on(competitionCreatedEvent(LEGACY_COMPETITION_ID, false));
+    }
+
+    @Test
+    void votesCountedPerEntry_WillReflectHowCompetitionWasCreated() {
+        assertEquals(Optional.of(true), competitionVoteRouter.votesCountedPerEntry(PER_ENTRY_COMPETITION_ID));
+        assertEquals(Optional.of(false), competitionVoteRouter.votesCountedPerEntry(LEGACY_COMPETITION_ID));
+    }
+
+    @Test
+    void votesCountedPerEntry_WillBeUnknown_WhenCompetitionNotSeen() {
+        assertEquals(Optional.empty(), competitionVoteRouter.votesCountedPerEntry(randomUUID()));
+    }
+
+    @Test
+    void votesCountedPerEntry_WillBeUnknown_WhenCompetitionEnded() {
+        competitionVoteRouter.on(new CompetitionEndedEvent(PER_ENTRY_COMPETITION_ID));
+
+        assertEquals(Optional.empty(), competitionVoteRouter.votesCountedPerEntry(PER_ENTRY_COMPETITION_ID));
+        assertEquals(Optional.of(false), competitionVoteRouter.votesCountedPerEntry(LEGACY_COMPETITION_ID));
+    }
+
+    @Test
+    void prepareForReplay_WillForgetAllCompetitions() {
+        competitionVoteRouter.prepareForReplay();
+
+        assertEquals(Optional.empty(), competitionVoteRouter.votesCountedPerEntry(PER_ENTRY_COMPETITION_ID));
+        assertEquals(Optional.empty(), competitionVoteRouter.votesCountedPerEntry(LEGACY_COMPETITION_ID));
+    }
+
+    private static CompetitionCreatedEvent competitionCreatedEvent(UUID competitionId, boolean votesCountedPerEntry) {
+        return new CompetitionCreatedEvent(randomUUID(), competitionId, "description", SUBMISSIONS_CLOSE_TIMESTAMP.minusSeconds(60),
+            SUBMISSIONS_CLOSE_TIMESTAMP, SUBMISSIONS_CLOSE_TIMESTAMP.plusSeconds(3600), 1, votesCountedPerEntry);
+    }
+}
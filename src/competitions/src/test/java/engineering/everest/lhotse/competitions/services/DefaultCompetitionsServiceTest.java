@@ -3,10 +3,14 @@ package engineering.everest.lhotse.competitions.services;
 import engineering.everest.lhotse.common.RandomFieldsGenerator;
 import engineering.everest.lhotse.competitions.domain.commands.CreateCompetitionCommand;
 import engineering.everest.lhotse.competitions.domain.commands.EnterPhotoInCompetitionCommand;
+import engineering.everest.lhotse.competitions.domain.commands.VoteForCompetitionEntryCommand;
 import engineering.everest.lhotse.competitions.domain.commands.VoteForPhotoCommand;
 import engineering.everest.lhotse.photos.Photo;
+import engineering.everest.lhotse.i18n.exceptions.TranslatableIllegalStateException;
 import engineering.everest.lhotse.photos.services.PhotosReadService;
+import org.axonframework.commandhandling.CommandExecutionException;
 import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +18,22 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+import static engineering.everest.lhotse.competitions.domain.CompetitionEntryVotesAggregate.entryVotesIdFor;
 import static java.util.UUID.randomUUID;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,39 +54,178 @@ class DefaultCompetitionsServiceTest {
     private RandomFieldsGenerator randomFieldsGenerator;
     @Mock
     private PhotosReadService photosReadService;
+    @Mock
+    private CompetitionVoteBatcher competitionVoteBatcher;
+    @Mock
+    private CompetitionVoteAdmissionFilter competitionVoteAdmissionFilter;
+    @Mock
+    private CompetitionVoteRouter competitionVoteRouter;
+    @Mock
+    private EventStore eventStore;
 
     @BeforeEach
     void setUp() {
-        defaultCompetitionsService = new DefaultCompetitionsService(commandGateway, randomFieldsGenerator, photosReadService);
+        defaultCompetitionsService =
+            new DefaultCompetitionsService(commandGateway, randomFieldsGenerator, photosReadService, competitionVoteBatcher,
+                Optional.of(competitionVoteAdmissionFilter), Optional.of(competitionVoteRouter), eventStore, false, false);
+    }
+
+    @Test
+    void createCompetitionAsync_WillRequestVotesCountedPerEntry_WhenVoteShardingEnabled() {
+        defaultCompetitionsService =
+            new DefaultCompetitionsService(commandGateway, randomFieldsGenerator, photosReadService, competitionVoteBatcher,
+                Optional.of(competitionVoteAdmissionFilter), Optional.of(competitionVoteRouter), eventStore, false, true);
+        when(randomFieldsGenerator.genRandomUUID()).thenReturn(COMPETITION_ID);
+        when(commandGateway.send(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "description",
+            SUBMISSIONS_OPEN_TIMESTAMP, SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2, true)))
+                .thenReturn(completedFuture(null));
+
+        var result = defaultCompetitionsService.createCompetitionAsync(USER_ID, "description", SUBMISSIONS_OPEN_TIMESTAMP,
+            SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2);
+
+        assertEquals(COMPETITION_ID, result.join());
+    }
+
+    @Test
+    void voteForPhotoAsync_WillDispatchToEntryShard_WhenVoteShardingEnabled() {
+        defaultCompetitionsService =
+            new DefaultCompetitionsService(commandGateway, randomFieldsGenerator, photosReadService, competitionVoteBatcher,
+                Optional.of(competitionVoteAdmissionFilter), Optional.of(competitionVoteRouter), eventStore, false, true);
+        var pending = new CompletableFuture<Void>();
+        when(eventStore.lastSequenceNumberFor(entryVotesIdFor(COMPETITION_ID, PHOTO_ID).toString())).thenReturn(Optional.of(0L));
+        when(commandGateway.<Void>send(
+            new VoteForCompetitionEntryCommand(entryVotesIdFor(COMPETITION_ID, PHOTO_ID), COMPETITION_ID, PHOTO_ID, USER_ID)))
+                .thenReturn(pending);
+
+        assertSame(pending, defaultCompetitionsService.voteForPhotoAsync(USER_ID, COMPETITION_ID, PHOTO_ID));
     }
 
     @Test
-    void createCompetition_WillDispatch() {
+    void createCompetitionAsync_WillCompleteWithCompetitionId_WhenCommandSucceeds() {
         when(randomFieldsGenerator.genRandomUUID()).thenReturn(COMPETITION_ID);
+        when(commandGateway.send(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "description",
+            SUBMISSIONS_OPEN_TIMESTAMP, SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2, false)))
+                .thenReturn(completedFuture(null));
 
-        defaultCompetitionsService.createCompetition(USER_ID, "description", SUBMISSIONS_OPEN_TIMESTAMP,
+        var result = defaultCompetitionsService.createCompetitionAsync(USER_ID, "description", SUBMISSIONS_OPEN_TIMESTAMP,
             SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2);
 
-        verify(commandGateway).sendAndWait(new CreateCompetitionCommand(USER_ID, COMPETITION_ID, "description",
-            SUBMISSIONS_OPEN_TIMESTAMP, SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2));
+        assertEquals(COMPETITION_ID, result.join());
     }
 
     @Test
-    void submitPhoto_WillDispatch() {
+    void submitPhotoAsync_WillDispatchWithoutWaiting() {
         var ownerUserId = randomUUID();
+        var command = new EnterPhotoInCompetitionCommand(COMPETITION_ID, PHOTO_ID, USER_ID, ownerUserId, "submission notes");
+        var pending = new CompletableFuture<Void>();
         when(photosReadService.getPhoto(PHOTO_ID))
             .thenReturn(new Photo(PHOTO_ID, ownerUserId, randomUUID(), "file name", Instant.ofEpochMilli(10)));
+        when(commandGateway.<Void>send(command)).thenReturn(pending);
+
+        assertSame(pending, defaultCompetitionsService.submitPhotoAsync(USER_ID, COMPETITION_ID, PHOTO_ID, "submission notes"));
+    }
+
+    @Test
+    void voteForPhotoAsync_WillDispatchWithoutWaiting() {
+        var pending = new CompletableFuture<Void>();
+        when(commandGateway.<Void>send(new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, USER_ID))).thenReturn(pending);
 
-        defaultCompetitionsService.submitPhoto(USER_ID, COMPETITION_ID, PHOTO_ID, "submission notes");
+        assertSame(pending, defaultCompetitionsService.voteForPhotoAsync(USER_ID, COMPETITION_ID, PHOTO_ID));
+        verify(commandGateway, never()).sendAndWait(any());
+    }
+
+    @Test
+    void voteForPhotoAsync_WillDispatch_WhenVoteAdmissionDisabled() {
+        defaultCompetitionsService =
+            new DefaultCompetitionsService(commandGateway, randomFieldsGenerator, photosReadService, competitionVoteBatcher,
+                Optional.empty(), Optional.empty(), eventStore, false, false);
+        var pending = new CompletableFuture<Void>();
+        when(commandGateway.<Void>send(new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, USER_ID))).thenReturn(pending);
+
+        assertSame(pending, defaultCompetitionsService.voteForPhotoAsync(USER_ID, COMPETITION_ID, PHOTO_ID));
+    }
+
+    @Test
+    void voteForPhotoAsync_WillReturnBatcherResult_WhenVoteBatchingEnabled() {
+        defaultCompetitionsService =
+            new DefaultCompetitionsService(commandGateway, randomFieldsGenerator, photosReadService, competitionVoteBatcher,
+                Optional.of(competitionVoteAdmissionFilter), Optional.of(competitionVoteRouter), eventStore, true, false);
+        var pending = new CompletableFuture<Void>();
+        when(competitionVoteBatcher.submit(new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, USER_ID))).thenReturn(pending);
+
+        assertSame(pending, defaultCompetitionsService.voteForPhotoAsync(USER_ID, COMPETITION_ID, PHOTO_ID));
+        verifyNoInteractions(commandGateway);
+    }
+
+    @Test
+    void voteForPhotoAsync_WillDispatchToEntryShardWithoutEventStoreLookup_WhenCompetitionKnownToCountVotesPerEntry() {
+        defaultCompetitionsService =
+            new DefaultCompetitionsService(commandGateway, randomFieldsGenerator, photosReadService, competitionVoteBatcher,
+                Optional.of(competitionVoteAdmissionFilter), Optional.of(competitionVoteRouter), eventStore, true, true);
+        var pending = new CompletableFuture<Void>();
+        when(competitionVoteRouter.votesCountedPerEntry(COMPETITION_ID)).thenReturn(Optional.of(true));
+        when(commandGateway.<Void>send(
+            new VoteForCompetitionEntryCommand(entryVotesIdFor(COMPETITION_ID, PHOTO_ID), COMPETITION_ID, PHOTO_ID, USER_ID)))
+                .thenReturn(pending);
+
+        assertSame(pending, defaultCompetitionsService.voteForPhotoAsync(USER_ID, COMPETITION_ID, PHOTO_ID));
+        verifyNoInteractions(eventStore, competitionVoteBatcher);
+    }
 
-        verify(commandGateway).sendAndWait(new EnterPhotoInCompetitionCommand(COMPETITION_ID, PHOTO_ID, USER_ID,
-            ownerUserId, "submission notes"));
+    @Test
+    void voteForPhotoAsync_WillReturnBatcherResult_WhenVoteShardingEnabledButCompetitionCountsVotesItself() {
+        defaultCompetitionsService =
+            new DefaultCompetitionsService(commandGateway, randomFieldsGenerator, photosReadService, competitionVoteBatcher,
+                Optional.of(competitionVoteAdmissionFilter), Optional.of(competitionVoteRouter), eventStore, true, true);
+        var pending = new CompletableFuture<Void>();
+        when(competitionVoteRouter.votesCountedPerEntry(COMPETITION_ID)).thenReturn(Optional.of(false));
+        when(competitionVoteBatcher.submit(new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, USER_ID))).thenReturn(pending);
+
+        assertSame(pending, defaultCompetitionsService.voteForPhotoAsync(USER_ID, COMPETITION_ID, PHOTO_ID));
+        verifyNoInteractions(eventStore, commandGateway);
     }
 
     @Test
-    void voteForPhoto_WillDispatch() {
-        defaultCompetitionsService.voteForPhoto(USER_ID, COMPETITION_ID, PHOTO_ID);
+    void voteForPhotoAsync_WillFallBackToCompetition_WhenNoEntryShardExists() {
+        defaultCompetitionsService =
+            new DefaultCompetitionsService(commandGateway, randomFieldsGenerator, photosReadService, competitionVoteBatcher,
+                Optional.of(competitionVoteAdmissionFilter), Optional.of(competitionVoteRouter), eventStore, false, true);
+        when(eventStore.lastSequenceNumberFor(entryVotesIdFor(COMPETITION_ID, PHOTO_ID).toString())).thenReturn(Optional.empty());
+        when(commandGateway.send(new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, USER_ID))).thenReturn(completedFuture(null));
+
+        defaultCompetitionsService.voteForPhotoAsync(USER_ID, COMPETITION_ID, PHOTO_ID).join();
+
+        verify(commandGateway, never()).send(any(VoteForCompetitionEntryCommand.class));
+    }
 
-        verify(commandGateway).sendAndWait(new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, USER_ID));
+    @Test
+    void voteForPhotoAsync_WillCompleteWithRejection_WhenEntryShardRejectsVote() {
+        defaultCompetitionsService =
+            new DefaultCompetitionsService(commandGateway, randomFieldsGenerator, photosReadService, competitionVoteBatcher,
+                Optional.of(competitionVoteAdmissionFilter), Optional.of(competitionVoteRouter), eventStore, false, true);
+        var rejection = new CommandExecutionException("ALREADY_VOTED_FOR_THIS_ENTRY", null,
+            new TranslatableIllegalStateException("ALREADY_VOTED_FOR_THIS_ENTRY"));
+        when(eventStore.lastSequenceNumberFor(entryVotesIdFor(COMPETITION_ID, PHOTO_ID).toString())).thenReturn(Optional.of(2L));
+        when(commandGateway.send(any(VoteForCompetitionEntryCommand.class))).thenReturn(failedFuture(rejection));
+
+        var thrown = assertThrows(CompletionException.class,
+            () -> defaultCompetitionsService.voteForPhotoAsync(USER_ID, COMPETITION_ID, PHOTO_ID).join());
+        assertSame(rejection, thrown.getCause());
+        verify(commandGateway, never()).send(any(VoteForPhotoCommand.class));
+    }
+
+    @Test
+    void voteForPhotoAsync_WillRejectWithoutDispatching_WhenAdmissionFilterRejectsVote() {
+        defaultCompetitionsService = new DefaultCompetitionsService(commandGateway, randomFieldsGenerator, photosReadService,
+            competitionVoteBatcher, Optional.of(competitionVoteAdmissionFilter), Optional.of(competitionVoteRouter), eventStore, true,
+            false);
+        var rejection = new TranslatableIllegalStateException("VOTING_ENDED");
+        when(competitionVoteAdmissionFilter.rejectionFor(new VoteForPhotoCommand(COMPETITION_ID, PHOTO_ID, USER_ID)))
+            .thenReturn(Optional.of(rejection));
+
+        var thrown = assertThrows(CompletionException.class,
+            () -> defaultCompetitionsService.voteForPhotoAsync(USER_ID, COMPETITION_ID, PHOTO_ID).join());
+        assertSame(rejection, ((CommandExecutionException) thrown.getCause()).getDetails().orElseThrow());
+        verifyNoInteractions(commandGateway, competitionVoteBatcher);
     }
 }
@@ -0,0 +1,98 @@
+package engineering.everest.lhotse.competitions.services;
+
+import engineering.everest.lhotse.competitions.domain.Competition;
+import engineering.everest.lhotse.competitions.domain.CompetitionEntry;
+import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionCreatedEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedAndWinnersDeclaredEvent;
+import engineering.everest.lhotse.competitions.domain.events.CompetitionEndedWithNoEntriesSubmittedEvent;
+import engineering.everest.lhotse.competitions.domain.events.PhotoEnteredInCompetitionEvent;
+import engineering.everest.lhotse.competitions.domain.events.PhotoEntryReceivedVoteEvent;
+import engineering.everest.lhotse.competitions.domain.events.WinnerAndSubmittedPhotoPair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryCompetitionsProjectionTest {
+
+    private static final UUID USER_ID = randomUUID();
+    private static final UUID PHOTO_ID = randomUUID();
+    private static final UUID COMPETITION_ID = randomUUID();
+    private static final Instant SUBMISSIONS_OPEN_TIMESTAMP = Instant.ofEpochMilli(123);
+    private static final Instant SUBMISSIONS_CLOSE_TIMESTAMP = Instant.ofEpochMilli(456);
+    private static final Instant VOTING_ENDS_TIMESTAMP = Instant.ofEpochMilli(789);
+    private static final Instant ENTRY_TIMESTAMP = Instant.ofEpochMilli(1234);
+    private static final Competition COMPETITION = new Competition(COMPETITION_ID, "description", SUBMISSIONS_OPEN_TIMESTAMP,
+        SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2);
+
+    private InMemoryCompetitionsProjection inMemoryCompetitionsProjection;
+
+    @BeforeEach
+    void setUp() {
+        inMemoryCompetitionsProjection = new InMemoryCompetitionsProjection(1);
+    }
+
+    @Test
+    void getCompetitionWithEntries_WillReflectEntriesVotesAndWinners() {
+        createCompetition(COMPETITION_ID);
+        inMemoryCompetitionsProjection.on(
+            new PhotoEnteredInCompetitionEvent(COMPETITION_ID, PHOTO_ID, USER_ID, USER_ID, "notes"), ENTRY_TIMESTAMP);
+        inMemoryCompetitionsProjection.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, randomUUID()));
+        inMemoryCompetitionsProjection.on(new PhotoEntryReceivedVoteEvent(COMPETITION_ID, PHOTO_ID, randomUUID()));
+        inMemoryCompetitionsProjection.on(
+            new CompetitionEndedAndWinnersDeclaredEvent(COMPETITION_ID, List.of(new WinnerAndSubmittedPhotoPair(USER_ID, PHOTO_ID)), 2));
+
+        var expected = new CompetitionWithEntries(COMPETITION,
+            List.of(new CompetitionEntry(COMPETITION_ID, PHOTO_ID, USER_ID, ENTRY_TIMESTAMP, 2, true)));
+        assertEquals(Optional.of(expected), inMemoryCompetitionsProjection.getCompetitionWithEntries(COMPETITION_ID));
+    }
+
+    @Test
+    void getCompetitionWithEntries_WillReturnCopies() {
+        createCompetition(COMPETITION_ID);
+        inMemoryCompetitionsProjection.on(
+            new PhotoEnteredInCompetitionEvent(COMPETITION_ID, PHOTO_ID, USER_ID, USER_ID, "notes"), ENTRY_TIMESTAMP);
+
+        inMemoryCompetitionsProjection.getCompetitionWithEntries(COMPETITION_ID).orElseThrow().getEntries().get(0)
+            .setNumVotesReceived(99);
+
+        assertEquals(0, inMemoryCompetitionsProjection.getCompetitionWithEntries(COMPETITION_ID).orElseThrow()
+            .getEntries().get(0).getNumVotesReceived());
+    }
+
+    @Test
+    void getCompetitionWithEntries_WillBeEmpty_WhenEndedCompetitionEvicted() {
+        var otherCompetitionId = randomUUID();
+        createCompetition(COMPETITION_ID);
+        createCompetition(otherCompetitionId);
+
+        inMemoryCompetitionsProjection.on(new CompetitionEndedWithNoEntriesSubmittedEvent(COMPETITION_ID));
+        assertTrue(inMemoryCompetitionsProjection.getCompetitionWithEntries(COMPETITION_ID).isPresent());
+        inMemoryCompetitionsProjection.on(new CompetitionEndedWithNoEntriesSubmittedEvent(otherCompetitionId));
+
+        assertTrue(inMemoryCompetitionsProjection.getCompetitionWithEntries(COMPETITION_ID).isEmpty());
+        assertTrue(inMemoryCompetitionsProjection.getCompetitionWithEntries(otherCompetitionId).isPresent());
+    }
+
+    @Test
+    void prepareForReplay_WillClearProjection() {
+        createCompetition(COMPETITION_ID);
+
+        inMemoryCompetitionsProjection.prepareForReplay();
+
+        assertTrue(inMemoryCompetitionsProjection.getCompetitionWithEntries(COMPETITION_ID).isEmpty());
+    }
+
+    private void createCompetition(UUID competitionId) {
+        inMemoryCompetitionsProjection.on(new CompetitionCreatedEvent(USER_ID, competitionId, "description",
+            SUBMISSIONS_OPEN_TIMESTAMP, SUBMISSIONS_CLOSE_TIMESTAMP, VOTING_ENDS_TIMESTAMP, 2, false));
+    }
+}
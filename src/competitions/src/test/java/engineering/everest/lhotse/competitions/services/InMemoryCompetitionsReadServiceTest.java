@@ -0,0 +1,85 @@
+package engineering.everest.lhotse.competitions.services;
+
+import engineering.everest.lhotse.competitions.domain.CompetitionWithEntries;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.spring.config.SpringAxonConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static engineering.everest.lhotse.competitions.services.InMemoryCompetitionsProjection.PROCESSING_GROUP;
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Answers.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryCompetitionsReadServiceTest {
+
+    private static final UUID COMPETITION_ID = randomUUID();
+
+    private InMemoryCompetitionsReadService inMemoryCompetitionsReadService;
+
+    @Mock
+    private DefaultCompetitionsReadService defaultCompetitionsReadService;
+    @Mock
+    private InMemoryCompetitionsProjection inMemoryCompetitionsProjection;
+    @Mock(answer = RETURNS_DEEP_STUBS)
+    private SpringAxonConfiguration axonConfiguration;
+    @Mock
+    private StreamingEventProcessor streamingEventProcessor;
+    @Mock
+    private EventTrackerStatus eventTrackerStatus;
+
+    @BeforeEach
+    void setUp() {
+        inMemoryCompetitionsReadService = new InMemoryCompetitionsReadService(defaultCompetitionsReadService,
+            inMemoryCompetitionsProjection, axonConfiguration);
+    }
+
+    @Test
+    void getCompetitionWithEntries_WillUseProjection_WhenCaughtUp() {
+        var expected = mock(CompetitionWithEntries.class);
+        givenProjectionCaughtUp(true);
+        when(inMemoryCompetitionsProjection.getCompetitionWithEntries(COMPETITION_ID)).thenReturn(Optional.of(expected));
+
+        assertEquals(expected, inMemoryCompetitionsReadService.getCompetitionWithEntries(COMPETITION_ID));
+        verifyNoInteractions(defaultCompetitionsReadService);
+    }
+
+    @Test
+    void getCompetitionWithEntries_WillFallBackToJpaProjection_WhenNotHeldInMemory() {
+        var expected = mock(CompetitionWithEntries.class);
+        givenProjectionCaughtUp(true);
+        when(inMemoryCompetitionsProjection.getCompetitionWithEntries(COMPETITION_ID)).thenReturn(Optional.empty());
+        when(defaultCompetitionsReadService.getCompetitionWithEntries(COMPETITION_ID)).thenReturn(expected);
+
+        assertEquals(expected, inMemoryCompetitionsReadService.getCompetitionWithEntries(COMPETITION_ID));
+    }
+
+    @Test
+    void getCompetitionWithEntries_WillFallBackToJpaProjection_WhenProjectionNotCaughtUp() {
+        var expected = mock(CompetitionWithEntries.class);
+        givenProjectionCaughtUp(false);
+        when(defaultCompetitionsReadService.getCompetitionWithEntries(COMPETITION_ID)).thenReturn(expected);
+
+        assertEquals(expected, inMemoryCompetitionsReadService.getCompetitionWithEntries(COMPETITION_ID));
+    }
+
+    private void givenProjectionCaughtUp(boolean caughtUp) {
+        when(axonConfiguration.getObject().eventProcessingConfiguration()
+            .eventProcessorByProcessingGroup(PROCESSING_GROUP, StreamingEventProcessor.class))
+            .thenReturn(Optional.of(streamingEventProcessor));
+        when(streamingEventProcessor.processingStatus()).thenReturn(Map.of(0, eventTrackerStatus));
+        when(eventTrackerStatus.isCaughtUp()).thenReturn(caughtUp);
+    }
+}
@@ -1,8 +1,9 @@
 package engineering.everest.lhotse.users.services;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface UsersService {
 
-    void deleteAndForgetUser(UUID requestingUserId, UUID userIdToDelete, String requestReason);
+    CompletableFuture<Void> deleteAndForgetUserAsync(UUID requestingUserId, UUID userIdToDelete, String requestReason);
 }
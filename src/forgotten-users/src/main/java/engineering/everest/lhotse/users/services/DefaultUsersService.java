@@ -6,6 +6,7 @@ import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Slf4j
@@ -18,7 +19,7 @@ public class DefaultUsersService implements UsersService {
     }
 
     @Override
-    public void deleteAndForgetUser(UUID requestingUserId, UUID userIdToDelete, String requestReason) {
-        commandGateway.sendAndWait(new DeleteAndForgetUserCommand(userIdToDelete, requestingUserId, requestReason));
+    public CompletableFuture<Void> deleteAndForgetUserAsync(UUID requestingUserId, UUID userIdToDelete, String requestReason) {
+        return commandGateway.send(new DeleteAndForgetUserCommand(userIdToDelete, requestingUserId, requestReason));
     }
 }
@@ -9,9 +9,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class DefaultUsersServiceTest {
@@ -30,8 +35,12 @@ class DefaultUsersServiceTest {
     }
 
     @Test
-    void deleteAndForget_WillSendCommand() {
-        defaultUsersService.deleteAndForgetUser(ADMIN_ID, USER_ID, "User requested and we do the right thing");
-        verify(commandGateway).sendAndWait(new DeleteAndForgetUserCommand(USER_ID, ADMIN_ID, "User requested and we do the right thing"));
+    void deleteAndForgetAsync_WillSendCommandWithoutWaiting() {
+        var command = new DeleteAndForgetUserCommand(USER_ID, ADMIN_ID, "User requested and we do the right thing");
+        var result = new CompletableFuture<Void>();
+        when(commandGateway.<Void>send(command)).thenReturn(result);
+
+        assertSame(result, defaultUsersService.deleteAndForgetUserAsync(ADMIN_ID, USER_ID, "User requested and we do the right thing"));
+        verify(commandGateway, never()).sendAndWait(any());
     }
 }
@@ -11,6 +11,7 @@ public class MessageKeys {
     public static final String COMPETITION_MIN_1_VOTE_PER_USER = "COMPETITION_MIN_1_VOTE_PER_USER";
     public static final String COMPETITION_SUBMISSIONS_CLOSED = "COMPETITION_SUBMISSIONS_CLOSED";
     public static final String COMPETITION_SUBMISSIONS_NOT_OPEN = "COMPETITION_SUBMISSIONS_NOT_OPEN";
+    public static final String COMPETITION_VOTES_COUNTED_PER_ENTRY = "COMPETITION_VOTES_COUNTED_PER_ENTRY";
     public static final String DELETED_PHOTO_OWNER_MISMATCH = "DELETED_PHOTO_OWNER_MISMATCH";
     public static final String EMAIL_ADDRESS_MALFORMED = "EMAIL_ADDRESS_MALFORMED";
     public static final String FILE_DOES_NOT_EXIST = "FILE_DOES_NOT_EXIST";
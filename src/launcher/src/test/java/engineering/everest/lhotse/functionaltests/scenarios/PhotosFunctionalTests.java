@@ -18,7 +18,6 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
-import static org.springframework.data.domain.Pageable.unpaged;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.OK;
 
@@ -76,7 +75,7 @@ public class PhotosFunctionalTests {
         apiRestTestClient.deleteAndForgetUser(craigUserId, "GDPR request", OK);
 
         RetryWithExponentialBackoff.withMaxDuration(ofSeconds(20)).waitOrThrow(
-            () -> photosReadService.getAllPhotos(craigUserId, unpaged()).isEmpty(), "photo deletion projection");
+            () -> photosReadService.getPhotosPage(craigUserId, null, 1).getPhotos().isEmpty(), "photo deletion projection");
 
         // User not automatically deleted in Keycloak so we can still authenticate (as of now). This test requires an admin API for
         // retrieving photos for specific user. TODO.
@@ -0,0 +1,15 @@
+package engineering.everest.lhotse.photos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotosPage {
+    private List<Photo> photos;
+    private String continuationToken;
+}
@@ -1,15 +1,18 @@
 package engineering.everest.lhotse.photos.services;
 
 import engineering.everest.lhotse.photos.Photo;
-import org.springframework.data.domain.Pageable;
+import engineering.everest.lhotse.photos.PhotosPage;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.List;
 import java.util.UUID;
 
 public interface PhotosReadService {
-    List<Photo> getAllPhotos(UUID requestingUserId, Pageable pageable);
+    /**
+     * Photos are ordered by descending upload timestamp. A null continuation token starts from the first page and the
+     * returned continuation token is null on the last page.
+     */
+    PhotosPage getPhotosPage(UUID requestingUserId, String continuationToken, int pageSize);
 
     Photo getPhoto(UUID photoId);
 
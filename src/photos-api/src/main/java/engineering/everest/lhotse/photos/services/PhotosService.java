@@ -1,8 +1,9 @@
 package engineering.everest.lhotse.photos.services;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface PhotosService {
 
-    UUID registerUploadedPhoto(UUID requestingUserId, UUID backingFileId, String filename);
+    CompletableFuture<UUID> registerUploadedPhotoAsync(UUID requestingUserId, UUID backingFileId, String filename);
 }
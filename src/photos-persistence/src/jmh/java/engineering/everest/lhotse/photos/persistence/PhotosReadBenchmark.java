@@ -0,0 +1,116 @@
+package engineering.everest.lhotse.photos.persistence;
+
+import engineering.everest.lhotse.photos.PhotosPage;
+import engineering.everest.lhotse.photos.services.DefaultPhotosReadService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.boot.WebApplicationType.NONE;
+
+/**
+ * Keyset paging through a user's photos against an embedded Postgres. The jmh task runs with the GC profiler, whose
+ * {@code gc.alloc.rate.norm} is the number of bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhotosReadBenchmark {
+
+    private static final int NUM_PHOTOS_PER_USER = 1000;
+    private static final int NUM_USERS = 10;
+
+    @Param({ "20", "100" })
+    private int pageSize;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext applicationContext;
+    private DefaultPhotosReadService photosReadService;
+    private UUID ownerUserId;
+    private String secondPageContinuationToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        applicationContext = new SpringApplicationBuilder(BenchmarkConfig.class)
+            .web(NONE)
+            .properties(
+                "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username=postgres",
+                "spring.jpa.generate-ddl=true",
+                "spring.liquibase.enabled=false")
+            .run();
+        photosReadService = applicationContext.getBean(DefaultPhotosReadService.class);
+        ownerUserId = UUID.randomUUID();
+        applicationContext.getBean(TransactionTemplate.class).executeWithoutResult(transactionStatus -> createPhotos());
+        secondPageContinuationToken = photosReadService.getPhotosPage(ownerUserId, null, pageSize).getContinuationToken();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        applicationContext.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public PhotosPage firstPageOfPhotos() {
+        return photosReadService.getPhotosPage(ownerUserId, null, pageSize);
+    }
+
+    @Benchmark
+    public PhotosPage secondPageOfPhotos() {
+        return photosReadService.getPhotosPage(ownerUserId, secondPageContinuationToken, pageSize);
+    }
+
+    private void createPhotos() {
+        var now = Instant.now();
+        var photos = new ArrayList<PersistablePhoto>(NUM_PHOTOS_PER_USER * NUM_USERS);
+        for (int user = 0; user < NUM_USERS; user++) {
+            var userId = user == 0 ? ownerUserId : UUID.randomUUID();
+            for (int i = 0; i < NUM_PHOTOS_PER_USER; i++) {
+                photos.add(new PersistablePhoto(UUID.randomUUID(), userId, UUID.randomUUID(), "photo" + i + ".png",
+                    now.minusSeconds(i)));
+            }
+        }
+        applicationContext.getBean(PhotosRepository.class).bulkInsert(photos);
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    static class BenchmarkConfig {
+
+        /**
+         * Paging reads the projection only, so neither the file service nor the thumbnail service is needed.
+         */
+        @Bean
+        public DefaultPhotosReadService photosReadService(PhotosRepository photosRepository) {
+            return new DefaultPhotosReadService(photosRepository, null, null, 100);
+        }
+    }
+}
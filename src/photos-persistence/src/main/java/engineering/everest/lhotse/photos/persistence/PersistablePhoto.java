@@ -1,7 +1,6 @@
 package engineering.everest.lhotse.photos.persistence;
 
-import engineering.everest.lhotse.photos.Photo;
-import lombok.AllArgsConstructor;
+import engineering.everest.lhotse.common.persistence.AssignedIdPersistable;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -12,9 +11,8 @@ import java.util.UUID;
 
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Entity(name = "photos")
-public class PersistablePhoto {
+public class PersistablePhoto extends AssignedIdPersistable<UUID> {
     @Id
     private UUID id;
     private UUID ownerUserId;
@@ -22,7 +20,11 @@ public class PersistablePhoto {
     private String filename;
     private Instant uploadTimestamp;
 
-    public Photo toDomain() {
-        return new Photo(id, ownerUserId, backingFileId, filename, uploadTimestamp);
+    public PersistablePhoto(UUID id, UUID ownerUserId, UUID backingFileId, String filename, Instant uploadTimestamp) {
+        this.id = id;
+        this.ownerUserId = ownerUserId;
+        this.backingFileId = backingFileId;
+        this.filename = filename;
+        this.uploadTimestamp = uploadTimestamp;
     }
 }
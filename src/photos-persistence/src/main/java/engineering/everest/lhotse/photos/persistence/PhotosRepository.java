@@ -1,22 +1,26 @@
 package engineering.everest.lhotse.photos.persistence;
 
-import org.springframework.data.domain.Pageable;
+import engineering.everest.lhotse.photos.Photo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PhotosRepository extends JpaRepository<PersistablePhoto, UUID> {
+public interface PhotosRepository extends JpaRepository<PersistablePhoto, UUID>, PhotosRepositoryCustom {
 
     default void createPhoto(UUID id, UUID ownerUserId, UUID backingFileId, String filename, Instant uploadTimestamp) {
         save(new PersistablePhoto(id, ownerUserId, backingFileId, filename, uploadTimestamp));
     }
 
-    List<PersistablePhoto> findByOwnerUserId(UUID ownerId, Pageable pageable);
+    @Query("SELECT new engineering.everest.lhotse.photos.Photo(p.id, p.ownerUserId, p.backingFileId, p.filename, p.uploadTimestamp) "
+        + "FROM photos p WHERE p.id = :photoId")
+    Optional<Photo> findPhotoById(@Param("photoId") UUID photoId);
 
-    Optional<PersistablePhoto> findByIdAndOwnerUserId(UUID photoId, UUID ownerUserId);
+    @Query("SELECT p.backingFileId FROM photos p WHERE p.id = :photoId AND p.ownerUserId = :ownerUserId")
+    Optional<UUID> findBackingFileIdByIdAndOwnerUserId(@Param("photoId") UUID photoId, @Param("ownerUserId") UUID ownerUserId);
 }
@@ -0,0 +1,19 @@
+package engineering.everest.lhotse.photos.persistence;
+
+import engineering.everest.lhotse.common.pagination.KeysetCursor;
+import engineering.everest.lhotse.photos.Photo;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface PhotosRepositoryCustom {
+
+    List<Photo> findPageByOwnerUserIdOrderedByDescUploadTimestamp(UUID ownerUserId, KeysetCursor after, int pageSize);
+
+    /**
+     * Inserts photos in multi-row JDBC batches without passing them through the persistence context. Used to rebuild the
+     * projection during a replay.
+     */
+    void bulkInsert(Collection<PersistablePhoto> photos);
+}
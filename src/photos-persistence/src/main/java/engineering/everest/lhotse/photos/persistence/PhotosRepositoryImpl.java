@@ -0,0 +1,75 @@
+package engineering.everest.lhotse.photos.persistence;
+
+import engineering.everest.lhotse.common.pagination.KeysetCursor;
+import engineering.everest.lhotse.photos.Photo;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public class PhotosRepositoryImpl implements PhotosRepositoryCustom {
+
+    private static final String INSERT_PHOTO_SQL =
+        "INSERT INTO photos (id, owneruserid, backingfileid, filename, uploadtimestamp) VALUES (?, ?, ?, ?, ?)";
+    private static final int BULK_INSERT_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PhotosRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Photo> findPageByOwnerUserIdOrderedByDescUploadTimestamp(UUID ownerUserId, KeysetCursor after, int pageSize) {
+        var criteriaBuilder = entityManager.getCriteriaBuilder();
+        var query = criteriaBuilder.createQuery(Photo.class);
+        var photo = query.from(PersistablePhoto.class);
+        Path<UUID> owner = photo.get("ownerUserId");
+        Path<Instant> uploadTimestamp = photo.get("uploadTimestamp");
+        Path<UUID> id = photo.get("id");
+
+        var predicates = new ArrayList<Predicate>();
+        predicates.add(criteriaBuilder.equal(owner, ownerUserId));
+        if (after != null) {
+            // The redundant upper bound lets Postgres seek the (owneruserid, uploadtimestamp, id) index rather than filter
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(uploadTimestamp, after.getTimestamp()));
+            predicates.add(criteriaBuilder.or(
+                criteriaBuilder.lessThan(uploadTimestamp, after.getTimestamp()),
+                criteriaBuilder.lessThan(id, after.getId())));
+        }
+
+        query.select(criteriaBuilder.construct(Photo.class, id, owner, photo.get("backingFileId"), photo.get("filename"),
+            uploadTimestamp))
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(criteriaBuilder.desc(uploadTimestamp), criteriaBuilder.desc(id));
+        return entityManager.createQuery(query)
+            .setMaxResults(pageSize)
+            .getResultList();
+    }
+
+    @Override
+    public void bulkInsert(Collection<PersistablePhoto> photos) {
+        if (photos.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        jdbcTemplate.batchUpdate(INSERT_PHOTO_SQL, photos, BULK_INSERT_BATCH_SIZE, (statement, photo) -> {
+            statement.setObject(1, photo.getId());
+            statement.setObject(2, photo.getOwnerUserId());
+            statement.setObject(3, photo.getBackingFileId());
+            statement.setString(4, photo.getFilename());
+            statement.setTimestamp(5, Timestamp.from(photo.getUploadTimestamp()));
+        });
+    }
+}
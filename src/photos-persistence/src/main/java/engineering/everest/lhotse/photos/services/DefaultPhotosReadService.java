@@ -1,54 +1,70 @@
 package engineering.everest.lhotse.photos.services;
 
+import engineering.everest.lhotse.common.pagination.KeysetCursor;
 import engineering.everest.lhotse.photos.Photo;
-import engineering.everest.lhotse.photos.persistence.PersistablePhoto;
+import engineering.everest.lhotse.photos.PhotosPage;
 import engineering.everest.lhotse.photos.persistence.PhotosRepository;
 import engineering.everest.starterkit.filestorage.FileService;
 import engineering.everest.starterkit.media.thumbnails.ThumbnailService;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
-import static java.util.stream.Collectors.toList;
-
 @Service
 public class DefaultPhotosReadService implements PhotosReadService {
 
     private final PhotosRepository photosRepository;
     private final FileService fileService;
     private final ThumbnailService thumbnailService;
+    private final int maxPageSize;
 
-    public DefaultPhotosReadService(PhotosRepository photosRepository, FileService fileService, ThumbnailService thumbnailService) {
+    public DefaultPhotosReadService(PhotosRepository photosRepository,
+                                    FileService fileService,
+                                    ThumbnailService thumbnailService,
+                                    @Value("${application.pagination.max-page-size:100}") int maxPageSize) {
         this.photosRepository = photosRepository;
         this.fileService = fileService;
         this.thumbnailService = thumbnailService;
+        this.maxPageSize = maxPageSize;
     }
 
     @Override
-    public List<Photo> getAllPhotos(UUID requestingUserId, Pageable pageable) {
-        return photosRepository.findByOwnerUserId(requestingUserId, pageable).stream()
-            .map(PersistablePhoto::toDomain)
-            .collect(toList());
+    @Transactional(readOnly = true)
+    public PhotosPage getPhotosPage(UUID requestingUserId, String continuationToken, int pageSize) {
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException(String.format("Page size must be between 1 and %d", maxPageSize));
+        }
+        var after = continuationToken == null ? null : KeysetCursor.fromContinuationToken(continuationToken);
+        var photos = photosRepository.findPageByOwnerUserIdOrderedByDescUploadTimestamp(requestingUserId, after, pageSize + 1);
+        if (photos.size() <= pageSize) {
+            return new PhotosPage(photos, null);
+        }
+
+        var page = List.copyOf(photos.subList(0, pageSize));
+        var last = page.get(pageSize - 1);
+        return new PhotosPage(page, new KeysetCursor(last.getUploadTimestamp(), last.getId()).toContinuationToken());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Photo getPhoto(UUID photoId) {
-        return photosRepository.findById(photoId).orElseThrow().toDomain();
+        return photosRepository.findPhotoById(photoId).orElseThrow();
     }
 
     @Override
     public InputStream streamPhoto(UUID requestingUserId, UUID photoId) throws IOException {
-        var persistablePhoto = photosRepository.findByIdAndOwnerUserId(photoId, requestingUserId).orElseThrow();
-        return fileService.stream(persistablePhoto.getBackingFileId()).getInputStream();
+        var backingFileId = photosRepository.findBackingFileIdByIdAndOwnerUserId(photoId, requestingUserId).orElseThrow();
+        return fileService.stream(backingFileId).getInputStream();
     }
 
     @Override
     public InputStream streamPhotoThumbnail(UUID requestingUserId, UUID photoId, int width, int height) throws IOException {
-        var persistablePhoto = photosRepository.findByIdAndOwnerUserId(photoId, requestingUserId).orElseThrow();
-        return thumbnailService.streamThumbnailForOriginalFile(persistablePhoto.getBackingFileId(), width, height);
+        var backingFileId = photosRepository.findBackingFileIdByIdAndOwnerUserId(photoId, requestingUserId).orElseThrow();
+        return thumbnailService.streamThumbnailForOriginalFile(backingFileId, width, height);
     }
 }
@@ -1,6 +1,7 @@
 package engineering.everest.lhotse.photos.persistence;
 
 import engineering.everest.lhotse.photos.Photo;
+import engineering.everest.lhotse.photos.PhotosPage;
 import engineering.everest.lhotse.photos.persistence.config.TestPhotosJpaConfig;
 import engineering.everest.lhotse.photos.services.DefaultPhotosReadService;
 import engineering.everest.starterkit.filestorage.FileService;
@@ -15,8 +16,6 @@ import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ContextConfiguration;
 
 import java.io.ByteArrayInputStream;
@@ -24,15 +23,16 @@ import java.io.IOException;
 import java.time.Instant;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.UUID;
 
 import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseType.POSTGRES;
 import static io.zonky.test.db.AutoConfigureEmbeddedDatabase.RefreshMode.AFTER_EACH_TEST_METHOD;
+import static java.util.stream.Collectors.toSet;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
 import static org.mockito.Mockito.when;
-import static org.springframework.data.domain.Sort.Direction.DESC;
 
 @AutoConfigureEmbeddedDatabase(refresh = AFTER_EACH_TEST_METHOD, type = POSTGRES)
 @DataJpaTest
@@ -72,18 +72,43 @@ public class PhotosReadServiceIntegrationTest {
     }
 
     @Test
-    void getAllPhotosForUser_WillReturnPhotosOwnedByUser() {
-        var expectedPhotos = List.of(PHOTO_1, PHOTO_2);
-        assertEquals(expectedPhotos, photosReadService.getAllPhotos(USER_ID_1, Pageable.unpaged()));
+    void getPhotosPage_WillSeekThroughPhotosOwnedByUserUsingContinuationTokens() {
+        var samePhotoTimestampId = UUID.randomUUID();
+        photosRepository.createPhoto(samePhotoTimestampId, USER_ID_1, BACKING_FILE_ID_2, "photo4.png", Instant.ofEpochMilli(456));
+
+        var firstPage = photosReadService.getPhotosPage(USER_ID_1, null, 2);
+        var secondPage = photosReadService.getPhotosPage(USER_ID_1, firstPage.getContinuationToken(), 2);
+
+        assertEquals(Set.of(PHOTO_ID_2, samePhotoTimestampId), firstPage.getPhotos().stream()
+            .map(Photo::getId)
+            .collect(toSet()));
+        assertEquals(new PhotosPage(List.of(PHOTO_1), null), secondPage);
+    }
+
+    @Test
+    void getPhotosPage_WillReturnNoContinuationToken_WhenAllPhotosFitOnOnePage() {
+        assertEquals(new PhotosPage(List.of(PHOTO_2, PHOTO_1), null), photosReadService.getPhotosPage(USER_ID_1, null, 20));
+    }
+
+    @Test
+    void getPhotosPage_WillFail_WhenPageSizeIsAboveTheMaximum() {
+        assertThrows(IllegalArgumentException.class, () -> photosReadService.getPhotosPage(USER_ID_1, null, 101));
+        assertThrows(IllegalArgumentException.class, () -> photosReadService.getPhotosPage(USER_ID_1, null, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void getPhotosPage_WillFail_WhenContinuationTokenIsMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> photosReadService.getPhotosPage(USER_ID_1, "not-a-token", 20));
     }
 
     @Test
-    void getAllPhotosForUser_WillRetrievePagesWhenRequestedRespectingOrder() {
-        var firstPage = photosReadService.getAllPhotos(USER_ID_1, PageRequest.of(0, 1, DESC, "uploadTimestamp"));
-        var secondPage = photosReadService.getAllPhotos(USER_ID_1, PageRequest.of(1, 1, DESC, "uploadTimestamp"));
+    void bulkInsert_WillProjectPhotos() {
+        var photoId = UUID.randomUUID();
+        photosRepository.bulkInsert(List.of(
+            new PersistablePhoto(photoId, USER_ID_2, BACKING_FILE_ID_1, "bulk.png", Instant.ofEpochMilli(999))));
 
-        assertEquals(List.of(PHOTO_2), firstPage);
-        assertEquals(List.of(PHOTO_1), secondPage);
+        assertEquals(new Photo(photoId, USER_ID_2, BACKING_FILE_ID_1, "bulk.png", Instant.ofEpochMilli(999)),
+            photosReadService.getPhoto(photoId));
     }
 
     @Test
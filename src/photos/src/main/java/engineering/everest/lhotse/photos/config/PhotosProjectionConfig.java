@@ -0,0 +1,17 @@
+package engineering.everest.lhotse.photos.config;
+
+import engineering.everest.lhotse.axon.replay.RebuildableProjection;
+import engineering.everest.lhotse.photos.handlers.PhotosEventHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class PhotosProjectionConfig {
+
+    @Bean
+    public RebuildableProjection photosProjection() {
+        return new RebuildableProjection(PhotosEventHandler.class.getPackageName(), List.of("photos"));
+    }
+}
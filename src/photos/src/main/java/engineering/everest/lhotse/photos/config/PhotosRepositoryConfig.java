@@ -1,8 +1,15 @@
 package engineering.everest.lhotse.photos.config;
 
-import org.axonframework.eventsourcing.EventCountSnapshotTriggerDefinition;
+import engineering.everest.lhotse.axon.caching.AggregateCacheFactory;
+import engineering.everest.lhotse.axon.snapshotting.AdaptiveSnapshotTriggerDefinitionFactory;
+import engineering.everest.lhotse.axon.snapshotting.BinarySnapshotFilter;
+import engineering.everest.lhotse.axon.snapshotting.SnapshotCodec;
+import engineering.everest.lhotse.photos.domain.PhotoAggregate;
+import engineering.everest.lhotse.photos.domain.PhotoAggregateSnapshotCodec;
+import org.axonframework.common.caching.Cache;
 import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
-import org.axonframework.eventsourcing.Snapshotter;
+import org.axonframework.eventsourcing.snapshotting.SnapshotFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,7 +17,23 @@ import org.springframework.context.annotation.Configuration;
 public class PhotosRepositoryConfig {
 
     @Bean
-    public SnapshotTriggerDefinition photoAggregateSnapshotTriggerDefinition(Snapshotter snapshotter) {
-        return new EventCountSnapshotTriggerDefinition(snapshotter, 30);
+    public SnapshotTriggerDefinition photoAggregateSnapshotTriggerDefinition(AdaptiveSnapshotTriggerDefinitionFactory factory) {
+        return factory.create();
+    }
+
+    @Bean
+    public Cache photoAggregateCache(AggregateCacheFactory factory,
+                                     @Value("${application.photos.aggregate-cache.max-entries:10000}") long maxEntries) {
+        return factory.create("photoAggregateCache", maxEntries);
+    }
+
+    @Bean
+    public SnapshotCodec<PhotoAggregate> photoAggregateSnapshotCodec() {
+        return new PhotoAggregateSnapshotCodec();
+    }
+
+    @Bean
+    public SnapshotFilter photoAggregateSnapshotFilter(SnapshotCodec<PhotoAggregate> snapshotCodec) {
+        return new BinarySnapshotFilter(snapshotCodec);
     }
 }
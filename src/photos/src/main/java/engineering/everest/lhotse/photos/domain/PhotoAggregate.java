@@ -6,6 +6,8 @@ import engineering.everest.lhotse.photos.domain.commands.DeletePhotoForDeletedUs
 import engineering.everest.lhotse.photos.domain.commands.RegisterUploadedPhotoCommand;
 import engineering.everest.lhotse.photos.domain.events.PhotoDeletedAsPartOfUserDeletionEvent;
 import engineering.everest.lhotse.photos.domain.events.PhotoUploadedEvent;
+import lombok.Builder;
+import lombok.Value;
 import org.axonframework.commandhandling.CommandExecutionException;
 import org.axonframework.commandhandling.CommandHandler;
 import org.axonframework.eventsourcing.EventSourcingHandler;
@@ -19,7 +21,8 @@ import static engineering.everest.lhotse.i18n.MessageKeys.DELETED_PHOTO_OWNER_MI
 import static org.axonframework.modelling.command.AggregateLifecycle.apply;
 import static org.axonframework.modelling.command.AggregateLifecycle.markDeleted;
 
-@Aggregate(snapshotTriggerDefinition = "photoAggregateSnapshotTriggerDefinition")
+@Aggregate(snapshotTriggerDefinition = "photoAggregateSnapshotTriggerDefinition", snapshotFilter = "photoAggregateSnapshotFilter",
+    cache = "photoAggregateCache")
 public class PhotoAggregate implements Serializable {
 
     @AggregateIdentifier
@@ -53,6 +56,22 @@ public class PhotoAggregate implements Serializable {
         markDeleted();
     }
 
+    static PhotoAggregate fromSnapshot(Snapshot snapshot) {
+        var aggregate = new PhotoAggregate();
+        aggregate.photoId = snapshot.getPhotoId();
+        aggregate.backingFileId = snapshot.getBackingFileId();
+        aggregate.ownerUserId = snapshot.getOwnerUserId();
+        return aggregate;
+    }
+
+    Snapshot toSnapshot() {
+        return Snapshot.builder()
+            .photoId(photoId)
+            .backingFileId(backingFileId)
+            .ownerUserId(ownerUserId)
+            .build();
+    }
+
     private void throwWrappedInCommandExecutionException(TranslatableException translatableException) {
         throw new CommandExecutionException(translatableException.getMessage(), null, translatableException);
     }
@@ -63,4 +82,15 @@ public class PhotoAggregate implements Serializable {
                 new TranslatableIllegalArgumentException(DELETED_PHOTO_OWNER_MISMATCH, photoId, command.getDeletedUserId(), ownerUserId));
         }
     }
+
+    /**
+     * State written by {@link PhotoAggregateSnapshotCodec}.
+     */
+    @Value
+    @Builder
+    static class Snapshot {
+        UUID photoId;
+        UUID backingFileId;
+        UUID ownerUserId;
+    }
 }
@@ -0,0 +1,39 @@
+package engineering.everest.lhotse.photos.domain;
+
+import engineering.everest.lhotse.axon.snapshotting.SnapshotCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class PhotoAggregateSnapshotCodec implements SnapshotCodec<PhotoAggregate> {
+
+    private static final int FORMAT_VERSION = 1;
+
+    @Override
+    public Class<PhotoAggregate> getAggregateType() {
+        return PhotoAggregate.class;
+    }
+
+    @Override
+    public int getFormatVersion() {
+        return FORMAT_VERSION;
+    }
+
+    @Override
+    public void write(PhotoAggregate aggregate, DataOutput output) throws IOException {
+        var snapshot = aggregate.toSnapshot();
+        writeUuid(output, snapshot.getPhotoId());
+        writeUuid(output, snapshot.getBackingFileId());
+        writeUuid(output, snapshot.getOwnerUserId());
+    }
+
+    @Override
+    public PhotoAggregate read(DataInput input) throws IOException {
+        return PhotoAggregate.fromSnapshot(PhotoAggregate.Snapshot.builder()
+            .photoId(readUuid(input))
+            .backingFileId(readUuid(input))
+            .ownerUserId(readUuid(input))
+            .build());
+    }
+}
@@ -10,7 +10,6 @@ import org.axonframework.modelling.saga.SagaEventHandler;
 import org.axonframework.modelling.saga.StartSaga;
 import org.axonframework.serialization.Revision;
 import org.axonframework.spring.stereotype.Saga;
-import org.springframework.data.domain.Pageable;
 
 import java.io.Serializable;
 
@@ -19,12 +18,19 @@ import java.io.Serializable;
 @Slf4j
 public class UserDeletedSaga implements Serializable {
 
+    static final int PHOTO_DELETION_CHUNK_SIZE = 100;
+
     @StartSaga
     @EndSaga
     @SagaEventHandler(associationProperty = "deletedUserId")
     public void on(UserDeletedAndForgottenEvent event, PhotosReadService photosReadService, CommandGateway commandGateway) {
         LOGGER.debug("Deleting photos for deleted user {}", event.getDeletedUserId());
-        photosReadService.getAllPhotos(event.getDeletedUserId(), Pageable.unpaged())
-            .forEach(photo -> commandGateway.send(new DeletePhotoForDeletedUserCommand(photo.getId(), event.getDeletedUserId())));
+        String continuationToken = null;
+        do {
+            var page = photosReadService.getPhotosPage(event.getDeletedUserId(), continuationToken, PHOTO_DELETION_CHUNK_SIZE);
+            page.getPhotos()
+                .forEach(photo -> commandGateway.send(new DeletePhotoForDeletedUserCommand(photo.getId(), event.getDeletedUserId())));
+            continuationToken = page.getContinuationToken();
+        } while (continuationToken != null);
     }
 }
@@ -2,20 +2,29 @@ package engineering.everest.lhotse.photos.handlers;
 
 import engineering.everest.lhotse.photos.domain.events.PhotoDeletedAsPartOfUserDeletionEvent;
 import engineering.everest.lhotse.photos.domain.events.PhotoUploadedEvent;
+import engineering.everest.lhotse.photos.persistence.PersistablePhoto;
 import engineering.everest.lhotse.photos.persistence.PhotosRepository;
 import engineering.everest.starterkit.filestorage.FileService;
 import lombok.extern.slf4j.Slf4j;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ReplayStatus;
 import org.axonframework.eventhandling.ResetHandler;
 import org.axonframework.eventhandling.Timestamp;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Service
 @Slf4j
 public class PhotosEventHandler {
 
+    private static final String REPLAYED_PHOTOS = PhotosEventHandler.class.getName() + ".replayedPhotos";
+
     private final PhotosRepository photosRepository;
     private final FileService fileService;
 
@@ -31,17 +40,33 @@ public class PhotosEventHandler {
     }
 
     @EventHandler
-    void on(PhotoUploadedEvent event, @Timestamp Instant uploadTimestamp) {
+    void on(PhotoUploadedEvent event, @Timestamp Instant uploadTimestamp, ReplayStatus replayStatus) {
         LOGGER.info("User {} uploaded photo {} (backing file {})", event.getOwningUserId(), event.getPhotoId(), event.getBackingFileId());
-        photosRepository.createPhoto(event.getPhotoId(), event.getOwningUserId(), event.getBackingFileId(), event.getFilename(),
-            uploadTimestamp);
+        if (replayStatus.isReplay()) {
+            replayedPhotos().put(event.getPhotoId(), new PersistablePhoto(event.getPhotoId(), event.getOwningUserId(),
+                event.getBackingFileId(), event.getFilename(), uploadTimestamp));
+        } else {
+            photosRepository.createPhoto(event.getPhotoId(), event.getOwningUserId(), event.getBackingFileId(), event.getFilename(),
+                uploadTimestamp);
+        }
     }
 
     @EventHandler
-    void on(PhotoDeletedAsPartOfUserDeletionEvent event) {
+    void on(PhotoDeletedAsPartOfUserDeletionEvent event, ReplayStatus replayStatus) {
         LOGGER.info("Deleting photo {} (backing file {}) for deleted user {}", event.getPhotoId(), event.getBackingFileId(),
             event.getDeletedUserId());
         fileService.markEphemeralFileForDeletion(event.getBackingFileId());
-        photosRepository.deleteById(event.getPhotoId());
+        if (!replayStatus.isReplay() || replayedPhotos().remove(event.getPhotoId()) == null) {
+            photosRepository.deleteById(event.getPhotoId());
+        }
+    }
+
+    private Map<UUID, PersistablePhoto> replayedPhotos() {
+        var unitOfWork = CurrentUnitOfWork.get().root();
+        return unitOfWork.getOrComputeResource(REPLAYED_PHOTOS, key -> {
+            var replayedPhotos = new LinkedHashMap<UUID, PersistablePhoto>();
+            unitOfWork.onPrepareCommit(committing -> photosRepository.bulkInsert(List.copyOf(replayedPhotos.values())));
+            return replayedPhotos;
+        });
     }
 }
@@ -6,6 +6,7 @@ import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class DefaultPhotosService implements PhotosService {
@@ -19,9 +20,9 @@ public class DefaultPhotosService implements PhotosService {
     }
 
     @Override
-    public UUID registerUploadedPhoto(UUID requestingUserId, UUID backingFileId, String filename) {
+    public CompletableFuture<UUID> registerUploadedPhotoAsync(UUID requestingUserId, UUID backingFileId, String filename) {
         var photoId = randomFieldsGenerator.genRandomUUID();
-        commandGateway.sendAndWait(new RegisterUploadedPhotoCommand(photoId, requestingUserId, backingFileId, filename));
-        return photoId;
+        return commandGateway.send(new RegisterUploadedPhotoCommand(photoId, requestingUserId, backingFileId, filename))
+            .thenApply(ignored -> photoId);
     }
 }
@@ -0,0 +1,43 @@
+package engineering.everest.lhotse.photos.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PhotoAggregateSnapshotCodecTest {
+
+    private static final UUID PHOTO_ID = randomUUID();
+    private static final UUID BACKING_FILE_ID = randomUUID();
+    private static final UUID OWNER_USER_ID = randomUUID();
+
+    private final PhotoAggregateSnapshotCodec photoAggregateSnapshotCodec = new PhotoAggregateSnapshotCodec();
+
+    @Test
+    void read_WillRestoreWrittenAggregate() throws IOException {
+        var snapshot = PhotoAggregate.Snapshot.builder()
+            .photoId(PHOTO_ID)
+            .backingFileId(BACKING_FILE_ID)
+            .ownerUserId(OWNER_USER_ID)
+            .build();
+
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(bytes)) {
+            photoAggregateSnapshotCodec.write(PhotoAggregate.fromSnapshot(snapshot), output);
+        }
+        PhotoAggregate restored;
+        try (var input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = photoAggregateSnapshotCodec.read(input);
+        }
+
+        assertEquals(snapshot, restored.toSnapshot());
+        assertEquals(3 * 2 * Long.BYTES, bytes.size());
+    }
+}
@@ -47,6 +47,8 @@ class PhotoAggregateTest {
     void aggregateHasExplicitlyDefinedRepository() {
         var aggregateAnnotation = PhotoAggregate.class.getAnnotation(Aggregate.class);
         assertEquals("photoAggregateSnapshotTriggerDefinition", aggregateAnnotation.snapshotTriggerDefinition());
+        assertEquals("photoAggregateSnapshotFilter", aggregateAnnotation.snapshotFilter());
+        assertEquals("photoAggregateCache", aggregateAnnotation.cache());
     }
 
     @Test
@@ -1,6 +1,7 @@
 package engineering.everest.lhotse.photos.domain;
 
 import engineering.everest.lhotse.photos.Photo;
+import engineering.everest.lhotse.photos.PhotosPage;
 import engineering.everest.lhotse.photos.domain.commands.DeletePhotoForDeletedUserCommand;
 import engineering.everest.lhotse.photos.services.PhotosReadService;
 import engineering.everest.lhotse.users.domain.events.UserDeletedAndForgottenEvent;
@@ -17,9 +18,9 @@ import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
+import static engineering.everest.lhotse.photos.domain.UserDeletedSaga.PHOTO_DELETION_CHUNK_SIZE;
 import static java.util.UUID.randomUUID;
 import static org.mockito.Mockito.when;
-import static org.springframework.data.domain.Pageable.unpaged;
 
 @ExtendWith(MockitoExtension.class)
 class UserDeletedSagaTest {
@@ -47,10 +48,12 @@ class UserDeletedSagaTest {
 
     @Test
     void userDeletedAndForgotten_WillDispatchPhotoDeletionCommands() {
-        when(photosReadService.getAllPhotos(USER_ID, unpaged()))
-            .thenReturn(List.of(
-                new Photo(PHOTO_ID_1, USER_ID, BACKING_FILE_ID_1, "photo1.png", Instant.now()),
-                new Photo(PHOTO_ID_2, USER_ID, BACKING_FILE_ID_2, "photo2.png", Instant.now())));
+        when(photosReadService.getPhotosPage(USER_ID, null, PHOTO_DELETION_CHUNK_SIZE))
+            .thenReturn(new PhotosPage(List.of(
+                new Photo(PHOTO_ID_1, USER_ID, BACKING_FILE_ID_1, "photo1.png", Instant.now())), "next-chunk"));
+        when(photosReadService.getPhotosPage(USER_ID, "next-chunk", PHOTO_DELETION_CHUNK_SIZE))
+            .thenReturn(new PhotosPage(List.of(
+                new Photo(PHOTO_ID_2, USER_ID, BACKING_FILE_ID_2, "photo2.png", Instant.now())), null));
 
         testFixture.givenNoPriorActivity()
             .whenAggregate(USER_ID.toString())
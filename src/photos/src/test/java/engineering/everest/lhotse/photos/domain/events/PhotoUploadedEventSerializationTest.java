@@ -0,0 +1,97 @@
+package engineering.everest.lhotse.photos.domain.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import engineering.everest.axon.cryptoshredding.CryptoShreddingKeyService;
+import engineering.everest.axon.cryptoshredding.CryptoShreddingSerializer;
+import engineering.everest.axon.cryptoshredding.TypeDifferentiatedSecretKeyId;
+import engineering.everest.axon.cryptoshredding.encryption.DefaultAesEncrypterDecrypterFactory;
+import engineering.everest.lhotse.axon.serialization.LazyDecryptingSerializer;
+import org.axonframework.serialization.SerializedObject;
+import org.axonframework.serialization.json.JacksonSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.crypto.KeyGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.UUID.randomUUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PhotoUploadedEventSerializationTest {
+
+    private static final UUID PHOTO_ID = randomUUID();
+    private static final UUID OWNING_USER_ID = randomUUID();
+    private static final UUID BACKING_FILE_ID = randomUUID();
+    private static final String FILENAME = "holiday snap.png";
+    private static final PhotoUploadedEvent PHOTO_UPLOADED_EVENT =
+        new PhotoUploadedEvent(PHOTO_ID, OWNING_USER_ID, BACKING_FILE_ID, FILENAME);
+    private static final TypeDifferentiatedSecretKeyId SECRET_KEY_ID = new TypeDifferentiatedSecretKeyId(OWNING_USER_ID.toString(), "");
+
+    @Mock
+    private CryptoShreddingKeyService cryptoShreddingKeyService;
+
+    private LazyDecryptingSerializer lazyDecryptingSerializer;
+    private SerializedObject<byte[]> serializedEvent;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        var keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(256);
+        var secretKey = keyGenerator.generateKey();
+        when(cryptoShreddingKeyService.getOrCreateSecretKeyUnlessDeleted(SECRET_KEY_ID)).thenReturn(Optional.of(secretKey));
+        lenient().when(cryptoShreddingKeyService.getExistingSecretKey(SECRET_KEY_ID)).thenReturn(Optional.of(secretKey));
+
+        var cryptoShreddingSerializer = new CryptoShreddingSerializer(JacksonSerializer.defaultSerializer(), cryptoShreddingKeyService,
+            new DefaultAesEncrypterDecrypterFactory(), new ObjectMapper());
+        lazyDecryptingSerializer = new LazyDecryptingSerializer(cryptoShreddingSerializer, JacksonSerializer.defaultSerializer());
+        serializedEvent = lazyDecryptingSerializer.serialize(PHOTO_UPLOADED_EVENT, byte[].class);
+    }
+
+    @Test
+    void serialize_WillEncryptFilename() {
+        assertFalse(new String(serializedEvent.getData(), UTF_8).contains(FILENAME));
+    }
+
+    @Test
+    void deserialize_WillDecryptFilename_WhenSecretKeyExists() {
+        PhotoUploadedEvent event = lazyDecryptingSerializer.deserialize(serializedEvent);
+
+        assertEquals(FILENAME, event.getFilename());
+        assertEquals(PHOTO_UPLOADED_EVENT, event);
+    }
+
+    @Test
+    void deserialize_WillNotLookUpSecretKey_WhenOnlyPlainFieldsAreRead() {
+        PhotoUploadedEvent event = lazyDecryptingSerializer.deserialize(serializedEvent);
+
+        assertEquals(PHOTO_ID, event.getPhotoId());
+        assertEquals(OWNING_USER_ID, event.getOwningUserId());
+        assertEquals(BACKING_FILE_ID, event.getBackingFileId());
+        verify(cryptoShreddingKeyService, never()).getExistingSecretKey(any());
+    }
+
+    @Test
+    void deserialize_WillShredFilename_WhenSecretKeyHasBeenDeleted() {
+        when(cryptoShreddingKeyService.getExistingSecretKey(SECRET_KEY_ID)).thenReturn(Optional.empty());
+
+        PhotoUploadedEvent event = lazyDecryptingSerializer.deserialize(serializedEvent);
+
+        assertEquals(PHOTO_ID, event.getPhotoId());
+        assertEquals(BACKING_FILE_ID, event.getBackingFileId());
+        assertNull(event.getFilename());
+    }
+}
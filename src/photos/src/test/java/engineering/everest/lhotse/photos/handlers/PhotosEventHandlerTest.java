@@ -2,8 +2,10 @@ package engineering.everest.lhotse.photos.handlers;
 
 import engineering.everest.lhotse.photos.domain.events.PhotoDeletedAsPartOfUserDeletionEvent;
 import engineering.everest.lhotse.photos.domain.events.PhotoUploadedEvent;
+import engineering.everest.lhotse.photos.persistence.PersistablePhoto;
 import engineering.everest.lhotse.photos.persistence.PhotosRepository;
 import engineering.everest.starterkit.filestorage.FileService;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,10 +13,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 import static java.util.UUID.randomUUID;
+import static org.axonframework.eventhandling.ReplayStatus.REGULAR;
+import static org.axonframework.eventhandling.ReplayStatus.REPLAY;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 class PhotosEventHandlerTest {
@@ -45,19 +52,56 @@ class PhotosEventHandlerTest {
 
     @Test
     void onPhotoUploadedEvent_WillProject() {
-        photosEventHandler.on(new PhotoUploadedEvent(PHOTO_ID, USER_ID, BACKING_FILE_ID, PHOTO_FILENAME), UPLOAD_TIMESTAMP);
+        photosEventHandler.on(new PhotoUploadedEvent(PHOTO_ID, USER_ID, BACKING_FILE_ID, PHOTO_FILENAME), UPLOAD_TIMESTAMP, REGULAR);
         verify(photosRepository).createPhoto(PHOTO_ID, USER_ID, BACKING_FILE_ID, PHOTO_FILENAME, UPLOAD_TIMESTAMP);
     }
 
     @Test
     void onPhotoDeletedAsPartOfUserDeletionEvent_WillDeletePhoto() {
-        photosEventHandler.on(new PhotoDeletedAsPartOfUserDeletionEvent(PHOTO_ID, BACKING_FILE_ID, USER_ID));
+        photosEventHandler.on(new PhotoDeletedAsPartOfUserDeletionEvent(PHOTO_ID, BACKING_FILE_ID, USER_ID), REGULAR);
         verify(photosRepository).deleteById(PHOTO_ID);
     }
 
     @Test
     void onPhotoDeletedAsPartOfUserDeletionEvent_WillMarkBackingFileForDeletion() {
-        photosEventHandler.on(new PhotoDeletedAsPartOfUserDeletionEvent(PHOTO_ID, BACKING_FILE_ID, USER_ID));
+        photosEventHandler.on(new PhotoDeletedAsPartOfUserDeletionEvent(PHOTO_ID, BACKING_FILE_ID, USER_ID), REGULAR);
         verify(fileService).markEphemeralFileForDeletion(BACKING_FILE_ID);
     }
+
+    @Test
+    void onPhotoUploadedEvent_WillBulkInsertPhotosOnCommit_WhenReplaying() {
+        var otherPhotoId = randomUUID();
+
+        inUnitOfWork(() -> {
+            photosEventHandler.on(new PhotoUploadedEvent(PHOTO_ID, USER_ID, BACKING_FILE_ID, PHOTO_FILENAME), UPLOAD_TIMESTAMP, REPLAY);
+            photosEventHandler.on(new PhotoUploadedEvent(otherPhotoId, USER_ID, BACKING_FILE_ID, PHOTO_FILENAME), UPLOAD_TIMESTAMP, REPLAY);
+            verifyNoInteractions(photosRepository);
+        });
+
+        verify(photosRepository).bulkInsert(List.of(
+            new PersistablePhoto(PHOTO_ID, USER_ID, BACKING_FILE_ID, PHOTO_FILENAME, UPLOAD_TIMESTAMP),
+            new PersistablePhoto(otherPhotoId, USER_ID, BACKING_FILE_ID, PHOTO_FILENAME, UPLOAD_TIMESTAMP)));
+    }
+
+    @Test
+    void onPhotoDeletedAsPartOfUserDeletionEvent_WillDropBufferedPhoto_WhenReplaying() {
+        inUnitOfWork(() -> {
+            photosEventHandler.on(new PhotoUploadedEvent(PHOTO_ID, USER_ID, BACKING_FILE_ID, PHOTO_FILENAME), UPLOAD_TIMESTAMP, REPLAY);
+            photosEventHandler.on(new PhotoDeletedAsPartOfUserDeletionEvent(PHOTO_ID, BACKING_FILE_ID, USER_ID), REPLAY);
+        });
+
+        verify(photosRepository, never()).deleteById(PHOTO_ID);
+        verify(photosRepository).bulkInsert(List.of());
+    }
+
+    @Test
+    void onPhotoDeletedAsPartOfUserDeletionEvent_WillDeleteProjectedPhoto_WhenReplayingAndPhotoNotBuffered() {
+        inUnitOfWork(() -> photosEventHandler.on(new PhotoDeletedAsPartOfUserDeletionEvent(PHOTO_ID, BACKING_FILE_ID, USER_ID), REPLAY));
+
+        verify(photosRepository).deleteById(PHOTO_ID);
+    }
+
+    private static void inUnitOfWork(Runnable task) {
+        DefaultUnitOfWork.startAndGet(null).execute(task);
+    }
 }
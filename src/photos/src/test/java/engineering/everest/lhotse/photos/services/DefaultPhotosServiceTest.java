@@ -12,7 +12,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.UUID;
 
 import static java.util.UUID.randomUUID;
-import static org.mockito.Mockito.verify;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,10 +37,11 @@ class DefaultPhotosServiceTest {
     }
 
     @Test
-    void willDispatch_WhenUploadedPhotoRegistered() {
+    void registerUploadedPhotoAsync_WillCompleteWithPhotoId_WhenCommandSucceeds() {
         when(randomFieldsGenerator.genRandomUUID()).thenReturn(PHOTO_ID);
-        defaultPhotosService.registerUploadedPhoto(USER_ID, BACKING_FILE_ID, PHOTO_FILENAME);
+        when(commandGateway.send(new RegisterUploadedPhotoCommand(PHOTO_ID, USER_ID, BACKING_FILE_ID, PHOTO_FILENAME)))
+            .thenReturn(completedFuture(null));
 
-        verify(commandGateway).sendAndWait(new RegisterUploadedPhotoCommand(PHOTO_ID, USER_ID, BACKING_FILE_ID, PHOTO_FILENAME));
+        assertEquals(PHOTO_ID, defaultPhotosService.registerUploadedPhotoAsync(USER_ID, BACKING_FILE_ID, PHOTO_FILENAME).join());
     }
 }